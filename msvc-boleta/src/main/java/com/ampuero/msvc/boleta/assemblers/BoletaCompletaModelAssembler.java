@@ -0,0 +1,32 @@
+package com.ampuero.msvc.boleta.assemblers;
+
+import com.ampuero.msvc.boleta.controllers.BoletaControllerV2;
+import com.ampuero.msvc.boleta.dtos.BoletaCompletaDTO;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BoletaCompletaModelAssembler implements RepresentationModelAssembler<BoletaCompletaDTO, EntityModel<BoletaCompletaDTO>> {
+
+    private static final PlantillaEnlace BOLETA_COMPLETA = PlantillaEnlace.de(BoletaControllerV2.class, "obtenerBoletaCompleta", Long.class);
+    private static final PlantillaEnlace BOLETA = PlantillaEnlace.de(BoletaControllerV2.class, "obtenerBoletaPorId", Long.class);
+    private static final PlantillaEnlace BOLETAS = PlantillaEnlace.de(BoletaControllerV2.class, "obtenerTodas", Long.class, Integer.class);
+    private static final PlantillaEnlace BOLETAS_CLIENTE = PlantillaEnlace.de(BoletaControllerV2.class, "obtenerPorCliente", Long.class);
+
+    @Override
+    public EntityModel<BoletaCompletaDTO> toModel(BoletaCompletaDTO entity) {
+        EntityModel<BoletaCompletaDTO> model = EntityModel.of(
+                entity,
+                BOLETA_COMPLETA.expandir(IanaLinkRelations.SELF, entity.getIdBoleta()),
+                BOLETA.expandir("boleta", entity.getIdBoleta()),
+                BOLETAS.expandir("boletas")
+        );
+        // En una respuesta parcial el cliente puede faltar
+        if (entity.getCliente() != null) {
+            model.add(BOLETAS_CLIENTE.expandir("boletas-cliente", entity.getCliente().getIdUsuario()));
+        }
+        return model;
+    }
+}
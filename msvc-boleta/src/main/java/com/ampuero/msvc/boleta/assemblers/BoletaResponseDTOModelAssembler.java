@@ -3,20 +3,25 @@ package com.ampuero.msvc.boleta.assemblers;
 import com.ampuero.msvc.boleta.controllers.BoletaControllerV2;
 import com.ampuero.msvc.boleta.dtos.BoletaResponseDTO;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @Component
 public class BoletaResponseDTOModelAssembler implements RepresentationModelAssembler<BoletaResponseDTO, EntityModel<BoletaResponseDTO>> {
+
+    // Rutas de BoletaControllerV2 resueltas una sola vez
+    private static final PlantillaEnlace BOLETA = PlantillaEnlace.de(BoletaControllerV2.class, "obtenerBoletaPorId", Long.class);
+    private static final PlantillaEnlace BOLETAS = PlantillaEnlace.de(BoletaControllerV2.class, "obtenerTodas", Long.class, Integer.class);
+    private static final PlantillaEnlace BOLETAS_CLIENTE = PlantillaEnlace.de(BoletaControllerV2.class, "obtenerPorCliente", Long.class);
+
     @Override
     public EntityModel<BoletaResponseDTO> toModel(BoletaResponseDTO entity){
         return EntityModel.of(
                 entity,
-                linkTo(methodOn(BoletaControllerV2.class).obtenerBoletaPorId(entity.getIdBoleta())).withSelfRel(),
-                linkTo(methodOn(BoletaControllerV2.class).obtenerTodas()).withRel("boletas"),
-                linkTo(methodOn(BoletaControllerV2.class).obtenerPorCliente(entity.getCliente().getIdUsuario())).withRel("boletas-cliente")
+                BOLETA.expandir(IanaLinkRelations.SELF, entity.getIdBoleta()),
+                BOLETAS.expandir("boletas"),
+                BOLETAS_CLIENTE.expandir("boletas-cliente", entity.getCliente().getIdUsuario())
         );
     }
 }
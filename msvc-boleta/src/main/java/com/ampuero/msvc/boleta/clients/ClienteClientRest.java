@@ -6,11 +6,21 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
 
 // clients/ClienteClientRest.java
 // En msvc-detalle (ClienteClientRest.java)
 @FeignClient(name = "msvc-clientes", url = "http://localhost:8085")
 public interface ClienteClientRest {
+    // Idempotente: se reintenta con backoff y admite hedging (ver ClienteFeignReintentos)
+    @Idempotente
     @GetMapping("/api/v1/clientes/{id}")
     ClienteResponseDTO findClienteById(@PathVariable Long id); // Debe devolver ClienteResponseDTO
+
+    // Varios clientes en una sola llamada; los ids inexistentes no vienen en la respuesta
+    @GetMapping("/api/v1/clientes")
+    List<ClienteResponseDTO> findClientesByIds(@RequestParam("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.ampuero.msvc.boleta.clients;
+
+import com.ampuero.msvc.boleta.exceptions.DependenciaNoDisponibleException;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Transporte Feign que protege cada dependencia (msvc-clientes) con un circuit breaker
+ * y un bulkhead de semáforo, identificados por el nombre del @FeignClient.
+ *
+ * Con el circuito abierto o el bulkhead lleno la llamada se rechaza al instante con
+ * DependenciaNoDisponibleException, sin ocupar el hilo de Tomcat hasta el timeout.
+ * Cuentan como fallo las respuestas 5xx, los errores de E/S y las llamadas lentas; un 404 no.
+ *
+ * @author Perfulandia Team
+ * @version 1.0
+ */
+public class ClienteFeignResiliente implements Client {
+
+    private final Client delegado;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+
+    public ClienteFeignResiliente(Client delegado, CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads) {
+        this.delegado = delegado;
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String dependencia = nombreDependencia(request);
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(dependencia);
+        Bulkhead bulkhead = bulkheads.bulkhead(dependencia);
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new DependenciaNoDisponibleException(
+                    "Circuito abierto para " + dependencia + ": se rechaza la llamada sin contactar el servicio", request);
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            // El rechazo por concurrencia no es un fallo de la dependencia
+            circuitBreaker.releasePermission();
+            throw new DependenciaNoDisponibleException(
+                    "Demasiadas llamadas simultaneas a " + dependencia + ": se rechaza la llamada", request);
+        }
+
+        long inicio = circuitBreaker.getCurrentTimestamp();
+        try {
+            Response response = delegado.execute(request, options);
+            circuitBreaker.onResult(circuitBreaker.getCurrentTimestamp() - inicio, circuitBreaker.getTimestampUnit(), response);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - inicio, circuitBreaker.getTimestampUnit(), e);
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    // Nombre del @FeignClient (msvc-clientes); si no viene, el host de la URL
+    private static String nombreDependencia(Request request) {
+        if (request.requestTemplate() != null && request.requestTemplate().feignTarget() != null) {
+            return request.requestTemplate().feignTarget().name();
+        }
+        return URI.create(request.url()).getHost();
+    }
+}
@@ -0,0 +1,32 @@
+package com.ampuero.msvc.boleta.clients;
+
+import com.ampuero.msvc.boleta.models.DetallePojo;
+import feign.Response;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cliente Feign hacia msvc-detalle, usado por la vista completa de una boleta
+ * y por la conciliación de totales.
+ *
+ * @author Perfulandia Team
+ * @version 1.0
+ */
+@FeignClient(name = "msvc-detalle", url = "http://localhost:8083")
+public interface DetalleClient {
+    // Líneas de una boleta con su producto ya enriquecido; lista vacía si la boleta no tiene detalles.
+    // conBoleta=false: msvc-detalle no consulta la boleta a este servicio (sería un ciclo boleta→detalle→boleta→cliente)
+    @Idempotente
+    @GetMapping("/api/v1/detalles/boleta/{idBoleta}?conBoleta=false")
+    List<DetallePojo> getDetallesByBoleta(@PathVariable Long idBoleta);
+
+    // Totales por boleta en NDJSON; se devuelve la respuesta cruda para leerla en streaming (quien llama la cierra).
+    // Sin @Idempotente: un reintento o hedge repetiría un recorrido completo de la tabla de detalles
+    @GetMapping(value = "/api/v1/detalles/totales", produces = "application/x-ndjson")
+    Response getTotalesPorBoleta(@RequestParam(value = "ids", required = false) Collection<Long> idsBoletas);
+}
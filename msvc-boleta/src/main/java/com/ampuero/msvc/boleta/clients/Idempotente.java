@@ -0,0 +1,21 @@
+package com.ampuero.msvc.boleta.clients;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca los métodos GET de un cliente Feign que pueden repetirse sin efectos secundarios.
+ * Solo estos métodos pasan por los reintentos con backoff y el hedging de ClienteFeignReintentos;
+ * el resto de las llamadas (por ejemplo la consulta en lote findClientesByIds) se envían una sola vez.
+ *
+ * @author Perfulandia Team
+ * @version 1.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotente {
+}
@@ -0,0 +1,51 @@
+package com.ampuero.msvc.boleta.clients;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Política de reintentos y estado por dependencia (presupuesto, latencias y contadores),
+ * compartidos por todos los clientes Feign del servicio.
+ *
+ * Funciones principales:
+ * - dependencia(nombre): Estado de la dependencia, creado en la primera llamada.
+ * - getDependencias(): Estado de todas las dependencias ya llamadas, para exponerlo en el endpoint de resiliencia.
+ *
+ * @author Perfulandia Team
+ * @version 1.0
+ */
+public class RegistroReintentos {
+
+    private final PoliticaReintentos politica;
+    private final Map<String, Dependencia> dependencias = new ConcurrentHashMap<>();
+
+    public RegistroReintentos(PoliticaReintentos politica) {
+        this.politica = politica;
+    }
+
+    public PoliticaReintentos getPolitica() {
+        return politica;
+    }
+
+    public Dependencia dependencia(String nombre) {
+        return dependencias.computeIfAbsent(nombre, n -> new Dependencia(
+                new PresupuestoReintentos(politica.ratioPresupuesto(), politica.minimoPorSegundo(), politica.capacidadPresupuesto()),
+                new VentanaLatencias(politica.muestrasMinimas()),
+                new AtomicLong(),
+                new AtomicLong()));
+    }
+
+    public Map<String, Dependencia> getDependencias() {
+        return Map.copyOf(dependencias);
+    }
+
+    /**
+     * Estado de reintentos de una dependencia: reintentos y hedges enviados gastan el mismo presupuesto.
+     */
+    public record Dependencia(PresupuestoReintentos presupuesto,
+                              VentanaLatencias latencias,
+                              AtomicLong reintentos,
+                              AtomicLong hedges) {
+    }
+}
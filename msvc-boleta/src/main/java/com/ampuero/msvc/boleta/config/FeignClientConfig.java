@@ -0,0 +1,29 @@
+package com.ampuero.msvc.boleta.config;
+
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration.HttpClientBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Transporte HTTP de los clientes Feign.
+ *
+ * Por defecto Feign usa Apache HttpClient 5 con pool de conexiones (feign-hc5); el tamaño del pool,
+ * los plazos y el TTL de las conexiones se configuran con spring.cloud.openfeign.* en application.properties.
+ * Aquí solo se agrega el cierre de conexiones inactivas, que la autoconfiguración no expone como propiedad.
+ *
+ * Para HTTP/2 en texto plano (h2c) se desactiva hc5 y se activa spring.cloud.openfeign.http2client.enabled,
+ * que usa el HttpClient del JDK (feign-java11).
+ */
+@Configuration
+@ConditionalOnProperty(value = "spring.cloud.openfeign.httpclient.hc5.enabled", matchIfMissing = true)
+public class FeignClientConfig {
+
+    @Bean
+    public HttpClientBuilderCustomizer desalojoConexionesInactivas(
+            @Value("${feign.pool.inactividad-maxima-segundos:30}") long inactividadMaximaSegundos) {
+        return builder -> builder.evictIdleConnections(TimeValue.ofSeconds(inactividadMaximaSegundos));
+    }
+}
@@ -0,0 +1,24 @@
+package com.ampuero.msvc.boleta.config;
+
+import com.ampuero.msvc.boleta.clients.ObservacionFeignCapability;
+import feign.Capability;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas del servicio (Micrometer, expuestas en /actuator/prometheus).
+ *
+ * Los timers de controladores (http.server.requests), repositorios (spring.data.repository.invocations),
+ * pool Hikari y JVM/GC los registra Spring Boot Actuator; los histogramas de percentiles se activan
+ * en application.properties. Las llamadas Feign las mide ObservacionFeignCapability
+ * (spring.cloud.openfeign.micrometer.enabled=false desactiva la de feign-micrometer).
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public Capability observacionFeign(ObservationRegistry observationRegistry) {
+        return new ObservacionFeignCapability(observationRegistry);
+    }
+}
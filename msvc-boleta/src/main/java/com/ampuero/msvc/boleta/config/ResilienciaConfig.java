@@ -0,0 +1,103 @@
+package com.ampuero.msvc.boleta.config;
+
+import com.ampuero.msvc.boleta.clients.PoliticaReintentos;
+import com.ampuero.msvc.boleta.clients.RegistroReintentos;
+import com.ampuero.msvc.boleta.clients.ResilienciaCapability;
+import feign.Capability;
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker, bulkhead y reintentos por dependencia para todos los clientes Feign del servicio.
+ * Spring Cloud OpenFeign aplica los beans Capability a cada @FeignClient, por lo que
+ * el transporte (Apache HC5) queda envuelto en ClienteFeignResiliente.
+ * El estado y las llamadas de cada circuito y bulkhead se publican en /actuator/prometheus
+ * (resilience4j_circuitbreaker_* y resilience4j_bulkhead_*, con la dependencia en la etiqueta name).
+ */
+@Configuration
+public class ResilienciaConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(
+            @Value("${boleta.resiliencia.circuito.umbral-fallos:50}") float umbralFallos,
+            @Value("${boleta.resiliencia.circuito.umbral-lentas:80}") float umbralLentas,
+            @Value("${boleta.resiliencia.circuito.llamada-lenta-ms:2000}") long llamadaLentaMs,
+            @Value("${boleta.resiliencia.circuito.ventana:20}") int ventana,
+            @Value("${boleta.resiliencia.circuito.minimo-llamadas:10}") int minimoLlamadas,
+            @Value("${boleta.resiliencia.circuito.espera-abierto-ms:10000}") long esperaAbiertoMs,
+            @Value("${boleta.resiliencia.circuito.llamadas-semiabierto:5}") int llamadasSemiabierto) {
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(umbralFallos)
+                .slowCallRateThreshold(umbralLentas)
+                .slowCallDurationThreshold(Duration.ofMillis(llamadaLentaMs))
+                .slidingWindowSize(ventana)
+                .minimumNumberOfCalls(minimoLlamadas)
+                .waitDurationInOpenState(Duration.ofMillis(esperaAbiertoMs))
+                .permittedNumberOfCallsInHalfOpenState(llamadasSemiabierto)
+                .automaticTransitionFromOpenToHalfOpenEnabled(false)
+                // Un 5xx es fallo de la dependencia; 404 y demás 4xx son respuestas válidas
+                .recordResult(resultado -> resultado instanceof Response response && response.status() >= 500)
+                .build());
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(
+            @Value("${boleta.resiliencia.bulkhead.max-concurrentes:25}") int maxConcurrentes,
+            @Value("${boleta.resiliencia.bulkhead.espera-maxima-ms:0}") long esperaMaximaMs) {
+        return BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentes)
+                .maxWaitDuration(Duration.ofMillis(esperaMaximaMs))
+                .build());
+    }
+
+    // MeterBinder: Spring Boot lo enlaza al MeterRegistry; también mide los circuitos creados después, al primer uso
+    @Bean
+    public TaggedCircuitBreakerMetrics metricasCircuitBreaker(CircuitBreakerRegistry circuitBreakers) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers);
+    }
+
+    @Bean
+    public TaggedBulkheadMetrics metricasBulkhead(BulkheadRegistry bulkheads) {
+        return TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads);
+    }
+
+    @Bean
+    public RegistroReintentos registroReintentos(
+            @Value("${boleta.reintentos.max-reintentos:2}") int maxReintentos,
+            @Value("${boleta.reintentos.backoff-base-ms:25}") long backoffBaseMs,
+            @Value("${boleta.reintentos.backoff-maximo-ms:250}") long backoffMaximoMs,
+            @Value("${boleta.reintentos.presupuesto.ratio:0.2}") double ratio,
+            @Value("${boleta.reintentos.presupuesto.minimo-por-segundo:2}") double minimoPorSegundo,
+            @Value("${boleta.reintentos.presupuesto.capacidad:20}") double capacidad,
+            @Value("${boleta.reintentos.hedging.habilitado:false}") boolean hedging,
+            @Value("${boleta.reintentos.hedging.minimo-ms:10}") long hedgingMinimoMs,
+            @Value("${boleta.reintentos.hedging.muestras-minimas:50}") int muestrasMinimas) {
+        return new RegistroReintentos(PoliticaReintentos.builder()
+                .maxReintentos(maxReintentos)
+                .backoffBase(Duration.ofMillis(backoffBaseMs))
+                .backoffMaximo(Duration.ofMillis(backoffMaximoMs))
+                .ratioPresupuesto(ratio)
+                .minimoPorSegundo(minimoPorSegundo)
+                .capacidadPresupuesto(capacidad)
+                .hedging(hedging)
+                .hedgingMinimo(Duration.ofMillis(hedgingMinimoMs))
+                .muestrasMinimas(muestrasMinimas)
+                .build());
+    }
+
+    @Bean
+    public Capability resilienciaFeign(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+                                       RegistroReintentos registroReintentos) {
+        return new ResilienciaCapability(circuitBreakers, bulkheads, registroReintentos);
+    }
+}
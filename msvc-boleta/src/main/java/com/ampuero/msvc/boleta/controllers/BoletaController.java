@@ -4,6 +4,7 @@ import com.ampuero.msvc.boleta.dtos.BoletaDTO;
 import com.ampuero.msvc.boleta.dtos.BoletaResponseDTO;
 import com.ampuero.msvc.boleta.dtos.ErrorDTO;
 import com.ampuero.msvc.boleta.dtos.MontoUpdateRequestDTO;
+import com.ampuero.msvc.boleta.dtos.PaginaBoletasDTO;
 import com.ampuero.msvc.boleta.models.entities.Boleta;
 import com.ampuero.msvc.boleta.services.BoletaService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -97,6 +98,68 @@ public class BoletaController {
         return ResponseEntity.status(HttpStatus.OK).body(boletaService.obtenerTodas());
     }
 
+    @GetMapping(params = "limit")
+    @Operation(
+            summary = "Endpoint que obtiene las boletas paginadas por cursor",
+            description = "Variante paginada del listado (con 'limit' o 'after'): devuelve hasta 'limit' boletas con ID mayor a 'after'. " +
+                    "Para la pagina siguiente se envia en 'after' el siguiente_cursor recibido"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Operacion de extraccion de la pagina de boletas exitosa",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PaginaBoletasDTO.class)
+                    )
+            )
+    })
+    @Parameters(value = {
+            @Parameter(
+                    name = "after",
+                    description = "Ultimo ID de boleta recibido en la pagina anterior (vacio para la primera)"
+            ),
+            @Parameter(
+                    name = "limit",
+                    description = "Tamaño de pagina (por defecto 20, maximo 100)"
+            )
+    })
+    public ResponseEntity<PaginaBoletasDTO> obtenerPagina(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.status(HttpStatus.OK).body(boletaService.obtenerPagina(after, limit));
+    }
+
+    // Solo con 'after' (sin 'limit') tambien es la variante paginada, con el tamaño de pagina por defecto
+    @GetMapping(params = {"after", "!limit"})
+    @Operation(hidden = true)
+    public ResponseEntity<PaginaBoletasDTO> obtenerPaginaDesde(@RequestParam Long after) {
+        return obtenerPagina(after, null);
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(
+            summary = "Endpoint que obtiene varias boletas por sus ids",
+            description = "Devuelve en una sola consulta las boletas cuyos ids se indiquen en el parametro ids, " +
+                    "junto a su cliente; los ids inexistentes se omiten de la respuesta"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Obtencion por ids correcta"
+            )
+    })
+    @Parameters(value = {
+            @Parameter(
+                    name = "ids",
+                    description = "Lista de Primary Keys de Boleta separadas por coma",
+                    required = true
+            )
+    })
+    public ResponseEntity<List<BoletaResponseDTO>> obtenerPorIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.status(HttpStatus.OK).body(boletaService.obtenerPorIds(ids));
+    }
+
     @GetMapping("/clientes/{idCliente}")
     @Operation(
             summary = "Endpoint que devuelve una boleta por id del cliente",
@@ -173,7 +236,7 @@ public class BoletaController {
     public ResponseEntity<Void> actualizarTotalBoleta(
             @PathVariable Long idBoleta,
             @Valid @RequestBody MontoUpdateRequestDTO montoDTO) {
-        boletaService.actualizarTotalBoleta(idBoleta, montoDTO.getMonto());
+        boletaService.actualizarTotalBoleta(idBoleta, montoDTO.getMonto(), montoDTO.getClaveIdempotencia());
         return ResponseEntity.ok().build();
     }
 
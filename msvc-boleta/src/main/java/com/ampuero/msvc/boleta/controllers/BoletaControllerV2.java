@@ -1,10 +1,14 @@
 package com.ampuero.msvc.boleta.controllers;
 
+import com.ampuero.msvc.boleta.assemblers.BoletaCompletaModelAssembler;
 import com.ampuero.msvc.boleta.assemblers.BoletaResponseDTOModelAssembler;
+import com.ampuero.msvc.boleta.dtos.BoletaCompletaDTO;
 import com.ampuero.msvc.boleta.dtos.BoletaDTO;
 import com.ampuero.msvc.boleta.dtos.BoletaResponseDTO;
 import com.ampuero.msvc.boleta.dtos.ErrorDTO;
 import com.ampuero.msvc.boleta.dtos.MontoUpdateRequestDTO;
+import com.ampuero.msvc.boleta.dtos.PaginaBoletasDTO;
+import com.ampuero.msvc.boleta.services.BoletaCompletaService;
 import com.ampuero.msvc.boleta.services.BoletaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,7 +24,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -43,8 +49,13 @@ public class BoletaControllerV2 {
     @Autowired
     private BoletaResponseDTOModelAssembler boletaResponseDTOModelAssembler;
 
+    @Autowired
+    private BoletaCompletaModelAssembler boletaCompletaModelAssembler;
+
     private final BoletaService boletaService;
 
+    private final BoletaCompletaService boletaCompletaService;
+
     @PostMapping
     @Operation(
             summary = "Endpoint guardado de una boleta",
@@ -93,9 +104,9 @@ public class BoletaControllerV2 {
 
     @GetMapping(produces = MediaTypes.HAL_JSON_VALUE)
     @Operation(
-            summary = "Endpoint que obtiene todas las boletas",
-            description = "Este endpoint devuelve un List con todas las boletas que esten registrados " +
-                    "en la base de datos junto a su respectivo cliente"
+            summary = "Endpoint que obtiene las boletas paginadas",
+            description = "Este endpoint devuelve una pagina de boletas ordenada por ID junto a su respectivo cliente, " +
+                    "con enlace 'next' hacia la pagina siguiente mientras existan mas boletas"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -115,20 +126,40 @@ public class BoletaControllerV2 {
                     )
             )
     })
-    public ResponseEntity<CollectionModel<EntityModel<BoletaResponseDTO>>> obtenerTodas() {
-        List<EntityModel<BoletaResponseDTO>> entityModels = this.boletaService.obtenerTodas()
+    @Parameters(value = {
+            @Parameter(
+                    name = "after",
+                    description = "Ultimo ID de boleta recibido en la pagina anterior (vacio para la primera)"
+            ),
+            @Parameter(
+                    name = "limit",
+                    description = "Tamaño de pagina (por defecto 20, maximo 100)"
+            )
+    })
+    public ResponseEntity<PagedModel<EntityModel<BoletaResponseDTO>>> obtenerTodas(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        PaginaBoletasDTO pagina = this.boletaService.obtenerPagina(after, limit);
+        List<EntityModel<BoletaResponseDTO>> entityModels = pagina.getContenido()
                 .stream()
                 .map(boletaResponseDTOModelAssembler::toModel)
                 .toList();
 
-        CollectionModel<EntityModel<BoletaResponseDTO>> collectionModel = CollectionModel.of(
+        // Paginacion keyset: sin metadatos de total (contarlos recorreria toda la tabla)
+        PagedModel<EntityModel<BoletaResponseDTO>> pagedModel = PagedModel.of(
                 entityModels,
-                linkTo(methodOn(BoletaControllerV2.class).obtenerTodas()).withSelfRel()
+                (PagedModel.PageMetadata) null,
+                linkTo(methodOn(BoletaControllerV2.class).obtenerTodas(after, pagina.getLimite())).withSelfRel().expand(),
+                linkTo(methodOn(BoletaControllerV2.class).obtenerTodas(null, pagina.getLimite())).withRel(IanaLinkRelations.FIRST).expand()
         );
+        if (pagina.getSiguienteCursor() != null) {
+            pagedModel.add(linkTo(methodOn(BoletaControllerV2.class)
+                    .obtenerTodas(pagina.getSiguienteCursor(), pagina.getLimite())).withRel(IanaLinkRelations.NEXT));
+        }
 
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(collectionModel);
+                .body(pagedModel);
     }
 
     @GetMapping("/clientes/{idCliente}")
@@ -216,6 +247,47 @@ public class BoletaControllerV2 {
                 .body(entityModel);
     }
 
+    @GetMapping(value = "/{id}/completa", produces = MediaTypes.HAL_JSON_VALUE)
+    @Operation(
+            summary = "Endpoint que devuelve una boleta con su cliente y sus lineas de detalle",
+            description = "Consulta en paralelo msvc-clientes y msvc-detalle con un plazo comun. " +
+                    "Si alguno no responde a tiempo la boleta se entrega igual con 'parcial' en true " +
+                    "y la parte ausente en 'campos_no_disponibles'"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Boleta completa (o parcial) obtenida",
+                    content = @Content(
+                            mediaType = MediaTypes.HAL_JSON_VALUE,
+                            schema = @Schema(implementation = BoletaCompletaDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Error cuando la boleta con cierto ID no existe",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorDTO.class)
+                    )
+            )
+    })
+    @Parameters(value = {
+            @Parameter(
+                    name = "id",
+                    description = "Primary Key - Entidad Boleta",
+                    required = true
+            )
+    })
+    public ResponseEntity<EntityModel<BoletaCompletaDTO>> obtenerBoletaCompleta(@PathVariable Long id) {
+        EntityModel<BoletaCompletaDTO> entityModel = this.boletaCompletaModelAssembler.toModel(
+                this.boletaCompletaService.obtener(id)
+        );
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(entityModel);
+    }
+
     @PutMapping("/{idBoleta}/total")
     @Operation(
             summary = "Endpoint que actualiza el total de una boleta por id",
@@ -293,7 +365,7 @@ public class BoletaControllerV2 {
     public ResponseEntity<Void> actualizarTotalBoleta(
             @PathVariable Long idBoleta,
             @Valid @RequestBody MontoUpdateRequestDTO montoDTO) {
-        boletaService.actualizarTotalBoleta(idBoleta, montoDTO.getMonto());
+        boletaService.actualizarTotalBoleta(idBoleta, montoDTO.getMonto(), montoDTO.getClaveIdempotencia());
         return ResponseEntity.ok().build();
     }
 
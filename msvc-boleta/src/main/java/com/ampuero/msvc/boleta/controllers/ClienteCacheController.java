@@ -0,0 +1,81 @@
+package com.ampuero.msvc.boleta.controllers;
+
+import com.ampuero.msvc.boleta.dtos.CacheStatsDTO;
+import com.ampuero.msvc.boleta.services.ClienteCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/boletas/cache/clientes")
+@RequiredArgsConstructor
+@Tag(
+        name = "Cache Clientes API",
+        description = "Estadisticas e invalidacion de la cache local de clientes"
+)
+public class ClienteCacheController {
+
+    private final ClienteCacheService clienteCacheService;
+
+    @GetMapping
+    @Operation(
+            summary = "Endpoint que devuelve las estadisticas de la cache de clientes",
+            description = "Devuelve tamanio, peso, aciertos, fallos, desalojos e invalidaciones de la cache local"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Estadisticas obtenidas correctamente"
+            )
+    })
+    public ResponseEntity<CacheStatsDTO> obtenerEstadisticas() {
+        return ResponseEntity.status(HttpStatus.OK).body(clienteCacheService.estadisticas());
+    }
+
+    @DeleteMapping("/{idCliente}")
+    @Operation(
+            summary = "Endpoint que invalida un cliente en la cache",
+            description = "Lo usa msvc-clientes al actualizar, cambiar de estado o eliminar un cliente. " +
+                    "Es idempotente: invalidar un cliente que no esta en cache no es un error"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Cliente invalidado (sin contenido de respuesta)"
+            )
+    })
+    @Parameters(value = {
+            @Parameter(
+                    name = "idCliente",
+                    description = "Primary Key - Entidad Cliente",
+                    required = true
+            )
+    })
+    public ResponseEntity<Void> invalidarCliente(@PathVariable Long idCliente) {
+        clienteCacheService.invalidar(idCliente);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping
+    @Operation(
+            summary = "Endpoint que vacia la cache de clientes",
+            description = "Elimina todas las entradas; las siguientes lecturas vuelven a consultar msvc-clientes"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Cache vaciada (sin contenido de respuesta)"
+            )
+    })
+    public ResponseEntity<Void> invalidarTodo() {
+        clienteCacheService.invalidarTodo();
+        return ResponseEntity.noContent().build();
+    }
+}
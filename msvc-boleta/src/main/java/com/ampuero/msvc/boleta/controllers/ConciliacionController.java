@@ -0,0 +1,66 @@
+package com.ampuero.msvc.boleta.controllers;
+
+import com.ampuero.msvc.boleta.dtos.ResultadoConciliacionDTO;
+import com.ampuero.msvc.boleta.services.ConciliacionTotalesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/boletas/conciliacion")
+@RequiredArgsConstructor
+@Tag(
+        name = "Conciliacion Totales API",
+        description = "Conciliacion de los totales de boleta contra la suma de sus detalles en msvc-detalle"
+)
+public class ConciliacionController {
+
+    private final ConciliacionTotalesService conciliacionService;
+
+    @GetMapping
+    @Operation(
+            summary = "Endpoint que devuelve el resultado de la ultima conciliacion",
+            description = "Devuelve las boletas revisadas, con diferencia, corregidas y omitidas, y la duracion de la ultima ejecucion"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Resultado de la ultima conciliacion"
+            ),
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Todavia no se ha ejecutado ninguna conciliacion"
+            )
+    })
+    public ResponseEntity<ResultadoConciliacionDTO> obtenerUltimoResultado() {
+        return conciliacionService.getUltimoResultado()
+                .map(resultado -> ResponseEntity.status(HttpStatus.OK).body(resultado))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping
+    @Operation(
+            summary = "Endpoint que ejecuta la conciliacion de totales ahora",
+            description = "Ejecuta la conciliacion sin esperar la siguiente ejecucion programada y devuelve su resultado"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Conciliacion ejecutada (revisar 'completada' por si msvc-detalle la interrumpio)"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Ya hay una conciliacion en curso"
+            )
+    })
+    public ResponseEntity<ResultadoConciliacionDTO> conciliar() {
+        return conciliacionService.conciliar()
+                .map(resultado -> ResponseEntity.status(HttpStatus.OK).body(resultado))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+}
@@ -0,0 +1,78 @@
+package com.ampuero.msvc.boleta.controllers;
+
+import com.ampuero.msvc.boleta.clients.RegistroReintentos;
+import com.ampuero.msvc.boleta.dtos.EstadoDependenciaDTO;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/boletas/resiliencia")
+@RequiredArgsConstructor
+@Tag(
+        name = "Resiliencia API",
+        description = "Estado de los circuit breakers y bulkheads de las dependencias remotas"
+)
+public class ResilienciaController {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final RegistroReintentos registroReintentos;
+
+    @GetMapping
+    @Operation(
+            summary = "Endpoint que devuelve el estado de las dependencias remotas",
+            description = "Devuelve estado del circuito, tasas de fallo y lentitud, rechazos, permisos libres " +
+                    "del bulkhead, reintentos, hedges y p95 por cada dependencia que ya recibio llamadas"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Estado obtenido correctamente"
+            )
+    })
+    public ResponseEntity<List<EstadoDependenciaDTO>> obtenerEstado() {
+        List<EstadoDependenciaDTO> estados = circuitBreakerRegistry.getAllCircuitBreakers().stream()
+                .sorted(Comparator.comparing(CircuitBreaker::getName))
+                .map(this::construirEstado)
+                .toList();
+        return ResponseEntity.status(HttpStatus.OK).body(estados);
+    }
+
+    private EstadoDependenciaDTO construirEstado(CircuitBreaker circuitBreaker) {
+        CircuitBreaker.Metrics metricas = circuitBreaker.getMetrics();
+        Bulkhead.Metrics bulkhead = bulkheadRegistry.bulkhead(circuitBreaker.getName()).getMetrics();
+        RegistroReintentos.Dependencia reintentos = registroReintentos.dependencia(circuitBreaker.getName());
+        long p95 = reintentos.latencias().percentil95Nanos();
+        return EstadoDependenciaDTO.builder()
+                .dependencia(circuitBreaker.getName())
+                .estado(circuitBreaker.getState().name())
+                .tasaFallos(metricas.getFailureRate())
+                .tasaLentas(metricas.getSlowCallRate())
+                .llamadasRegistradas(metricas.getNumberOfBufferedCalls())
+                .llamadasFallidas(metricas.getNumberOfFailedCalls())
+                .llamadasLentas(metricas.getNumberOfSlowCalls())
+                .llamadasRechazadas(metricas.getNumberOfNotPermittedCalls())
+                .concurrentesDisponibles(bulkhead.getAvailableConcurrentCalls())
+                .maxConcurrentes(bulkhead.getMaxAllowedConcurrentCalls())
+                .reintentos(reintentos.reintentos().get())
+                .hedges(reintentos.hedges().get())
+                .reintentosDenegados(reintentos.presupuesto().getDenegados())
+                .latenciaP95Ms(p95 < 0 ? -1 : p95 / 1_000_000d)
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.ampuero.msvc.boleta.dtos;
+
+import com.ampuero.msvc.boleta.models.DetallePojo;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO de respuesta con la boleta, su cliente y sus líneas de detalle en un solo documento.
+ *
+ * Si msvc-clientes o msvc-detalle no responden dentro del plazo, la boleta se entrega igual
+ * con parcial = true y el nombre de la parte ausente en campos_no_disponibles.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Boleta con su cliente y sus líneas de detalle")
+public class BoletaCompletaDTO {
+
+    @Schema(description = "ID único de la boleta", example = "1")
+    @JsonProperty("id_boleta")
+    private Long idBoleta;
+
+    @Schema(description = "Fecha de emisión de la boleta")
+    @JsonProperty("fecha_emision")
+    private LocalDate fechaEmisionBoleta;
+
+    @Schema(description = "Total acumulado de la boleta", example = "1250.50")
+    @JsonProperty("total_boleta")
+    private Double totalBoleta;
+
+    @Schema(description = "Descripción de la boleta")
+    @JsonProperty("descripcion_boleta")
+    private String descripcionBoleta;
+
+    @Schema(description = "Cliente asociado; null si msvc-clientes no respondió a tiempo")
+    @JsonProperty("cliente")
+    private ClienteResponseDTO cliente;
+
+    @Schema(description = "Líneas de detalle con su producto; null si msvc-detalle no respondió a tiempo")
+    @JsonProperty("detalles")
+    private List<DetallePojo> detalles;
+
+    @Schema(description = "true si falta alguna parte de la respuesta", example = "false")
+    @JsonProperty("parcial")
+    private boolean parcial;
+
+    @Schema(description = "Partes que no se pudieron obtener (\"cliente\", \"detalles\", \"producto\")")
+    @JsonProperty("campos_no_disponibles")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> camposNoDisponibles;
+}
@@ -0,0 +1,49 @@
+package com.ampuero.msvc.boleta.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+/**
+ * DTO con las estadísticas de la caché local de clientes.
+ * Se expone para dimensionar el peso máximo, el TTL y el intervalo de refresco a partir del uso real.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estadisticas de uso de la cache local de clientes")
+public class CacheStatsDTO {
+
+    @Schema(description = "Numero de entradas en cache", example = "50")
+    @JsonProperty("tamanio")
+    private long tamanio;
+
+    @Schema(description = "Peso acumulado de las entradas (aprox. caracteres)", example = "5400")
+    @JsonProperty("peso_total")
+    private long pesoTotal;
+
+    @Schema(description = "Lecturas resueltas desde la cache", example = "5400")
+    @JsonProperty("aciertos")
+    private long aciertos;
+
+    @Schema(description = "Lecturas que requirieron llamada remota", example = "130")
+    @JsonProperty("fallos")
+    private long fallos;
+
+    @Schema(description = "Cargas o refrescos que fallaron al llamar a msvc-clientes", example = "2")
+    @JsonProperty("cargas_fallidas")
+    private long cargasFallidas;
+
+    @Schema(description = "Entradas expulsadas por peso o TTL", example = "10")
+    @JsonProperty("desalojos")
+    private long desalojos;
+
+    @Schema(description = "Entradas invalidadas explicitamente", example = "3")
+    @JsonProperty("invalidaciones")
+    private long invalidaciones;
+
+    @Schema(description = "Proporcion de aciertos sobre el total de lecturas", example = "0.976")
+    @JsonProperty("tasa_aciertos")
+    private double tasaAciertos;
+}
@@ -0,0 +1,72 @@
+package com.ampuero.msvc.boleta.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+/**
+ * DTO con el estado del circuit breaker, del bulkhead y de los reintentos de una dependencia remota (msvc-clientes).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estado del circuit breaker y bulkhead de una dependencia")
+public class EstadoDependenciaDTO {
+
+    @Schema(description = "Nombre de la dependencia (cliente Feign)", example = "msvc-clientes")
+    @JsonProperty("dependencia")
+    private String dependencia;
+
+    @Schema(description = "Estado del circuito", example = "CLOSED")
+    @JsonProperty("estado")
+    private String estado;
+
+    @Schema(description = "Porcentaje de llamadas fallidas en la ventana (-1 sin datos suficientes)", example = "12.5")
+    @JsonProperty("tasa_fallos")
+    private float tasaFallos;
+
+    @Schema(description = "Porcentaje de llamadas lentas en la ventana (-1 sin datos suficientes)", example = "0.0")
+    @JsonProperty("tasa_lentas")
+    private float tasaLentas;
+
+    @Schema(description = "Llamadas registradas en la ventana", example = "20")
+    @JsonProperty("llamadas_registradas")
+    private int llamadasRegistradas;
+
+    @Schema(description = "Llamadas fallidas en la ventana", example = "2")
+    @JsonProperty("llamadas_fallidas")
+    private int llamadasFallidas;
+
+    @Schema(description = "Llamadas lentas en la ventana", example = "0")
+    @JsonProperty("llamadas_lentas")
+    private int llamadasLentas;
+
+    @Schema(description = "Llamadas rechazadas con el circuito abierto", example = "0")
+    @JsonProperty("llamadas_rechazadas")
+    private long llamadasRechazadas;
+
+    @Schema(description = "Llamadas simultaneas disponibles en el bulkhead", example = "25")
+    @JsonProperty("concurrentes_disponibles")
+    private int concurrentesDisponibles;
+
+    @Schema(description = "Maximo de llamadas simultaneas del bulkhead", example = "25")
+    @JsonProperty("max_concurrentes")
+    private int maxConcurrentes;
+
+    @Schema(description = "Reintentos enviados a la dependencia", example = "3")
+    @JsonProperty("reintentos")
+    private long reintentos;
+
+    @Schema(description = "Peticiones de hedging enviadas a la dependencia", example = "12")
+    @JsonProperty("hedges")
+    private long hedges;
+
+    @Schema(description = "Reintentos o hedges descartados por falta de presupuesto", example = "0")
+    @JsonProperty("reintentos_denegados")
+    private long reintentosDenegados;
+
+    @Schema(description = "p95 de latencia de las llamadas idempotentes en ms (-1 sin muestras suficientes)", example = "18.4")
+    @JsonProperty("latencia_p95_ms")
+    private double latenciaP95Ms;
+}
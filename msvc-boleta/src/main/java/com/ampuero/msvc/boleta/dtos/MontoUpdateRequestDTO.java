@@ -3,6 +3,7 @@ package com.ampuero.msvc.boleta.dtos;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,4 +16,9 @@ public class MontoUpdateRequestDTO {
     @NotNull(message = "El monto no puede ser nulo")
     @Positive(message = "El monto debe ser mayor a 0")
     private Double monto;
+
+    @Size(max = 64, message = "La clave de idempotencia no puede superar 64 caracteres")
+    @Schema(description = "Clave de idempotencia (p. ej. un UUID): un monto con una clave ya aplicada a la boleta no se vuelve a sumar",
+            example = "3f2b8c1e-6d4a-4f0e-9a57-2c1d8e7b5a90")
+    private String claveIdempotencia;
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.ampuero.msvc.boleta.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta para una página de boletas obtenida por paginación keyset
+ * (cursor sobre id_boleta, sin OFFSET).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de boletas paginada por cursor (keyset)")
+public class PaginaBoletasDTO {
+
+    @Schema(description = "Boletas de la página ordenadas por ID")
+    @JsonProperty("contenido")
+    private List<BoletaResponseDTO> contenido;
+
+    @Schema(description = "Valor de 'after' para la página siguiente; null si no hay más", example = "40")
+    @JsonProperty("siguiente_cursor")
+    private Long siguienteCursor;
+
+    @Schema(description = "Tamaño de página aplicado", example = "20")
+    @JsonProperty("limite")
+    private int limite;
+}
@@ -0,0 +1,58 @@
+package com.ampuero.msvc.boleta.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO con el resultado de una ejecución de la conciliación de totales contra msvc-detalle.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de una conciliación de totales de boletas")
+public class ResultadoConciliacionDTO {
+
+    @Schema(description = "Momento de inicio de la ejecución")
+    @JsonProperty("inicio")
+    private LocalDateTime inicio;
+
+    @Schema(description = "Duración de la ejecución en milisegundos", example = "840")
+    @JsonProperty("duracion_ms")
+    private long duracionMs;
+
+    @Schema(description = "false si la ejecución se interrumpió (msvc-detalle no respondió o cortó el stream)", example = "true")
+    @JsonProperty("completada")
+    private boolean completada;
+
+    @Schema(description = "Boletas comparadas", example = "100")
+    @JsonProperty("revisadas")
+    private long revisadas;
+
+    @Schema(description = "Boletas cuyo total difería de la suma de sus detalles", example = "12")
+    @JsonProperty("con_diferencia")
+    private long conDiferencia;
+
+    @Schema(description = "Boletas corregidas", example = "11")
+    @JsonProperty("corregidas")
+    private long corregidas;
+
+    @Schema(description = "Boletas omitidas por tener montos pendientes en msvc-detalle", example = "1")
+    @JsonProperty("omitidas_pendientes")
+    private long omitidasPendientes;
+
+    @Schema(description = "Boletas omitidas porque su total cambió durante la conciliación", example = "0")
+    @JsonProperty("omitidas_concurrencia")
+    private long omitidasConcurrencia;
+
+    @Schema(description = "Totales de msvc-detalle cuya boleta no existe en este servicio", example = "0")
+    @JsonProperty("totales_sin_boleta")
+    private long totalesSinBoleta;
+
+    @Schema(description = "Suma de las diferencias absolutas corregidas", example = "15230.75")
+    @JsonProperty("diferencia_corregida")
+    private double diferenciaCorregida;
+}
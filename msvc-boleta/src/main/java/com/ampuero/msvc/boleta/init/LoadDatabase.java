@@ -12,6 +12,8 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.util.Date;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.TimeUnit;
 
@@ -30,6 +32,7 @@ public class LoadDatabase implements CommandLineRunner {
         Faker faker = new Faker(Locale.of("es","CL"));
 
         if(boletaRepository.count()==0){
+            List<Boleta> boletas = new ArrayList<>(100);
             for(int i=0;i<100;i++){
                 Boleta boleta = new Boleta();
 
@@ -40,10 +43,11 @@ public class LoadDatabase implements CommandLineRunner {
 
 
                 logger.info("El nombre que agregas es {}", boleta.getDescripcionBoleta());
-                boleta = boletaRepository.save(boleta);
-                logger.info("EL boleta creado es: {}", boleta);
+                boletas.add(boleta);
 
             }
+            boletaRepository.saveAll(boletas);
+            logger.info("Se crearon {} boletas en lotes", boletas.size());
         }
 
     }
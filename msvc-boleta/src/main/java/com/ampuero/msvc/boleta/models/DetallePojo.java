@@ -0,0 +1,21 @@
+package com.ampuero.msvc.boleta.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+// Línea de detalle tal como la entrega msvc-detalle con conBoleta=false (solo el producto, sin la boleta)
+@Data
+@NoArgsConstructor @AllArgsConstructor
+public class DetallePojo {
+    private Long idDetalle;
+    private ProductoPojo producto;
+    private Integer cantidadDetalle;
+    private Double precioUnitarioDetalle;
+    private Double subtotalDetalle;
+
+    // Campos que msvc-detalle no pudo enriquecer (p. ej. "producto"); solo traen su ID
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> camposNoDisponibles;
+}
@@ -0,0 +1,12 @@
+package com.ampuero.msvc.boleta.models;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor @AllArgsConstructor
+public class ProductoPojo {
+    private Long idProducto;
+    private String nombreProducto;
+    private String descripcionProducto;
+    private Double precioProducto;
+}
@@ -0,0 +1,16 @@
+package com.ampuero.msvc.boleta.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+// Suma de subtotales de una boleta tal como la entrega GET /api/v1/detalles/totales (una por línea NDJSON)
+@Data
+@NoArgsConstructor @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TotalBoletaPojo {
+    private Long idBoleta;
+    private Double total;
+    private Long lineas;
+    // La boleta tiene montos que msvc-detalle todavía no envía (totales diferidos)
+    private boolean pendiente;
+}
@@ -7,14 +7,18 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "boletas")
+@Table(name = "boletas", indexes = {
+        @Index(name = "idx_boletas_id_cliente", columnList = "id_cliente_pojo")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Boleta {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia pooled: Hibernate reserva los ids de 50 en 50 y puede agrupar los INSERT en lotes JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "boletas_seq")
+    @SequenceGenerator(name = "boletas_seq", sequenceName = "boletas_seq", allocationSize = 50)
     @Column(name = "id_boleta") //Anotaciones para JPA
     private Long idBoleta;
 
@@ -0,0 +1,29 @@
+package com.ampuero.msvc.boleta.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Clave de idempotencia de un monto ya sumado al total de una boleta (PUT /{idBoleta}/total).
+// Se conserva durante boleta.totales-aplicados.retencion-horas (LimpiezaTotalesAplicadosService)
+@Entity
+@Table(name = "totales_aplicados", indexes = @Index(name = "idx_totales_aplicados_fecha", columnList = "fecha_aplicacion"))
+@IdClass(TotalAplicadoId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalAplicado {
+    @Id
+    @Column(name = "clave", length = 64)
+    private String clave;
+
+    @Id
+    @Column(name = "id_boleta")
+    private Long idBoleta;
+
+    @Column(nullable = false, name = "fecha_aplicacion")
+    private LocalDateTime fechaAplicacion;
+}
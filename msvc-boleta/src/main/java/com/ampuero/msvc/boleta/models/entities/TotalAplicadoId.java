@@ -0,0 +1,16 @@
+package com.ampuero.msvc.boleta.models.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Clave primaria de TotalAplicado: la misma clave de idempotencia puede llegar para boletas distintas
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalAplicadoId implements Serializable {
+    private String clave;
+    private Long idBoleta;
+}
@@ -1,8 +1,13 @@
 package com.ampuero.msvc.boleta.repositories;
 
 import com.ampuero.msvc.boleta.models.entities.Boleta;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -10,4 +15,42 @@ import java.util.List;
 // repositories/BoletaRepository.java
 public interface BoletaRepository extends JpaRepository<Boleta, Long> {
     List<Boleta> findByIdClientePojo(Long idClientePojo);
-}
\ No newline at end of file
+
+    /**
+     * Página siguiente por paginación keyset: boletas con ID mayor al cursor, en orden
+     * ascendente. Recorre la clave primaria sin OFFSET.
+     *
+     * @param idBoleta último ID entregado en la página anterior
+     * @param limit cantidad máxima de filas
+     * @return boletas posteriores al cursor
+     */
+    List<Boleta> findByIdBoletaGreaterThanOrderByIdBoletaAsc(Long idBoleta, Limit limit);
+
+    /**
+     * Suma (o resta, si es negativo) un monto al total de la boleta con un único UPDATE atómico
+     * en la base de datos, sin leer la entidad previamente. Así las actualizaciones concurrentes
+     * sobre la misma boleta no se pisan entre sí.
+     *
+     * @param idBoleta ID de la boleta a actualizar
+     * @param monto monto a sumar al total actual
+     * @return número de filas actualizadas (0 si la boleta no existe)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Boleta b SET b.totalBoleta = COALESCE(b.totalBoleta, 0) + :monto WHERE b.idBoleta = :idBoleta")
+    int incrementarTotalBoleta(@Param("idBoleta") Long idBoleta, @Param("monto") Double monto);
+
+    /**
+     * Reemplaza el total de la boleta solo si sigue siendo el valor leído antes (compare-and-set),
+     * para no pisar un incremento concurrente aplicado entre la lectura y la corrección.
+     *
+     * @param idBoleta ID de la boleta a corregir
+     * @param total nuevo total
+     * @param totalLeido total leído al comparar (0 si era null)
+     * @return 1 si se corrigió, 0 si la boleta ya no existe o su total cambió
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Boleta b SET b.totalBoleta = :total WHERE b.idBoleta = :idBoleta AND COALESCE(b.totalBoleta, 0) = :totalLeido")
+    int corregirTotalBoleta(@Param("idBoleta") Long idBoleta, @Param("total") Double total, @Param("totalLeido") Double totalLeido);
+}
@@ -0,0 +1,42 @@
+package com.ampuero.msvc.boleta.repositories;
+
+import com.ampuero.msvc.boleta.models.entities.TotalAplicado;
+import com.ampuero.msvc.boleta.models.entities.TotalAplicadoId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TotalAplicadoRepository extends JpaRepository<TotalAplicado, TotalAplicadoId> {
+
+    /**
+     * Registra la clave de idempotencia de un monto para una boleta solo si no estaba registrada,
+     * con un único INSERT condicional. Debe ejecutarse en la misma transacción que el incremento del total.
+     *
+     * @param clave clave de idempotencia enviada por quien actualiza el total
+     * @param idBoleta ID de la boleta a la que se aplica el monto
+     * @return 1 si la clave es nueva para la boleta, 0 si el monto ya se había aplicado
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO totales_aplicados (clave, id_boleta, fecha_aplicacion) "
+            + "SELECT :clave, :idBoleta, CURRENT_TIMESTAMP "
+            + "WHERE NOT EXISTS (SELECT 1 FROM totales_aplicados WHERE clave = :clave AND id_boleta = :idBoleta)", nativeQuery = true)
+    int registrarClave(@Param("clave") String clave, @Param("idBoleta") Long idBoleta);
+
+    /**
+     * Elimina las claves registradas antes de un instante.
+     *
+     * @param limite se eliminan las claves aplicadas antes de este momento
+     * @return número de claves eliminadas
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TotalAplicado t WHERE t.fechaAplicacion < :limite")
+    int eliminarAplicadosAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,124 @@
+package com.ampuero.msvc.boleta.services;
+
+import com.ampuero.msvc.boleta.clients.DetalleClient;
+import com.ampuero.msvc.boleta.dtos.BoletaCompletaDTO;
+import com.ampuero.msvc.boleta.dtos.ClienteResponseDTO;
+import com.ampuero.msvc.boleta.exceptions.ResourceNotFoundException;
+import com.ampuero.msvc.boleta.models.DetallePojo;
+import com.ampuero.msvc.boleta.models.entities.Boleta;
+import com.ampuero.msvc.boleta.repositories.BoletaRepository;
+import io.micrometer.context.ContextExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Arma la vista completa de una boleta: la boleta local, su cliente y sus líneas de detalle.
+ *
+ * El cliente (a través de ClienteCacheService) y las líneas (msvc-detalle, que ya trae cada
+ * producto pero no vuelve a pedir la boleta a este servicio) se piden en paralelo sobre hilos virtuales con un plazo común. Si una de las dos
+ * partes falla o no llega a tiempo, la boleta se entrega igual marcada como parcial; solo
+ * la inexistencia de la propia boleta es un error.
+ *
+ * @author Perfulandia Team
+ * @version 1.0
+ */
+@Service
+public class BoletaCompletaService {
+
+    private static final Logger log = LoggerFactory.getLogger(BoletaCompletaService.class);
+
+    static final String PARTE_CLIENTE = "cliente";
+    static final String PARTE_DETALLES = "detalles";
+    static final String PARTE_PRODUCTO = "producto";
+
+    private final BoletaRepository boletaRepository;
+    private final ClienteCacheService clienteCache;
+    private final DetalleClient detalleClient;
+    private final long timeoutMs;
+
+    // Un hilo virtual por llamada remota; no mantiene hilos ociosos, por lo que no requiere cierre.
+    // ContextExecutorService lleva al hilo la observación en curso: los spans Feign quedan bajo el span de la petición
+    private final ExecutorService dependenciasExecutor = ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor());
+
+    @Autowired
+    public BoletaCompletaService(BoletaRepository boletaRepository,
+                                 ClienteCacheService clienteCache,
+                                 DetalleClient detalleClient,
+                                 @Value("${boleta.completa.timeout-ms:2000}") long timeoutMs) {
+        this.boletaRepository = boletaRepository;
+        this.clienteCache = clienteCache;
+        this.detalleClient = detalleClient;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Obtiene la boleta junto a su cliente y sus líneas de detalle.
+     *
+     * @param idBoleta ID de la boleta
+     * @return BoletaCompletaDTO; con parcial = true si falta el cliente, las líneas o algún producto
+     * @throws ResourceNotFoundException si la boleta no existe
+     */
+    public BoletaCompletaDTO obtener(Long idBoleta) {
+        Boleta boleta = boletaRepository.findById(idBoleta)
+                .orElseThrow(() -> new ResourceNotFoundException("Boleta no encontrada con ID: " + idBoleta));
+
+        long limiteNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Future<ClienteResponseDTO> clienteFuture = dependenciasExecutor.submit(() -> clienteCache.obtener(boleta.getIdClientePojo()));
+        Future<List<DetallePojo>> detallesFuture = dependenciasExecutor.submit(() -> detalleClient.getDetallesByBoleta(idBoleta));
+
+        List<String> noDisponibles = new ArrayList<>();
+        ClienteResponseDTO cliente = esperarOmitiendoFallo(clienteFuture, limiteNanos, PARTE_CLIENTE, idBoleta, noDisponibles);
+        List<DetallePojo> detalles = esperarOmitiendoFallo(detallesFuture, limiteNanos, PARTE_DETALLES, idBoleta, noDisponibles);
+        if (detalles != null && detalles.stream().anyMatch(d -> d.getCamposNoDisponibles() != null
+                && d.getCamposNoDisponibles().contains(PARTE_PRODUCTO))) {
+            noDisponibles.add(PARTE_PRODUCTO);
+        }
+
+        return BoletaCompletaDTO.builder()
+                .idBoleta(boleta.getIdBoleta())
+                .fechaEmisionBoleta(boleta.getFechaEmisionBoleta())
+                .totalBoleta(boleta.getTotalBoleta())
+                .descripcionBoleta(boleta.getDescripcionBoleta())
+                .cliente(cliente)
+                .detalles(detalles)
+                .parcial(!noDisponibles.isEmpty())
+                .camposNoDisponibles(noDisponibles)
+                .build();
+    }
+
+    // Espera el resultado hasta el plazo común; un fallo, un null o el plazo vencido dejan la parte en null
+    // y la registran como no disponible en vez de propagarse
+    private <T> T esperarOmitiendoFallo(Future<T> future, long limiteNanos, String parte,
+                                        Long idBoleta, List<String> noDisponibles) {
+        try {
+            T resultado = future.get(Math.max(0L, limiteNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (resultado != null) {
+                return resultado;
+            }
+            log.warn("Respuesta nula al obtener {} de la boleta {}. Se entregará parcial.", parte, idBoleta);
+        } catch (ExecutionException e) {
+            log.warn("No se pudo obtener {} de la boleta {}: {}. Se entregará parcial.", parte, idBoleta, e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Tiempo de espera agotado ({} ms) al obtener {} de la boleta {}. Se entregará parcial.", timeoutMs, parte, idBoleta);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            log.warn("Interrumpido al obtener {} de la boleta {}. Se entregará parcial.", parte, idBoleta);
+        }
+        noDisponibles.add(parte);
+        return null;
+    }
+}
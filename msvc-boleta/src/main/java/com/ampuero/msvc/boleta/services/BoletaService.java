@@ -2,14 +2,18 @@ package com.ampuero.msvc.boleta.services;
 
 import com.ampuero.msvc.boleta.dtos.BoletaDTO;
 import com.ampuero.msvc.boleta.dtos.BoletaResponseDTO;
+import com.ampuero.msvc.boleta.dtos.PaginaBoletasDTO;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BoletaService {
     BoletaResponseDTO crearBoleta(BoletaDTO boletaDTO);
     List<BoletaResponseDTO> obtenerTodas();
+    PaginaBoletasDTO obtenerPagina(Long after, Integer limit);
+    List<BoletaResponseDTO> obtenerPorIds(Collection<Long> ids);
     List<BoletaResponseDTO> obtenerPorCliente(Long idCliente);
     void eliminarBoleta(Long idFactura);
-    void actualizarTotalBoleta(Long idFactura, Double monto);
+    void actualizarTotalBoleta(Long idFactura, Double monto, String claveIdempotencia);
     BoletaResponseDTO obtenerBoletaPorId(Long id);
 }
@@ -1,27 +1,35 @@
 package com.ampuero.msvc.boleta.services;
 
-import com.ampuero.msvc.boleta.clients.ClienteClientRest;
 import com.ampuero.msvc.boleta.dtos.BoletaDTO;
 import com.ampuero.msvc.boleta.dtos.BoletaResponseDTO;
 import com.ampuero.msvc.boleta.dtos.ClienteResponseDTO;
+import com.ampuero.msvc.boleta.dtos.PaginaBoletasDTO;
 import com.ampuero.msvc.boleta.exceptions.BoletaException;
 import com.ampuero.msvc.boleta.exceptions.ResourceNotFoundException;
 import com.ampuero.msvc.boleta.models.entities.Boleta;
 import com.ampuero.msvc.boleta.repositories.BoletaRepository;
+import com.ampuero.msvc.boleta.repositories.TotalAplicadoRepository;
 import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio de gestión de boletas.
  *
  * Esta clase maneja todas las operaciones CRUD relacionadas con boletas,
- * incluyendo la integración con el servicio de clientes mediante Feign Client.
+ * incluyendo la integración con el servicio de clientes mediante Feign Client,
+ * consultado a través de la caché local ClienteCacheService.
  *
  * @author Perfulandia Team
  * @version 1.0
@@ -32,8 +40,13 @@ public class BoletaServiceImpl implements BoletaService {
 
     private static final Logger log = LoggerFactory.getLogger(BoletaServiceImpl.class);
 
+    // Tamaño de página para la paginación keyset
+    static final int LIMITE_POR_DEFECTO = 20;
+    static final int LIMITE_MAXIMO = 100;
+
     private final BoletaRepository boletaRepository;
-    private final ClienteClientRest clienteClient;
+    private final ClienteCacheService clienteCache;
+    private final TotalAplicadoRepository totalAplicadoRepository;
 
     /**
      * Obtiene los datos de un cliente por su ID.
@@ -45,7 +58,7 @@ public class BoletaServiceImpl implements BoletaService {
      */
     private ClienteResponseDTO obtenerClienteOExcepcion(Long idCliente) {
         try {
-            ClienteResponseDTO cliente = clienteClient.findClienteById(idCliente);
+            ClienteResponseDTO cliente = clienteCache.obtener(idCliente);
             if (cliente == null) {
                 log.warn("Servicio de clientes devolvio null para ID: {}", idCliente);
                 throw new ResourceNotFoundException("Cliente no encontrado con ID: " + idCliente + " (respuesta nula del servicio)");
@@ -109,34 +122,132 @@ public class BoletaServiceImpl implements BoletaService {
      */
     @Override
     public List<BoletaResponseDTO> obtenerTodas() {
-        return boletaRepository.findAll().stream()
-                .map(boleta -> {
-                    try {
-                        ClienteResponseDTO cliente = obtenerClienteOExcepcion(boleta.getIdClientePojo()); // Cambio aqui, getIdClientePojo()
-                        return buildResponseDTO(boleta, cliente);
-                    } catch (ResourceNotFoundException | BoletaException e) {
-                        log.warn("No se pudo obtener el clientes ({}) para la boleta {}: {}. Se omitira la boleta.",
-                                boleta.getIdClientePojo(), boleta.getIdBoleta(), e.getMessage());
-                        return null; // grackiasgpt por lograr encontrar el error
-                    }
-                })
-                .filter(dto -> dto != null) // Filtrar los nulos
-                .collect(Collectors.toList());
+        return construirConClientes(boletaRepository.findAll());
+    }
+
+    /**
+     * Obtiene una página de boletas por paginación keyset sobre el ID (id_boleta > after).
+     *
+     * Se pide una fila extra para saber si existe página siguiente. El cursor siguiente
+     * se calcula con las boletas leídas, aunque alguna se omita por no poder obtener su cliente,
+     * así la página siguiente nunca vuelve a recorrer filas ya entregadas.
+     *
+     * @param after último ID de la página anterior (null para la primera página)
+     * @param limit tamaño de página (null usa el valor por defecto; se acota al máximo)
+     * @return PaginaBoletasDTO con las boletas y el cursor siguiente
+     */
+    @Override
+    public PaginaBoletasDTO obtenerPagina(Long after, Integer limit) {
+        int limite = limit == null ? LIMITE_POR_DEFECTO : Math.max(1, Math.min(limit, LIMITE_MAXIMO));
+        List<Boleta> filas = boletaRepository.findByIdBoletaGreaterThanOrderByIdBoletaAsc(
+                after == null ? 0L : after, Limit.of(limite + 1));
+
+        boolean haySiguiente = filas.size() > limite;
+        List<Boleta> pagina = haySiguiente ? filas.subList(0, limite) : filas;
+
+        return PaginaBoletasDTO.builder()
+                .contenido(construirConClientes(pagina))
+                .siguienteCursor(haySiguiente ? pagina.get(pagina.size() - 1).getIdBoleta() : null)
+                .limite(limite)
+                .build();
+    }
+
+    /**
+     * Obtiene en una sola consulta las boletas cuyos IDs se indiquen, junto a su cliente.
+     *
+     * Los IDs inexistentes, y las boletas cuyo cliente no pueda ser consultado,
+     * se omiten del resultado.
+     *
+     * @param ids IDs de las boletas
+     * @return Lista de BoletaResponseDTO encontradas
+     */
+    @Override
+    public List<BoletaResponseDTO> obtenerPorIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return construirConClientes(boletaRepository.findAllById(ids));
+    }
+
+    /**
+     * Construye las respuestas de las boletas indicadas junto a su cliente.
+     *
+     * Los clientes se piden en una sola llamada por sus IDs distintos y se unen en memoria,
+     * por lo que el costo depende de la cantidad de clientes distintos y no de la de boletas.
+     * Las boletas cuyo cliente no pueda ser consultado se omiten con un warning.
+     */
+    private List<BoletaResponseDTO> construirConClientes(List<Boleta> boletas) {
+        if (boletas.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> idsClientes = boletas.stream()
+                .map(Boleta::getIdClientePojo)
+                .collect(Collectors.toSet());
+
+        Map<Long, ClienteResponseDTO> clientes;
+        try {
+            clientes = obtenerClientesPorIds(idsClientes);
+        } catch (BoletaException e) {
+            log.warn("No se pudieron obtener los clientes {}: {}. Se omitiran sus boletas.", idsClientes, e.getMessage());
+            clientes = Map.of();
+        }
+
+        List<BoletaResponseDTO> resultado = new ArrayList<>(boletas.size());
+        for (Boleta boleta : boletas) {
+            ClienteResponseDTO cliente = clientes.get(boleta.getIdClientePojo());
+            if (cliente == null) {
+                log.warn("No se pudo obtener el clientes ({}) para la boleta {}. Se omitira la boleta.",
+                        boleta.getIdClientePojo(), boleta.getIdBoleta());
+                continue;
+            }
+            resultado.add(buildResponseDTO(boleta, cliente));
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene varios clientes desde la caché; los que falten se piden en una sola llamada al servicio de clientes.
+     *
+     * @param idsClientes IDs distintos de los clientes a consultar
+     * @return Mapa idCliente -> ClienteResponseDTO (los IDs inexistentes no aparecen)
+     * @throws BoletaException si hay errores de comunicación con el servicio
+     */
+    private Map<Long, ClienteResponseDTO> obtenerClientesPorIds(Set<Long> idsClientes) {
+        try {
+            return clienteCache.obtenerVarios(idsClientes);
+        } catch (FeignException e) {
+            log.error("Error Feign al obtener clientes IDs {}: {}", idsClientes, e.getMessage(), e);
+            throw new BoletaException("Error al comunicar con servicio de clientes para IDs " + idsClientes + ": " + e.getMessage(), e);
+        }
     }
 
     /**
      * Actualiza el total de una boleta sumando el monto especificado.
      *
+     * El incremento se aplica con un único UPDATE en la base de datos, por lo que
+     * actualizaciones concurrentes sobre la misma boleta no pierden montos.
+     * La inexistencia de la boleta se detecta por el número de filas afectadas.
+     * Si viene una clave de idempotencia, se registra para la boleta en la misma transacción: un
+     * reenvío del mismo monto (p. ej. tras perderse la respuesta) no se vuelve a sumar mientras la
+     * clave se conserve (boleta.totales-aplicados.retencion-horas).
+     *
      * @param idBoleta ID de la boleta a actualizar
      * @param monto monto a sumar al total actual
+     * @param claveIdempotencia clave del monto, o null para aplicarlo siempre
      * @throws ResourceNotFoundException si la boleta no existe
      */
     @Override
-    public void actualizarTotalBoleta(Long idBoleta, Double monto) {
-        Boleta boleta = boletaRepository.findById(idBoleta)
-                .orElseThrow(() -> new ResourceNotFoundException("Boleta no encontrada con ID: " + idBoleta + " para actualizar total"));
-        boleta.setTotalBoleta(boleta.getTotalBoleta() + monto);
-        boletaRepository.save(boleta);
+    @Transactional
+    public void actualizarTotalBoleta(Long idBoleta, Double monto, String claveIdempotencia) {
+        if (claveIdempotencia != null && totalAplicadoRepository.registrarClave(claveIdempotencia, idBoleta) == 0) {
+            log.info("Monto con clave {} ya aplicado a la boleta ID {}; se omite", claveIdempotencia, idBoleta);
+            return;
+        }
+        int filasActualizadas = boletaRepository.incrementarTotalBoleta(idBoleta, monto);
+        if (filasActualizadas == 0) {
+            throw new ResourceNotFoundException("Boleta no encontrada con ID: " + idBoleta + " para actualizar total");
+        }
         log.info("Total de boleta ID {} actualizado con monto {}", idBoleta, monto);
     }
 
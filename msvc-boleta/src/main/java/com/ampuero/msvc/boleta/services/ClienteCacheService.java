@@ -0,0 +1,174 @@
+package com.ampuero.msvc.boleta.services;
+
+import com.ampuero.msvc.boleta.clients.ClienteClientRest;
+import com.ampuero.msvc.boleta.dtos.CacheStatsDTO;
+import com.ampuero.msvc.boleta.dtos.ClienteResponseDTO;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché local de ClienteResponseDTO ubicada delante de ClienteClientRest.
+ *
+ * Los datos de un cliente casi nunca cambian, así que cada entrada:
+ * - se refresca en segundo plano pasado el intervalo de refresco, mientras las lecturas
+ *   siguen recibiendo el valor anterior (si el refresco falla, se conserva el valor anterior);
+ * - expira definitivamente pasado el TTL;
+ * - cuenta para un peso máximo aproximado (caracteres de sus textos) en vez de un número fijo de entradas.
+ *
+ * msvc-clientes avisa los cambios (actualización, cambio de estado, eliminación) a través del
+ * endpoint de invalidación, por lo que el refresco y el TTL son solo una red de seguridad.
+ *
+ * @author Perfulandia Team
+ * @version 1.0
+ */
+@Service
+public class ClienteCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteCacheService.class);
+
+    // Peso fijo por entrada (clave, referencias y el propio DTO) además de sus textos
+    private static final int PESO_BASE_ENTRADA = 64;
+
+    private final LoadingCache<Long, ClienteResponseDTO> cache;
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    @Autowired
+    public ClienteCacheService(ClienteClientRest clienteClient,
+                               @Value("${boleta.cache.clientes.max-peso:1000000}") long maxPeso,
+                               @Value("${boleta.cache.clientes.ttl-segundos:3600}") long ttlSegundos,
+                               @Value("${boleta.cache.clientes.refresco-segundos:300}") long refrescoSegundos) {
+        this(clienteClient, maxPeso, Duration.ofSeconds(ttlSegundos), Duration.ofSeconds(refrescoSegundos),
+                Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    // Constructor con reloj y ejecutor configurables, usado en pruebas para controlar el tiempo y los refrescos
+    ClienteCacheService(ClienteClientRest clienteClient, long maxPeso, Duration ttl, Duration refresco,
+                        Ticker ticker, Executor ejecutor) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxPeso)
+                .weigher((Long id, ClienteResponseDTO cliente) -> pesoDe(cliente))
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refresco)
+                .ticker(ticker)
+                .executor(ejecutor)
+                .recordStats()
+                .build(new CargadorClientes(clienteClient));
+    }
+
+    /**
+     * Obtiene un cliente desde la caché o, si no está, desde msvc-clientes.
+     * Las lecturas concurrentes de un mismo ID sin cachear producen una sola llamada remota.
+     * Los errores de Feign se propagan tal cual y no se cachea nada; una respuesta nula tampoco se cachea.
+     *
+     * @param idCliente ID del cliente
+     * @return ClienteResponseDTO cacheado o recién cargado (null si el servicio respondió vacío)
+     */
+    public ClienteResponseDTO obtener(Long idCliente) {
+        return cache.get(idCliente);
+    }
+
+    /**
+     * Obtiene varios clientes; los que no estén en caché se piden juntos en una sola llamada
+     * a msvc-clientes. Los IDs inexistentes quedan fuera del resultado.
+     *
+     * @param idsClientes IDs de los clientes
+     * @return Mapa idCliente -> ClienteResponseDTO con los clientes disponibles
+     */
+    public Map<Long, ClienteResponseDTO> obtenerVarios(Collection<Long> idsClientes) {
+        return cache.getAll(idsClientes);
+    }
+
+    /**
+     * Elimina un cliente de la caché para que la siguiente lectura vaya a msvc-clientes.
+     *
+     * @param idCliente ID del cliente a invalidar
+     */
+    public void invalidar(Long idCliente) {
+        cache.invalidate(idCliente);
+        invalidaciones.incrementAndGet();
+        log.info("Cliente {} invalidado en la cache local", idCliente);
+    }
+
+    /**
+     * Vacía completamente la caché de clientes.
+     */
+    public void invalidarTodo() {
+        long tamanio = cache.estimatedSize();
+        cache.invalidateAll();
+        invalidaciones.addAndGet(tamanio);
+        log.info("Cache local de clientes vaciada ({} entradas)", tamanio);
+    }
+
+    /**
+     * Devuelve los contadores actuales de la caché.
+     */
+    public CacheStatsDTO estadisticas() {
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        long pesoTotal = cache.policy().eviction()
+                .flatMap(eviction -> eviction.weightedSize().stream().boxed().findFirst())
+                .orElse(0L);
+        return CacheStatsDTO.builder()
+                .tamanio(cache.estimatedSize())
+                .pesoTotal(pesoTotal)
+                .aciertos(stats.hitCount())
+                .fallos(stats.missCount())
+                .cargasFallidas(stats.loadFailureCount())
+                .desalojos(stats.evictionCount())
+                .invalidaciones(invalidaciones.get())
+                .tasaAciertos(stats.hitRate())
+                .build();
+    }
+
+    private static int pesoDe(ClienteResponseDTO cliente) {
+        return PESO_BASE_ENTRADA + largo(cliente.getNombreCliente()) + largo(cliente.getCorreoCliente());
+    }
+
+    private static int largo(String texto) {
+        return texto == null ? 0 : texto.length();
+    }
+
+    /**
+     * Carga un cliente con findClienteById y varios con una sola llamada a findClientesByIds.
+     * Los refrescos en segundo plano usan la carga individual.
+     */
+    private record CargadorClientes(ClienteClientRest clienteClient) implements CacheLoader<Long, ClienteResponseDTO> {
+
+        @Override
+        public ClienteResponseDTO load(Long idCliente) {
+            return clienteClient.findClienteById(idCliente);
+        }
+
+        @Override
+        public Map<Long, ClienteResponseDTO> loadAll(Set<? extends Long> idsClientes) {
+            List<ClienteResponseDTO> respuesta = clienteClient.findClientesByIds(List.copyOf(idsClientes));
+            Map<Long, ClienteResponseDTO> clientes = new HashMap<>();
+            if (respuesta != null) {
+                for (ClienteResponseDTO cliente : respuesta) {
+                    if (cliente != null && cliente.getIdUsuario() != null) {
+                        clientes.putIfAbsent(cliente.getIdUsuario(), cliente);
+                    }
+                }
+            }
+            return clientes;
+        }
+    }
+}
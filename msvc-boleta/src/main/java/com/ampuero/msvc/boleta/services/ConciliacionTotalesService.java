@@ -0,0 +1,247 @@
+package com.ampuero.msvc.boleta.services;
+
+import com.ampuero.msvc.boleta.clients.DetalleClient;
+import com.ampuero.msvc.boleta.dtos.ResultadoConciliacionDTO;
+import com.ampuero.msvc.boleta.models.TotalBoletaPojo;
+import com.ampuero.msvc.boleta.models.entities.Boleta;
+import com.ampuero.msvc.boleta.repositories.BoletaRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conciliación periódica de los totales de boleta contra la suma de subtotales en msvc-detalle.
+ *
+ * Los totales se mantienen aplicando incrementos, y los datos de ejemplo parten con totales
+ * aleatorios, por lo que pueden alejarse de la suma real de sus detalles. Esta tarea:
+ * - lee en streaming (NDJSON) la suma por boleta de msvc-detalle, ordenada por ID;
+ * - recorre las boletas por bloques con paginación keyset y las cruza con esa secuencia en un
+ *   solo recorrido (una boleta sin detalles debe sumar 0);
+ * - vuelve a pedir la suma de las boletas con diferencia justo antes de corregirlas, y omite
+ *   las que msvc-detalle marca con montos pendientes de enviar;
+ * - corrige cada bloque en su propia transacción corta con un UPDATE condicional
+ *   (compare-and-set), así nunca bloquea la tabla completa ni pisa un incremento concurrente.
+ *
+ * Si msvc-detalle falla a mitad de camino, los bloques ya corregidos se conservan y el resto
+ * queda para la siguiente ejecución.
+ *
+ * @author Perfulandia Team
+ * @version 1.0
+ */
+@Service
+public class ConciliacionTotalesService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConciliacionTotalesService.class);
+
+    private final BoletaRepository boletaRepository;
+    private final DetalleClient detalleClient;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitada;
+    private final int lote;
+    private final double tolerancia;
+
+    private final ReentrantLock ejecucion = new ReentrantLock();
+    private volatile ResultadoConciliacionDTO ultimoResultado;
+
+    @Autowired
+    public ConciliacionTotalesService(BoletaRepository boletaRepository,
+                                      DetalleClient detalleClient,
+                                      ObjectMapper objectMapper,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${boleta.conciliacion.habilitada:true}") boolean habilitada,
+                                      @Value("${boleta.conciliacion.lote:200}") int lote,
+                                      @Value("${boleta.conciliacion.tolerancia:0.005}") double tolerancia) {
+        this.boletaRepository = boletaRepository;
+        this.detalleClient = detalleClient;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.habilitada = habilitada;
+        this.lote = lote;
+        this.tolerancia = tolerancia;
+    }
+
+    // Ejecución periódica
+    @Scheduled(initialDelayString = "${boleta.conciliacion.retraso-inicial-ms:60000}",
+            fixedDelayString = "${boleta.conciliacion.intervalo-ms:3600000}")
+    public void conciliacionProgramada() {
+        if (habilitada) {
+            conciliar();
+        }
+    }
+
+    /**
+     * Resultado de la última ejecución, si ya hubo alguna.
+     */
+    public Optional<ResultadoConciliacionDTO> getUltimoResultado() {
+        return Optional.ofNullable(ultimoResultado);
+    }
+
+    /**
+     * Compara todas las boletas con la suma de sus detalles y corrige las diferencias.
+     * Si ya hay una conciliación en curso, no hace nada.
+     *
+     * @return resultado de la ejecución, o vacío si ya había otra en curso
+     */
+    public Optional<ResultadoConciliacionDTO> conciliar() {
+        if (!ejecucion.tryLock()) {
+            return Optional.empty();
+        }
+        LocalDateTime inicio = LocalDateTime.now();
+        long inicioNanos = System.nanoTime();
+        Conteo conteo = new Conteo();
+        boolean completada = false;
+        try (Response respuesta = detalleClient.getTotalesPorBoleta(null);
+             MappingIterator<TotalBoletaPojo> totales = leerTotales(respuesta)) {
+            TotalBoletaPojo siguiente = totales.hasNextValue() ? totales.nextValue() : null;
+            long cursor = 0L;
+            List<Boleta> pagina;
+            while (!(pagina = boletaRepository.findByIdBoletaGreaterThanOrderByIdBoletaAsc(cursor, Limit.of(lote))).isEmpty()) {
+                Map<Long, Boleta> conDiferencia = new LinkedHashMap<>();
+                for (Boleta boleta : pagina) {
+                    // Ambas secuencias vienen ordenadas por ID: los totales anteriores a esta boleta no tienen boleta
+                    while (siguiente != null && siguiente.getIdBoleta() < boleta.getIdBoleta()) {
+                        conteo.totalesSinBoleta++;
+                        siguiente = totales.hasNextValue() ? totales.nextValue() : null;
+                    }
+                    TotalBoletaPojo total = null;
+                    if (siguiente != null && siguiente.getIdBoleta().equals(boleta.getIdBoleta())) {
+                        total = siguiente;
+                        siguiente = totales.hasNextValue() ? totales.nextValue() : null;
+                    }
+                    conteo.revisadas++;
+                    if (total != null && total.isPendiente()) {
+                        conteo.omitidasPendientes++;
+                    } else if (tieneDiferencia(boleta, total)) {
+                        conDiferencia.put(boleta.getIdBoleta(), boleta);
+                    }
+                }
+                corregirBloque(conDiferencia, conteo);
+                cursor = pagina.get(pagina.size() - 1).getIdBoleta();
+            }
+            while (siguiente != null) {
+                conteo.totalesSinBoleta++;
+                siguiente = totales.hasNextValue() ? totales.nextValue() : null;
+            }
+            completada = true;
+        } catch (IOException | FeignException e) {
+            log.warn("Conciliación de totales interrumpida tras revisar {} boletas: {}", conteo.revisadas, e.getMessage());
+        } finally {
+            ultimoResultado = conteo.resultado(inicio, (System.nanoTime() - inicioNanos) / 1_000_000, completada);
+            ejecucion.unlock();
+        }
+        log.info("Conciliación de totales: {} revisadas, {} con diferencia, {} corregidas, {} omitidas por pendientes, "
+                        + "{} por concurrencia, {} totales sin boleta, en {} ms",
+                ultimoResultado.getRevisadas(), ultimoResultado.getConDiferencia(), ultimoResultado.getCorregidas(),
+                ultimoResultado.getOmitidasPendientes(), ultimoResultado.getOmitidasConcurrencia(),
+                ultimoResultado.getTotalesSinBoleta(), ultimoResultado.getDuracionMs());
+        return Optional.of(ultimoResultado);
+    }
+
+    // Vuelve a verificar las boletas con diferencia contra una suma recién calculada y corrige el bloque
+    // en una sola transacción; el UPDATE condicional omite las boletas cuyo total cambió desde la lectura
+    private void corregirBloque(Map<Long, Boleta> conDiferencia, Conteo conteo) throws IOException {
+        if (conDiferencia.isEmpty()) {
+            return;
+        }
+        conteo.conDiferencia += conDiferencia.size();
+        Map<Long, TotalBoletaPojo> actuales = obtenerTotales(conDiferencia.keySet());
+
+        transactionTemplate.executeWithoutResult(estado -> {
+            for (Boleta boleta : conDiferencia.values()) {
+                TotalBoletaPojo total = actuales.get(boleta.getIdBoleta());
+                if (total != null && total.isPendiente()) {
+                    conteo.omitidasPendientes++;
+                    continue;
+                }
+                if (!tieneDiferencia(boleta, total)) {
+                    // La diferencia ya no existe (un detalle cambió mientras tanto)
+                    continue;
+                }
+                double leido = totalActual(boleta);
+                double esperado = total == null ? 0.0 : total.getTotal();
+                if (boletaRepository.corregirTotalBoleta(boleta.getIdBoleta(), esperado, leido) == 1) {
+                    conteo.corregidas++;
+                    conteo.diferenciaCorregida += Math.abs(esperado - leido);
+                    log.debug("Total de boleta {} corregido de {} a {}", boleta.getIdBoleta(), leido, esperado);
+                } else {
+                    conteo.omitidasConcurrencia++;
+                }
+            }
+        });
+    }
+
+    private Map<Long, TotalBoletaPojo> obtenerTotales(Collection<Long> idsBoletas) throws IOException {
+        Map<Long, TotalBoletaPojo> totales = new HashMap<>();
+        try (Response respuesta = detalleClient.getTotalesPorBoleta(List.copyOf(idsBoletas));
+             MappingIterator<TotalBoletaPojo> iterador = leerTotales(respuesta)) {
+            while (iterador.hasNextValue()) {
+                TotalBoletaPojo total = iterador.nextValue();
+                totales.put(total.getIdBoleta(), total);
+            }
+        }
+        return totales;
+    }
+
+    private MappingIterator<TotalBoletaPojo> leerTotales(Response respuesta) throws IOException {
+        if (respuesta.status() != 200 || respuesta.body() == null) {
+            throw FeignException.errorStatus("getTotalesPorBoleta", respuesta);
+        }
+        return objectMapper.readerFor(TotalBoletaPojo.class).readValues(respuesta.body().asInputStream());
+    }
+
+    // Sin total en msvc-detalle la boleta no tiene detalles y debe sumar 0
+    private boolean tieneDiferencia(Boleta boleta, TotalBoletaPojo total) {
+        double esperado = total == null ? 0.0 : total.getTotal();
+        return Math.abs(totalActual(boleta) - esperado) > tolerancia;
+    }
+
+    private static double totalActual(Boleta boleta) {
+        return boleta.getTotalBoleta() == null ? 0.0 : boleta.getTotalBoleta();
+    }
+
+    // Contadores de una ejecución
+    private static class Conteo {
+        long revisadas;
+        long conDiferencia;
+        long corregidas;
+        long omitidasPendientes;
+        long omitidasConcurrencia;
+        long totalesSinBoleta;
+        double diferenciaCorregida;
+
+        ResultadoConciliacionDTO resultado(LocalDateTime inicio, long duracionMs, boolean completada) {
+            return ResultadoConciliacionDTO.builder()
+                    .inicio(inicio)
+                    .duracionMs(duracionMs)
+                    .completada(completada)
+                    .revisadas(revisadas)
+                    .conDiferencia(conDiferencia)
+                    .corregidas(corregidas)
+                    .omitidasPendientes(omitidasPendientes)
+                    .omitidasConcurrencia(omitidasConcurrencia)
+                    .totalesSinBoleta(totalesSinBoleta)
+                    .diferenciaCorregida(diferenciaCorregida)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ampuero.msvc.boleta.services;
+
+import com.ampuero.msvc.boleta.repositories.TotalAplicadoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Retención de las claves de idempotencia de PUT /{idBoleta}/total (tabla totales_aplicados).
+ *
+ * Una clave solo sirve mientras quien envía el monto pueda reintentarlo; pasado ese tiempo se
+ * elimina para que la tabla no crezca sin límite. La retención debe superar el tiempo máximo que
+ * msvc-detalle puede seguir reintentando un envío (p. ej. mientras este servicio está caído).
+ *
+ * @author Perfulandia Team
+ * @version 1.0
+ */
+@Service
+public class LimpiezaTotalesAplicadosService {
+
+    private static final Logger log = LoggerFactory.getLogger(LimpiezaTotalesAplicadosService.class);
+
+    private final TotalAplicadoRepository totalAplicadoRepository;
+    private final long retencionHoras;
+
+    public LimpiezaTotalesAplicadosService(TotalAplicadoRepository totalAplicadoRepository,
+                                           @Value("${boleta.totales-aplicados.retencion-horas:168}") long retencionHoras) {
+        this.totalAplicadoRepository = totalAplicadoRepository;
+        this.retencionHoras = retencionHoras;
+    }
+
+    /**
+     * Elimina las claves aplicadas hace más de boleta.totales-aplicados.retencion-horas.
+     *
+     * @return número de claves eliminadas
+     */
+    @Scheduled(initialDelayString = "${boleta.totales-aplicados.retraso-inicial-ms:60000}",
+            fixedDelayString = "${boleta.totales-aplicados.intervalo-limpieza-ms:3600000}")
+    public int limpiar() {
+        int eliminadas = totalAplicadoRepository.eliminarAplicadosAntesDe(LocalDateTime.now().minusHours(retencionHoras));
+        if (eliminadas > 0) {
+            log.info("Se eliminaron {} claves de idempotencia de totales con más de {} horas", eliminadas, retencionHoras);
+        }
+        return eliminadas;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ampuero.msvc.boleta.assemblers;
+
+import com.ampuero.msvc.boleta.controllers.BoletaControllerV2;
+import com.ampuero.msvc.boleta.dtos.BoletaCompletaDTO;
+import com.ampuero.msvc.boleta.dtos.BoletaResponseDTO;
+import com.ampuero.msvc.boleta.dtos.ClienteResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+// El JSON HAL con enlaces de PlantillaEnlace debe ser idéntico al que se obtiene con linkTo(methodOn(...))
+public class BoletaResponseDTOModelAssemblerTest {
+
+    private static final ObjectMapper HAL = new ObjectMapper().findAndRegisterModules().registerModule(new Jackson2HalModule());
+
+    static {
+        HAL.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new AnnotationLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+    }
+
+    @AfterEach
+    public void limpiar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("toModel de boleta y boleta completa entrega los mismos enlaces que linkTo(methodOn(...))")
+    public void enlacesIdenticosALinkTo() throws JsonProcessingException {
+        ClienteResponseDTO cliente = new ClienteResponseDTO();
+        cliente.setIdUsuario(9L);
+        BoletaResponseDTO boleta = new BoletaResponseDTO(4L, LocalDate.of(2025, 6, 25), 3980.0, "Boleta", cliente);
+        BoletaCompletaDTO completa = BoletaCompletaDTO.builder().idBoleta(4L).cliente(cliente).camposNoDisponibles(List.of()).build();
+        BoletaCompletaDTO parcial = BoletaCompletaDTO.builder().idBoleta(5L).parcial(true).camposNoDisponibles(List.of("cliente")).build();
+
+        for (MockHttpServletRequest peticion : List.of(peticion("http", "localhost", 8081, ""),
+                peticion("https", "perfulandia.cl", 443, "/tienda"))) {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(peticion));
+
+            assertThat(HAL.writeValueAsString(new BoletaResponseDTOModelAssembler().toModel(boleta)))
+                    .isEqualTo(HAL.writeValueAsString(EntityModel.of(boleta,
+                            linkTo(methodOn(BoletaControllerV2.class).obtenerBoletaPorId(4L)).withSelfRel(),
+                            linkTo(methodOn(BoletaControllerV2.class).obtenerTodas(null, null)).withRel("boletas").expand(),
+                            linkTo(methodOn(BoletaControllerV2.class).obtenerPorCliente(9L)).withRel("boletas-cliente"))));
+
+            BoletaCompletaModelAssembler completaAssembler = new BoletaCompletaModelAssembler();
+            assertThat(HAL.writeValueAsString(completaAssembler.toModel(completa)))
+                    .isEqualTo(HAL.writeValueAsString(EntityModel.of(completa,
+                            linkTo(methodOn(BoletaControllerV2.class).obtenerBoletaCompleta(4L)).withSelfRel(),
+                            linkTo(methodOn(BoletaControllerV2.class).obtenerBoletaPorId(4L)).withRel("boleta"),
+                            linkTo(methodOn(BoletaControllerV2.class).obtenerTodas(null, null)).withRel("boletas").expand(),
+                            linkTo(methodOn(BoletaControllerV2.class).obtenerPorCliente(9L)).withRel("boletas-cliente"))));
+            assertThat(HAL.writeValueAsString(completaAssembler.toModel(parcial)))
+                    .isEqualTo(HAL.writeValueAsString(EntityModel.of(parcial,
+                            linkTo(methodOn(BoletaControllerV2.class).obtenerBoletaCompleta(5L)).withSelfRel(),
+                            linkTo(methodOn(BoletaControllerV2.class).obtenerBoletaPorId(5L)).withRel("boleta"),
+                            linkTo(methodOn(BoletaControllerV2.class).obtenerTodas(null, null)).withRel("boletas").expand())));
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(peticion("http", "localhost", 8081, "")));
+        assertThat(new BoletaResponseDTOModelAssembler().toModel(boleta).getRequiredLink("boletas-cliente").getHref())
+                .isEqualTo("http://localhost:8081/api/v2/boletas/clientes/9");
+    }
+
+    private static MockHttpServletRequest peticion(String esquema, String host, int puerto, String contexto) {
+        MockHttpServletRequest peticion = new MockHttpServletRequest("GET", contexto + "/api/v2/boletas");
+        peticion.setScheme(esquema);
+        peticion.setServerName(host);
+        peticion.setServerPort(puerto);
+        peticion.setContextPath(contexto);
+        return peticion;
+    }
+}
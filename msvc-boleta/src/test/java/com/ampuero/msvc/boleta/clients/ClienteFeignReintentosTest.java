@@ -0,0 +1,91 @@
+package com.ampuero.msvc.boleta.clients;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClienteFeignReintentosTest {
+
+    private final AtomicInteger llamadasRemotas = new AtomicInteger();
+
+    @Test
+    @DisplayName("findClienteById se reintenta tras un 503 y devuelve la respuesta siguiente")
+    public void reintentaFindClienteByIdTras503() throws IOException {
+        RegistroReintentos registro = new RegistroReintentos(politica(20));
+        Client cliente = new ClienteFeignReintentos(responder(503, 200), registro);
+
+        assertThat(cliente.execute(request("findClienteById"), new Request.Options()).status()).isEqualTo(200);
+        assertThat(llamadasRemotas).hasValue(2);
+        assertThat(registro.dependencia("msvc-clientes").reintentos()).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("La consulta en lote sin @Idempotente se envía una sola vez")
+    public void noReintentaConsultaEnLote() throws IOException {
+        Client cliente = new ClienteFeignReintentos(responder(503, 200), new RegistroReintentos(politica(20)));
+
+        assertThat(cliente.execute(request("findClientesByIds"), new Request.Options()).status()).isEqualTo(503);
+        assertThat(llamadasRemotas).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Sin presupuesto se devuelve el último resultado sin seguir reintentando")
+    public void presupuestoAgotadoCortaLosReintentos() throws IOException {
+        RegistroReintentos registro = new RegistroReintentos(politica(1));
+        Client cliente = new ClienteFeignReintentos(responder(503), registro);
+
+        assertThat(cliente.execute(request("findClienteById"), new Request.Options()).status()).isEqualTo(503);
+        assertThat(llamadasRemotas).hasValue(2);
+        assertThat(registro.dependencia("msvc-clientes").presupuesto().getDenegados()).isEqualTo(1);
+    }
+
+    private static PoliticaReintentos politica(double capacidad) {
+        return PoliticaReintentos.builder()
+                .maxReintentos(2)
+                .backoffBase(Duration.ofMillis(1))
+                .backoffMaximo(Duration.ofMillis(5))
+                .capacidadPresupuesto(capacidad)
+                .hedgingMinimo(Duration.ofMillis(20))
+                .build();
+    }
+
+    // Responde los estados indicados en orden; el último se repite
+    private Client responder(int... estados) {
+        return (request, options) -> {
+            int llamada = llamadasRemotas.getAndIncrement();
+            return Response.builder()
+                    .status(estados[Math.min(llamada, estados.length - 1)])
+                    .reason("stub")
+                    .request(request)
+                    .headers(Map.of())
+                    .build();
+        };
+    }
+
+    // Request con los metadatos reales del método Feign, como los arma SpringMvcContract en ejecución
+    private static Request request(String metodo) {
+        MethodMetadata metadata = new SpringMvcContract().parseAndValidateMetadata(ClienteClientRest.class).stream()
+                .filter(m -> m.method().getName().equals(metodo))
+                .findFirst()
+                .orElseThrow();
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(ClienteClientRest.class, "msvc-clientes", "http://localhost"));
+        template.methodMetadata(metadata);
+        return Request.create(Request.HttpMethod.GET, "http://localhost/api/v1/clientes/1",
+                Map.of(), null, StandardCharsets.UTF_8, template);
+    }
+}
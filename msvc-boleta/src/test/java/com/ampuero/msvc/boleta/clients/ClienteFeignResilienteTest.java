@@ -0,0 +1,90 @@
+package com.ampuero.msvc.boleta.clients;
+
+import com.ampuero.msvc.boleta.exceptions.DependenciaNoDisponibleException;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ClienteFeignResilienteTest {
+
+    private CircuitBreakerRegistry circuitBreakers;
+    private BulkheadRegistry bulkheads;
+    private final AtomicInteger llamadasRemotas = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(50)
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordResult(r -> r instanceof Response response && response.status() >= 500)
+                .build());
+        bulkheads = BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(5).build());
+    }
+
+    @Test
+    @DisplayName("Con msvc-clientes respondiendo 5xx el circuito se abre y se rechaza sin llamar al servicio")
+    public void circuitoSeAbreConErrores5xx() throws IOException {
+        Client cliente = new ClienteFeignResiliente(responder(500), circuitBreakers, bulkheads);
+        for (int i = 0; i < 4; i++) {
+            cliente.execute(request(), new Request.Options());
+        }
+
+        assertThat(circuitBreakers.circuitBreaker("msvc-clientes").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> cliente.execute(request(), new Request.Options()))
+                .isInstanceOf(DependenciaNoDisponibleException.class);
+        assertThat(llamadasRemotas).hasValue(4);
+        assertThat(bulkheads.bulkhead("msvc-clientes").getMetrics().getAvailableConcurrentCalls()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Un 404 de msvc-clientes no abre el circuito")
+    public void respuestas404NoAbrenCircuito() throws IOException {
+        Client cliente = new ClienteFeignResiliente(responder(404), circuitBreakers, bulkheads);
+        for (int i = 0; i < 10; i++) {
+            cliente.execute(request(), new Request.Options());
+        }
+
+        assertThat(circuitBreakers.circuitBreaker("msvc-clientes").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(llamadasRemotas).hasValue(10);
+    }
+
+    private Client responder(int status) {
+        return (request, options) -> {
+            llamadasRemotas.incrementAndGet();
+            return Response.builder()
+                    .status(status)
+                    .reason("stub")
+                    .request(request)
+                    .headers(Map.of())
+                    .build();
+        };
+    }
+
+    private static Request request() {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(ClienteClientRest.class, "msvc-clientes", "http://localhost"));
+        return Request.create(Request.HttpMethod.GET, "http://localhost/api/v1/clientes/1",
+                Map.of(), null, StandardCharsets.UTF_8, template);
+    }
+}
@@ -0,0 +1,155 @@
+package com.ampuero.msvc.boleta.repositories;
+
+import com.ampuero.msvc.boleta.models.entities.Boleta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sin transacción de prueba: cada UPDATE debe confirmarse por separado para que
+// los hilos compitan realmente sobre la misma fila.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BoletaRepositoryTest {
+
+    @Autowired
+    private BoletaRepository boletaRepository;
+
+    @Autowired
+    private TotalAplicadoRepository totalAplicadoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    public void limpiar() {
+        boletaRepository.deleteAll();
+        totalAplicadoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("El incremento atómico no pierde actualizaciones concurrentes sobre la misma boleta")
+    public void incrementoConcurrenteMantieneTotalExacto() throws Exception {
+        Boleta boleta = boletaRepository.save(crearBoleta(100.0));
+        Long idBoleta = boleta.getIdBoleta();
+
+        int hilos = 16;
+        int incrementosPorHilo = 50;
+        double monto = 12.5;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<Integer>> resultados = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            resultados.add(executor.submit(() -> {
+                inicio.await();
+                int filas = 0;
+                for (int i = 0; i < incrementosPorHilo; i++) {
+                    filas += boletaRepository.incrementarTotalBoleta(idBoleta, monto);
+                }
+                return filas;
+            }));
+        }
+        inicio.countDown();
+
+        int filasTotales = 0;
+        for (Future<Integer> resultado : resultados) {
+            filasTotales += resultado.get();
+        }
+        executor.shutdown();
+
+        Boleta actualizada = boletaRepository.findById(idBoleta).orElseThrow();
+        assertThat(filasTotales).isEqualTo(hilos * incrementosPorHilo);
+        assertThat(actualizada.getTotalBoleta()).isEqualTo(100.0 + hilos * incrementosPorHilo * monto);
+    }
+
+    @Test
+    @DisplayName("El incremento atómico devuelve 0 filas cuando la boleta no existe")
+    public void incrementoSobreBoletaInexistenteNoActualizaFilas() {
+        int filas = boletaRepository.incrementarTotalBoleta(9999L, 50.0);
+
+        assertThat(filas).isZero();
+    }
+
+    @Test
+    @DisplayName("El incremento atómico trata un total nulo como cero")
+    public void incrementoSobreTotalNulo() {
+        Boleta boleta = boletaRepository.save(crearBoleta(null));
+
+        boletaRepository.incrementarTotalBoleta(boleta.getIdBoleta(), -30.0);
+
+        assertThat(boletaRepository.findById(boleta.getIdBoleta()).orElseThrow().getTotalBoleta()).isEqualTo(-30.0);
+    }
+
+    @Test
+    @DisplayName("La clave de idempotencia se registra solo la primera vez para cada boleta")
+    public void registrarClaveSoloLaPrimeraVez() {
+        assertThat(totalAplicadoRepository.registrarClave("clave-1", 1L)).isEqualTo(1);
+        assertThat(totalAplicadoRepository.registrarClave("clave-1", 1L)).isZero();
+        assertThat(totalAplicadoRepository.registrarClave("clave-2", 1L)).isEqualTo(1);
+        // La misma clave para otra boleta es otro monto
+        assertThat(totalAplicadoRepository.registrarClave("clave-1", 2L)).isEqualTo(1);
+
+        assertThat(totalAplicadoRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Las claves de idempotencia se eliminan al superar la retención")
+    public void eliminarClavesAnterioresAlLimite() {
+        totalAplicadoRepository.registrarClave("clave-1", 1L);
+        totalAplicadoRepository.registrarClave("clave-2", 1L);
+
+        assertThat(totalAplicadoRepository.eliminarAplicadosAntesDe(LocalDateTime.now().minusHours(1))).isZero();
+        assertThat(totalAplicadoRepository.eliminarAplicadosAntesDe(LocalDateTime.now().plusMinutes(1))).isEqualTo(2);
+        assertThat(totalAplicadoRepository.registrarClave("clave-1", 1L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findByIdClientePojo usa el índice por cliente y no recorre la tabla completa")
+    public void busquedaPorClienteUsaIndice() {
+        List<Boleta> boletas = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Boleta boleta = crearBoleta(100.0);
+            boleta.setIdClientePojo((long) (i % 10) + 1);
+            boletas.add(boleta);
+        }
+        boletaRepository.saveAll(boletas);
+
+        String plan;
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            plan = String.valueOf(em.createNativeQuery(
+                    "EXPLAIN SELECT * FROM boletas WHERE id_cliente_pojo = 3").getSingleResult());
+        } finally {
+            em.close();
+        }
+
+        assertThat(plan).containsIgnoringCase("IDX_BOLETAS_ID_CLIENTE")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    private Boleta crearBoleta(Double total) {
+        Boleta boleta = new Boleta();
+        boleta.setFechaEmisionBoleta(LocalDate.now());
+        boleta.setTotalBoleta(total);
+        boleta.setDescripcionBoleta("Boleta de prueba concurrente");
+        boleta.setIdClientePojo(1L);
+        return boleta;
+    }
+}
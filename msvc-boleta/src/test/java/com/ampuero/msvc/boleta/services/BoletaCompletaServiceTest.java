@@ -0,0 +1,140 @@
+package com.ampuero.msvc.boleta.services;
+
+import com.ampuero.msvc.boleta.clients.ClienteClientRest;
+import com.ampuero.msvc.boleta.clients.DetalleClient;
+import com.ampuero.msvc.boleta.dtos.BoletaCompletaDTO;
+import com.ampuero.msvc.boleta.dtos.ClienteResponseDTO;
+import com.ampuero.msvc.boleta.exceptions.ResourceNotFoundException;
+import com.ampuero.msvc.boleta.models.DetallePojo;
+import com.ampuero.msvc.boleta.models.ProductoPojo;
+import com.ampuero.msvc.boleta.models.entities.Boleta;
+import com.ampuero.msvc.boleta.repositories.BoletaRepository;
+import feign.FeignException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BoletaCompletaServiceTest {
+
+    @Mock
+    private BoletaRepository boletaRepository;
+
+    @Mock
+    private ClienteClientRest clienteClientRest;
+
+    @Mock
+    private DetalleClient detalleClient;
+
+    private BoletaCompletaService boletaCompletaService;
+
+    private Boleta boletaPrueba;
+
+    private ClienteResponseDTO clientePrueba;
+
+    @BeforeEach
+    public void setUp() {
+        ClienteCacheService clienteCache = new ClienteCacheService(clienteClientRest, 1_000_000,
+                Duration.ofHours(1), Duration.ofMinutes(5), System::nanoTime, Runnable::run);
+        boletaCompletaService = new BoletaCompletaService(boletaRepository, clienteCache, detalleClient, 100);
+
+        boletaPrueba = new Boleta();
+        boletaPrueba.setIdBoleta(1L);
+        boletaPrueba.setFechaEmisionBoleta(LocalDate.now());
+        boletaPrueba.setTotalBoleta(300.0);
+        boletaPrueba.setDescripcionBoleta("Boleta de prueba");
+        boletaPrueba.setIdClientePojo(7L);
+
+        clientePrueba = new ClienteResponseDTO();
+        clientePrueba.setIdUsuario(7L);
+        clientePrueba.setNombreCliente("Cliente de prueba");
+        clientePrueba.setCorreoCliente("cliente@prueba.cl");
+    }
+
+    @Test
+    @DisplayName("Debe combinar boleta, cliente y líneas de detalle en una sola respuesta completa")
+    public void obtenerCombinaBoletaClienteYDetalles() {
+        when(boletaRepository.findById(1L)).thenReturn(Optional.of(boletaPrueba));
+        when(clienteClientRest.findClienteById(7L)).thenReturn(clientePrueba);
+        when(detalleClient.getDetallesByBoleta(1L)).thenReturn(List.of(detalle(1L, 10L), detalle(2L, 11L)));
+
+        BoletaCompletaDTO resultado = boletaCompletaService.obtener(1L);
+
+        assertThat(resultado.getIdBoleta()).isEqualTo(1L);
+        assertThat(resultado.getTotalBoleta()).isEqualTo(300.0);
+        assertThat(resultado.getCliente().getNombreCliente()).isEqualTo("Cliente de prueba");
+        assertThat(resultado.getDetalles()).extracting(DetallePojo::getIdDetalle).containsExactly(1L, 2L);
+        assertThat(resultado.isParcial()).isFalse();
+        assertThat(resultado.getCamposNoDisponibles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Si msvc-detalle no responde dentro del plazo se entrega la boleta parcial sin esperar")
+    public void detallesLentosDevuelvenRespuestaParcial() {
+        when(boletaRepository.findById(1L)).thenReturn(Optional.of(boletaPrueba));
+        when(clienteClientRest.findClienteById(7L)).thenReturn(clientePrueba);
+        when(detalleClient.getDetallesByBoleta(1L)).thenAnswer(inv -> {
+            Thread.sleep(2000);
+            return List.of(detalle(1L, 10L));
+        });
+
+        long inicio = System.nanoTime();
+        BoletaCompletaDTO resultado = boletaCompletaService.obtener(1L);
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        assertThat(duracionMs).isLessThan(1000);
+        assertThat(resultado.getCliente()).isNotNull();
+        assertThat(resultado.getDetalles()).isNull();
+        assertThat(resultado.isParcial()).isTrue();
+        assertThat(resultado.getCamposNoDisponibles()).containsExactly("detalles");
+    }
+
+    @Test
+    @DisplayName("Un fallo de msvc-clientes o un producto degradado marcan la respuesta como parcial")
+    public void clienteCaidoYProductoDegradadoSonParciales() {
+        DetallePojo degradado = detalle(2L, 11L);
+        degradado.getProducto().setNombreProducto(null);
+        degradado.setCamposNoDisponibles(List.of("producto"));
+        when(boletaRepository.findById(1L)).thenReturn(Optional.of(boletaPrueba));
+        when(clienteClientRest.findClienteById(7L)).thenThrow(mock(FeignException.class));
+        when(detalleClient.getDetallesByBoleta(1L)).thenReturn(List.of(detalle(1L, 10L), degradado));
+
+        BoletaCompletaDTO resultado = boletaCompletaService.obtener(1L);
+
+        assertThat(resultado.getCliente()).isNull();
+        assertThat(resultado.getDetalles()).hasSize(2);
+        assertThat(resultado.isParcial()).isTrue();
+        assertThat(resultado.getCamposNoDisponibles()).containsExactly("cliente", "producto");
+    }
+
+    @Test
+    @DisplayName("Si la boleta no existe lanza ResourceNotFoundException sin consultar otros servicios")
+    public void boletaInexistenteLanzaExcepcion() {
+        when(boletaRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> boletaCompletaService.obtener(99L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("99");
+        verify(clienteClientRest, never()).findClienteById(anyLong());
+        verify(detalleClient, never()).getDetallesByBoleta(anyLong());
+    }
+
+    private static DetallePojo detalle(Long idDetalle, Long idProducto) {
+        ProductoPojo producto = new ProductoPojo(idProducto, "Producto " + idProducto, "Descripcion", 150.0);
+        return new DetallePojo(idDetalle, producto, 1, 150.0, 150.0, null);
+    }
+}
@@ -4,28 +4,40 @@ import com.ampuero.msvc.boleta.clients.ClienteClientRest;
 import com.ampuero.msvc.boleta.dtos.BoletaDTO;
 import com.ampuero.msvc.boleta.dtos.BoletaResponseDTO;
 import com.ampuero.msvc.boleta.dtos.ClienteResponseDTO;
+import com.ampuero.msvc.boleta.dtos.PaginaBoletasDTO;
 import com.ampuero.msvc.boleta.exceptions.BoletaException;
+import com.ampuero.msvc.boleta.exceptions.DependenciaNoDisponibleException;
 import com.ampuero.msvc.boleta.exceptions.ResourceNotFoundException;
 import com.ampuero.msvc.boleta.models.entities.Boleta;
 import com.ampuero.msvc.boleta.repositories.BoletaRepository;
+import com.ampuero.msvc.boleta.repositories.TotalAplicadoRepository;
+import feign.FeignException;
 import net.datafaker.Faker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -40,7 +52,9 @@ public class BoletaServiceTest {
     @Mock
     private ClienteClientRest clienteClientRest;
 
-    @InjectMocks
+    @Mock
+    private TotalAplicadoRepository totalAplicadoRepository;
+
     private BoletaServiceImpl boletaService;
 
     private List<Boleta> boletaList = new ArrayList<>();
@@ -49,6 +63,11 @@ public class BoletaServiceTest {
 
     @BeforeEach
     public void setUp() {
+        // Caché real sobre el cliente simulado; los refrescos se ejecutan en el mismo hilo
+        ClienteCacheService clienteCache = new ClienteCacheService(clienteClientRest, 1_000_000,
+                Duration.ofHours(1), Duration.ofMinutes(5), System::nanoTime, Runnable::run);
+        boletaService = new BoletaServiceImpl(boletaRepository, clienteCache, totalAplicadoRepository);
+
         Faker faker = new Faker(Locale.of("es", "CL"));
         for(int i=0;i<100;i++){
             Boleta boleta = new Boleta();
@@ -97,6 +116,33 @@ public class BoletaServiceTest {
         BoletaResponseDTO resultado = boletaService.obtenerBoletaPorId(1L);
     }
 
+    @Test
+    @DisplayName("Consultas repetidas del mismo cliente se resuelven desde la cache")
+    public void obtenerBoletaPorIdReutilizaClienteCacheado() {
+        boletaPrueba.setIdClientePojo(7L);
+        when(boletaRepository.findById(1L)).thenReturn(Optional.of(boletaPrueba));
+        when(clienteClientRest.findClienteById(7L)).thenReturn(crearCliente(7L));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(boletaService.obtenerBoletaPorId(1L).getCliente().getIdUsuario()).isEqualTo(7L);
+        }
+
+        verify(clienteClientRest, times(1)).findClienteById(7L);
+    }
+
+    @Test
+    @DisplayName("Con el circuito de clientes abierto falla al instante con BoletaException")
+    public void obtenerBoletaPorIdConCircuitoAbierto() {
+        when(boletaRepository.findById(1L)).thenReturn(Optional.of(boletaPrueba));
+        when(clienteClientRest.findClienteById(anyLong())).thenThrow(new DependenciaNoDisponibleException(
+                "Circuito abierto para msvc-clientes", feign.Request.create(feign.Request.HttpMethod.GET,
+                        "http://localhost:8085/api/v1/clientes/1", Map.of(), null, StandardCharsets.UTF_8, null)));
+
+        assertThatThrownBy(() -> boletaService.obtenerBoletaPorId(1L))
+                .isInstanceOf(BoletaException.class)
+                .hasMessageContaining("Circuito abierto");
+    }
+
     @Test
     @DisplayName("Debe lanzar una excepcion si el id no existe")
     public void DebeLanzarExcepcionSiElIdNoExiste() {
@@ -111,15 +157,76 @@ public class BoletaServiceTest {
     @Test
     @DisplayName("Obtener todas las boletas con sus Clientes")
     public void obtenerTodasLasBoletasOmiteBoletasConClienteInvalido() {
+        // El cliente 1 no existe en msvc-clientes: solo la primera boleta le pertenece y se omite
+        boletaList.forEach(b -> { if (b.getIdClientePojo() == 1L) b.setIdClientePojo(2L); });
+        boletaList.get(0).setIdClientePojo(1L);
         when(boletaRepository.findAll()).thenReturn(boletaList);
-        when(clienteClientRest.findClienteById(anyLong())).thenReturn(new ClienteResponseDTO());
+        when(clienteClientRest.findClientesByIds(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().filter(id -> id != 1L).map(this::crearCliente).toList();
+        });
 
         List<BoletaResponseDTO> resultado = boletaService.obtenerTodas();
 
-        assertThat(resultado).hasSize(100);
+        assertThat(resultado).hasSize(99);
+        assertThat(resultado).allSatisfy(b -> assertThat(b.getCliente().getIdUsuario()).isNotEqualTo(1L));
 
         verify(boletaRepository, times(1)).findAll();
-        verify(clienteClientRest, times(100)).findClienteById(anyLong());
+        verify(clienteClientRest, times(1)).findClientesByIds(anyCollection());
+        verify(clienteClientRest, never()).findClienteById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Obtener todas las boletas pide cada cliente distinto una sola vez")
+    public void obtenerTodasPideClientesDistintosEnUnaLlamada() {
+        when(boletaRepository.findAll()).thenReturn(boletaList);
+        when(clienteClientRest.findClientesByIds(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(this::crearCliente).toList();
+        });
+
+        List<BoletaResponseDTO> resultado = boletaService.obtenerTodas();
+
+        Set<Long> clientesDistintos = boletaList.stream().map(Boleta::getIdClientePojo).collect(Collectors.toSet());
+        ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(clienteClientRest).findClientesByIds(captor.capture());
+        assertThat(captor.getValue()).containsExactlyInAnyOrderElementsOf(clientesDistintos);
+        assertThat(resultado).hasSize(100);
+        assertThat(resultado).allSatisfy(b -> assertThat(b.getCliente()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("Si el servicio de clientes falla se omiten las boletas sin propagar el error")
+    public void obtenerTodasOmiteBoletasSiFallaServicioClientes() {
+        when(boletaRepository.findAll()).thenReturn(boletaList);
+        when(clienteClientRest.findClientesByIds(anyCollection()))
+                .thenThrow(FeignException.errorStatus("findClientesByIds", feign.Response.builder()
+                        .status(503)
+                        .reason("Service Unavailable")
+                        .request(feign.Request.create(feign.Request.HttpMethod.GET, "/api/v1/clientes",
+                                Map.of(), null, StandardCharsets.UTF_8, null))
+                        .build()));
+
+        List<BoletaResponseDTO> resultado = boletaService.obtenerTodas();
+
+        assertThat(resultado).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Obtener por ids consulta solo las boletas pedidas y omite los ids inexistentes")
+    public void obtenerPorIdsOmiteInexistentes() {
+        List<Boleta> encontradas = boletaList.subList(0, 3);
+        when(boletaRepository.findAllById(List.of(1L, 2L, 3L, 999L))).thenReturn(encontradas);
+        when(clienteClientRest.findClientesByIds(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(this::crearCliente).toList();
+        });
+
+        List<BoletaResponseDTO> resultado = boletaService.obtenerPorIds(List.of(1L, 2L, 3L, 999L));
+
+        assertThat(resultado).extracting(BoletaResponseDTO::getIdBoleta).containsExactly(1L, 2L, 3L);
+        assertThat(boletaService.obtenerPorIds(List.of())).isEmpty();
+        verify(boletaRepository, never()).findAll();
     }
 
     @Test
@@ -133,6 +240,39 @@ public class BoletaServiceTest {
         verify(boletaRepository, times(1)).findAll();
     }
 
+    @Test
+    @DisplayName("Pagina keyset: devuelve limit boletas y el cursor de la siguiente pagina")
+    public void obtenerPaginaDevuelveCursorSiguiente() {
+        when(boletaRepository.findByIdBoletaGreaterThanOrderByIdBoletaAsc(10L, Limit.of(6)))
+                .thenReturn(new ArrayList<>(boletaList.subList(10, 16)));
+        when(clienteClientRest.findClientesByIds(anyCollection()))
+                .thenAnswer(inv -> ((Collection<Long>) inv.getArgument(0)).stream().map(this::crearCliente).toList());
+
+        PaginaBoletasDTO pagina = boletaService.obtenerPagina(10L, 5);
+
+        assertThat(pagina.getContenido()).extracting(BoletaResponseDTO::getIdBoleta)
+                .containsExactly(11L, 12L, 13L, 14L, 15L);
+        assertThat(pagina.getSiguienteCursor()).isEqualTo(15L);
+        assertThat(pagina.getLimite()).isEqualTo(5);
+        verify(clienteClientRest, times(1)).findClientesByIds(anyCollection());
+        verify(boletaRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Pagina keyset: la ultima pagina no tiene cursor y el limite se acota al maximo")
+    public void obtenerUltimaPaginaSinCursor() {
+        when(boletaRepository.findByIdBoletaGreaterThanOrderByIdBoletaAsc(0L, Limit.of(BoletaServiceImpl.LIMITE_MAXIMO + 1)))
+                .thenReturn(boletaList);
+        when(clienteClientRest.findClientesByIds(anyCollection()))
+                .thenAnswer(inv -> ((Collection<Long>) inv.getArgument(0)).stream().map(this::crearCliente).toList());
+
+        PaginaBoletasDTO pagina = boletaService.obtenerPagina(null, 1000);
+
+        assertThat(pagina.getContenido()).hasSize(100);
+        assertThat(pagina.getSiguienteCursor()).isNull();
+        assertThat(pagina.getLimite()).isEqualTo(BoletaServiceImpl.LIMITE_MAXIMO);
+    }
+
     @Test
     @DisplayName("Obtener todas las boletas de un ID Cliente")
     public void obtenerBoletasPorIdClienteCuandoExiste() {
@@ -185,28 +325,40 @@ public class BoletaServiceTest {
     @Test
     @DisplayName("Debe actualizar el total de Boleta por ID cuando existe.")
     public void debeActualizarTotalBoletaPorIdCuandoExiste() {
-        Boleta boleta = new Boleta();
-        boleta.setIdBoleta(1L);
-        boleta.setTotalBoleta(100.0);
+        when(boletaRepository.incrementarTotalBoleta(1L, 50.0)).thenReturn(1);
 
-        when(boletaRepository.findById(1L)).thenReturn(Optional.of(boleta));
+        boletaService.actualizarTotalBoleta(1L, 50.0, null);
 
-        boletaService.actualizarTotalBoleta(1L, 50.0);
+        verify(boletaRepository, times(1)).incrementarTotalBoleta(1L, 50.0);
+        verify(boletaRepository, never()).findById(anyLong());
+        verify(boletaRepository, never()).save(any());
+        verifyNoInteractions(totalAplicadoRepository);
+    }
 
-        verify(boletaRepository, times(1)).findById(1L);
-        verify(boletaRepository).save(argThat(b -> b.getTotalBoleta() == 150.0));
+    @Test
+    @DisplayName("Suma el monto una sola vez cuando se reenvía con la misma clave de idempotencia")
+    public void omiteMontoConClaveYaAplicada() {
+        String clave = "3f2b8c1e-6d4a-4f0e-9a57-2c1d8e7b5a90";
+        when(totalAplicadoRepository.registrarClave(clave, 1L)).thenReturn(1).thenReturn(0);
+        when(boletaRepository.incrementarTotalBoleta(1L, 50.0)).thenReturn(1);
+
+        boletaService.actualizarTotalBoleta(1L, 50.0, clave);
+        boletaService.actualizarTotalBoleta(1L, 50.0, clave);
+
+        verify(totalAplicadoRepository, times(2)).registrarClave(clave, 1L);
+        verify(boletaRepository, times(1)).incrementarTotalBoleta(1L, 50.0);
     }
 
     @Test
     @DisplayName("Lanza excepcion si la boleta no existe al intentar actualizar el total")
     public void lanzaExcepcionAlActualizarBoletaNoExiste() {
         Long idInexistente = 99L;
-        when(boletaRepository.findById(idInexistente)).thenReturn(Optional.empty());
+        when(boletaRepository.incrementarTotalBoleta(idInexistente, 50.0)).thenReturn(0);
 
-        assertThatThrownBy(() -> boletaService.actualizarTotalBoleta(idInexistente, 50.0))
+        assertThatThrownBy(() -> boletaService.actualizarTotalBoleta(idInexistente, 50.0, null))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Boleta no encontrada con ID: "+ idInexistente + " para actualizar total");
-        verify(boletaRepository, times(1)).findById(idInexistente);
+        verify(boletaRepository, times(1)).incrementarTotalBoleta(idInexistente, 50.0);
         verify(boletaRepository, never()).save(any());
     }
 
@@ -234,4 +386,10 @@ public class BoletaServiceTest {
         verify(boletaRepository, never()).deleteById(idInexistente);
     }
 
+
+    private ClienteResponseDTO crearCliente(Long idCliente) {
+        ClienteResponseDTO cliente = new ClienteResponseDTO();
+        cliente.setIdUsuario(idCliente);
+        return cliente;
+    }
 }
@@ -0,0 +1,176 @@
+package com.ampuero.msvc.boleta.services;
+
+import com.ampuero.msvc.boleta.clients.ClienteClientRest;
+import com.ampuero.msvc.boleta.dtos.CacheStatsDTO;
+import com.ampuero.msvc.boleta.dtos.ClienteResponseDTO;
+import feign.FeignException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ClienteCacheServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(60);
+    private static final Duration REFRESCO = Duration.ofMinutes(5);
+
+    @Mock
+    private ClienteClientRest clienteClientRest;
+
+    // Reloj manual para avanzar el tiempo sin esperas
+    private final AtomicLong reloj = new AtomicLong();
+
+    private ClienteCacheService clienteCache;
+
+    @BeforeEach
+    public void setUp() {
+        clienteCache = crearCache(1_000_000, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("La segunda lectura del mismo cliente no llama a msvc-clientes")
+    public void lecturasRepetidasUsanLaCache() {
+        when(clienteClientRest.findClienteById(1L)).thenReturn(crearCliente(1L, "Ana"));
+
+        clienteCache.obtener(1L);
+        clienteCache.obtener(1L);
+
+        verify(clienteClientRest, times(1)).findClienteById(1L);
+        CacheStatsDTO stats = clienteCache.estadisticas();
+        assertThat(stats.getAciertos()).isEqualTo(1);
+        assertThat(stats.getFallos()).isEqualTo(1);
+        assertThat(stats.getTamanio()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Pasado el intervalo de refresco se entrega el valor anterior mientras se recarga")
+    public void entregaValorAnteriorMientrasRefresca() {
+        // Ejecutor que retiene el refresco para simular la llamada remota en curso
+        List<Runnable> pendientes = new ArrayList<>();
+        clienteCache = crearCache(1_000_000, pendientes::add);
+        when(clienteClientRest.findClienteById(1L))
+                .thenReturn(crearCliente(1L, "Ana"))
+                .thenReturn(crearCliente(1L, "Ana Maria"));
+
+        clienteCache.obtener(1L);
+        reloj.addAndGet(REFRESCO.plusSeconds(1).toNanos());
+
+        assertThat(clienteCache.obtener(1L).getNombreCliente()).isEqualTo("Ana");
+        assertThat(pendientes).isNotEmpty();
+
+        List.copyOf(pendientes).forEach(Runnable::run);
+        assertThat(clienteCache.obtener(1L).getNombreCliente()).isEqualTo("Ana Maria");
+        verify(clienteClientRest, times(2)).findClienteById(1L);
+    }
+
+    @Test
+    @DisplayName("Si el refresco falla se conserva el valor anterior")
+    public void refrescoFallidoConservaValorAnterior() {
+        when(clienteClientRest.findClienteById(1L))
+                .thenReturn(crearCliente(1L, "Ana"))
+                .thenThrow(errorFeign(503));
+
+        clienteCache.obtener(1L);
+        reloj.addAndGet(REFRESCO.plusSeconds(1).toNanos());
+
+        assertThat(clienteCache.obtener(1L).getNombreCliente()).isEqualTo("Ana");
+        assertThat(clienteCache.obtener(1L).getNombreCliente()).isEqualTo("Ana");
+        assertThat(clienteCache.estadisticas().getCargasFallidas()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Pasado el TTL la entrada expira y se vuelve a consultar")
+    public void entradaExpiraTrasTtl() {
+        when(clienteClientRest.findClienteById(1L)).thenReturn(crearCliente(1L, "Ana"));
+
+        clienteCache.obtener(1L);
+        reloj.addAndGet(TTL.plusSeconds(1).toNanos());
+        clienteCache.obtener(1L);
+
+        verify(clienteClientRest, times(2)).findClienteById(1L);
+    }
+
+    @Test
+    @DisplayName("Invalidar un cliente obliga a consultarlo de nuevo")
+    public void invalidarFuerzaNuevaConsulta() {
+        when(clienteClientRest.findClienteById(1L))
+                .thenReturn(crearCliente(1L, "Ana"))
+                .thenReturn(crearCliente(1L, "Ana Maria"));
+
+        clienteCache.obtener(1L);
+        clienteCache.invalidar(1L);
+
+        assertThat(clienteCache.obtener(1L).getNombreCliente()).isEqualTo("Ana Maria");
+        assertThat(clienteCache.estadisticas().getInvalidaciones()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("obtenerVarios pide en una sola llamada solo los clientes que faltan")
+    public void obtenerVariosPideSoloFaltantes() {
+        when(clienteClientRest.findClienteById(1L)).thenReturn(crearCliente(1L, "Ana"));
+        when(clienteClientRest.findClientesByIds(anyCollection())).thenAnswer(inv ->
+                ((Collection<Long>) inv.getArgument(0)).stream()
+                        .filter(id -> id != 3L)
+                        .map(id -> crearCliente(id, "Cliente " + id))
+                        .toList());
+        clienteCache.obtener(1L);
+
+        Map<Long, ClienteResponseDTO> clientes = clienteCache.obtenerVarios(List.of(1L, 2L, 3L));
+
+        assertThat(clientes).containsOnlyKeys(1L, 2L);
+        verify(clienteClientRest).findClientesByIds(argThat(ids -> ids.size() == 2 && !ids.contains(1L)));
+    }
+
+    @Test
+    @DisplayName("Se desalojan entradas al superar el peso maximo")
+    public void desalojaAlSuperarPesoMaximo() {
+        clienteCache = crearCache(500, Runnable::run);
+        when(clienteClientRest.findClientesByIds(anyCollection())).thenAnswer(inv ->
+                ((Collection<Long>) inv.getArgument(0)).stream()
+                        .map(id -> crearCliente(id, "Cliente con nombre largo " + id))
+                        .toList());
+
+        clienteCache.obtenerVarios(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+
+        CacheStatsDTO stats = clienteCache.estadisticas();
+        assertThat(stats.getPesoTotal()).isLessThanOrEqualTo(500);
+        assertThat(stats.getDesalojos()).isPositive();
+    }
+
+    private ClienteCacheService crearCache(long maxPeso, Executor ejecutor) {
+        return new ClienteCacheService(clienteClientRest, maxPeso, TTL, REFRESCO, reloj::get, ejecutor);
+    }
+
+    private ClienteResponseDTO crearCliente(Long idCliente, String nombre) {
+        ClienteResponseDTO cliente = new ClienteResponseDTO();
+        cliente.setIdUsuario(idCliente);
+        cliente.setNombreCliente(nombre);
+        cliente.setCorreoCliente("cliente" + idCliente + "@perfulandia.cl");
+        return cliente;
+    }
+
+    private FeignException errorFeign(int status) {
+        return FeignException.errorStatus("findClienteById", feign.Response.builder()
+                .status(status)
+                .reason("Error")
+                .request(feign.Request.create(feign.Request.HttpMethod.GET, "/api/v1/clientes/1",
+                        Map.of(), null, StandardCharsets.UTF_8, null))
+                .build());
+    }
+}
@@ -0,0 +1,136 @@
+package com.ampuero.msvc.boleta.services;
+
+import com.ampuero.msvc.boleta.clients.DetalleClient;
+import com.ampuero.msvc.boleta.dtos.ResultadoConciliacionDTO;
+import com.ampuero.msvc.boleta.models.entities.Boleta;
+import com.ampuero.msvc.boleta.repositories.BoletaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConciliacionTotalesServiceTest {
+
+    @Mock
+    private BoletaRepository boletaRepository;
+
+    @Mock
+    private DetalleClient detalleClient;
+
+    private ConciliacionTotalesService conciliacionService;
+
+    @BeforeEach
+    public void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        conciliacionService = new ConciliacionTotalesService(boletaRepository, detalleClient, new ObjectMapper(),
+                transactionTemplate, true, 2, 0.005);
+    }
+
+    @Test
+    @DisplayName("Corrige por bloques las boletas con diferencia y omite pendientes, concurrentes y totales sin boleta")
+    public void conciliaPorBloques() {
+        // Given: bloques de 2 boletas
+        when(boletaRepository.findByIdBoletaGreaterThanOrderByIdBoletaAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(boleta(1L, 100.0), boleta(2L, 500.0)));
+        when(boletaRepository.findByIdBoletaGreaterThanOrderByIdBoletaAsc(2L, Limit.of(2)))
+                .thenReturn(List.of(boleta(3L, 50.0), boleta(4L, 10.0)));
+        when(boletaRepository.findByIdBoletaGreaterThanOrderByIdBoletaAsc(4L, Limit.of(2)))
+                .thenReturn(List.of());
+        // Boleta 1 cuadra, la 2 difiere, la 3 no tiene detalles (debe sumar 0), la 4 tiene montos pendientes
+        // y la 9 no existe en este servicio
+        when(detalleClient.getTotalesPorBoleta(isNull())).thenReturn(ndjson(
+                "{\"idBoleta\":1,\"total\":100.0,\"lineas\":1,\"pendiente\":false}",
+                "{\"idBoleta\":2,\"total\":300.0,\"lineas\":2,\"pendiente\":false}",
+                "{\"idBoleta\":4,\"total\":999.0,\"lineas\":3,\"pendiente\":true}",
+                "{\"idBoleta\":9,\"total\":10.0,\"lineas\":1,\"pendiente\":false}"));
+        when(detalleClient.getTotalesPorBoleta(List.of(2L))).thenReturn(ndjson(
+                "{\"idBoleta\":2,\"total\":300.0,\"lineas\":2,\"pendiente\":false}"));
+        when(detalleClient.getTotalesPorBoleta(List.of(3L))).thenReturn(ndjson());
+        when(boletaRepository.corregirTotalBoleta(2L, 300.0, 500.0)).thenReturn(1);
+        // El total de la boleta 3 cambió entre la lectura y la corrección
+        when(boletaRepository.corregirTotalBoleta(3L, 0.0, 50.0)).thenReturn(0);
+
+        // When
+        ResultadoConciliacionDTO resultado = conciliacionService.conciliar().orElseThrow();
+
+        // Then
+        assertThat(resultado.isCompletada()).isTrue();
+        assertThat(resultado.getRevisadas()).isEqualTo(4);
+        assertThat(resultado.getConDiferencia()).isEqualTo(2);
+        assertThat(resultado.getCorregidas()).isEqualTo(1);
+        assertThat(resultado.getOmitidasConcurrencia()).isEqualTo(1);
+        assertThat(resultado.getOmitidasPendientes()).isEqualTo(1);
+        assertThat(resultado.getTotalesSinBoleta()).isEqualTo(1);
+        assertThat(resultado.getDiferenciaCorregida()).isEqualTo(200.0);
+        assertThat(conciliacionService.getUltimoResultado()).contains(resultado);
+        verify(boletaRepository, never()).corregirTotalBoleta(eq(1L), anyDouble(), anyDouble());
+        verify(boletaRepository, never()).corregirTotalBoleta(eq(4L), anyDouble(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Si una diferencia desaparece al volver a verificarla no se corrige")
+    public void noCorrigeSiLaDiferenciaDesaparece() {
+        when(boletaRepository.findByIdBoletaGreaterThanOrderByIdBoletaAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(boleta(1L, 400.0)));
+        when(boletaRepository.findByIdBoletaGreaterThanOrderByIdBoletaAsc(1L, Limit.of(2)))
+                .thenReturn(List.of());
+        when(detalleClient.getTotalesPorBoleta(isNull())).thenReturn(ndjson(
+                "{\"idBoleta\":1,\"total\":100.0,\"lineas\":1,\"pendiente\":false}"));
+        // Mientras tanto se agregó un detalle y la suma ya coincide con la boleta
+        when(detalleClient.getTotalesPorBoleta(List.of(1L))).thenReturn(ndjson(
+                "{\"idBoleta\":1,\"total\":400.0,\"lineas\":2,\"pendiente\":false}"));
+
+        ResultadoConciliacionDTO resultado = conciliacionService.conciliar().orElseThrow();
+
+        assertThat(resultado.getConDiferencia()).isEqualTo(1);
+        assertThat(resultado.getCorregidas()).isZero();
+        verify(boletaRepository, never()).corregirTotalBoleta(anyLong(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Si msvc-detalle no responde la ejecución queda incompleta y no se modifica ninguna boleta")
+    public void detalleCaidoNoCorrigeNada() {
+        when(detalleClient.getTotalesPorBoleta(isNull())).thenThrow(mock(FeignException.class));
+
+        ResultadoConciliacionDTO resultado = conciliacionService.conciliar().orElseThrow();
+
+        assertThat(resultado.isCompletada()).isFalse();
+        assertThat(resultado.getRevisadas()).isZero();
+        verifyNoInteractions(boletaRepository);
+    }
+
+    private static Boleta boleta(Long id, Double total) {
+        return new Boleta(id, LocalDate.now(), total, "Boleta " + id, 1L);
+    }
+
+    private static Response ndjson(String... lineas) {
+        String cuerpo = lineas.length == 0 ? "" : String.join("\n", lineas) + "\n";
+        return Response.builder()
+                .status(200)
+                .reason("OK")
+                .request(Request.create(Request.HttpMethod.GET, "http://localhost/api/v1/detalles/totales",
+                        Map.of(), null, StandardCharsets.UTF_8, null))
+                .headers(Map.of())
+                .body(cuerpo, StandardCharsets.UTF_8)
+                .build();
+    }
+}
@@ -3,20 +3,23 @@ package com.ampuero.msvc.clientes.assemblers;
 import com.ampuero.msvc.clientes.controllers.ClienteControllerV2;
 import com.ampuero.msvc.clientes.models.Cliente;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.stereotype.Component;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @Component
 public class ClienteModelAssembler implements RepresentationModelAssembler<Cliente, EntityModel<Cliente>>{
 
+    // Rutas de ClienteControllerV2 resueltas una sola vez (ver PlantillaEnlace)
+    private static final PlantillaEnlace CLIENTE = PlantillaEnlace.de(ClienteControllerV2.class, "traerCliente", Long.class);
+    private static final PlantillaEnlace CLIENTES = PlantillaEnlace.de(ClienteControllerV2.class, "traerTodos");
+
     @Override
     public EntityModel<Cliente> toModel(Cliente entity) {
         return EntityModel.of(
                 entity,
-                linkTo(methodOn(ClienteControllerV2.class).traerCliente(entity.getIdUsuario())).withSelfRel(),
-                linkTo(methodOn(ClienteControllerV2.class).traerTodos()).withRel("clientes")
+                CLIENTE.expandir(IanaLinkRelations.SELF, entity.getIdUsuario()),
+                CLIENTES.expandir("clientes")
         );
     }
 }
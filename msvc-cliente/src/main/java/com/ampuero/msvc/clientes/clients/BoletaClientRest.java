@@ -1,7 +1,12 @@
 package com.ampuero.msvc.clientes.clients;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 
 @FeignClient(name = "msvc-boletas", url = "http://localhost:8081")
 public interface BoletaClientRest {
+
+    @DeleteMapping("/api/v1/boletas/cache/clientes/{idCliente}")
+    void invalidarClienteEnCache(@PathVariable("idCliente") Long idCliente);
 }
@@ -0,0 +1,27 @@
+package com.ampuero.msvc.clientes.config;
+
+import io.micrometer.tracing.otel.bridge.BaggageTaggingSpanProcessor;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Trazas distribuidas (Micrometer Tracing sobre OpenTelemetry, exportadas por OTLP a
+ * management.otlp.tracing.endpoint).
+ *
+ * Spring Boot crea los spans de servidor de los controladores, ObservacionFeignCapability los de
+ * cliente Feign y datasource-micrometer los de JDBC. Las rutas de msvc-clientes no llevan ids de
+ * boleta, producto ni detalle; los que llegan como baggage desde el servicio que llama (p. ej.
+ * idBoleta desde msvc-boletas) se copian como atributo a cada span que se inicia con ellos.
+ */
+@Configuration
+public class TrazasConfig {
+
+    @Bean
+    public SpanProcessor atributosDesdeBaggage(@Value("${management.tracing.baggage.tag-fields:}") List<String> campos) {
+        return new BaggageTaggingSpanProcessor(campos);
+    }
+}
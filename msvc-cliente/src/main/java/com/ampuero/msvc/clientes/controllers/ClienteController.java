@@ -93,6 +93,31 @@ public class ClienteController {
                 .body(clienteService.traerTodos());
     }
 
+    @GetMapping(params = "ids")
+    @Operation(
+            summary = "Endpoint que devuelve varios clientes por sus ids",
+            description = "Endpoint que devuelve en una sola consulta los clientes cuyos ids se indiquen " +
+                    "en el parametro ids; los ids inexistentes se omiten de la respuesta"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Obtencion por ids correcta"
+            )
+    })
+    @Parameters(value = {
+            @Parameter(
+                    name = "ids",
+                    description = "Lista de Primary Keys de Cliente separadas por coma",
+                    required = true
+            )
+    })
+    public ResponseEntity<List<Cliente>> traerPorIds(@RequestParam List<Long> ids) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(clienteService.traerPorIds(ids));
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Endpoint que devuelve un cliente por id",
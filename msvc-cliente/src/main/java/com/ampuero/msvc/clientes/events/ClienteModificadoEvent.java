@@ -0,0 +1,12 @@
+package com.ampuero.msvc.clientes.events;
+
+/**
+ * Evento publicado cuando un Cliente se actualiza, cambia de estado o se elimina.
+ *
+ * Los servicios que guardan copias locales del Cliente (por ejemplo la caché de msvc-boleta)
+ * lo usan para descartarlas.
+ *
+ * @param idCliente ID del Cliente modificado
+ */
+public record ClienteModificadoEvent(Long idCliente) {
+}
@@ -0,0 +1,40 @@
+package com.ampuero.msvc.clientes.events;
+
+import com.ampuero.msvc.clientes.clients.BoletaClientRest;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Avisa a msvc-boleta que invalide su copia en caché de un Cliente modificado.
+ *
+ * Se ejecuta después del commit para que msvc-boleta no vuelva a leer el dato anterior,
+ * y sin romper la operación del cliente si msvc-boleta no responde: en ese caso la entrada
+ * caduca sola por el refresco/TTL de la caché.
+ *
+ * @author Perfulandia Team
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class InvalidacionCacheBoletaListener {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidacionCacheBoletaListener.class);
+
+    private final BoletaClientRest boletaClientRest;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void alModificarCliente(ClienteModificadoEvent evento) {
+        try {
+            boletaClientRest.invalidarClienteEnCache(evento.idCliente());
+            log.info("Cache de msvc-boleta invalidada para cliente {}", evento.idCliente());
+        } catch (FeignException e) {
+            log.warn("No se pudo invalidar la cache de msvc-boleta para cliente {}: {}",
+                    evento.idCliente(), e.getMessage());
+        }
+    }
+}
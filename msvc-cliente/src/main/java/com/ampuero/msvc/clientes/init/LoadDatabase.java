@@ -13,6 +13,8 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 @Profile("dev")
@@ -44,6 +46,7 @@ public class LoadDatabase implements CommandLineRunner {
         //em.createNativeQuery("ALTER TABLE clientes ALTER COLUMN id_cliente RESTART WITH 1").executeUpdate();
 
         if(clienteRepository.count()==0){
+            List<Cliente> clientes = new ArrayList<>(100);
             for(int i=0;i<100;i++){
                 Cliente cliente = new Cliente();
 
@@ -53,10 +56,11 @@ public class LoadDatabase implements CommandLineRunner {
                 cliente.setContraseniaCliente(faker.internet().password(8, 16, true, true, true));
                 cliente.setDireccionEnvioCliente(faker.address().fullAddress());
                 logger.info("El nombre que agregas es {}", cliente.getNombreCliente());
-                cliente = clienteRepository.save(cliente);
-                logger.info("EL cliente creado es: {}", cliente);
+                clientes.add(cliente);
 
             }
+            clienteRepository.saveAll(clientes);
+            logger.info("Se crearon {} clientes en lotes", clientes.size());
         }
 
     }
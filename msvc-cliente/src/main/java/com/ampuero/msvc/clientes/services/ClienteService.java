@@ -4,11 +4,13 @@ import com.ampuero.msvc.clientes.dtos.ClienteCreationDTO;
 import com.ampuero.msvc.clientes.dtos.ClienteEstadoDTO;
 import com.ampuero.msvc.clientes.models.Cliente;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ClienteService {
     List<Cliente> traerTodos();
     Cliente traerPorId(Long id);
+    List<Cliente> traerPorIds(Collection<Long> ids);
     Cliente crearCliente(ClienteCreationDTO clienteDetails);
     void eliminarCliente(Long id);
     Cliente actualizarCliente(Long id, Cliente cliente);
@@ -2,15 +2,18 @@ package com.ampuero.msvc.clientes.services;
 
 import com.ampuero.msvc.clientes.dtos.ClienteCreationDTO;
 import com.ampuero.msvc.clientes.dtos.ClienteEstadoDTO;
+import com.ampuero.msvc.clientes.events.ClienteModificadoEvent;
 import com.ampuero.msvc.clientes.exceptions.ClienteException;
 import com.ampuero.msvc.clientes.models.Cliente;
 import com.ampuero.msvc.clientes.repositories.ClienteRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +22,7 @@ import java.util.Optional;
  * Implementación del servicio de gestión de clientes.
  *
  * Esta clase maneja todas las operaciones CRUD relacionados con clientes.
+ * Las modificaciones publican un ClienteModificadoEvent para invalidar las copias en caché de otros servicios.
  *
  * @author Perfulandia Team
  * @version 1.0
@@ -28,6 +32,9 @@ public class ClienteServiceImpl implements ClienteService {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private static final Logger log = LoggerFactory.getLogger(ClienteServiceImpl.class);
 
     /**
@@ -92,6 +99,23 @@ public class ClienteServiceImpl implements ClienteService {
         );
     }
 
+    /**
+     * Obtiene en una sola consulta todos los Clientes cuyos IDs se indiquen
+     *
+     * @param ids IDs de los Clientes a buscar
+     *
+     * @return Lista de Cliente encontrados; los IDs inexistentes se omiten
+     * y es responsabilidad del consumidor detectar los faltantes
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<Cliente> traerPorIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return clienteRepository.findAllById(ids);
+    }
+
     /**
      * Actualiza los datos de Cliente por su ID
      *
@@ -107,7 +131,9 @@ public class ClienteServiceImpl implements ClienteService {
             cliente.setCorreoCliente(clienteDetails.getCorreoCliente());
             cliente.setContraseniaCliente(clienteDetails.getContraseniaCliente());
             cliente.setDireccionEnvioCliente(clienteDetails.getDireccionEnvioCliente());
-            return clienteRepository.save(cliente);
+            Cliente guardado = clienteRepository.save(cliente);
+            eventPublisher.publishEvent(new ClienteModificadoEvent(idCliente));
+            return guardado;
         }).orElseThrow(() -> new ClienteException("Cliente con id " + idCliente + " no encontrado"));
     }
 
@@ -127,6 +153,7 @@ public class ClienteServiceImpl implements ClienteService {
         }
 
         clienteRepository.deleteById(id);
+        eventPublisher.publishEvent(new ClienteModificadoEvent(id));
     }
 
     /**
@@ -140,7 +167,9 @@ public class ClienteServiceImpl implements ClienteService {
         return clienteRepository.findById(id).map(cliente -> {
             cliente.setActivo(clienteEstadoDetails.getActivo());
             log.info("Estado actualizado: {} {}", clienteEstadoDetails.getActivo(), cliente);
-            return clienteRepository.save(cliente);
+            Cliente guardado = clienteRepository.save(cliente);
+            eventPublisher.publishEvent(new ClienteModificadoEvent(id));
+            return guardado;
 
         }).orElseThrow(() -> new ClienteException("Cliente con id " + id + " no encontrado"));
     }
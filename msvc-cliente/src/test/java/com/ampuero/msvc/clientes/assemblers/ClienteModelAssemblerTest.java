@@ -0,0 +1,65 @@
+package com.ampuero.msvc.clientes.assemblers;
+
+import com.ampuero.msvc.clientes.controllers.ClienteControllerV2;
+import com.ampuero.msvc.clientes.models.Cliente;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+// El JSON HAL con enlaces de PlantillaEnlace debe ser idéntico al que se obtiene con linkTo(methodOn(...))
+public class ClienteModelAssemblerTest {
+
+    private static final ObjectMapper HAL = new ObjectMapper().findAndRegisterModules().registerModule(new Jackson2HalModule());
+
+    static {
+        HAL.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new AnnotationLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+    }
+
+    @AfterEach
+    public void limpiar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("toModel de cliente entrega los mismos enlaces que linkTo(methodOn(...))")
+    public void enlacesIdenticosALinkTo() throws JsonProcessingException {
+        Cliente cliente = new Cliente(9L, "Ana", "Rojas", "ana@correo.cl", "secreta", "Av. Siempre Viva 123", true);
+
+        MockHttpServletRequest local = new MockHttpServletRequest("GET", "/api/v2/clientes");
+        local.setServerPort(8085);
+        MockHttpServletRequest publica = new MockHttpServletRequest("GET", "/tienda/api/v2/clientes");
+        publica.setScheme("https");
+        publica.setServerName("perfulandia.cl");
+        publica.setServerPort(443);
+        publica.setContextPath("/tienda");
+
+        for (MockHttpServletRequest peticion : List.of(local, publica)) {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(peticion));
+
+            assertThat(HAL.writeValueAsString(new ClienteModelAssembler().toModel(cliente)))
+                    .isEqualTo(HAL.writeValueAsString(EntityModel.of(cliente,
+                            linkTo(methodOn(ClienteControllerV2.class).traerCliente(9L)).withSelfRel(),
+                            linkTo(methodOn(ClienteControllerV2.class).traerTodos()).withRel("clientes"))));
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(local));
+        assertThat(new ClienteModelAssembler().toModel(cliente).getRequiredLink("clientes").getHref())
+                .isEqualTo("http://localhost:8085/api/v2/clientes");
+    }
+}
@@ -0,0 +1,49 @@
+package com.ampuero.msvc.clientes.events;
+
+import com.ampuero.msvc.clientes.clients.BoletaClientRest;
+import feign.FeignException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InvalidacionCacheBoletaListenerTest {
+
+    @Mock
+    private BoletaClientRest boletaClientRest;
+
+    @InjectMocks
+    private InvalidacionCacheBoletaListener listener;
+
+    @Test
+    @DisplayName("Pide a msvc-boleta invalidar el cliente modificado")
+    public void invalidaClienteEnBoleta() {
+        listener.alModificarCliente(new ClienteModificadoEvent(5L));
+
+        verify(boletaClientRest, times(1)).invalidarClienteEnCache(5L);
+    }
+
+    @Test
+    @DisplayName("Si msvc-boleta no responde el error no se propaga")
+    public void errorDeBoletaNoSePropaga() {
+        doThrow(FeignException.errorStatus("invalidarClienteEnCache", feign.Response.builder()
+                .status(503)
+                .reason("Service Unavailable")
+                .request(feign.Request.create(feign.Request.HttpMethod.DELETE, "/api/v1/boletas/cache/clientes/5",
+                        Map.of(), null, StandardCharsets.UTF_8, null))
+                .build()))
+                .when(boletaClientRest).invalidarClienteEnCache(5L);
+
+        assertThatCode(() -> listener.alModificarCliente(new ClienteModificadoEvent(5L)))
+                .doesNotThrowAnyException();
+    }
+}
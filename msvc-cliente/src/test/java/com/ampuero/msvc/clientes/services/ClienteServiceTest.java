@@ -3,6 +3,7 @@ package com.ampuero.msvc.clientes.services;
 import com.ampuero.msvc.clientes.clients.BoletaClientRest;
 import com.ampuero.msvc.clientes.dtos.ClienteCreationDTO;
 import com.ampuero.msvc.clientes.dtos.ClienteEstadoDTO;
+import com.ampuero.msvc.clientes.events.ClienteModificadoEvent;
 import com.ampuero.msvc.clientes.exceptions.ClienteException;
 import com.ampuero.msvc.clientes.models.Cliente;
 import com.ampuero.msvc.clientes.repositories.ClienteRepository;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,6 +43,9 @@ public class ClienteServiceTest {
     @Mock
     private BoletaClientRest boletaClientRest;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     // Le ordenamos a Moclito que cree una instancia clienteService
     // e inyecte los mocks de arriba.
     @InjectMocks
@@ -156,6 +161,28 @@ public class ClienteServiceTest {
         verify(clienteRepository, times(1)).findById(idInexistente);
     }
 
+    @Test
+    @DisplayName("Encontrar varios clientes por sus ids en una sola consulta")
+    public void debeEncontrarVariosClientesPorIds(){
+        List<Long> ids = List.of(1L, 2L, 999L);
+        when(clienteRepository.findAllById(ids)).thenReturn(clienteList.subList(0, 2));
+
+        List<Cliente> resultado = clienteService.traerPorIds(ids);
+
+        assertThat(resultado).extracting(Cliente::getIdUsuario).containsExactly(1L, 2L);
+        verify(clienteRepository, times(1)).findAllById(ids);
+        verify(clienteRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Sin ids no consulta la base de datos")
+    public void traerPorIdsVacioNoConsulta(){
+        List<Cliente> resultado = clienteService.traerPorIds(List.of());
+
+        assertThat(resultado).isEmpty();
+        verifyNoInteractions(clienteRepository);
+    }
+
     @Test
     @DisplayName("Actualizar un cliente correctamente")
     public void debeActualizarCliente(){
@@ -182,6 +209,7 @@ public class ClienteServiceTest {
 
         verify(clienteRepository, times(1)).findById(1L);
         verify(clienteRepository, times(1)).save(clientePrueba);
+        verify(eventPublisher, times(1)).publishEvent(new ClienteModificadoEvent(1L));
     }
 
     @Test
@@ -203,6 +231,7 @@ public class ClienteServiceTest {
 
         verify(clienteRepository, times(1)).findById(idInexistente);
         verify(clienteRepository, never()).save(any()); //Metodo save no debe ser ejecutado ni una vez
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -227,6 +256,7 @@ public class ClienteServiceTest {
         assertThat(actualizado.getActivo()).isTrue();
         verify(clienteRepository).findById(id);
         verify(clienteRepository).save(cliente);
+        verify(eventPublisher).publishEvent(new ClienteModificadoEvent(id));
     }
 
     @Test
@@ -257,6 +287,7 @@ public class ClienteServiceTest {
 
         verify(clienteRepository, times(1)).findById(1L);
         verify(clienteRepository, times(1)).deleteById(1L);
+        verify(eventPublisher, times(1)).publishEvent(new ClienteModificadoEvent(1L));
     }
 
     @Test
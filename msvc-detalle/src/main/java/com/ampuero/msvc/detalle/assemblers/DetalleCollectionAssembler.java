@@ -2,8 +2,11 @@ package com.ampuero.msvc.detalle.assemblers;
 
 import com.ampuero.msvc.detalle.controllers.DetalleControllerV2;
 import com.ampuero.msvc.detalle.dtos.DetalleResponseDTO;
+import com.ampuero.msvc.detalle.dtos.PaginaDetallesDTO;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -44,7 +47,7 @@ public class DetalleCollectionAssembler {
 
         return CollectionModel.of(detalleModels)
                 // 1. Self - GET a la colección actual
-                .add(linkTo(methodOn(DetalleControllerV2.class).obtenerTodos()).withSelfRel())
+                .add(linkTo(methodOn(DetalleControllerV2.class).obtenerTodos(null, null)).withSelfRel().expand())
                 
                 // 2. Search - GET para búsquedas por boleta (template)
                 .add(linkTo(DetalleControllerV2.class).slash("boleta").slash("{idBoleta}").withRel("buscar-por-boleta"))
@@ -59,6 +62,35 @@ public class DetalleCollectionAssembler {
                 .add(Link.of("http://localhost:8080/api/v2/clientes").withRel("clientes"));
     }
 
+    /**
+     * Convierte una página keyset de detalles en PagedModel con enlaces de navegación por cursor.
+     * No incluye metadatos de total, ya que contar filas obligaría a recorrer toda la tabla.
+     *
+     * @param pagina Página de detalles con su cursor siguiente
+     * @param after Cursor con el que se pidió la página actual (null en la primera)
+     * @return PagedModel con enlaces self, first y next (si existe página siguiente)
+     */
+    public PagedModel<EntityModel<DetalleResponseDTO>> toPagedModel(PaginaDetallesDTO pagina, Long after) {
+        List<EntityModel<DetalleResponseDTO>> detalleModels = pagina.getContenido().stream()
+                .map(detalleAssembler::toModel)
+                .collect(Collectors.toList());
+
+        PagedModel<EntityModel<DetalleResponseDTO>> pagedModel = PagedModel.of(detalleModels, (PagedModel.PageMetadata) null,
+                linkTo(methodOn(DetalleControllerV2.class).obtenerTodos(after, pagina.getLimite())).withSelfRel().expand(),
+                linkTo(methodOn(DetalleControllerV2.class).obtenerTodos(null, pagina.getLimite())).withRel(IanaLinkRelations.FIRST).expand());
+
+        if (pagina.getSiguienteCursor() != null) {
+            pagedModel.add(linkTo(methodOn(DetalleControllerV2.class)
+                    .obtenerTodos(pagina.getSiguienteCursor(), pagina.getLimite())).withRel(IanaLinkRelations.NEXT));
+        }
+
+        pagedModel.add(linkTo(DetalleControllerV2.class).slash("boleta").slash("{idBoleta}").withRel("buscar-por-boleta"))
+                .add(Link.of("http://localhost:8082/api/v2/productos").withRel("productos"))
+                .add(Link.of("http://localhost:8081/api/v2/boletas").withRel("boletas"))
+                .add(Link.of("http://localhost:8080/api/v2/clientes").withRel("clientes"));
+        return pagedModel;
+    }
+
     /**
      * Convierte una lista de detalles de una boleta específica en CollectionModel.
      * 
@@ -77,7 +109,7 @@ public class DetalleCollectionAssembler {
                 // Enlaces GET específicos para detalles de una boleta
                 .add(linkTo(methodOn(DetalleControllerV2.class).obtenerPorBoleta(idBoleta)).withSelfRel())
                 .add(Link.of("http://localhost:8081/api/v2/boletas/" + idBoleta).withRel("boleta"))
-                .add(linkTo(methodOn(DetalleControllerV2.class).obtenerTodos()).withRel("todos-los-detalles"))
+                .add(linkTo(methodOn(DetalleControllerV2.class).obtenerTodos(null, null)).withRel("todos-los-detalles").expand())
                 .add(Link.of("http://localhost:8082/api/v2/productos").withRel("productos"))
                 .add(Link.of("http://localhost:8080/api/v2/clientes").withRel("clientes"));
     }
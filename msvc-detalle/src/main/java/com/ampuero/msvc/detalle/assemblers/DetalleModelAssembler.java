@@ -6,7 +6,7 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 
 /**
@@ -22,12 +22,16 @@ import org.springframework.hateoas.Link;
 @Component
 public class DetalleModelAssembler implements RepresentationModelAssembler<Detalle, EntityModel<Detalle>> {
 
+    private static final PlantillaEnlace DETALLE = PlantillaEnlace.de(DetalleControllerV2.class, "obtenerPorId", Long.class);
+    private static final PlantillaEnlace DETALLES_BOLETA = PlantillaEnlace.de(DetalleControllerV2.class, "obtenerPorBoleta", Long.class);
+    private static final PlantillaEnlace DETALLES = PlantillaEnlace.de(DetalleControllerV2.class, "obtenerTodos", Long.class, Integer.class);
+
     @Override
     public EntityModel<Detalle> toModel(Detalle entity) {
         return EntityModel.of(
                 entity,
                 // 1. Self - GET al detalle específico
-                linkTo(methodOn(DetalleControllerV2.class).obtenerPorId(entity.getIdDetalle())).withSelfRel(),
+                DETALLE.expandir(IanaLinkRelations.SELF, entity.getIdDetalle()),
                 
                 // 2. Producto - GET al microservicio de productos
                 Link.of("http://localhost:8082/api/v2/productos/" + entity.getIdProductoPojo()).withRel("producto"),
@@ -36,10 +40,10 @@ public class DetalleModelAssembler implements RepresentationModelAssembler<Detal
                 Link.of("http://localhost:8081/api/v2/boletas/" + entity.getIdBoletaPojo()).withRel("boleta"),
                 
                 // 4. Detalles-boleta - GET a todos los detalles de esta boleta
-                linkTo(methodOn(DetalleControllerV2.class).obtenerPorBoleta(entity.getIdBoletaPojo())).withRel("detalles-boleta"),
+                DETALLES_BOLETA.expandir("detalles-boleta", entity.getIdBoletaPojo()),
                 
                 // 5. Detalles - GET a todos los detalles del sistema
-                linkTo(methodOn(DetalleControllerV2.class).obtenerTodos()).withRel("detalles")
+                DETALLES.expandir("detalles")
         );
     }
 } 
\ No newline at end of file
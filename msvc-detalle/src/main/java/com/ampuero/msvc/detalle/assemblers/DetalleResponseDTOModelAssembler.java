@@ -6,7 +6,7 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 
 /**
@@ -14,28 +14,35 @@ import org.springframework.hateoas.Link;
  * 
  * Este assembler se enfoca en respuestas enriquecidas que incluyen información de boleta y producto,
  * proporcionando enlaces contextuales para navegación en la API RESTful.
+ * Los enlaces a DetalleControllerV2 se arman con plantillas resueltas una sola vez (ver PlantillaEnlace).
  */
 @Component
 public class DetalleResponseDTOModelAssembler implements RepresentationModelAssembler<DetalleResponseDTO, EntityModel<DetalleResponseDTO>> {
 
+    private static final PlantillaEnlace DETALLE = PlantillaEnlace.de(DetalleControllerV2.class, "obtenerPorId", Long.class);
+    private static final PlantillaEnlace DETALLES_BOLETA = PlantillaEnlace.de(DetalleControllerV2.class, "obtenerPorBoleta", Long.class);
+
     @Override
     public EntityModel<DetalleResponseDTO> toModel(DetalleResponseDTO entity) {
-        return EntityModel.of(
+        EntityModel<DetalleResponseDTO> model = EntityModel.of(
                 entity,
                 // 1. Self - GET al detalle específico  
-                linkTo(methodOn(DetalleControllerV2.class).obtenerPorId(entity.getIdDetalle())).withSelfRel(),
+                DETALLE.expandir(IanaLinkRelations.SELF, entity.getIdDetalle()),
                 
                 // 2. Producto - GET al microservicio de productos
                 Link.of("http://localhost:8082/api/v2/productos/" + entity.getProducto().getIdProducto()).withRel("producto"),
                 
                 // 3. Boleta - GET al microservicio de boletas  
-                Link.of("http://localhost:8081/api/v2/boletas/" + entity.getBoleta().getIdBoleta()).withRel("boleta"),
-                
-                // 4. Cliente - GET al microservicio de clientes (a través de la boleta)
-                Link.of("http://localhost:8080/api/v2/clientes/" + entity.getBoleta().getCliente().getIdUsuario()).withRel("cliente"),
-                
-                // 5. Detalles-boleta - GET a todos los detalles de esta boleta
-                linkTo(methodOn(DetalleControllerV2.class).obtenerPorBoleta(entity.getBoleta().getIdBoleta())).withRel("detalles-boleta")
+                Link.of("http://localhost:8081/api/v2/boletas/" + entity.getBoleta().getIdBoleta()).withRel("boleta")
         );
+
+        // 4. Cliente - GET al microservicio de clientes (a través de la boleta).
+        // Si la boleta llegó degradada no se conoce el cliente y se omite el enlace.
+        if (entity.getBoleta().getCliente() != null) {
+            model.add(Link.of("http://localhost:8080/api/v2/clientes/" + entity.getBoleta().getCliente().getIdUsuario()).withRel("cliente"));
+        }
+
+        // 5. Detalles-boleta - GET a todos los detalles de esta boleta
+        return model.add(DETALLES_BOLETA.expandir("detalles-boleta", entity.getBoleta().getIdBoleta()));
     }
-} 
\ No newline at end of file
+}
@@ -6,8 +6,7 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-import org.springframework.hateoas.Link;
+import org.springframework.hateoas.IanaLinkRelations;
 
 /**
  * Assembler simple para Detalle siguiendo exactamente el patrón de msvc-medicos.
@@ -20,13 +19,16 @@ import org.springframework.hateoas.Link;
 @Component
 public class DetalleSimpleAssembler implements RepresentationModelAssembler<Detalle, EntityModel<Detalle>> {
 
+    private static final PlantillaEnlace DETALLE = PlantillaEnlace.de(DetalleControllerV2.class, "obtenerPorId", Long.class);
+    private static final PlantillaEnlace DETALLES = PlantillaEnlace.de(DetalleControllerV2.class, "obtenerTodos", Long.class, Integer.class);
+
     @Override
     public EntityModel<Detalle> toModel(Detalle entity) {
         // Siguiendo exactamente el patrón de MedicoModelAssembler
         return EntityModel.of(
                 entity,
-                linkTo(methodOn(DetalleControllerV2.class).obtenerPorId(entity.getIdDetalle())).withSelfRel(),
-                linkTo(methodOn(DetalleControllerV2.class).obtenerTodos()).withRel("detalles")
+                DETALLE.expandir(IanaLinkRelations.SELF, entity.getIdDetalle()),
+                DETALLES.expandir("detalles")
                 // Enlace a producto (equivalente al link comentado en MedicoModelAssembler)
                 // Link.of("http://localhost:8082/api/v2/productos/" + entity.getIdProductoPojo()).withRel("producto")
         );
@@ -10,7 +10,9 @@ package com.ampuero.msvc.detalle.clients;
  *
  * Funcionalidad:
  * - Obtener una boleta específica por su ID.
+ * - Obtener en lote varias boletas con una sola llamada GET a /api/v1/boletas?ids=...
  * - Actualizar el monto total de una boleta en base a la suma o resta de subtotales de detalles.
+ * - getBoletaById es @Idempotente (reintentos y hedging); el PUT del total nunca se reintenta aquí.
  *
  * Configuración:
  * - Se especifica el nombre lógico del servicio como `msvc-boletas` y la URL base local.
@@ -31,6 +33,9 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collection;
+import java.util.List;
+
 @FeignClient(name = "msvc-boletas", url = "http://localhost:8081")
 public interface BoletaClient {
 
@@ -40,9 +45,20 @@ public interface BoletaClient {
      * @param id ID único de la boleta que se desea recuperar.
      * @return ResponseEntity con el objeto BoletaPojo, que contiene los datos de la boleta.
      */
+    @Idempotente
     @GetMapping("/api/v1/boletas/{id}")
     ResponseEntity<BoletaPojo> getBoletaById(@PathVariable Long id);
 
+    /**
+     * Realiza una única petición GET al microservicio de boletas para obtener varias boletas.
+     * Los IDs que no existan (o cuyo cliente no se pudo consultar) no vienen en la respuesta.
+     *
+     * @param ids IDs de las boletas que se desean obtener.
+     * @return ResponseEntity con la lista de BoletaPojo encontradas.
+     */
+    @GetMapping("/api/v1/boletas")
+    ResponseEntity<List<BoletaPojo>> getBoletasByIds(@RequestParam("ids") Collection<Long> ids);
+
     /**
      * Actualiza el total acumulado de una boleta, sumando o restando un monto determinado.
      * Este mét0do se invoca al crear, modificar o eliminar un detalle.
@@ -0,0 +1,231 @@
+package com.ampuero.msvc.detalle.clients;
+
+/**
+ * ClienteFeignReintentos.java
+ *
+ * Descripción:
+ * Transporte Feign que reintenta y hace hedging de las llamadas GET marcadas con @Idempotente
+ * (getBoletaById, getProductoById). Envuelve a ClienteFeignResiliente, por lo que cada intento
+ * pasa por el circuit breaker y el bulkhead de la dependencia.
+ *
+ * Funciones principales:
+ * - Reintenta ante errores de E/S (conexión rechazada, timeouts) y respuestas 502/503/504 del servicio,
+ *   con backoff exponencial y jitter completo: espera aleatoria entre 0 y min(máximo, base * 2^intento).
+ * - Cada reintento gasta una ficha del presupuesto de la dependencia; sin saldo se devuelve el último
+ *   resultado tal cual, así una caída no multiplica la carga.
+ * - No reintenta los rechazos del circuito abierto o del bulkhead lleno (DependenciaNoDisponibleException).
+ * - Hedging (opcional): si la petición no respondió al llegar al p95 observado, envía una segunda y
+ *   usa la primera respuesta que llegue; la otra se cierra al terminar. El hedge también gasta presupuesto.
+ * - El resto de las llamadas (POST, PUT, DELETE y GET sin @Idempotente) pasan directo, sin reintentos.
+ */
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.context.ContextExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ClienteFeignReintentos implements Client {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteFeignReintentos.class);
+
+    // Los hedges bloquean su hilo mientras esperan la respuesta: se ejecutan sobre hilos virtuales.
+    // ContextExecutorService lleva al hilo la observación en curso: el span del hedge queda en la misma traza
+    private static final Executor HILOS_VIRTUALES = ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor());
+
+    private final Client delegado;
+    private final RegistroReintentos registro;
+    private final PoliticaReintentos politica;
+
+    public ClienteFeignReintentos(Client delegado, RegistroReintentos registro) {
+        this.delegado = delegado;
+        this.registro = registro;
+        this.politica = registro.getPolitica();
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (!esIdempotente(request)) {
+            return delegado.execute(request, options);
+        }
+
+        String nombre = nombreDependencia(request);
+        RegistroReintentos.Dependencia dependencia = registro.dependencia(nombre);
+        dependencia.presupuesto().registrarLlamada();
+
+        for (int intento = 0; ; intento++) {
+            boolean quedanIntentos = intento < politica.maxReintentos();
+            Response response;
+            try {
+                response = ejecutarIntento(request, options, dependencia);
+            } catch (IOException e) {
+                // Un hilo interrumpido (plazo vencido en quien llama) no debe seguir reintentando
+                if (!quedanIntentos || Thread.currentThread().isInterrupted()
+                        || !dependencia.presupuesto().intentarRetirar()) {
+                    throw e;
+                }
+                log.warn("Error de E/S en {} {} ({}), reintento {}", request.httpMethod(), request.url(), e.getMessage(), intento + 1);
+                esperarBackoff(intento);
+                dependencia.reintentos().incrementAndGet();
+                continue;
+            }
+
+            if (!esReintentable(response) || !quedanIntentos || !dependencia.presupuesto().intentarRetirar()) {
+                return response;
+            }
+            log.warn("Respuesta {} de {} {}, reintento {}", response.status(), request.httpMethod(), request.url(), intento + 1);
+            response.close();
+            esperarBackoff(intento);
+            dependencia.reintentos().incrementAndGet();
+        }
+    }
+
+    // Un intento: directo mientras no haya p95, o con hedge si la respuesta tarda más que el p95
+    private Response ejecutarIntento(Request request, Request.Options options,
+                                     RegistroReintentos.Dependencia dependencia) throws IOException {
+        long p95 = politica.hedging() ? dependencia.latencias().percentil95Nanos() : -1;
+        if (p95 < 0) {
+            return ejecutarMedido(request, options, dependencia);
+        }
+
+        long esperaHedge = Math.max(p95, politica.hedgingMinimo().toNanos());
+        CompletableFuture<Response> primera = lanzar(request, options, dependencia);
+        try {
+            return primera.get(esperaHedge, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (!dependencia.presupuesto().intentarRetirar()) {
+                return esperar(primera);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primera.thenAccept(Response::close);
+            throw new InterruptedIOException("Interrumpido esperando la respuesta");
+        } catch (ExecutionException e) {
+            throw relanzable(e.getCause());
+        }
+
+        dependencia.hedges().incrementAndGet();
+        log.debug("Hedge de {} {} tras {} ms sin respuesta", request.httpMethod(), request.url(),
+                TimeUnit.NANOSECONDS.toMillis(esperaHedge));
+        return esperar(primeraExitosa(primera, lanzar(request, options, dependencia)));
+    }
+
+    private Response ejecutarMedido(Request request, Request.Options options,
+                                    RegistroReintentos.Dependencia dependencia) throws IOException {
+        long inicio = System.nanoTime();
+        Response response = delegado.execute(request, options);
+        dependencia.latencias().registrar(System.nanoTime() - inicio);
+        return response;
+    }
+
+    private CompletableFuture<Response> lanzar(Request request, Request.Options options,
+                                               RegistroReintentos.Dependencia dependencia) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return ejecutarMedido(request, options, dependencia);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, HILOS_VIRTUALES);
+    }
+
+    // Completa con la primera respuesta que llegue; falla solo si fallan ambas. La perdedora se cierra al llegar.
+    private static CompletableFuture<Response> primeraExitosa(CompletableFuture<Response> primera,
+                                                              CompletableFuture<Response> segunda) {
+        CompletableFuture<Response> ganadora = new CompletableFuture<>();
+        AtomicInteger fallidas = new AtomicInteger();
+        for (CompletableFuture<Response> candidata : List.of(primera, segunda)) {
+            candidata.whenComplete((response, error) -> {
+                if (error == null) {
+                    if (!ganadora.complete(response)) {
+                        response.close();
+                    }
+                } else if (fallidas.incrementAndGet() == 2) {
+                    ganadora.completeExceptionally(error);
+                }
+            });
+        }
+        return ganadora;
+    }
+
+    private static Response esperar(CompletableFuture<Response> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futuro.thenAccept(Response::close);
+            throw new InterruptedIOException("Interrumpido esperando la respuesta");
+        } catch (ExecutionException e) {
+            throw relanzable(e.getCause());
+        }
+    }
+
+    private static RuntimeException relanzable(Throwable error) throws IOException {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (causa instanceof UncheckedIOException unchecked) {
+            throw unchecked.getCause();
+        }
+        if (causa instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (causa instanceof Error grave) {
+            throw grave;
+        }
+        return new IllegalStateException(causa);
+    }
+
+    private void esperarBackoff(int intento) throws InterruptedIOException {
+        long base = politica.backoffBase().toMillis();
+        long tope = Math.min(politica.backoffMaximo().toMillis(), base << Math.min(intento, 20));
+        long espera = ThreadLocalRandom.current().nextLong(tope + 1);
+        try {
+            Thread.sleep(espera);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido durante el backoff");
+        }
+    }
+
+    // 502/503/504 suelen ser transitorios (reinicio, sobrecarga, proxy); un 500 se considera un error de la lógica
+    private static boolean esReintentable(Response response) {
+        return response.status() == 502 || response.status() == 503 || response.status() == 504;
+    }
+
+    private static boolean esIdempotente(Request request) {
+        if (request.httpMethod() != Request.HttpMethod.GET) {
+            return false;
+        }
+        RequestTemplate template = request.requestTemplate();
+        if (template == null || template.methodMetadata() == null) {
+            return false;
+        }
+        Method metodo = template.methodMetadata().method();
+        return metodo != null && metodo.isAnnotationPresent(Idempotente.class);
+    }
+
+    // Nombre del @FeignClient (msvc-productos, msvc-boletas); si no viene, el host de la URL
+    private static String nombreDependencia(Request request) {
+        if (request.requestTemplate() != null && request.requestTemplate().feignTarget() != null) {
+            return request.requestTemplate().feignTarget().name();
+        }
+        return URI.create(request.url()).getHost();
+    }
+}
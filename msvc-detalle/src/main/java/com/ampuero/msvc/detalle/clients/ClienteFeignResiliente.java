@@ -0,0 +1,80 @@
+package com.ampuero.msvc.detalle.clients;
+
+/**
+ * ClienteFeignResiliente.java
+ *
+ * Descripción:
+ * Transporte Feign que protege cada dependencia (msvc-productos, msvc-boletas) con un circuit breaker
+ * y un bulkhead de semáforo, identificados por el nombre del @FeignClient.
+ *
+ * Funciones principales:
+ * - Con el circuito abierto la llamada se rechaza al instante, sin ocupar el hilo hasta el timeout.
+ * - El bulkhead limita las llamadas simultáneas a cada dependencia; si está lleno se rechaza sin esperar,
+ *   así una dependencia lenta no puede acaparar los hilos de Tomcat.
+ * - Cuentan como fallo las respuestas 5xx, los errores de E/S (timeouts incluidos) y las llamadas lentas;
+ *   un 404 es una respuesta válida y no abre el circuito.
+ * - Los rechazos se lanzan como DependenciaNoDisponibleException (FeignException 503).
+ */
+
+import com.ampuero.msvc.detalle.exceptions.DependenciaNoDisponibleException;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+import java.io.IOException;
+import java.net.URI;
+
+public class ClienteFeignResiliente implements Client {
+
+    private final Client delegado;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+
+    public ClienteFeignResiliente(Client delegado, CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads) {
+        this.delegado = delegado;
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String dependencia = nombreDependencia(request);
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(dependencia);
+        Bulkhead bulkhead = bulkheads.bulkhead(dependencia);
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new DependenciaNoDisponibleException(
+                    "Circuito abierto para " + dependencia + ": se rechaza la llamada sin contactar el servicio", request);
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            // El rechazo por concurrencia no es un fallo de la dependencia
+            circuitBreaker.releasePermission();
+            throw new DependenciaNoDisponibleException(
+                    "Demasiadas llamadas simultaneas a " + dependencia + ": se rechaza la llamada", request);
+        }
+
+        long inicio = circuitBreaker.getCurrentTimestamp();
+        try {
+            Response response = delegado.execute(request, options);
+            circuitBreaker.onResult(circuitBreaker.getCurrentTimestamp() - inicio, circuitBreaker.getTimestampUnit(), response);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - inicio, circuitBreaker.getTimestampUnit(), e);
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    // Nombre del @FeignClient (msvc-productos, msvc-boletas); si no viene, el host de la URL
+    private static String nombreDependencia(Request request) {
+        if (request.requestTemplate() != null && request.requestTemplate().feignTarget() != null) {
+            return request.requestTemplate().feignTarget().name();
+        }
+        return URI.create(request.url()).getHost();
+    }
+}
@@ -0,0 +1,22 @@
+package com.ampuero.msvc.detalle.clients;
+
+/**
+ * Idempotente.java
+ *
+ * Descripción:
+ * Marca los métodos GET de un cliente Feign que pueden repetirse sin efectos secundarios.
+ * Solo estos métodos pasan por los reintentos con backoff y el hedging de ClienteFeignReintentos;
+ * el resto de las llamadas (por ejemplo el PUT del total de boleta) se envían una sola vez.
+ */
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotente {
+}
@@ -0,0 +1,35 @@
+package com.ampuero.msvc.detalle.clients;
+
+/**
+ * PoliticaReintentos.java
+ *
+ * Descripción:
+ * Parámetros de los reintentos y del hedging de las llamadas idempotentes.
+ *
+ * Atributos:
+ * - maxReintentos: Reintentos como máximo tras el primer intento.
+ * - backoffBase / backoffMaximo: Espera exponencial (base * 2^intento) acotada; se aplica jitter completo.
+ * - ratioPresupuesto: Fichas que aporta cada llamada al presupuesto (0.2 = hasta un 20% de llamadas extra).
+ * - minimoPorSegundo: Fichas que se recuperan por segundo aunque haya poco tráfico.
+ * - capacidadPresupuesto: Máximo de fichas acumulables.
+ * - hedging: Si se envía una segunda petición cuando la primera supera el p95 observado.
+ * - hedgingMinimo: Espera mínima antes del hedge, aunque el p95 sea menor.
+ * - muestrasMinimas: Latencias observadas necesarias antes de empezar a hacer hedging.
+ */
+
+import lombok.Builder;
+
+import java.time.Duration;
+
+@Builder
+public record PoliticaReintentos(
+        int maxReintentos,
+        Duration backoffBase,
+        Duration backoffMaximo,
+        double ratioPresupuesto,
+        double minimoPorSegundo,
+        double capacidadPresupuesto,
+        boolean hedging,
+        Duration hedgingMinimo,
+        int muestrasMinimas) {
+}
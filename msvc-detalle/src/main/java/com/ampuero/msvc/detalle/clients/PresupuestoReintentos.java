@@ -0,0 +1,73 @@
+package com.ampuero.msvc.detalle.clients;
+
+/**
+ * PresupuestoReintentos.java
+ *
+ * Descripción:
+ * Presupuesto de reintentos por dependencia (token bucket). Cada llamada original aporta una
+ * fracción de ficha y cada reintento o hedge gasta una ficha entera, de modo que el tráfico extra
+ * queda acotado a un porcentaje del normal. Cuando la dependencia está caída el presupuesto se
+ * agota y las llamadas fallan en el primer intento en vez de multiplicar la carga.
+ *
+ * Funciones principales:
+ * - registrarLlamada(): Aporta ratio fichas por cada llamada original.
+ * - intentarRetirar(): Gasta una ficha si hay saldo; cuenta los retiros concedidos y denegados.
+ * - Se recuperan minimoPorSegundo fichas por segundo para no bloquear los reintentos con poco tráfico.
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PresupuestoReintentos {
+
+    private static final double NANOS_POR_SEGUNDO = 1_000_000_000d;
+
+    private final double ratio;
+    private final double minimoPorSegundo;
+    private final double capacidad;
+
+    private double saldo;
+    private long ultimaRecarga;
+
+    private final AtomicLong concedidos = new AtomicLong();
+    private final AtomicLong denegados = new AtomicLong();
+
+    public PresupuestoReintentos(double ratio, double minimoPorSegundo, double capacidad) {
+        this.ratio = ratio;
+        this.minimoPorSegundo = minimoPorSegundo;
+        this.capacidad = capacidad;
+        this.saldo = capacidad;
+        this.ultimaRecarga = System.nanoTime();
+    }
+
+    public synchronized void registrarLlamada() {
+        recargar();
+        saldo = Math.min(capacidad, saldo + ratio);
+    }
+
+    public boolean intentarRetirar() {
+        boolean concedido;
+        synchronized (this) {
+            recargar();
+            concedido = saldo >= 1;
+            if (concedido) {
+                saldo -= 1;
+            }
+        }
+        (concedido ? concedidos : denegados).incrementAndGet();
+        return concedido;
+    }
+
+    public long getConcedidos() {
+        return concedidos.get();
+    }
+
+    public long getDenegados() {
+        return denegados.get();
+    }
+
+    private void recargar() {
+        long ahora = System.nanoTime();
+        saldo = Math.min(capacidad, saldo + (ahora - ultimaRecarga) / NANOS_POR_SEGUNDO * minimoPorSegundo);
+        ultimaRecarga = ahora;
+    }
+}
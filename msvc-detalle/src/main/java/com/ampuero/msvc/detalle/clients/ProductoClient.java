@@ -12,6 +12,8 @@ package com.ampuero.msvc.detalle.clients;
  * - Recupera un producto específico a través de su ID.
  * - Utiliza una llamada GET al endpoint remoto: /api/v1/productos/{id}.
  * - Recibe como respuesta un `ProductoPojo` dentro de un `ResponseEntity`.
+ * - Recupera en lote varios productos con una sola llamada GET a /api/v1/productos?ids=...
+ * - getProductoById es @Idempotente: se reintenta con backoff y admite hedging (ver ClienteFeignReintentos).
  *
  * Configuración:
  * - Anotado con `@FeignClient`, se especifica el nombre lógico del servicio y su URL base.
@@ -31,6 +33,10 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(name = "msvc-productos", url = "http://localhost:8084")
 public interface ProductoClient {
@@ -41,6 +47,17 @@ public interface ProductoClient {
      * @param id ID del producto que se desea obtener.
      * @return ResponseEntity que contiene un objeto ProductoPojo con los datos del producto.
      */
+    @Idempotente
     @GetMapping("/api/v1/productos/{id}")
     ResponseEntity<ProductoPojo> getProductoById(@PathVariable Long id);
-}
\ No newline at end of file
+
+    /**
+     * Realiza una única petición GET al microservicio de productos para obtener varios productos.
+     * Los IDs que no existan simplemente no vienen en la respuesta.
+     *
+     * @param ids IDs de los productos que se desean obtener.
+     * @return ResponseEntity con la lista de ProductoPojo encontrados.
+     */
+    @GetMapping("/api/v1/productos")
+    ResponseEntity<List<ProductoPojo>> getProductosByIds(@RequestParam("ids") Collection<Long> ids);
+}
@@ -0,0 +1,30 @@
+package com.ampuero.msvc.detalle.clients;
+
+import feign.Capability;
+import feign.Client;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+/**
+ * Capability de Feign que envuelve el transporte de cada cliente en ClienteFeignResiliente y,
+ * por fuera, en ClienteFeignReintentos: cada reintento o hedge vuelve a pasar por el circuito y el bulkhead.
+ * Debe ser una clase pública: Feign invoca enrich(Client) por reflexión.
+ */
+public class ResilienciaCapability implements Capability {
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final RegistroReintentos reintentos;
+
+    public ResilienciaCapability(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+                                 RegistroReintentos reintentos) {
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.reintentos = reintentos;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return new ClienteFeignReintentos(new ClienteFeignResiliente(client, circuitBreakers, bulkheads), reintentos);
+    }
+}
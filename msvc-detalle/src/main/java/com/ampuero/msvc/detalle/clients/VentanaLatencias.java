@@ -0,0 +1,54 @@
+package com.ampuero.msvc.detalle.clients;
+
+/**
+ * VentanaLatencias.java
+ *
+ * Descripción:
+ * Últimas latencias observadas de una dependencia, guardadas en un buffer circular,
+ * para estimar el percentil 95 que usa el hedging como espera antes de la segunda petición.
+ *
+ * Funciones principales:
+ * - registrar(nanos): Agrega una latencia, reemplazando la más antigua.
+ * - percentil95Nanos(): p95 de la ventana, o -1 si aún no hay muestras suficientes.
+ *   El cálculo (copiar y ordenar) se repite solo cada RECALCULO_CADA muestras nuevas.
+ */
+
+import java.util.Arrays;
+
+public class VentanaLatencias {
+
+    private static final int TAMANIO = 256;
+    private static final int RECALCULO_CADA = 16;
+
+    private final long[] muestras = new long[TAMANIO];
+    private final int muestrasMinimas;
+
+    private int siguiente;
+    private int cantidad;
+    private int nuevasDesdeCalculo;
+    private long p95 = -1;
+
+    public VentanaLatencias(int muestrasMinimas) {
+        this.muestrasMinimas = Math.min(Math.max(1, muestrasMinimas), TAMANIO);
+    }
+
+    public synchronized void registrar(long nanos) {
+        muestras[siguiente] = nanos;
+        siguiente = (siguiente + 1) % TAMANIO;
+        cantidad = Math.min(cantidad + 1, TAMANIO);
+        nuevasDesdeCalculo++;
+    }
+
+    public synchronized long percentil95Nanos() {
+        if (cantidad < muestrasMinimas) {
+            return -1;
+        }
+        if (p95 < 0 || nuevasDesdeCalculo >= RECALCULO_CADA) {
+            long[] ordenadas = Arrays.copyOf(muestras, cantidad);
+            Arrays.sort(ordenadas);
+            p95 = ordenadas[(int) Math.ceil(cantidad * 0.95) - 1];
+            nuevasDesdeCalculo = 0;
+        }
+        return p95;
+    }
+}
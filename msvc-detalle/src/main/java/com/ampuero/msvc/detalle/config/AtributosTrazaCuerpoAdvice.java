@@ -0,0 +1,47 @@
+package com.ampuero.msvc.detalle.config;
+
+import com.ampuero.msvc.detalle.dtos.DetalleBatchDTO;
+import com.ampuero.msvc.detalle.dtos.DetalleDTO;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Agrega a la traza la boleta y el producto que llegan en el cuerpo de las escrituras
+ * (POST/PUT de un detalle y POST en lote), que no están en la ruta.
+ */
+@ControllerAdvice
+public class AtributosTrazaCuerpoAdvice extends RequestBodyAdviceAdapter {
+
+    private final AtributosTrazaInterceptor atributosTrazaInterceptor;
+
+    public AtributosTrazaCuerpoAdvice(AtributosTrazaInterceptor atributosTrazaInterceptor) {
+        this.atributosTrazaInterceptor = atributosTrazaInterceptor;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == DetalleDTO.class || targetType == DetalleBatchDTO.class;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos) {
+            if (body instanceof DetalleDTO detalle) {
+                atributosTrazaInterceptor.agregar(atributos.getRequest(), "idBoleta", detalle.getIdBoletaPojo());
+                atributosTrazaInterceptor.agregar(atributos.getRequest(), "idProducto", detalle.getIdProductoPojo());
+            } else if (body instanceof DetalleBatchDTO lote) {
+                atributosTrazaInterceptor.agregar(atributos.getRequest(), "idBoleta", lote.getIdBoletaPojo());
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,103 @@
+package com.ampuero.msvc.detalle.config;
+
+import com.ampuero.msvc.detalle.clients.PoliticaReintentos;
+import com.ampuero.msvc.detalle.clients.RegistroReintentos;
+import com.ampuero.msvc.detalle.clients.ResilienciaCapability;
+import feign.Capability;
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker, bulkhead y reintentos por dependencia para todos los clientes Feign del servicio.
+ * Spring Cloud OpenFeign aplica los beans Capability a cada @FeignClient, por lo que
+ * el transporte (Apache HC5) queda envuelto en ClienteFeignResiliente.
+ * El estado y las llamadas de cada circuito y bulkhead se publican en /actuator/prometheus
+ * (resilience4j_circuitbreaker_* y resilience4j_bulkhead_*, con la dependencia en la etiqueta name).
+ */
+@Configuration
+public class ResilienciaConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(
+            @Value("${detalle.resiliencia.circuito.umbral-fallos:50}") float umbralFallos,
+            @Value("${detalle.resiliencia.circuito.umbral-lentas:80}") float umbralLentas,
+            @Value("${detalle.resiliencia.circuito.llamada-lenta-ms:2000}") long llamadaLentaMs,
+            @Value("${detalle.resiliencia.circuito.ventana:20}") int ventana,
+            @Value("${detalle.resiliencia.circuito.minimo-llamadas:10}") int minimoLlamadas,
+            @Value("${detalle.resiliencia.circuito.espera-abierto-ms:10000}") long esperaAbiertoMs,
+            @Value("${detalle.resiliencia.circuito.llamadas-semiabierto:5}") int llamadasSemiabierto) {
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(umbralFallos)
+                .slowCallRateThreshold(umbralLentas)
+                .slowCallDurationThreshold(Duration.ofMillis(llamadaLentaMs))
+                .slidingWindowSize(ventana)
+                .minimumNumberOfCalls(minimoLlamadas)
+                .waitDurationInOpenState(Duration.ofMillis(esperaAbiertoMs))
+                .permittedNumberOfCallsInHalfOpenState(llamadasSemiabierto)
+                .automaticTransitionFromOpenToHalfOpenEnabled(false)
+                // Un 5xx es fallo de la dependencia; 404 y demás 4xx son respuestas válidas
+                .recordResult(resultado -> resultado instanceof Response response && response.status() >= 500)
+                .build());
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(
+            @Value("${detalle.resiliencia.bulkhead.max-concurrentes:25}") int maxConcurrentes,
+            @Value("${detalle.resiliencia.bulkhead.espera-maxima-ms:0}") long esperaMaximaMs) {
+        return BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentes)
+                .maxWaitDuration(Duration.ofMillis(esperaMaximaMs))
+                .build());
+    }
+
+    // MeterBinder: Spring Boot lo enlaza al MeterRegistry; también mide los circuitos creados después, al primer uso
+    @Bean
+    public TaggedCircuitBreakerMetrics metricasCircuitBreaker(CircuitBreakerRegistry circuitBreakers) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers);
+    }
+
+    @Bean
+    public TaggedBulkheadMetrics metricasBulkhead(BulkheadRegistry bulkheads) {
+        return TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads);
+    }
+
+    @Bean
+    public RegistroReintentos registroReintentos(
+            @Value("${detalle.reintentos.max-reintentos:2}") int maxReintentos,
+            @Value("${detalle.reintentos.backoff-base-ms:25}") long backoffBaseMs,
+            @Value("${detalle.reintentos.backoff-maximo-ms:250}") long backoffMaximoMs,
+            @Value("${detalle.reintentos.presupuesto.ratio:0.2}") double ratio,
+            @Value("${detalle.reintentos.presupuesto.minimo-por-segundo:2}") double minimoPorSegundo,
+            @Value("${detalle.reintentos.presupuesto.capacidad:20}") double capacidad,
+            @Value("${detalle.reintentos.hedging.habilitado:false}") boolean hedging,
+            @Value("${detalle.reintentos.hedging.minimo-ms:10}") long hedgingMinimoMs,
+            @Value("${detalle.reintentos.hedging.muestras-minimas:50}") int muestrasMinimas) {
+        return new RegistroReintentos(PoliticaReintentos.builder()
+                .maxReintentos(maxReintentos)
+                .backoffBase(Duration.ofMillis(backoffBaseMs))
+                .backoffMaximo(Duration.ofMillis(backoffMaximoMs))
+                .ratioPresupuesto(ratio)
+                .minimoPorSegundo(minimoPorSegundo)
+                .capacidadPresupuesto(capacidad)
+                .hedging(hedging)
+                .hedgingMinimo(Duration.ofMillis(hedgingMinimoMs))
+                .muestrasMinimas(muestrasMinimas)
+                .build());
+    }
+
+    @Bean
+    public Capability resilienciaFeign(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+                                       RegistroReintentos registroReintentos) {
+        return new ResilienciaCapability(circuitBreakers, bulkheads, registroReintentos);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ampuero.msvc.detalle.config;
+
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.BaggageTaggingSpanProcessor;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trazas distribuidas (Micrometer Tracing sobre OpenTelemetry, exportadas por OTLP a
+ * management.otlp.tracing.endpoint).
+ *
+ * Spring Boot crea los spans de servidor de los controladores, ObservacionFeignCapability los de
+ * cliente Feign (y escribe traceparent y el baggage en la petición) y datasource-micrometer los de JDBC.
+ * Los ids de la ruta van como baggage (AtributosTrazaInterceptor), los del cuerpo de las escrituras
+ * también (AtributosTrazaCuerpoAdvice), y los campos de management.tracing.baggage.tag-fields se
+ * copian como atributo a cada span que se inicia con ellos.
+ */
+@Configuration
+public class TrazasConfig implements WebMvcConfigurer {
+
+    private static final Map<String, String> ATRIBUTOS_RUTA = Map.of(
+            "idDetalle", "idDetalle",
+            "idBoleta", "idBoleta",
+            "idProducto", "idProducto");
+
+    private final AtributosTrazaInterceptor atributosTrazaInterceptor;
+
+    public TrazasConfig(Tracer tracer) {
+        this.atributosTrazaInterceptor = new AtributosTrazaInterceptor(tracer, ATRIBUTOS_RUTA);
+    }
+
+    @Bean
+    public AtributosTrazaInterceptor atributosTrazaInterceptor() {
+        return atributosTrazaInterceptor;
+    }
+
+    // static: el SpanProcessor se necesita para crear el Tracer que recibe esta configuración
+    @Bean
+    public static SpanProcessor atributosDesdeBaggage(@Value("${management.tracing.baggage.tag-fields:}") List<String> campos) {
+        return new BaggageTaggingSpanProcessor(campos);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(atributosTrazaInterceptor);
+    }
+}
@@ -1,10 +1,17 @@
 package com.ampuero.msvc.detalle.controllers;
 
+import com.ampuero.msvc.detalle.dtos.DetalleBatchDTO;
 import com.ampuero.msvc.detalle.dtos.DetalleDTO;
 import com.ampuero.msvc.detalle.dtos.DetalleResponseDTO;
 import com.ampuero.msvc.detalle.dtos.ErrorDTO;
+import com.ampuero.msvc.detalle.dtos.PaginaDetallesDTO;
+import com.ampuero.msvc.detalle.dtos.ResumenBoletaDTO;
+import com.ampuero.msvc.detalle.dtos.TotalBoletaDTO;
 import com.ampuero.msvc.detalle.exceptions.DetalleException;
 import com.ampuero.msvc.detalle.exceptions.ResourceNotFoundException;
+import com.ampuero.msvc.detalle.models.entities.Detalle;
+import com.ampuero.msvc.detalle.services.DetalleExportService;
+import com.ampuero.msvc.detalle.services.DetalleResumenService;
 import com.ampuero.msvc.detalle.services.DetalleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,9 +24,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -31,6 +40,8 @@ import java.util.List;
 public class DetalleController {
 
     private final DetalleService detalleService;
+    private final DetalleExportService detalleExportService;
+    private final DetalleResumenService detalleResumenService;
 
     // POST: Crear nuevo detalle de boleta
     @PostMapping
@@ -48,6 +59,21 @@ public class DetalleController {
     }
 
 
+    // POST: Crear todas las líneas de una boleta en una sola petición
+    @PostMapping("/batch")
+    @Operation(summary = "Crear detalles en lote", description = "Crea en una sola operación todas las líneas de detalle de una boleta. Si algún producto no existe no se crea ninguna línea.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Detalles creados exitosamente",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = DetalleResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos proporcionados",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Boleta o producto no encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDTO.class)))
+    })
+    public ResponseEntity<List<DetalleResponseDTO>> crearDetallesEnLote(@Valid @RequestBody DetalleBatchDTO detalleBatchDTO) throws ResourceNotFoundException {
+        return ResponseEntity.status(HttpStatus.CREATED).body(this.detalleService.crearDetallesEnLote(detalleBatchDTO));
+    }
+
     @GetMapping("/boleta/{idBoleta}")
     @Operation(summary = "Obtiene un detalle", description = "A través del id suministrado devuelve el detalle con esa id")
     @ApiResponses( value = {
@@ -62,10 +88,95 @@ public class DetalleController {
             )
     })
     @Parameters(value = {
-            @Parameter(name="id", description = "Este es el id unico del detalle", required = true)
+            @Parameter(name="id", description = "Este es el id unico del detalle", required = true),
+            @Parameter(name = "conBoleta", description = "Con false cada línea trae solo su producto, sin consultar la boleta " +
+                    "(para msvc-boletas, que ya la tiene)")
+    })
+    public ResponseEntity<List<DetalleResponseDTO>> obtenerPorBoleta(@PathVariable Long idBoleta,
+                                                                     @RequestParam(defaultValue = "true") boolean conBoleta) {
+        return ResponseEntity.status(HttpStatus.OK).body(conBoleta
+                ? detalleService.obtenerPorBoleta(idBoleta)
+                : detalleService.obtenerLineasPorBoleta(idBoleta));
+    }
+
+    // GET: Listado paginado por cursor (keyset)
+    @GetMapping
+    @Operation(summary = "Obtener detalles paginados", description = "Devuelve una página de detalles ordenada por ID. " +
+            "Para la página siguiente se envía en 'after' el siguienteCursor recibido.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página obtenida exitosamente",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = PaginaDetallesDTO.class)))
+    })
+    @Parameters(value = {
+            @Parameter(name = "after", description = "Último ID recibido en la página anterior (vacío para la primera)"),
+            @Parameter(name = "limit", description = "Tamaño de página (por defecto 20, máximo 100)")
+    })
+    public ResponseEntity<PaginaDetallesDTO> obtenerPagina(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.status(HttpStatus.OK).body(detalleService.obtenerPagina(after, limit));
+    }
+
+    // GET: Resumen de los detalles de una boleta, leído de la tabla detalle_boleta_agg
+    @GetMapping("/boleta/{idBoleta}/resumen")
+    @Operation(summary = "Resumen de una boleta", description = "Devuelve la cantidad de detalles, la suma de cantidades y la suma " +
+            "de subtotales de una boleta sin recorrer sus detalles. Una boleta sin detalles devuelve ceros.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resumen obtenido exitosamente",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResumenBoletaDTO.class)))
+    })
+    @Parameters(value = {
+            @Parameter(name = "idBoleta", description = "ID de la boleta", required = true)
+    })
+    public ResponseEntity<ResumenBoletaDTO> obtenerResumen(@PathVariable Long idBoleta) {
+        return ResponseEntity.ok(detalleResumenService.obtenerResumen(idBoleta));
+    }
+
+    // POST: Reconstruir la tabla de resúmenes desde los detalles
+    @PostMapping("/resumenes/reconstruir")
+    @Operation(summary = "Reconstruir resúmenes por boleta", description = "Recalcula desde cero la tabla detalle_boleta_agg " +
+            "con un recorrido en streaming de los detalles. Devuelve la cantidad de boletas con resumen. " +
+            "Debe ejecutarse sin escrituras de detalles en curso.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resúmenes reconstruidos")
+    })
+    public ResponseEntity<Long> reconstruirResumenes() {
+        return ResponseEntity.ok(detalleResumenService.reconstruir());
+    }
+
+    // GET: Exportación completa en NDJSON (streaming)
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Exportar todos los detalles", description = "Devuelve todos los detalles como JSON delimitado por " +
+            "saltos de línea (un detalle por línea, ordenados por ID). Las filas se envían a medida que se leen, " +
+            "sin cargar la tabla completa en memoria.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportación en curso",
+                    content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = Detalle.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportarDetalles() {
+        StreamingResponseBody cuerpo = detalleExportService::exportarNdjson;
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(cuerpo);
+    }
+
+    // GET: Totales por boleta en NDJSON (streaming), para la conciliación de msvc-boletas
+    @GetMapping(value = "/totales", produces = "application/x-ndjson")
+    @Operation(summary = "Exportar totales por boleta", description = "Devuelve, una línea por boleta y en orden de ID, " +
+            "la suma de subtotal_detalle y la cantidad de detalles, calculadas con un único GROUP BY. Las boletas con " +
+            "montos aún no enviados a msvc-boletas vienen con pendiente = true.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportación en curso",
+                    content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = TotalBoletaDTO.class)))
+    })
+    @Parameters(value = {
+            @Parameter(name = "ids", description = "IDs de boletas a exportar; si se omite se exportan todas")
     })
-    public ResponseEntity<List<DetalleResponseDTO>> obtenerPorBoleta(@PathVariable Long idBoleta) {
-        return ResponseEntity.status(HttpStatus.OK).body(detalleService.obtenerPorBoleta(idBoleta));
+    public ResponseEntity<StreamingResponseBody> exportarTotales(@RequestParam(required = false) List<Long> ids) {
+        StreamingResponseBody cuerpo = salida -> detalleExportService.exportarTotalesNdjson(ids, salida);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(cuerpo);
     }
 
     // PUT: Actualizar detalle por ID
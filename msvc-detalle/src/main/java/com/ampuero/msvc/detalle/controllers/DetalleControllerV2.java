@@ -2,9 +2,11 @@ package com.ampuero.msvc.detalle.controllers;
 
 import com.ampuero.msvc.detalle.assemblers.DetalleResponseDTOModelAssembler;
 import com.ampuero.msvc.detalle.assemblers.DetalleCollectionAssembler;
+import com.ampuero.msvc.detalle.dtos.DetalleBatchDTO;
 import com.ampuero.msvc.detalle.dtos.DetalleDTO;
 import com.ampuero.msvc.detalle.dtos.DetalleResponseDTO;
 import com.ampuero.msvc.detalle.dtos.ErrorDTO;
+import com.ampuero.msvc.detalle.dtos.PaginaDetallesDTO;
 import com.ampuero.msvc.detalle.exceptions.DetalleException;
 import com.ampuero.msvc.detalle.exceptions.ResourceNotFoundException;
 import com.ampuero.msvc.detalle.services.DetalleService;
@@ -21,6 +23,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -57,6 +60,23 @@ public class DetalleControllerV2 {
     }
 
 
+    // POST: Crear todas las líneas de una boleta en una sola petición
+    @PostMapping("/batch")
+    @Operation(summary = "Crear detalles en lote", description = "Crea en una sola operación todas las líneas de detalle de una boleta y las devuelve con enlaces HATEOAS.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Detalles creados exitosamente",
+                    content = @Content(mediaType = MediaTypes.HAL_JSON_VALUE, schema = @Schema(implementation = DetalleResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos proporcionados",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Boleta o producto no encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorDTO.class)))
+    })
+    public ResponseEntity<CollectionModel<EntityModel<DetalleResponseDTO>>> crearDetallesEnLote(@Valid @RequestBody DetalleBatchDTO detalleBatchDTO) throws ResourceNotFoundException {
+        List<DetalleResponseDTO> detalles = detalleService.crearDetallesEnLote(detalleBatchDTO);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(collectionAssembler.toCollectionModelForBoleta(detalles, detalleBatchDTO.getIdBoletaPojo()));
+    }
+
     @GetMapping("/boleta/{idBoleta}")
     @Operation(summary = "Obtiene un detalle", description = "A través del id suministrado devuelve el detalle con esa id")
     @ApiResponses( value = {
@@ -79,17 +99,24 @@ public class DetalleControllerV2 {
                 .body(collectionAssembler.toCollectionModelForBoleta(detalles, idBoleta));
     }
 
-    // GET: Obtener todos los detalles
+    // GET: Obtener detalles paginados por cursor (keyset)
     @GetMapping
-    @Operation(summary = "Obtener todos los detalles", description = "Devuelve una lista de todos los detalles en el sistema")
+    @Operation(summary = "Obtener detalles paginados", description = "Devuelve una página de detalles ordenada por ID, " +
+            "con enlace 'next' hacia la página siguiente mientras existan más detalles")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista obtenida exitosamente",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = DetalleResponseDTO.class)))
+            @ApiResponse(responseCode = "200", description = "Página obtenida exitosamente",
+                    content = @Content(mediaType = MediaTypes.HAL_JSON_VALUE, schema = @Schema(implementation = DetalleResponseDTO.class)))
+    })
+    @Parameters(value = {
+            @Parameter(name = "after", description = "Último ID recibido en la página anterior (vacío para la primera)"),
+            @Parameter(name = "limit", description = "Tamaño de página (por defecto 20, máximo 100)")
     })
-    public ResponseEntity<CollectionModel<EntityModel<DetalleResponseDTO>>> obtenerTodos() {
-        List<DetalleResponseDTO> detalles = detalleService.obtenerTodos();
+    public ResponseEntity<PagedModel<EntityModel<DetalleResponseDTO>>> obtenerTodos(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        PaginaDetallesDTO pagina = detalleService.obtenerPagina(after, limit);
         return ResponseEntity.status(HttpStatus.OK)
-                .body(collectionAssembler.toCollectionModel(detalles));
+                .body(collectionAssembler.toPagedModel(pagina, after));
     }
 
     // GET: Obtener detalle por ID
@@ -0,0 +1,61 @@
+package com.ampuero.msvc.detalle.controllers;
+
+import com.ampuero.msvc.detalle.dtos.CacheStatsDTO;
+import com.ampuero.msvc.detalle.services.ProductoCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/detalles/cache/productos")
+@RequiredArgsConstructor
+@Tag(name = "Cache de productos", description = "Administración de la caché local de productos")
+public class ProductoCacheController {
+
+    private final ProductoCacheService productoCacheService;
+
+    // GET: Estadísticas de la caché de productos
+    @GetMapping
+    @Operation(summary = "Obtiene estadísticas de la caché", description = "Devuelve tamaño, aciertos, fallos, desalojos e invalidaciones de la caché local de productos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operacion existosa",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CacheStatsDTO.class)))
+    })
+    public ResponseEntity<CacheStatsDTO> obtenerEstadisticas() {
+        return ResponseEntity.status(HttpStatus.OK).body(productoCacheService.estadisticas());
+    }
+
+    // DELETE: Invalidar un producto de la caché
+    @DeleteMapping("/{idProducto}")
+    @Operation(summary = "Invalida un producto", description = "Elimina un producto de la caché local; la siguiente lectura lo obtendrá de msvc-productos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Producto invalidado")
+    })
+    @Parameters(value = {
+            @Parameter(name = "idProducto", description = "ID único del producto a invalidar", required = true)
+    })
+    public ResponseEntity<Void> invalidarProducto(@PathVariable Long idProducto) {
+        productoCacheService.invalidar(idProducto);
+        return ResponseEntity.noContent().build();
+    }
+
+    // DELETE: Vaciar la caché de productos
+    @DeleteMapping
+    @Operation(summary = "Vacía la caché", description = "Elimina todas las entradas de la caché local de productos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Caché vaciada")
+    })
+    public ResponseEntity<Void> invalidarTodo() {
+        productoCacheService.invalidarTodo();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ampuero.msvc.detalle.controllers;
+
+import com.ampuero.msvc.detalle.clients.RegistroReintentos;
+import com.ampuero.msvc.detalle.dtos.EstadoDependenciaDTO;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/detalles/resiliencia")
+@RequiredArgsConstructor
+@Tag(name = "Resiliencia", description = "Estado de los circuit breakers y bulkheads de las dependencias remotas")
+public class ResilienciaController {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final RegistroReintentos registroReintentos;
+
+    // GET: Estado de cada dependencia que ya recibió al menos una llamada
+    @GetMapping
+    @Operation(summary = "Obtiene el estado de las dependencias", description = "Devuelve estado del circuito, tasas de fallo/lentitud, rechazos, permisos libres del bulkhead, reintentos, hedges y p95 por dependencia.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operacion existosa",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = EstadoDependenciaDTO.class))))
+    })
+    public ResponseEntity<List<EstadoDependenciaDTO>> obtenerEstado() {
+        List<EstadoDependenciaDTO> estados = circuitBreakerRegistry.getAllCircuitBreakers().stream()
+                .sorted(Comparator.comparing(CircuitBreaker::getName))
+                .map(this::construirEstado)
+                .toList();
+        return ResponseEntity.status(HttpStatus.OK).body(estados);
+    }
+
+    private EstadoDependenciaDTO construirEstado(CircuitBreaker circuitBreaker) {
+        CircuitBreaker.Metrics metricas = circuitBreaker.getMetrics();
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(circuitBreaker.getName());
+        RegistroReintentos.Dependencia reintentos = registroReintentos.dependencia(circuitBreaker.getName());
+        long p95 = reintentos.latencias().percentil95Nanos();
+        return new EstadoDependenciaDTO(
+                circuitBreaker.getName(),
+                circuitBreaker.getState().name(),
+                metricas.getFailureRate(),
+                metricas.getSlowCallRate(),
+                metricas.getNumberOfBufferedCalls(),
+                metricas.getNumberOfFailedCalls(),
+                metricas.getNumberOfSlowCalls(),
+                metricas.getNumberOfNotPermittedCalls(),
+                bulkhead.getMetrics().getAvailableConcurrentCalls(),
+                bulkhead.getMetrics().getMaxAllowedConcurrentCalls(),
+                reintentos.reintentos().get(),
+                reintentos.hedges().get(),
+                reintentos.presupuesto().getDenegados(),
+                p95 < 0 ? -1 : p95 / 1_000_000d
+        );
+    }
+}
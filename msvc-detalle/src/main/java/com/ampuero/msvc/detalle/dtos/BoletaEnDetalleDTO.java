@@ -16,7 +16,7 @@ package com.ampuero.msvc.detalle.dtos;
  * Atributos:
  * - idBoleta: Identificador único de la boleta.
  * - fechaEmisionBoleta: Fecha en la que se emitió la boleta.
- * - totalBoleta: Monto total de la boleta, incluyendo todos los detalles asociados.
+ * - totalBoleta: Monto total de la boleta, incluyendo todos los detalles asociados (null si msvc-boletas no respondió).
  * - descripcionBoleta: Descripción textual u observaciones adicionales sobre la boleta.
  * - cliente: Información resumida del cliente asociado a la boleta (representado por ClienteEnBoletaDTO).
  *
@@ -36,7 +36,7 @@ import java.time.LocalDate;
 public class BoletaEnDetalleDTO {
     private Long idBoleta; // Anteriormente idFactura
     private LocalDate fechaEmisionBoleta;
-    private double totalBoleta;
+    private Double totalBoleta;
     private String descripcionBoleta;
     private ClienteEnBoletaDTO cliente;
 } 
\ No newline at end of file
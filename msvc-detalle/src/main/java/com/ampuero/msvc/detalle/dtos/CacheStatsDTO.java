@@ -0,0 +1,47 @@
+package com.ampuero.msvc.detalle.dtos;
+
+/**
+ * CacheStatsDTO.java
+ *
+ * Descripción:
+ * Objeto de transferencia de datos (DTO) con las estadísticas de una caché local del microservicio
+ * de detalle. Se expone para poder dimensionar la caché (tamaño máximo y TTL) a partir de su uso real.
+ *
+ * Atributos:
+ * - tamanio: Número de entradas actualmente en la caché.
+ * - aciertos: Lecturas resueltas desde la caché.
+ * - fallos: Lecturas que requirieron llamar al servicio remoto.
+ * - desalojos: Entradas expulsadas por tamaño o por expiración (TTL).
+ * - invalidaciones: Entradas eliminadas explícitamente (endpoint de administración o evento).
+ * - tasaAciertos: Proporción de aciertos sobre el total de lecturas (0.0 - 1.0).
+ */
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estadísticas de uso de una caché local")
+public class CacheStatsDTO {
+
+    @Schema(description = "Número de entradas en caché", example = "120")
+    private long tamanio;
+
+    @Schema(description = "Lecturas resueltas desde la caché", example = "5400")
+    private long aciertos;
+
+    @Schema(description = "Lecturas que requirieron llamada remota", example = "130")
+    private long fallos;
+
+    @Schema(description = "Entradas expulsadas por tamaño o TTL", example = "10")
+    private long desalojos;
+
+    @Schema(description = "Entradas invalidadas explícitamente", example = "3")
+    private long invalidaciones;
+
+    @Schema(description = "Proporción de aciertos sobre el total de lecturas", example = "0.976")
+    private double tasaAciertos;
+}
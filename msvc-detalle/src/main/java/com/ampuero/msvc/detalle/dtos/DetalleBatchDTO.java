@@ -0,0 +1,38 @@
+package com.ampuero.msvc.detalle.dtos;
+
+/**
+ * DetalleBatchDTO.java
+ *
+ * Descripción:
+ * Objeto de transferencia de datos (DTO) para crear en una sola petición todas las líneas
+ * de detalle de una boleta (por ejemplo, la canasta completa de un punto de venta).
+ *
+ * Atributos:
+ * - idBoletaPojo: Boleta a la que pertenecen todas las líneas.
+ * - lineas: Productos y cantidades a registrar.
+ */
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO para crear varios detalles de una misma boleta")
+
+public class DetalleBatchDTO {
+    @NotNull(message = "La boleta es obligatoria")
+    @Schema(description = "Tiene que tener una ID asociada a una boleta existente", example = "1")
+    private Long idBoletaPojo;
+
+    @NotEmpty(message = "Debe incluir al menos una línea")
+    @Schema(description = "Líneas de detalle a crear")
+    private List<@NotNull(message = "Las líneas no pueden ser nulas") @Valid LineaDetalleDTO> lineas;
+}
@@ -20,6 +20,8 @@ package com.ampuero.msvc.detalle.dtos;
  * - cantidadDetalle: Cantidad de productos incluidos en este ítem.
  * - precioUnitarioDetalle: Precio individual del producto al momento de generar el detalle.
  * - subtotalDetalle: Resultado de cantidad * precio unitario. Representa el costo parcial del ítem.
+ * - camposNoDisponibles: Campos ("boleta", "producto") que no se pudieron enriquecer porque el servicio
+ *   remoto no respondió o no los devolvió; esos campos solo traen su ID. Se omite del JSON si está vacío.
  *
  * Autor: Alex Ignacio Ampuero Ahumada
  * Fecha de creación: [NN]
@@ -27,10 +29,13 @@ package com.ampuero.msvc.detalle.dtos;
  */
 
 import com.ampuero.msvc.detalle.models.ProductoPojo;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 // dtos/DetalleBoletaResponseDTO.java
 @Data
 @NoArgsConstructor
@@ -42,4 +47,7 @@ public class DetalleResponseDTO {
     private Integer cantidadDetalle;
     private Double precioUnitarioDetalle;
     private Double subtotalDetalle;
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> camposNoDisponibles;
 }
\ No newline at end of file
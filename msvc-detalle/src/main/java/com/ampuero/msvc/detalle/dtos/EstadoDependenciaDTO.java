@@ -0,0 +1,74 @@
+package com.ampuero.msvc.detalle.dtos;
+
+/**
+ * EstadoDependenciaDTO.java
+ *
+ * Descripción:
+ * Objeto de transferencia de datos (DTO) con el estado del circuit breaker y del bulkhead
+ * de una dependencia remota (msvc-productos, msvc-boletas).
+ *
+ * Atributos:
+ * - dependencia: Nombre del cliente Feign.
+ * - estado: Estado del circuito (CLOSED, OPEN, HALF_OPEN).
+ * - tasaFallos / tasaLentas: Porcentaje de llamadas fallidas y lentas en la ventana (-1 si aún no hay suficientes).
+ * - llamadasRegistradas / llamadasFallidas / llamadasLentas: Contadores de la ventana actual.
+ * - llamadasRechazadas: Llamadas rechazadas con el circuito abierto.
+ * - concurrentesDisponibles / maxConcurrentes: Permisos libres y totales del bulkhead.
+ * - reintentos / hedges: Reintentos y peticiones de hedging enviados a la dependencia.
+ * - reintentosDenegados: Reintentos o hedges descartados por falta de presupuesto.
+ * - latenciaP95Ms: p95 observado de las llamadas idempotentes (-1 sin muestras suficientes).
+ */
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estado del circuit breaker y bulkhead de una dependencia")
+public class EstadoDependenciaDTO {
+
+    @Schema(description = "Nombre de la dependencia (cliente Feign)", example = "msvc-productos")
+    private String dependencia;
+
+    @Schema(description = "Estado del circuito", example = "CLOSED")
+    private String estado;
+
+    @Schema(description = "Porcentaje de llamadas fallidas en la ventana (-1 sin datos suficientes)", example = "12.5")
+    private float tasaFallos;
+
+    @Schema(description = "Porcentaje de llamadas lentas en la ventana (-1 sin datos suficientes)", example = "0.0")
+    private float tasaLentas;
+
+    @Schema(description = "Llamadas registradas en la ventana", example = "20")
+    private int llamadasRegistradas;
+
+    @Schema(description = "Llamadas fallidas en la ventana", example = "2")
+    private int llamadasFallidas;
+
+    @Schema(description = "Llamadas lentas en la ventana", example = "0")
+    private int llamadasLentas;
+
+    @Schema(description = "Llamadas rechazadas con el circuito abierto", example = "0")
+    private long llamadasRechazadas;
+
+    @Schema(description = "Llamadas simultáneas disponibles en el bulkhead", example = "25")
+    private int concurrentesDisponibles;
+
+    @Schema(description = "Máximo de llamadas simultáneas del bulkhead", example = "25")
+    private int maxConcurrentes;
+
+    @Schema(description = "Reintentos enviados a la dependencia", example = "3")
+    private long reintentos;
+
+    @Schema(description = "Peticiones de hedging enviadas a la dependencia", example = "12")
+    private long hedges;
+
+    @Schema(description = "Reintentos o hedges descartados por falta de presupuesto", example = "0")
+    private long reintentosDenegados;
+
+    @Schema(description = "p95 de latencia de las llamadas idempotentes en ms (-1 sin muestras suficientes)", example = "18.4")
+    private double latenciaP95Ms;
+}
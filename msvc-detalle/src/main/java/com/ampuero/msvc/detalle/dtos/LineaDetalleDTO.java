@@ -0,0 +1,24 @@
+package com.ampuero.msvc.detalle.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Línea de detalle dentro de una creación en lote")
+
+public class LineaDetalleDTO {
+    @NotNull(message = "El producto de la línea es obligatorio")
+    @Schema(description = "Tiene que tener una ID asociada a un producto existente", example = "1")
+    private Long idProductoPojo;
+
+    @NotNull(message = "La cantidad de la línea es obligatoria")
+    @Min(value = 0, message = "La cantidad no puede ser negativa")
+    @Schema(description = "Cantidad de detalle", example = "1")
+    private Integer cantidadDetalle;
+}
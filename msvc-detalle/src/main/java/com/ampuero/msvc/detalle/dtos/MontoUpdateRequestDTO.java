@@ -17,6 +17,8 @@ package com.ampuero.msvc.detalle.dtos;
  *
  * Atributos:
  * - monto: Valor que se desea sumar (positivo) o restar (negativo) al total de la boleta.
+ * - claveIdempotencia: Opcional (UUID); msvc-boletas no vuelve a sumar a la misma boleta un monto
+ *   con una clave ya aplicada.
  *
  * Autor: Alex Ignacio Ampuero Ahumada
  * Fecha de creación: [NN]
@@ -34,4 +36,6 @@ import lombok.NoArgsConstructor;
 public class MontoUpdateRequestDTO {
     @NotNull
     private Double monto;
+
+    private String claveIdempotencia;
 } 
\ No newline at end of file
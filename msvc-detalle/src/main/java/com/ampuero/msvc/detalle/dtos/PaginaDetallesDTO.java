@@ -0,0 +1,37 @@
+package com.ampuero.msvc.detalle.dtos;
+
+/**
+ * PaginaDetallesDTO.java
+ *
+ * Descripción:
+ * Página de detalles obtenida por paginación keyset (cursor sobre id_detalle).
+ * No se usa OFFSET: cada página parte desde el último ID entregado en la anterior.
+ *
+ * Atributos:
+ * - contenido: Detalles de la página, ordenados por ID ascendente.
+ * - siguienteCursor: Valor de "after" para pedir la página siguiente (null si es la última).
+ * - limite: Tamaño de página aplicado.
+ */
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de detalles paginada por cursor (keyset)")
+
+public class PaginaDetallesDTO {
+    @Schema(description = "Detalles de la página ordenados por ID")
+    private List<DetalleResponseDTO> contenido;
+
+    @Schema(description = "Cursor para la página siguiente; null si no hay más", example = "40")
+    private Long siguienteCursor;
+
+    @Schema(description = "Tamaño de página aplicado", example = "20")
+    private int limite;
+}
@@ -0,0 +1,25 @@
+package com.ampuero.msvc.detalle.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resumen de los detalles de una boleta")
+
+public class ResumenBoletaDTO {
+    @Schema(description = "Codigo de la boleta", example = "1")
+    private Long idBoleta;
+
+    @Schema(description = "Cantidad de detalles", example = "20")
+    private long lineas;
+
+    @Schema(description = "Suma de las cantidades de sus detalles", example = "87")
+    private long cantidadTotal;
+
+    @Schema(description = "Suma de los subtotales de sus detalles", example = "45210.5")
+    private double subtotalTotal;
+}
@@ -0,0 +1,31 @@
+package com.ampuero.msvc.detalle.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Suma de los subtotales de los detalles de una boleta")
+
+public class TotalBoletaDTO {
+    @Schema(description = "Codigo de la boleta", example = "1")
+    private Long idBoleta;
+
+    @Schema(description = "Suma de subtotal_detalle de sus detalles", example = "3980.0")
+    private Double total;
+
+    @Schema(description = "Cantidad de detalles de la boleta", example = "2")
+    private Long lineas;
+
+    @Schema(description = "true si la boleta tiene montos todavía no enviados a msvc-boletas (totales diferidos); " +
+            "su total en msvc-boletas puede diferir legítimamente", example = "false")
+    private boolean pendiente;
+
+    // Usado por la consulta agrupada de DetalleRepository (SELECT new ...)
+    public TotalBoletaDTO(Long idBoleta, Double total, Long lineas) {
+        this(idBoleta, total == null ? 0.0 : total, lineas, false);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ampuero.msvc.detalle.exceptions;
+
+import feign.FeignException;
+import feign.Request;
+
+/**
+ * Llamada a otro microservicio rechazada sin salir de este servicio: el circuito de la dependencia
+ * está abierto o se alcanzó el máximo de llamadas concurrentes (bulkhead).
+ *
+ * Extiende FeignException con estado 503 para que los servicios la traten como cualquier otro
+ * error de comunicación (se envía a DetalleException).
+ */
+public class DependenciaNoDisponibleException extends FeignException {
+
+    public DependenciaNoDisponibleException(String message, Request request) {
+        super(503, message, request);
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 /**
@@ -37,6 +39,9 @@ public class LoadDatabaseSimple implements CommandLineRunner {
         if (detalleRepository.count() == 0) {
             logger.info("Generando 100 detalles fake para desarrollo...");
             
+            // Se arman todos en memoria y se guardan con un solo saveAll (INSERT en lotes JDBC)
+            List<Detalle> detalles = new ArrayList<>(100);
+
             // Generar detalles más distribuidos por boleta
             for (int i = 0; i < 100; i++) {
                 Detalle detalle = new Detalle();
@@ -51,12 +56,14 @@ public class LoadDatabaseSimple implements CommandLineRunner {
                 detalle.setPrecioUnitarioDetalle(precioUnitario);
                 detalle.setSubtotalDetalle(detalle.getCantidadDetalle() * precioUnitario);
 
-                detalleRepository.save(detalle);
+                detalles.add(detalle);
                 
                 if (i % 20 == 0) {
-                    logger.info("Creados {} detalles... (Boleta actual: {})", i + 1, idBoleta);
+                    logger.info("Generados {} detalles... (Boleta actual: {})", i + 1, idBoleta);
                 }
             }
+
+            detalleRepository.saveAll(detalles);
             
             logger.info("LoadDatabase completado: {} detalles creados distribuidos en 5 boletas", detalleRepository.count());
         } else {
@@ -19,6 +19,7 @@ package com.ampuero.msvc.detalle.models;
  * - Se usa normalmente cuando se recibe o envía información desde/hacia otros servicios vía Feign.
  */
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -33,9 +34,14 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Data
 public class BoletaPojo {
+    // msvc-boleta responde en snake_case (BoletaResponseDTO); sin los alias el ID llega en null
+    @JsonAlias("id_boleta")
     private Long idBoleta;
+    @JsonAlias("fecha_emision")
     private LocalDate fechaEmisionBoleta;
-    private double totalBoleta;
+    @JsonAlias("total_boleta")
+    private Double totalBoleta;
+    @JsonAlias("descripcion_boleta")
     private String descripcionBoleta;
     private ClientePojo cliente;
 }
\ No newline at end of file
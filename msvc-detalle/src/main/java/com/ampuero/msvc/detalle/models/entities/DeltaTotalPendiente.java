@@ -0,0 +1,42 @@
+package com.ampuero.msvc.detalle.models.entities;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "delta_total_pendiente")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Monto pendiente de aplicar al total de una boleta en msvc-boletas")
+
+public class DeltaTotalPendiente {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "delta_total_pendiente_seq")
+    @SequenceGenerator(name = "delta_total_pendiente_seq", sequenceName = "delta_total_pendiente_seq", allocationSize = 50)
+    @Column(name = "id_delta")
+    @Schema(description = "Codigo del delta pendiente", example = "1")
+    private Long idDelta;
+
+    @Column(name = "id_boleta", nullable = false)
+    @Schema(description = "Codigo de la boleta a actualizar", example = "1")
+    private Long idBoleta;
+
+    @Column(nullable = false)
+    @Schema(description = "Monto a sumar (positivo) o restar (negativo) al total", example = "3980.0")
+    private Double monto;
+
+    @Column(name = "fecha_registro", nullable = false)
+    @Schema(description = "Momento en que se registró el delta")
+    private LocalDateTime fechaRegistro;
+
+    @Column(name = "clave_idempotencia", length = 36)
+    @Schema(description = "Clave de idempotencia del PUT que incluyó este delta (null si aún no se envía)",
+            example = "3f2b8c1e-6d4a-4f0e-9a57-2c1d8e7b5a90")
+    private String claveIdempotencia;
+}
@@ -7,7 +7,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "detalle")
+// El índice compuesto sirve a findByIdBoletaPojo (columna líder) y cubre la suma de subtotales por boleta
+@Table(name = "detalle", indexes = {
+        @Index(name = "idx_detalle_boleta_subtotal", columnList = "id_boleta_pojo, subtotal_detalle")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,7 +18,9 @@ import lombok.NoArgsConstructor;
 
 public class Detalle {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con optimizador pooled: reserva 50 ids por viaje y permite batching JDBC (IDENTITY lo desactiva)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detalle_seq")
+    @SequenceGenerator(name = "detalle_seq", sequenceName = "detalle_seq", allocationSize = 50)
     @Column(name = "id_detalle")
     @Schema(description = "Codigo del detalle", example = "1")
     private Long idDetalle;
@@ -0,0 +1,34 @@
+package com.ampuero.msvc.detalle.models.entities;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resumen materializado de los detalles de una boleta; se mantiene en la misma transacción que cada detalle
+@Entity
+@Table(name = "detalle_boleta_agg")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resumen materializado de los detalles de una boleta")
+
+public class DetalleBoletaAgg {
+    @Id
+    @Column(name = "id_boleta")
+    @Schema(description = "Codigo de la boleta", example = "1")
+    private Long idBoleta;
+
+    @Column(nullable = false)
+    @Schema(description = "Cantidad de detalles de la boleta", example = "20")
+    private Long lineas;
+
+    @Column(name = "cantidad_total", nullable = false)
+    @Schema(description = "Suma de cantidad_detalle", example = "87")
+    private Long cantidadTotal;
+
+    @Column(name = "subtotal_total", nullable = false)
+    @Schema(description = "Suma de subtotal_detalle", example = "45210.5")
+    private Double subtotalTotal;
+}
@@ -0,0 +1,23 @@
+package com.ampuero.msvc.detalle.models.entities;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Filas de bloqueo para crear el resumen de una boleta sin carreras: el primer detalle de una boleta
+// bloquea la franja idBoleta mod DetalleResumenService.FRANJAS_BLOQUEO antes de insertar su resumen
+@Entity
+@Table(name = "detalle_boleta_agg_bloqueo")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Franja de bloqueo para la creación de resúmenes de boleta")
+
+public class DetalleBoletaAggBloqueo {
+    @Id
+    @Column(name = "franja")
+    @Schema(description = "Número de franja", example = "7")
+    private Integer franja;
+}
@@ -0,0 +1,65 @@
+package com.ampuero.msvc.detalle.repositories;
+
+/**
+ * DeltaTotalPendienteRepository.java
+ *
+ * Descripción: Repositorio de los montos pendientes de aplicar a los totales de boleta.
+ * Funciona como una cola persistente en la base de datos de msvc-detalle: cada detalle creado,
+ * modificado o eliminado inserta aquí su delta en la misma transacción, y el proceso de vaciado los agrupa por boleta, los envía
+ * a msvc-boletas y luego los elimina por ID. Antes de cada envío los deltas incluidos quedan
+ * marcados con su clave de idempotencia, para repetir exactamente el mismo envío si falla.
+ */
+
+import com.ampuero.msvc.detalle.models.entities.DeltaTotalPendiente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DeltaTotalPendienteRepository extends JpaRepository<DeltaTotalPendiente, Long> {
+
+    /**
+     * Obtiene un lote de deltas pendientes en orden de registro.
+     *
+     * @param pageable tamaño del lote.
+     * @return Deltas pendientes más antiguos.
+     */
+    List<DeltaTotalPendiente> findAllByOrderByIdDeltaAsc(Pageable pageable);
+
+    /**
+     * Obtiene las boletas que tienen deltas sin aplicar, en orden de ID. La cola está acotada
+     * por detalle.totales.capacidad-maxima, por lo que la lista es pequeña.
+     *
+     * @return IDs distintos de boletas con deltas pendientes.
+     */
+    @Query("SELECT DISTINCT d.idBoleta FROM DeltaTotalPendiente d ORDER BY d.idBoleta")
+    List<Long> findIdsBoletaConPendientes();
+
+    /**
+     * Obtiene todos los deltas de un envío anterior que aún no se confirma.
+     *
+     * @param claveIdempotencia clave de idempotencia del envío.
+     * @return Deltas incluidos en ese envío.
+     */
+    List<DeltaTotalPendiente> findByClaveIdempotencia(String claveIdempotencia);
+
+    /**
+     * Marca los deltas de un envío con su clave de idempotencia, en una transacción propia que
+     * se confirma antes de enviar el PUT.
+     *
+     * @param claveIdempotencia clave de idempotencia del envío.
+     * @param ids IDs de los deltas incluidos.
+     * @return número de deltas marcados.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DeltaTotalPendiente d SET d.claveIdempotencia = :claveIdempotencia WHERE d.idDelta IN :ids")
+    int asignarClaveIdempotencia(@Param("claveIdempotencia") String claveIdempotencia, @Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,33 @@
+package com.ampuero.msvc.detalle.repositories;
+
+/**
+ * DetalleBoletaAggBloqueoRepository.java
+ *
+ * Descripción: Repositorio de las franjas de bloqueo de detalle_boleta_agg. Bloquear una franja
+ * (SELECT ... FOR UPDATE) serializa, hasta el fin de la transacción, la creación de los resúmenes
+ * de las boletas que caen en ella.
+ */
+
+import com.ampuero.msvc.detalle.models.entities.DetalleBoletaAggBloqueo;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DetalleBoletaAggBloqueoRepository extends JpaRepository<DetalleBoletaAggBloqueo, Integer> {
+
+    /**
+     * Bloquea la franja hasta que termine la transacción en curso; espera si otra la tiene bloqueada.
+     *
+     * @param franja Número de franja.
+     * @return La franja bloqueada, o vacío si no existe.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM DetalleBoletaAggBloqueo b WHERE b.franja = :franja")
+    Optional<DetalleBoletaAggBloqueo> bloquear(@Param("franja") int franja);
+}
@@ -0,0 +1,63 @@
+package com.ampuero.msvc.detalle.repositories;
+
+/**
+ * DetalleBoletaAggRepository.java
+ *
+ * Descripción: Repositorio de la tabla detalle_boleta_agg, que guarda por boleta la cantidad de
+ * detalles, la suma de cantidades y la suma de subtotales. Cada detalle creado, modificado o
+ * eliminado aplica aquí su diferencia dentro de la misma transacción, por lo que leer el
+ * resumen de una boleta es una búsqueda por clave primaria.
+ */
+
+import com.ampuero.msvc.detalle.models.entities.DetalleBoletaAgg;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DetalleBoletaAggRepository extends JpaRepository<DetalleBoletaAgg, Long> {
+
+    /**
+     * Suma las diferencias indicadas al resumen de la boleta con un único UPDATE atómico.
+     *
+     * @param idBoleta ID de la boleta.
+     * @param lineas   Detalles agregados (positivo) o quitados (negativo).
+     * @param cantidad Diferencia en la suma de cantidades.
+     * @param subtotal Diferencia en la suma de subtotales.
+     * @return Filas actualizadas (0 si la boleta todavía no tiene resumen).
+     */
+    @Modifying
+    @Query("UPDATE DetalleBoletaAgg a SET a.lineas = a.lineas + :lineas, a.cantidadTotal = a.cantidadTotal + :cantidad, " +
+            "a.subtotalTotal = a.subtotalTotal + :subtotal WHERE a.idBoleta = :idBoleta")
+    int acumular(@Param("idBoleta") Long idBoleta, @Param("lineas") long lineas,
+                 @Param("cantidad") long cantidad, @Param("subtotal") double subtotal);
+
+    /**
+     * Crea el resumen de una boleta que todavía no lo tiene. Debe llamarse con la franja de la
+     * boleta bloqueada (DetalleBoletaAggBloqueoRepository), para que dos detalles no lo creen a la vez.
+     *
+     * @param idBoleta ID de la boleta.
+     * @param lineas   Detalles agregados.
+     * @param cantidad Suma de cantidades.
+     * @param subtotal Suma de subtotales.
+     * @return Filas insertadas.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO detalle_boleta_agg (id_boleta, lineas, cantidad_total, subtotal_total) " +
+            "VALUES (:idBoleta, :lineas, :cantidad, :subtotal)", nativeQuery = true)
+    int insertar(@Param("idBoleta") Long idBoleta, @Param("lineas") long lineas,
+                 @Param("cantidad") long cantidad, @Param("subtotal") double subtotal);
+
+    /**
+     * Elimina el resumen de la boleta si ya no le quedan detalles, para que no arrastre
+     * residuos de redondeo en la suma de subtotales.
+     *
+     * @param idBoleta ID de la boleta.
+     * @return Filas eliminadas.
+     */
+    @Modifying
+    @Query("DELETE FROM DetalleBoletaAgg a WHERE a.idBoleta = :idBoleta AND a.lineas <= 0")
+    int eliminarSiVacio(@Param("idBoleta") Long idBoleta);
+}
@@ -17,11 +17,21 @@ package com.ampuero.msvc.detalle.repositories;
  * - Es parte de la capa de acceso a datos en la arquitectura del microservicio.
  */
 
+import com.ampuero.msvc.detalle.dtos.TotalBoletaDTO;
 import com.ampuero.msvc.detalle.models.entities.Detalle;
+import com.ampuero.msvc.detalle.models.entities.DetalleBoletaAgg;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Detalle. Define operaciones de base de datos
@@ -31,6 +41,9 @@ import java.util.List;
 @Repository
 public interface DetalleRepository extends JpaRepository<Detalle, Long> {
 
+    // Filas por viaje a la base de datos al recorrer la tabla en streaming
+    String FETCH_SIZE_EXPORTACION = "500";
+
     /**
      * Obtiene una lista de detalles de boleta filtrados por el ID de la boleta.
      *
@@ -38,4 +51,71 @@ public interface DetalleRepository extends JpaRepository<Detalle, Long> {
      * @return Lista de objetos Detalle relacionados con la boleta indicada.
      */
     List<Detalle> findByIdBoletaPojo(Long idBoleta);
+
+    /**
+     * Obtiene la página siguiente de detalles por paginación keyset: filas con ID mayor
+     * al cursor, en orden ascendente. Recorre el índice de la clave primaria sin OFFSET.
+     *
+     * @param idDetalle Último ID entregado en la página anterior (cursor).
+     * @param limit Cantidad máxima de filas a devolver.
+     * @return Lista de detalles posteriores al cursor.
+     */
+    List<Detalle> findByIdDetalleGreaterThanOrderByIdDetalleAsc(Long idDetalle, Limit limit);
+
+    /**
+     * Recorre todos los detalles en orden de ID como un Stream, leyendo desde la base
+     * de datos en bloques de FETCH_SIZE_EXPORTACION filas en vez de cargar la tabla completa.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     *
+     * @return Stream de detalles ordenados por ID.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACION),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM Detalle d ORDER BY d.idDetalle")
+    Stream<Detalle> streamAllByOrderByIdDetalleAsc();
+
+    /**
+     * Recorre la suma de subtotales y la cantidad de detalles de cada boleta, en orden de ID de boleta,
+     * con un único GROUP BY resuelto sobre el índice idx_detalle_boleta_subtotal.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     *
+     * @return Stream de totales por boleta ordenados por ID de boleta.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACION),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.ampuero.msvc.detalle.dtos.TotalBoletaDTO(d.idBoletaPojo, SUM(d.subtotalDetalle), COUNT(d)) " +
+            "FROM Detalle d GROUP BY d.idBoletaPojo ORDER BY d.idBoletaPojo")
+    Stream<TotalBoletaDTO> streamTotalesPorBoleta();
+
+    /**
+     * Igual que streamTotalesPorBoleta, pero solo para las boletas indicadas. La usa la conciliación
+     * de msvc-boletas para volver a verificar una diferencia justo antes de corregirla.
+     *
+     * @param idsBoletas IDs de las boletas a sumar.
+     * @return Stream de totales de esas boletas ordenados por ID de boleta (las que no tienen detalles no aparecen).
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT new com.ampuero.msvc.detalle.dtos.TotalBoletaDTO(d.idBoletaPojo, SUM(d.subtotalDetalle), COUNT(d)) " +
+            "FROM Detalle d WHERE d.idBoletaPojo IN :idsBoletas GROUP BY d.idBoletaPojo ORDER BY d.idBoletaPojo")
+    Stream<TotalBoletaDTO> streamTotalesPorBoleta(@Param("idsBoletas") Collection<Long> idsBoletas);
+
+    /**
+     * Recorre, por boleta, la cantidad de detalles, la suma de cantidades y la suma de subtotales
+     * con un único GROUP BY leído en bloques. Lo usa la reconstrucción de detalle_boleta_agg.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     *
+     * @return Stream de resúmenes (no gestionados) ordenados por ID de boleta.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = FETCH_SIZE_EXPORTACION),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.ampuero.msvc.detalle.models.entities.DetalleBoletaAgg(d.idBoletaPojo, COUNT(d), " +
+            "SUM(d.cantidadDetalle), COALESCE(SUM(d.subtotalDetalle), 0.0)) " +
+            "FROM Detalle d GROUP BY d.idBoletaPojo ORDER BY d.idBoletaPojo")
+    Stream<DetalleBoletaAgg> streamResumenesPorBoleta();
 }
@@ -0,0 +1,93 @@
+package com.ampuero.msvc.detalle.services;
+
+/**
+ * BoletaCacheService.java
+ *
+ * Descripción:
+ * Caché local de BoletaPojo indexada por idBoleta, usada solo al enriquecer listados de detalles.
+ * El total de una boleta cambia con cada detalle, por lo que el TTL es corto (segundos) y
+ * DetalleServiceImpl invalida la boleta cada vez que envía un cambio de total.
+ * Con totales diferidos (write-behind) el total cacheado puede quedar atrasado como máximo un TTL.
+ *
+ * Funciones principales:
+ * - Limita el número de entradas (desalojo por tamaño) y su antigüedad (TTL).
+ * - Carga individual o en lote: las boletas que no estén en caché se piden en una sola llamada.
+ * - Solo se cachean boletas obtenidas correctamente; los errores se propagan sin cachear.
+ * - Las validaciones de escritura (crear o actualizar un detalle) no pasan por esta caché.
+ */
+
+import com.ampuero.msvc.detalle.models.BoletaPojo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Service
+public class BoletaCacheService {
+
+    private final Cache<Long, BoletaPojo> cache;
+
+    @Autowired
+    public BoletaCacheService(@Value("${detalle.cache.boletas.max-entradas:1000}") long maxEntradas,
+                              @Value("${detalle.cache.boletas.ttl-segundos:10}") long ttlSegundos) {
+        this(maxEntradas, Duration.ofSeconds(ttlSegundos), Ticker.systemTicker());
+    }
+
+    // Constructor con reloj configurable, usado en pruebas para simular el paso del tiempo
+    BoletaCacheService(long maxEntradas, Duration ttl, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Obtiene una boleta desde la caché o, si no está, la carga con el cargador indicado.
+     * Las lecturas concurrentes del mismo ID esperan una única carga; los errores se propagan sin cachear.
+     *
+     * @param idBoleta ID de la boleta.
+     * @param cargador Función que obtiene la boleta del servicio remoto.
+     * @return BoletaPojo cacheada o recién cargada.
+     */
+    public BoletaPojo obtener(Long idBoleta, Function<Long, BoletaPojo> cargador) {
+        return cache.get(idBoleta, cargador);
+    }
+
+    /**
+     * Obtiene varias boletas; las que no estén en caché se cargan juntas en una sola llamada
+     * del cargador en lote. Los IDs que el cargador no devuelva quedan fuera del resultado.
+     *
+     * @param idsBoletas      IDs de las boletas.
+     * @param cargadorEnLote Función que recibe los IDs faltantes y devuelve las boletas encontradas.
+     * @return Mapa idBoleta -> BoletaPojo con las boletas disponibles.
+     */
+    public Map<Long, BoletaPojo> obtenerVarios(Collection<Long> idsBoletas,
+                                               Function<Set<? extends Long>, Map<Long, BoletaPojo>> cargadorEnLote) {
+        return cache.getAll(idsBoletas, cargadorEnLote);
+    }
+
+    /**
+     * Indica si todas las boletas indicadas están en caché (sin expirar), sin contar la consulta como lectura.
+     */
+    public boolean contieneTodos(Collection<Long> idsBoletas) {
+        return cache.asMap().keySet().containsAll(idsBoletas);
+    }
+
+    /**
+     * Elimina una boleta de la caché para que la siguiente lectura vaya a msvc-boletas.
+     *
+     * @param idBoleta ID de la boleta a invalidar.
+     */
+    public void invalidar(Long idBoleta) {
+        cache.invalidate(idBoleta);
+    }
+}
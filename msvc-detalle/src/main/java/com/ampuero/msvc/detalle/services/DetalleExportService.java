@@ -0,0 +1,150 @@
+package com.ampuero.msvc.detalle.services;
+
+/**
+ * DetalleExportService.java
+ *
+ * Descripción:
+ * Exporta todos los detalles como JSON delimitado por saltos de línea (NDJSON), una fila por línea,
+ * para procesos de conciliación nocturna. También exporta, con el mismo formato, la suma de
+ * subtotales por boleta que usa la conciliación de totales de msvc-boletas.
+ *
+ * Funciones principales:
+ * - Recorre la tabla con un Stream de JPA (lectura por bloques) en vez de cargarla completa.
+ * - Escribe cada detalle directamente en la salida y lo desvincula del contexto de persistencia,
+ *   por lo que la memoria usada no crece con el número de filas.
+ * - Registra al final las filas exportadas, la duración y el rendimiento en filas por segundo.
+ * - Los totales por boleta salen de un único GROUP BY; las boletas con deltas aún no enviados
+ *   (totales diferidos) se marcan como pendientes para que la conciliación no las corrija.
+ */
+
+import com.ampuero.msvc.detalle.dtos.TotalBoletaDTO;
+import com.ampuero.msvc.detalle.models.entities.Detalle;
+import com.ampuero.msvc.detalle.repositories.DeltaTotalPendienteRepository;
+import com.ampuero.msvc.detalle.repositories.DetalleRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class DetalleExportService {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(DetalleExportService.class);
+
+    // Cada cuántas filas se vacía el buffer hacia el cliente
+    static final int FILAS_POR_FLUSH = 1000;
+
+    private final DetalleRepository detalleRepository;
+    private final DeltaTotalPendienteRepository deltaRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Escribe todos los detalles en la salida indicada, un objeto JSON por línea y en orden de ID.
+     * La transacción de solo lectura se mantiene abierta mientras se recorre el Stream.
+     *
+     * @param salida Stream de salida de la respuesta HTTP (no se cierra).
+     * @return Cantidad de detalles exportados.
+     * @throws IOException si falla la escritura (por ejemplo, el cliente cortó la conexión).
+     */
+    @Transactional(readOnly = true)
+    public long exportarNdjson(OutputStream salida) throws IOException {
+        long inicio = System.nanoTime();
+        long filas = 0;
+
+        try (Stream<Detalle> detalles = detalleRepository.streamAllByOrderByIdDetalleAsc();
+             JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<Detalle> iterador = detalles.iterator();
+            while (iterador.hasNext()) {
+                Detalle detalle = iterador.next();
+                generador.writeObject(detalle);
+                generador.writeRaw('\n');
+                entityManager.detach(detalle);
+
+                if (++filas % FILAS_POR_FLUSH == 0) {
+                    generador.flush();
+                }
+            }
+            generador.flush();
+        } finally {
+            long duracionMs = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+            log.info("Exportación NDJSON de detalles: {} filas en {} ms ({} filas/s)",
+                    filas, duracionMs, filas * 1000 / duracionMs);
+        }
+        return filas;
+    }
+
+    /**
+     * Escribe la suma de subtotales de cada boleta en la salida indicada, un objeto JSON por línea
+     * y en orden de ID de boleta. Las boletas que solo tienen deltas pendientes (por ejemplo, porque
+     * se eliminaron todos sus detalles) se incluyen con total 0 y marcadas como pendientes.
+     *
+     * @param idsBoletas Boletas a exportar; null o vacío exporta todas.
+     * @param salida Stream de salida de la respuesta HTTP (no se cierra).
+     * @return Cantidad de boletas exportadas.
+     * @throws IOException si falla la escritura (por ejemplo, el cliente cortó la conexión).
+     */
+    @Transactional(readOnly = true)
+    public long exportarTotalesNdjson(Collection<Long> idsBoletas, OutputStream salida) throws IOException {
+        long inicio = System.nanoTime();
+        long filas = 0;
+        boolean todas = idsBoletas == null || idsBoletas.isEmpty();
+
+        List<Long> idsPendientes = deltaRepository.findIdsBoletaConPendientes();
+        Iterator<Long> pendientes = (todas ? idsPendientes
+                : idsPendientes.stream().filter(Set.copyOf(idsBoletas)::contains).toList()).iterator();
+        Long siguientePendiente = pendientes.hasNext() ? pendientes.next() : null;
+
+        try (Stream<TotalBoletaDTO> totales = todas ? detalleRepository.streamTotalesPorBoleta()
+                : detalleRepository.streamTotalesPorBoleta(idsBoletas);
+             JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<TotalBoletaDTO> iterador = totales.iterator();
+            while (iterador.hasNext()) {
+                TotalBoletaDTO total = iterador.next();
+                // Ambas secuencias vienen ordenadas por ID de boleta: se mezclan en un solo recorrido
+                while (siguientePendiente != null && siguientePendiente < total.getIdBoleta()) {
+                    filas = escribirTotal(generador, new TotalBoletaDTO(siguientePendiente, 0.0, 0L, true), filas);
+                    siguientePendiente = pendientes.hasNext() ? pendientes.next() : null;
+                }
+                if (total.getIdBoleta().equals(siguientePendiente)) {
+                    total.setPendiente(true);
+                    siguientePendiente = pendientes.hasNext() ? pendientes.next() : null;
+                }
+                filas = escribirTotal(generador, total, filas);
+            }
+            while (siguientePendiente != null) {
+                filas = escribirTotal(generador, new TotalBoletaDTO(siguientePendiente, 0.0, 0L, true), filas);
+                siguientePendiente = pendientes.hasNext() ? pendientes.next() : null;
+            }
+            generador.flush();
+        } finally {
+            long duracionMs = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+            log.info("Exportación NDJSON de totales por boleta: {} boletas en {} ms", filas, duracionMs);
+        }
+        return filas;
+    }
+
+    private long escribirTotal(JsonGenerator generador, TotalBoletaDTO total, long filas) throws IOException {
+        generador.writeObject(total);
+        generador.writeRaw('\n');
+        if (++filas % FILAS_POR_FLUSH == 0) {
+            generador.flush();
+        }
+        return filas;
+    }
+}
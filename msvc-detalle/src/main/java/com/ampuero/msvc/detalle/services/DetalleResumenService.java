@@ -0,0 +1,165 @@
+package com.ampuero.msvc.detalle.services;
+
+/**
+ * DetalleResumenService.java
+ *
+ * Descripción:
+ * Mantiene la tabla detalle_boleta_agg: por cada boleta, la cantidad de detalles, la suma de
+ * cantidades y la suma de subtotales. Permite responder el resumen de una boleta con una
+ * búsqueda por clave primaria en lugar de cargar todos sus detalles.
+ *
+ * Funciones principales:
+ * - Aplica la diferencia de cada detalle creado, modificado o eliminado dentro de la misma
+ *   transacción del detalle, por lo que el resumen nunca queda a medias. El primer detalle crea
+ *   el resumen bajo el bloqueo de una franja (detalle_boleta_agg_bloqueo), así dos detalles
+ *   simultáneos de la misma boleta no lo crean dos veces y ninguna sentencia falla dentro de la
+ *   transacción del detalle.
+ * - Entrega el resumen de una boleta (ceros si no tiene detalles).
+ * - Reconstruye la tabla completa desde cero con un recorrido en streaming de los detalles,
+ *   insertando por bloques. Al iniciar se reconstruye automáticamente si la tabla está vacía
+ *   y existen detalles (por ejemplo, cargados directamente en la base de datos).
+ *
+ * La reconstrucción reemplaza la tabla en una sola transacción y debe ejecutarse sin escrituras
+ * de detalles en curso (al iniciar o en una ventana de mantenimiento).
+ */
+
+import com.ampuero.msvc.detalle.dtos.ResumenBoletaDTO;
+import com.ampuero.msvc.detalle.models.entities.DetalleBoletaAgg;
+import com.ampuero.msvc.detalle.models.entities.DetalleBoletaAggBloqueo;
+import com.ampuero.msvc.detalle.repositories.DetalleBoletaAggBloqueoRepository;
+import com.ampuero.msvc.detalle.repositories.DetalleBoletaAggRepository;
+import com.ampuero.msvc.detalle.repositories.DetalleRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class DetalleResumenService {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(DetalleResumenService.class);
+
+    // Resúmenes insertados por bloque antes de vaciar y limpiar el contexto de persistencia
+    static final int RESUMENES_POR_BLOQUE = 500;
+
+    // Franjas de bloqueo para crear resúmenes: boletas de franjas distintas no se esperan entre sí
+    static final int FRANJAS_BLOQUEO = 64;
+
+    private final DetalleBoletaAggRepository aggRepository;
+    private final DetalleBoletaAggBloqueoRepository bloqueoRepository;
+    private final DetalleRepository detalleRepository;
+    private final EntityManager entityManager;
+
+    // Fuerza la reconstrucción al iniciar aunque la tabla ya tenga datos
+    @Value("${detalle.resumen.reconstruir-al-iniciar:false}")
+    private boolean reconstruirAlIniciar;
+
+    /**
+     * Aplica al resumen de la boleta la diferencia producida por un cambio en sus detalles.
+     * Debe llamarse dentro de la transacción que modifica los detalles.
+     *
+     * @param idBoleta ID de la boleta.
+     * @param lineas   Detalles agregados (positivo) o quitados (negativo).
+     * @param cantidad Diferencia en la suma de cantidades.
+     * @param subtotal Diferencia en la suma de subtotales.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Long idBoleta, long lineas, long cantidad, double subtotal) {
+        if (aggRepository.acumular(idBoleta, lineas, cantidad, subtotal) == 0) {
+            crearResumen(idBoleta, lineas, cantidad, subtotal);
+        }
+        if (lineas < 0) {
+            aggRepository.eliminarSiVacio(idBoleta);
+        }
+    }
+
+    // Primer detalle de la boleta. Quien creó el resumen lo hizo con la misma franja bloqueada, que se libera
+    // al confirmar: tras obtenerla, el UPDATE ve ese resumen y solo se inserta si de verdad no existe
+    private void crearResumen(Long idBoleta, long lineas, long cantidad, double subtotal) {
+        bloqueoRepository.bloquear(Math.floorMod(idBoleta, FRANJAS_BLOQUEO))
+                .orElseThrow(() -> new IllegalStateException("Faltan las franjas de detalle_boleta_agg_bloqueo"));
+        if (aggRepository.acumular(idBoleta, lineas, cantidad, subtotal) == 0) {
+            aggRepository.insertar(idBoleta, lineas, cantidad, subtotal);
+        }
+    }
+
+    // Crea las franjas de bloqueo que falten. Si otra instancia las crea a la vez, basta con las suyas
+    @PostConstruct
+    void crearFranjasBloqueo() {
+        if (bloqueoRepository.count() >= FRANJAS_BLOQUEO) {
+            return;
+        }
+        List<DetalleBoletaAggBloqueo> faltantes = IntStream.range(0, FRANJAS_BLOQUEO)
+                .filter(franja -> !bloqueoRepository.existsById(franja))
+                .mapToObj(DetalleBoletaAggBloqueo::new)
+                .toList();
+        try {
+            bloqueoRepository.saveAll(faltantes);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Franjas de bloqueo creadas por otra instancia: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene el resumen de los detalles de una boleta.
+     *
+     * @param idBoleta ID de la boleta.
+     * @return ResumenBoletaDTO; con ceros si la boleta no tiene detalles.
+     */
+    @Transactional(readOnly = true)
+    public ResumenBoletaDTO obtenerResumen(Long idBoleta) {
+        return aggRepository.findById(idBoleta)
+                .map(agg -> new ResumenBoletaDTO(agg.getIdBoleta(), agg.getLineas(), agg.getCantidadTotal(), agg.getSubtotalTotal()))
+                .orElseGet(() -> new ResumenBoletaDTO(idBoleta, 0L, 0L, 0.0));
+    }
+
+    /**
+     * Vacía detalle_boleta_agg y la vuelve a calcular a partir de un único GROUP BY sobre los detalles,
+     * leído en streaming e insertado por bloques de RESUMENES_POR_BLOQUE.
+     *
+     * @return Cantidad de boletas con resumen.
+     */
+    @Transactional
+    public long reconstruir() {
+        long inicio = System.nanoTime();
+        aggRepository.deleteAllInBatch();
+
+        long boletas = 0;
+        try (Stream<DetalleBoletaAgg> resumenes = detalleRepository.streamResumenesPorBoleta()) {
+            Iterator<DetalleBoletaAgg> iterador = resumenes.iterator();
+            while (iterador.hasNext()) {
+                entityManager.persist(iterador.next());
+                if (++boletas % RESUMENES_POR_BLOQUE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        log.info("Resumen por boleta reconstruido: {} boletas en {} ms", boletas, (System.nanoTime() - inicio) / 1_000_000);
+        return boletas;
+    }
+
+    // Al iniciar (después de las cargas de datos) se reconstruye si se pidió o si la tabla quedó vacía con detalles existentes
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconstruirSiCorresponde() {
+        if (reconstruirAlIniciar || (aggRepository.count() == 0 && detalleRepository.count() > 0)) {
+            reconstruir();
+        }
+    }
+}
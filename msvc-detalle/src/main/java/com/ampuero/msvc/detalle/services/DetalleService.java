@@ -17,8 +17,10 @@ package com.ampuero.msvc.detalle.services;
  * - Utiliza DTOs para encapsular los datos de entrada y salida, favoreciendo una arquitectura desacoplada.
  */
 
+import com.ampuero.msvc.detalle.dtos.DetalleBatchDTO;
 import com.ampuero.msvc.detalle.dtos.DetalleDTO;
 import com.ampuero.msvc.detalle.dtos.DetalleResponseDTO;
+import com.ampuero.msvc.detalle.dtos.PaginaDetallesDTO;
 import com.ampuero.msvc.detalle.exceptions.DetalleException;
 import com.ampuero.msvc.detalle.exceptions.ResourceNotFoundException;
 import com.ampuero.msvc.detalle.models.entities.Detalle;
@@ -36,6 +38,17 @@ public interface DetalleService {
      */
     DetalleResponseDTO crearDetalle(DetalleDTO detalleDTO) throws ResourceNotFoundException;
 
+    /**
+     * Crea en una sola operación todas las líneas de detalle de una boleta.
+     * La boleta se valida una vez, los productos se obtienen en lote y el total
+     * de la boleta se actualiza con un único monto.
+     *
+     * @param detalleBatchDTO Boleta y líneas a crear.
+     * @return Lista de DetalleResponseDTO creados, en el mismo orden de las líneas.
+     * @throws ResourceNotFoundException si no se encuentra la boleta o alguno de los productos.
+     */
+    List<DetalleResponseDTO> crearDetallesEnLote(DetalleBatchDTO detalleBatchDTO) throws ResourceNotFoundException;
+
     /**
      * Obtiene todos los detalles asociados a una boleta específica.
      *
@@ -44,13 +57,24 @@ public interface DetalleService {
      */
 
     List<DetalleResponseDTO> obtenerPorBoleta(Long idBoleta);
+
     /**
-     * Obtiene todos los detalles registrados en el sistema.
+     * Obtiene las líneas de una boleta enriquecidas solo con su producto, sin consultar la boleta.
+     * La usa msvc-boletas, que ya tiene la boleta, para no volver a llamarse a sí mismo.
      *
-     * @return Lista de todos los DetalleResponseDTO.
+     * @param idBoleta ID de la boleta.
+     * @return Lista de DetalleResponseDTO sin boleta.
      */
+    List<DetalleResponseDTO> obtenerLineasPorBoleta(Long idBoleta);
 
-    List<DetalleResponseDTO> obtenerTodos();
+    /**
+     * Obtiene una página de detalles usando paginación keyset sobre el ID del detalle.
+     *
+     * @param after Último ID de la página anterior (null para la primera página).
+     * @param limit Tamaño de página solicitado (null usa el valor por defecto).
+     * @return PaginaDetallesDTO con los detalles y el cursor de la página siguiente.
+     */
+    PaginaDetallesDTO obtenerPagina(Long after, Integer limit);
     
     /**
      * Obtiene un detalle específico por su ID.
@@ -12,6 +12,8 @@ package com.ampuero.msvc.detalle.services;
  * - Crear, leer, actualizar y eliminar detalles de boleta.
  * - Verificar existencia de productos y boletas antes de operar.
  * - Calcular subtotales y actualizar montos totales en boletas externas.
+ * - Enriquecer los listados con boletas y productos reales: IDs distintos, cachés locales primero,
+ *   llamadas en lote concurrentes y degradación por campo si un servicio no responde.
  * - Manejar errores y excepciones en la comunicación con microservicios externos.
  *
  * Autor: Alex Ignacio Ampuero Ahumada
@@ -19,8 +21,11 @@ package com.ampuero.msvc.detalle.services;
  * Última modificación: [17-06-25]
  */
 
+import com.ampuero.msvc.detalle.dtos.DetalleBatchDTO;
 import com.ampuero.msvc.detalle.dtos.DetalleDTO;
+import com.ampuero.msvc.detalle.dtos.LineaDetalleDTO;
 import com.ampuero.msvc.detalle.dtos.DetalleResponseDTO;
+import com.ampuero.msvc.detalle.dtos.PaginaDetallesDTO;
 import com.ampuero.msvc.detalle.exceptions.DetalleException;
 import com.ampuero.msvc.detalle.exceptions.ResourceNotFoundException;
 import com.ampuero.msvc.detalle.models.BoletaPojo;
@@ -30,17 +35,26 @@ import com.ampuero.msvc.detalle.repositories.DetalleRepository;
 import com.ampuero.msvc.detalle.clients.BoletaClient;
 import com.ampuero.msvc.detalle.clients.ProductoClient;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import feign.FeignException;
+import io.micrometer.context.ContextExecutorService;
 import com.ampuero.msvc.detalle.models.ClientePojo;
 import com.ampuero.msvc.detalle.dtos.ClienteEnBoletaDTO;
 import com.ampuero.msvc.detalle.dtos.BoletaEnDetalleDTO;
 import com.ampuero.msvc.detalle.dtos.MontoUpdateRequestDTO;
 
-import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -52,10 +66,42 @@ public class DetalleServiceImpl implements DetalleService {
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(DetalleServiceImpl.class);
 
 
+    // Tamaño de página para la paginación keyset de los listados
+    static final int LIMITE_POR_DEFECTO = 20;
+    static final int LIMITE_MAXIMO = 100;
+
+    // Nombres de los campos que pueden llegar degradados en camposNoDisponibles
+    static final String CAMPO_BOLETA = "boleta";
+    static final String CAMPO_PRODUCTO = "producto";
+    private static final List<String> SIN_BOLETA = List.of(CAMPO_BOLETA);
+    private static final List<String> SIN_PRODUCTO = List.of(CAMPO_PRODUCTO);
+    private static final List<String> SIN_BOLETA_NI_PRODUCTO = List.of(CAMPO_BOLETA, CAMPO_PRODUCTO);
+
     // Inyecciones de dependencias
     private final DetalleRepository detalleRepository;
     private final ProductoClient productoClient;
     private final BoletaClient boletaClient;
+    private final ProductoCacheService productoCache;
+    private final BoletaCacheService boletaCache;
+    private final TotalBoletaWriteBehindService totalBoletaWriteBehind;
+    private final DetalleResumenService detalleResumenService;
+
+    // Modo concurrente: la boleta y el producto se piden al mismo tiempo en hilos virtuales,
+    // cada llamada con su propio plazo máximo. Con false se piden una después de la otra.
+    @Value("${detalle.dependencias.concurrentes:false}")
+    private boolean dependenciasConcurrentes;
+
+    @Value("${detalle.dependencias.timeout-ms:2000}")
+    private long timeoutDependenciasMs = 2000;
+
+    // Totales diferidos: los montos se acumulan en la tabla delta_total_pendiente y se envían
+    // agrupados por boleta. Con false se hace un PUT a msvc-boletas por cada operación.
+    @Value("${detalle.totales.write-behind:false}")
+    private boolean totalesDiferidos;
+
+    // Un hilo virtual por llamada Feign; no mantiene hilos ociosos, por lo que no requiere cierre.
+    // ContextExecutorService lleva al hilo la observación en curso: los spans Feign quedan bajo el span de la petición
+    private final ExecutorService dependenciasExecutor = ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor());
 
     /**
      * Crea un nuevo detalle de boleta.
@@ -64,8 +110,9 @@ public class DetalleServiceImpl implements DetalleService {
      */
     @Override
     public DetalleResponseDTO crearDetalle(DetalleDTO detalleDTO) throws ResourceNotFoundException, DetalleException {
-        BoletaPojo boleta = obtenerBoletaOExcepcion(detalleDTO.getIdBoletaPojo());
-        ProductoPojo producto = obtenerProductoOExcepcion(detalleDTO.getIdProductoPojo());
+        Dependencias dependencias = obtenerDependencias(detalleDTO.getIdBoletaPojo(), detalleDTO.getIdProductoPojo());
+        BoletaPojo boleta = dependencias.boleta();
+        ProductoPojo producto = dependencias.producto();
 
         Detalle detalle = new Detalle();
         detalle.setIdBoletaPojo(boleta.getIdBoleta());
@@ -75,135 +122,143 @@ public class DetalleServiceImpl implements DetalleService {
         detalle.setSubtotalDetalle(detalleDTO.getCantidadDetalle() * producto.getPrecioProducto());
 
         Detalle detalleGuardado = detalleRepository.save(detalle);
+        detalleResumenService.registrar(boleta.getIdBoleta(), 1, detalleGuardado.getCantidadDetalle(), detalleGuardado.getSubtotalDetalle());
         actualizarTotalBoleta(boleta.getIdBoleta(), detalleGuardado.getSubtotalDetalle());
 
         return construirResponse(detalleGuardado, boleta, producto);
     }
 
+    /**
+     * Crea todas las líneas de una boleta en una sola operación.
+     * La boleta se obtiene una vez, los productos distintos se obtienen en una sola llamada
+     * (caché primero), los detalles se insertan con saveAll y el total de la boleta
+     * se actualiza con la suma de todos los subtotales.
+     * Si falta algún producto no se guarda ninguna línea.
+     */
+    @Override
+    public List<DetalleResponseDTO> crearDetallesEnLote(DetalleBatchDTO detalleBatchDTO) throws ResourceNotFoundException, DetalleException {
+        Long idBoleta = detalleBatchDTO.getIdBoletaPojo();
+        Set<Long> idsProductos = new LinkedHashSet<>();
+        for (LineaDetalleDTO linea : detalleBatchDTO.getLineas()) {
+            idsProductos.add(linea.getIdProductoPojo());
+        }
+
+        BoletaPojo boleta;
+        Map<Long, ProductoPojo> productos;
+        if (dependenciasConcurrentes) {
+            long limiteNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutDependenciasMs);
+            Future<BoletaPojo> boletaFuture = dependenciasExecutor.submit(() -> obtenerBoletaOExcepcion(idBoleta));
+            Future<Map<Long, ProductoPojo>> productosFuture = dependenciasExecutor.submit(
+                    () -> productoCache.obtenerVarios(idsProductos, this::obtenerProductosPorIds));
+            try {
+                boleta = esperarDependencia(boletaFuture, limiteNanos, "boletas", idBoleta);
+                productos = esperarDependencia(productosFuture, limiteNanos, "productos", idsProductos);
+            } finally {
+                boletaFuture.cancel(true);
+                productosFuture.cancel(true);
+            }
+        } else {
+            boleta = obtenerBoletaOExcepcion(idBoleta);
+            productos = productoCache.obtenerVarios(idsProductos, this::obtenerProductosPorIds);
+        }
+
+        List<Long> faltantes = idsProductos.stream().filter(id -> !productos.containsKey(id)).toList();
+        if (!faltantes.isEmpty()) {
+            throw new ResourceNotFoundException("Producto no encontrado con ID: " + faltantes);
+        }
+
+        List<Detalle> detalles = new ArrayList<>(detalleBatchDTO.getLineas().size());
+        double totalLote = 0.0;
+        long cantidadLote = 0L;
+        for (LineaDetalleDTO linea : detalleBatchDTO.getLineas()) {
+            ProductoPojo producto = productos.get(linea.getIdProductoPojo());
+            Detalle detalle = new Detalle();
+            detalle.setIdBoletaPojo(boleta.getIdBoleta());
+            detalle.setIdProductoPojo(producto.getIdProducto());
+            detalle.setCantidadDetalle(linea.getCantidadDetalle());
+            detalle.setPrecioUnitarioDetalle(producto.getPrecioProducto());
+            detalle.setSubtotalDetalle(linea.getCantidadDetalle() * producto.getPrecioProducto());
+            totalLote += detalle.getSubtotalDetalle();
+            cantidadLote += linea.getCantidadDetalle();
+            detalles.add(detalle);
+        }
+
+        List<Detalle> detallesGuardados = detalleRepository.saveAll(detalles);
+        detalleResumenService.registrar(boleta.getIdBoleta(), detallesGuardados.size(), cantidadLote, totalLote);
+        actualizarTotalBoleta(boleta.getIdBoleta(), totalLote);
+
+        BoletaEnDetalleDTO boletaEnDetalle = construirBoletaEnDetalle(boleta);
+        List<DetalleResponseDTO> respuesta = new ArrayList<>(detallesGuardados.size());
+        for (Detalle detalle : detallesGuardados) {
+            respuesta.add(construirResponse(detalle, boletaEnDetalle, productos.get(detalle.getIdProductoPojo())));
+        }
+        return respuesta;
+    }
+
     /**
      * Obtiene todos los detalles de una boleta específica.
-     * Si no se puede obtener la boleta o producto asociado, se omite ese detalle.
+     * Si no se puede obtener la boleta o el producto de un detalle, ese campo se degrada (ver enriquecerDetalles).
      */
     @Override
     @Transactional(readOnly = true)
     public List<DetalleResponseDTO> obtenerPorBoleta(Long idBoleta) {
-        // TEMPORAL: Para testing de HATEOAS sin microservicios externos
-        return obtenerPorBoletaSinValidacion(idBoleta);
-        
-        // ORIGINAL: (comentado temporalmente)
-        /*
-        return detalleRepository.findByIdBoletaPojo(idBoleta).stream()
-                .map(detalle -> {
-                    BoletaPojo boleta = null;
-                    ProductoPojo producto = null;
-                    try {
-                        boleta = obtenerBoletaOExcepcion(detalle.getIdBoletaPojo());
-                        producto = obtenerProductoOExcepcion(detalle.getIdProductoPojo());
-                        return construirResponse(detalle, boleta, producto);
-                    } catch (ResourceNotFoundException | DetalleException e) {
-                        log.warn("No se pudo obtener la boleta ({}) o el producto ({}) para el detalle {}: {}. Se omitirá el detalle en la respuesta.",
-                                 detalle.getIdBoletaPojo(), detalle.getIdProductoPojo(), detalle.getIdDetalle(), e.getMessage());
-                        return null; // Omitir este detalle si las dependencias no se pueden cargar
-                    }
-                })
-                .filter(Objects::nonNull)
-                .toList();
-        */
+        return enriquecerDetalles(detalleRepository.findByIdBoletaPojo(idBoleta));
     }
 
     /**
-     * MÉTODO TEMPORAL para testing de HATEOAS sin validar microservicios externos.
-     * Crea datos fake de boleta y producto para los detalles encontrados.
+     * Obtiene las líneas de una boleta con su producto, sin la boleta (quien llama ya la tiene).
+     * Si no se puede obtener el producto de un detalle, ese campo se degrada como en enriquecerDetalles.
      */
-    private List<DetalleResponseDTO> obtenerPorBoletaSinValidacion(Long idBoleta) {
-        return detalleRepository.findByIdBoletaPojo(idBoleta).stream()
-                .map(detalle -> {
-                    // Crear BoletaPojo fake
-                    BoletaPojo boletaFake = new BoletaPojo();
-                    boletaFake.setIdBoleta(detalle.getIdBoletaPojo());
-                    boletaFake.setFechaEmisionBoleta(LocalDate.now());
-                    boletaFake.setTotalBoleta(detalle.getSubtotalDetalle() * 1.19); // Con IVA fake
-                    boletaFake.setDescripcionBoleta("Boleta fake para testing HATEOAS #" + detalle.getIdBoletaPojo());
-                    
-                    // Crear ClientePojo fake
-                    ClientePojo clienteFake = new ClientePojo();
-                    clienteFake.setIdUsuario(1L);
-                    clienteFake.setNombreCliente("Cliente Fake " + detalle.getIdBoletaPojo());
-                    clienteFake.setCorreoCliente("cliente" + detalle.getIdBoletaPojo() + "@fake.com");
-                    boletaFake.setCliente(clienteFake);
-                    
-                    // Crear ProductoPojo fake
-                    ProductoPojo productoFake = new ProductoPojo();
-                    productoFake.setIdProducto(detalle.getIdProductoPojo());
-                    productoFake.setNombreProducto("Producto Fake " + detalle.getIdProductoPojo());
-                    productoFake.setDescripcionProducto("Descripción fake para testing HATEOAS");
-                    productoFake.setPrecioProducto(detalle.getPrecioUnitarioDetalle());
-                    
-                    return construirResponse(detalle, boletaFake, productoFake);
-                })
-                .toList();
+    @Override
+    @Transactional(readOnly = true)
+    public List<DetalleResponseDTO> obtenerLineasPorBoleta(Long idBoleta) {
+        List<Detalle> detalles = detalleRepository.findByIdBoletaPojo(idBoleta);
+        if (detalles.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> idsProductos = new LinkedHashSet<>();
+        for (Detalle detalle : detalles) {
+            idsProductos.add(detalle.getIdProductoPojo());
+        }
+        Map<Long, ProductoPojo> productos = obtenerOmitiendoFallo(() -> obtenerProductosCacheados(idsProductos), "productos", idsProductos);
+
+        List<DetalleResponseDTO> respuesta = new ArrayList<>(detalles.size());
+        for (Detalle detalle : detalles) {
+            ProductoPojo producto = productos.get(detalle.getIdProductoPojo());
+            DetalleResponseDTO dto = construirResponse(detalle, (BoletaEnDetalleDTO) null,
+                    producto != null ? producto : productoNoDisponible(detalle.getIdProductoPojo()));
+            if (producto == null) {
+                dto.setCamposNoDisponibles(SIN_PRODUCTO);
+            }
+            respuesta.add(dto);
+        }
+        return respuesta;
     }
 
     /**
-     * Obtiene todos los detalles existentes.
+     * Obtiene una página de detalles por paginación keyset (id_detalle > after),
+     * pidiendo una fila extra para saber si existe una página siguiente.
+     * Todas las filas leídas se devuelven; las que no se puedan enriquecer llegan degradadas.
      */
     @Override
     @Transactional(readOnly = true)
-    public List<DetalleResponseDTO> obtenerTodos() {
-        // TEMPORAL: Para testing de HATEOAS sin microservicios externos
-        return obtenerTodosSinValidacion();
-        
-        // ORIGINAL: (comentado temporalmente)
-        /*
-        return detalleRepository.findAll().stream()
-                .map(detalle -> {
-                    BoletaPojo boleta = null;
-                    ProductoPojo producto = null;
-                    try {
-                        boleta = obtenerBoletaOExcepcion(detalle.getIdBoletaPojo());
-                        producto = obtenerProductoOExcepcion(detalle.getIdProductoPojo());
-                        return construirResponse(detalle, boleta, producto);
-                    } catch (ResourceNotFoundException | DetalleException e) {
-                        log.warn("No se pudo obtener la boleta ({}) o el producto ({}) para el detalle {}: {}. Se omitirá el detalle en la respuesta.",
-                                 detalle.getIdBoletaPojo(), detalle.getIdProductoPojo(), detalle.getIdDetalle(), e.getMessage());
-                        return null; //  el log warn se lo sAQue a gpt gracias profe por dejarnos usar ia sino llevaria dias con el error de que no se pudo obtener la boleta
-                    }
-                })
-                .filter(Objects::nonNull)
-                .toList();
-        */
+    public PaginaDetallesDTO obtenerPagina(Long after, Integer limit) {
+        int limite = normalizarLimite(limit);
+        List<Detalle> filas = detalleRepository.findByIdDetalleGreaterThanOrderByIdDetalleAsc(
+                after == null ? 0L : after, Limit.of(limite + 1));
+
+        boolean haySiguiente = filas.size() > limite;
+        List<Detalle> pagina = haySiguiente ? filas.subList(0, limite) : filas;
+        Long siguienteCursor = haySiguiente ? pagina.get(pagina.size() - 1).getIdDetalle() : null;
+
+        return new PaginaDetallesDTO(enriquecerDetalles(pagina), siguienteCursor, limite);
     }
 
-    /**
-     * MÉTODO TEMPORAL para obtener todos los detalles sin validar microservicios externos.
-     */
-    private List<DetalleResponseDTO> obtenerTodosSinValidacion() {
-        return detalleRepository.findAll().stream()
-                .map(detalle -> {
-                    // Crear BoletaPojo fake
-                    BoletaPojo boletaFake = new BoletaPojo();
-                    boletaFake.setIdBoleta(detalle.getIdBoletaPojo());
-                    boletaFake.setFechaEmisionBoleta(LocalDate.now());
-                    boletaFake.setTotalBoleta(detalle.getSubtotalDetalle() * 1.19); // Con IVA fake
-                    boletaFake.setDescripcionBoleta("Boleta fake para testing HATEOAS #" + detalle.getIdBoletaPojo());
-                    
-                    // Crear ClientePojo fake
-                    ClientePojo clienteFake = new ClientePojo();
-                    clienteFake.setIdUsuario(1L);
-                    clienteFake.setNombreCliente("Cliente Fake " + detalle.getIdBoletaPojo());
-                    clienteFake.setCorreoCliente("cliente" + detalle.getIdBoletaPojo() + "@fake.com");
-                    boletaFake.setCliente(clienteFake);
-                    
-                    // Crear ProductoPojo fake
-                    ProductoPojo productoFake = new ProductoPojo();
-                    productoFake.setIdProducto(detalle.getIdProductoPojo());
-                    productoFake.setNombreProducto("Producto Fake " + detalle.getIdProductoPojo());
-                    productoFake.setDescripcionProducto("Descripción fake para testing HATEOAS");
-                    productoFake.setPrecioProducto(detalle.getPrecioUnitarioDetalle());
-                    
-                    return construirResponse(detalle, boletaFake, productoFake);
-                })
-                .toList();
+    private static int normalizarLimite(Integer limit) {
+        if (limit == null) {
+            return LIMITE_POR_DEFECTO;
+        }
+        return Math.max(1, Math.min(limit, LIMITE_MAXIMO));
     }
 
     /**
@@ -216,10 +271,12 @@ public class DetalleServiceImpl implements DetalleService {
                 .orElseThrow(() -> new DetalleException("Detalle no encontrado con ID: " + idDetalle));
 
         double subtotalAnterior = detalleExistente.getSubtotalDetalle();
+        int cantidadAnterior = detalleExistente.getCantidadDetalle();
         Long idBoletaOriginal = detalleExistente.getIdBoletaPojo();
 
-        BoletaPojo nuevaBoleta = obtenerBoletaOExcepcion(detalleDTO.getIdBoletaPojo());
-        ProductoPojo nuevoProducto = obtenerProductoOExcepcion(detalleDTO.getIdProductoPojo());
+        Dependencias dependencias = obtenerDependencias(detalleDTO.getIdBoletaPojo(), detalleDTO.getIdProductoPojo());
+        BoletaPojo nuevaBoleta = dependencias.boleta();
+        ProductoPojo nuevoProducto = dependencias.producto();
 
         detalleExistente.setIdBoletaPojo(nuevaBoleta.getIdBoleta());
         detalleExistente.setIdProductoPojo(nuevoProducto.getIdProducto());
@@ -230,10 +287,14 @@ public class DetalleServiceImpl implements DetalleService {
 
         Detalle detalleActualizado = detalleRepository.save(detalleExistente);
 
+        int nuevaCantidad = detalleDTO.getCantidadDetalle();
         if (!idBoletaOriginal.equals(nuevaBoleta.getIdBoleta())) {
+            detalleResumenService.registrar(idBoletaOriginal, -1, -cantidadAnterior, -subtotalAnterior);
+            detalleResumenService.registrar(nuevaBoleta.getIdBoleta(), 1, nuevaCantidad, nuevoSubtotal);
             actualizarTotalBoleta(idBoletaOriginal, -subtotalAnterior);
             actualizarTotalBoleta(nuevaBoleta.getIdBoleta(), nuevoSubtotal);
         } else {
+            detalleResumenService.registrar(nuevaBoleta.getIdBoleta(), 0, nuevaCantidad - cantidadAnterior, nuevoSubtotal - subtotalAnterior);
             actualizarTotalBoleta(nuevaBoleta.getIdBoleta(), nuevoSubtotal - subtotalAnterior);
         }
 
@@ -251,9 +312,8 @@ public class DetalleServiceImpl implements DetalleService {
                 .orElseThrow(() -> new ResourceNotFoundException("Detalle no encontrado con ID: " + idDetalle));
         
         try {
-            BoletaPojo boleta = obtenerBoletaOExcepcion(detalle.getIdBoletaPojo());
-            ProductoPojo producto = obtenerProductoOExcepcion(detalle.getIdProductoPojo());
-            return construirResponse(detalle, boleta, producto);
+            Dependencias dependencias = obtenerDependencias(detalle.getIdBoletaPojo(), detalle.getIdProductoPojo());
+            return construirResponse(detalle, dependencias.boleta(), dependencias.producto());
         } catch (ResourceNotFoundException | DetalleException e) {
             log.warn("No se pudo obtener la boleta ({}) o el producto ({}) para el detalle {}: {}",
                      detalle.getIdBoletaPojo(), detalle.getIdProductoPojo(), detalle.getIdDetalle(), e.getMessage());
@@ -270,47 +330,240 @@ public class DetalleServiceImpl implements DetalleService {
         Detalle detalle = detalleRepository.findById(idDetalle)
                 .orElseThrow(() -> new ResourceNotFoundException("Detalle no encontrado con ID: " + idDetalle));
 
+        detalleResumenService.registrar(detalle.getIdBoletaPojo(), -1, -detalle.getCantidadDetalle(), -detalle.getSubtotalDetalle());
         actualizarTotalBoleta(detalle.getIdBoletaPojo(), -detalle.getSubtotalDetalle());
         detalleRepository.delete(detalle);
     }
     // ---------- MÉTODOS PRIVADOS DE APOYO ----------
 
 
-    // Llama al clientes de boletas para actualizar el total
+    // Llama al clientes de boletas para actualizar el total, o lo deja pendiente si los totales son diferidos
     private void actualizarTotalBoleta(Long idBoleta, double monto) {
-        MontoUpdateRequestDTO montoDTO = new MontoUpdateRequestDTO(monto);
+        // El total cacheado para los listados deja de ser válido
+        boletaCache.invalidar(idBoleta);
+        if (totalesDiferidos) {
+            totalBoletaWriteBehind.registrarDelta(idBoleta, monto);
+            return;
+        }
+        MontoUpdateRequestDTO montoDTO = new MontoUpdateRequestDTO(monto, null);
         boletaClient.actualizarTotalBoleta(idBoleta, montoDTO);
     }
 
-    // Construye el DTO de respuesta combinando Detalle, BoletaPojo y ProductoPojo
-    private DetalleResponseDTO construirResponse(Detalle detalle, BoletaPojo boletaPojo, ProductoPojo producto) {
-        DetalleResponseDTO response = new DetalleResponseDTO();
-        response.setIdDetalle(detalle.getIdDetalle());
+    // Boleta y producto de los que depende un detalle
+    private record Dependencias(BoletaPojo boleta, ProductoPojo producto) {}
 
-        // Mapear BoletaPojo a BoletaEnDetalleDTO
-        if (boletaPojo != null) {
-            ClienteEnBoletaDTO clienteEnBoletaDTO = null;
-            if (boletaPojo.getCliente() != null) {
-                ClientePojo clientePojo = boletaPojo.getCliente();
-                clienteEnBoletaDTO = new ClienteEnBoletaDTO(
-                        clientePojo.getIdUsuario(),
-                        clientePojo.getNombreCliente(),
-                        clientePojo.getCorreoCliente()
-                );
+    // Obtiene la boleta y el producto de un detalle. En modo concurrente ambas llamadas se lanzan a la vez
+    // en hilos virtuales y se conserva el mismo mapeo de errores (404 -> ResourceNotFoundException, resto -> DetalleException).
+    private Dependencias obtenerDependencias(Long idBoleta, Long idProducto) {
+        if (!dependenciasConcurrentes) {
+            BoletaPojo boleta = obtenerBoletaOExcepcion(idBoleta);
+            ProductoPojo producto = obtenerProductoCacheado(idProducto);
+            return new Dependencias(boleta, producto);
+        }
+
+        long plazoNanos = TimeUnit.MILLISECONDS.toNanos(timeoutDependenciasMs);
+        long inicio = System.nanoTime();
+        Future<BoletaPojo> boletaFuture = dependenciasExecutor.submit(() -> obtenerBoletaOExcepcion(idBoleta));
+        Future<ProductoPojo> productoFuture = dependenciasExecutor.submit(() -> obtenerProductoCacheado(idProducto));
+        try {
+            BoletaPojo boleta = esperarDependencia(boletaFuture, inicio + plazoNanos, "boletas", idBoleta);
+            ProductoPojo producto = esperarDependencia(productoFuture, inicio + plazoNanos, "productos", idProducto);
+            return new Dependencias(boleta, producto);
+        } finally {
+            // Si una de las llamadas falló no tiene sentido seguir esperando la otra
+            boletaFuture.cancel(true);
+            productoFuture.cancel(true);
+        }
+    }
+
+    // Espera el resultado de una llamada remota hasta el plazo indicado y propaga la excepción original
+    private <T> T esperarDependencia(Future<T> future, long plazoNanos, String servicio, Object id) {
+        try {
+            return future.get(Math.max(0L, plazoNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (causa instanceof Error error) {
+                throw error;
             }
+            throw new DetalleException("Error al comunicar con servicio de " + servicio + " para ID " + id + ": " + causa.getMessage(), causa);
+        } catch (TimeoutException e) {
+            log.warn("Tiempo de espera agotado ({} ms) con servicio de {} para ID {}", timeoutDependenciasMs, servicio, id);
+            throw new DetalleException("Tiempo de espera agotado al comunicar con servicio de " + servicio + " para ID " + id, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DetalleException("Interrumpido al esperar servicio de " + servicio + " para ID " + id, e);
+        }
+    }
 
-            BoletaEnDetalleDTO boletaEnDetalleDTO = new BoletaEnDetalleDTO(
-                    boletaPojo.getIdBoleta(), // Esto se mapeará a idFactura en el DTO
-                    boletaPojo.getFechaEmisionBoleta(),
-                    boletaPojo.getTotalBoleta(),
-                    boletaPojo.getDescripcionBoleta(),
-                    clienteEnBoletaDTO
-            );
-            response.setBoleta(boletaEnDetalleDTO);
+    // Enriquece los detalles con su boleta y producto reales:
+    // 1. Se juntan los IDs distintos de boletas y productos de todo el resultado.
+    // 2. Cada caché local entrega lo que ya tiene; lo que falta se pide en una sola llamada por servicio
+    //    (getBoletaById si hay una sola boleta, como en obtenerPorBoleta; en lote si hay varias).
+    // 3. Si faltan datos de ambos servicios (y el modo concurrente está activo) las dos llamadas van en paralelo
+    //    sobre hilos virtuales con un plazo común; si uno de los dos ya está en caché no se lanza ningún hilo.
+    // 4. Cada boleta (con su cliente) se convierte una sola vez a BoletaEnDetalleDTO y esa instancia
+    //    se comparte entre todas sus filas.
+    // 5. Si un servicio falla, no responde a tiempo o no devuelve un ID, el detalle se entrega igual
+    //    con ese campo degradado (solo su ID) y marcado en camposNoDisponibles; ninguna fila se omite.
+    private List<DetalleResponseDTO> enriquecerDetalles(List<Detalle> detalles) {
+        if (detalles.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> idsBoletas = new LinkedHashSet<>();
+        Set<Long> idsProductos = new LinkedHashSet<>();
+        for (Detalle detalle : detalles) {
+            idsBoletas.add(detalle.getIdBoletaPojo());
+            idsProductos.add(detalle.getIdProductoPojo());
+        }
+
+        Map<Long, BoletaPojo> boletas;
+        Map<Long, ProductoPojo> productos;
+        boolean enParalelo = dependenciasConcurrentes
+                && !boletaCache.contieneTodos(idsBoletas)
+                && !productoCache.contieneTodos(idsProductos);
+        if (enParalelo) {
+            long limiteNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutDependenciasMs);
+            Future<Map<Long, BoletaPojo>> boletasFuture = dependenciasExecutor.submit(() -> obtenerBoletasCacheadas(idsBoletas));
+            Future<Map<Long, ProductoPojo>> productosFuture = dependenciasExecutor.submit(() -> obtenerProductosCacheados(idsProductos));
+            boletas = esperarOmitiendoFallo(boletasFuture, limiteNanos, "boletas", idsBoletas);
+            productos = esperarOmitiendoFallo(productosFuture, limiteNanos, "productos", idsProductos);
         } else {
-            response.setBoleta(null); // O manejar como error si la boleta es indispensable
+            boletas = obtenerOmitiendoFallo(() -> obtenerBoletasCacheadas(idsBoletas), "boletas", idsBoletas);
+            productos = obtenerOmitiendoFallo(() -> obtenerProductosCacheados(idsProductos), "productos", idsProductos);
         }
 
+        Map<Long, BoletaEnDetalleDTO> boletasEnDetalle = new HashMap<>();
+        for (Long idBoleta : idsBoletas) {
+            BoletaPojo boleta = boletas.get(idBoleta);
+            boletasEnDetalle.put(idBoleta, construirBoletaEnDetalle(boleta != null ? boleta : boletaNoDisponible(idBoleta)));
+        }
+
+        List<DetalleResponseDTO> respuesta = new ArrayList<>(detalles.size());
+        for (Detalle detalle : detalles) {
+            boolean boletaDisponible = boletas.containsKey(detalle.getIdBoletaPojo());
+            ProductoPojo producto = productos.get(detalle.getIdProductoPojo());
+            DetalleResponseDTO dto = construirResponse(detalle,
+                    boletasEnDetalle.get(detalle.getIdBoletaPojo()),
+                    producto != null ? producto : productoNoDisponible(detalle.getIdProductoPojo()));
+            if (!boletaDisponible || producto == null) {
+                dto.setCamposNoDisponibles(!boletaDisponible && producto == null ? SIN_BOLETA_NI_PRODUCTO
+                        : !boletaDisponible ? SIN_BOLETA : SIN_PRODUCTO);
+            }
+            respuesta.add(dto);
+        }
+        return respuesta;
+    }
+
+    private Map<Long, BoletaPojo> obtenerBoletasCacheadas(Set<Long> idsBoletas) {
+        if (idsBoletas.size() == 1) {
+            Long idBoleta = idsBoletas.iterator().next();
+            return Map.of(idBoleta, boletaCache.obtener(idBoleta, this::obtenerBoletaOExcepcion));
+        }
+        return boletaCache.obtenerVarios(idsBoletas, this::obtenerBoletasPorIds);
+    }
+
+    private Map<Long, ProductoPojo> obtenerProductosCacheados(Set<Long> idsProductos) {
+        return productoCache.obtenerVarios(idsProductos, this::obtenerProductosPorIds);
+    }
+
+    // Ejecuta una consulta en lote; si falla se registra y se devuelve un mapa vacío para degradar el campo
+    private <T> Map<Long, T> obtenerOmitiendoFallo(Supplier<Map<Long, T>> consulta,
+                                                   String servicio, Set<Long> ids) {
+        try {
+            return consulta.get();
+        } catch (ResourceNotFoundException | DetalleException | FeignException e) {
+            log.warn("No se pudieron obtener {} {}: {}. Se entregarán sin enriquecer.", servicio, ids, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    // Como esperarDependencia, pero un fallo o el plazo vencido degradan el campo en vez de propagarse
+    private <T> Map<Long, T> esperarOmitiendoFallo(Future<Map<Long, T>> future, long limiteNanos,
+                                                   String servicio, Set<Long> ids) {
+        try {
+            return esperarDependencia(future, limiteNanos, servicio, ids);
+        } catch (ResourceNotFoundException | DetalleException | FeignException e) {
+            future.cancel(true);
+            log.warn("No se pudieron obtener {} {}: {}. Se entregarán sin enriquecer.", servicio, ids, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    // Boleta degradada: solo el ID, que el detalle ya conoce
+    private static BoletaPojo boletaNoDisponible(Long idBoleta) {
+        BoletaPojo boleta = new BoletaPojo();
+        boleta.setIdBoleta(idBoleta);
+        return boleta;
+    }
+
+    // Producto degradado: solo el ID; el precio cobrado ya viene en precioUnitarioDetalle
+    private static ProductoPojo productoNoDisponible(Long idProducto) {
+        ProductoPojo producto = new ProductoPojo();
+        producto.setIdProducto(idProducto);
+        return producto;
+    }
+
+    // Obtiene en una sola llamada las boletas indicadas, indexadas por su ID.
+    // Los IDs inexistentes no vienen en el mapa; un error de comunicación se envía a DetalleException.
+    private Map<Long, BoletaPojo> obtenerBoletasPorIds(Collection<? extends Long> idsBoletas) {
+        try {
+            ResponseEntity<List<BoletaPojo>> boletasResponse = boletaClient.getBoletasByIds(List.copyOf(idsBoletas));
+            if (boletasResponse == null || boletasResponse.getStatusCode().isError() || boletasResponse.getBody() == null) {
+                String errorMsg = "Respuesta inválida del servicio de boletas al obtener IDs " + idsBoletas;
+                log.warn(errorMsg);
+                throw new DetalleException(errorMsg);
+            }
+            Map<Long, BoletaPojo> boletas = new HashMap<>();
+            for (BoletaPojo boleta : boletasResponse.getBody()) {
+                if (boleta != null && boleta.getIdBoleta() != null) {
+                    boletas.put(boleta.getIdBoleta(), boleta);
+                }
+            }
+            return boletas;
+        } catch (FeignException e) {
+            String errorMsg = "Error al comunicar con servicio de boletas para IDs " + idsBoletas + ": " + e.getMessage();
+            log.warn(errorMsg, e);
+            throw new DetalleException(errorMsg, e);
+        }
+    }
+
+    // Obtiene en una sola llamada los productos indicados, indexados por su ID.
+    // Los IDs inexistentes no vienen en el mapa; un error de comunicación se envía a DetalleException.
+    private Map<Long, ProductoPojo> obtenerProductosPorIds(Collection<? extends Long> idsProductos) {
+        try {
+            ResponseEntity<List<ProductoPojo>> productosResponse = productoClient.getProductosByIds(List.copyOf(idsProductos));
+            if (productosResponse == null || productosResponse.getStatusCode().isError() || productosResponse.getBody() == null) {
+                String errorMsg = "Respuesta inválida del servicio de productos al obtener IDs " + idsProductos;
+                log.warn(errorMsg);
+                throw new DetalleException(errorMsg);
+            }
+            Map<Long, ProductoPojo> productos = new HashMap<>();
+            for (ProductoPojo producto : productosResponse.getBody()) {
+                if (producto != null && producto.getIdProducto() != null) {
+                    productos.put(producto.getIdProducto(), producto);
+                }
+            }
+            return productos;
+        } catch (FeignException e) {
+            String errorMsg = "Error al comunicar con servicio de productos para IDs " + idsProductos + ": " + e.getMessage();
+            log.warn(errorMsg, e);
+            throw new DetalleException(errorMsg, e);
+        }
+    }
+
+    // Construye el DTO de respuesta combinando Detalle, BoletaPojo y ProductoPojo
+    private DetalleResponseDTO construirResponse(Detalle detalle, BoletaPojo boletaPojo, ProductoPojo producto) {
+        return construirResponse(detalle, construirBoletaEnDetalle(boletaPojo), producto);
+    }
+
+    // Construye el DTO de respuesta con una BoletaEnDetalleDTO ya armada, que puede compartirse entre filas
+    private DetalleResponseDTO construirResponse(Detalle detalle, BoletaEnDetalleDTO boleta, ProductoPojo producto) {
+        DetalleResponseDTO response = new DetalleResponseDTO();
+        response.setIdDetalle(detalle.getIdDetalle());
+        response.setBoleta(boleta);
         response.setProducto(producto);
         response.setCantidadDetalle(detalle.getCantidadDetalle());
         response.setPrecioUnitarioDetalle(detalle.getPrecioUnitarioDetalle());
@@ -318,6 +571,29 @@ public class DetalleServiceImpl implements DetalleService {
         return response;
     }
 
+    // Mapea BoletaPojo (y su cliente) a BoletaEnDetalleDTO; null si no hay boleta
+    private static BoletaEnDetalleDTO construirBoletaEnDetalle(BoletaPojo boletaPojo) {
+        if (boletaPojo == null) {
+            return null;
+        }
+        ClienteEnBoletaDTO clienteEnBoletaDTO = null;
+        if (boletaPojo.getCliente() != null) {
+            ClientePojo clientePojo = boletaPojo.getCliente();
+            clienteEnBoletaDTO = new ClienteEnBoletaDTO(
+                    clientePojo.getIdUsuario(),
+                    clientePojo.getNombreCliente(),
+                    clientePojo.getCorreoCliente()
+            );
+        }
+        return new BoletaEnDetalleDTO(
+                boletaPojo.getIdBoleta(), // Esto se mapeará a idFactura en el DTO
+                boletaPojo.getFechaEmisionBoleta(),
+                boletaPojo.getTotalBoleta(),
+                boletaPojo.getDescripcionBoleta(),
+                clienteEnBoletaDTO
+        );
+    }
+
     // Obtiene BoletaPojo del servicio de boletas y Lanza excepcion si no se encuentra o hay error.
     private BoletaPojo obtenerBoletaOExcepcion(Long idBoleta) throws ResourceNotFoundException {
         try {
@@ -348,6 +624,11 @@ public class DetalleServiceImpl implements DetalleService {
         }
     }
 
+    // Obtiene ProductoPojo desde la caché local y, si no está, desde el servicio de productos
+    private ProductoPojo obtenerProductoCacheado(Long idProducto) {
+        return productoCache.obtener(idProducto, this::obtenerProductoOExcepcion);
+    }
+
     // Obtiene ProductoPojo del servicio de productos. Lanza excepcion si no se encuentra o hay error.
     private ProductoPojo obtenerProductoOExcepcion(Long idProducto) throws ResourceNotFoundException {
         try {
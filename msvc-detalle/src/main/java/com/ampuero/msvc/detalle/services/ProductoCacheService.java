@@ -0,0 +1,130 @@
+package com.ampuero.msvc.detalle.services;
+
+/**
+ * ProductoCacheService.java
+ *
+ * Descripción:
+ * Caché local (near-cache) de ProductoPojo indexada por idProducto, ubicada delante del cliente Feign
+ * de productos. Evita repetir llamadas a msvc-productos por los mismos productos en cada
+ * creación, actualización o lectura de detalles.
+ *
+ * Funciones principales:
+ * - Limita el número de entradas (desalojo por tamaño) y su antigüedad (TTL).
+ * - Carga de vuelo único: varias lecturas concurrentes de un mismo ID sin cachear producen
+ *   una sola llamada remota; el resto espera ese resultado.
+ * - Solo se cachean productos obtenidos correctamente; los errores se propagan sin cachear.
+ * - Permite invalidar un producto (por ejemplo, cuando msvc-productos cambia su precio).
+ * - Expone contadores de aciertos, fallos, desalojos e invalidaciones.
+ */
+
+import com.ampuero.msvc.detalle.dtos.CacheStatsDTO;
+import com.ampuero.msvc.detalle.models.ProductoPojo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Service
+public class ProductoCacheService {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ProductoCacheService.class);
+
+    private final Cache<Long, ProductoPojo> cache;
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    @Autowired
+    public ProductoCacheService(@Value("${detalle.cache.productos.max-entradas:1000}") long maxEntradas,
+                                @Value("${detalle.cache.productos.ttl-segundos:300}") long ttlSegundos) {
+        this(maxEntradas, Duration.ofSeconds(ttlSegundos), Ticker.systemTicker());
+    }
+
+    // Constructor con reloj configurable, usado en pruebas para simular el paso del tiempo
+    ProductoCacheService(long maxEntradas, Duration ttl, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene un producto desde la caché o, si no está, lo carga con el cargador indicado.
+     * La carga es atómica por ID: las lecturas concurrentes del mismo ID esperan una única carga.
+     * Las excepciones del cargador se propagan tal cual y no se cachea nada.
+     *
+     * @param idProducto ID del producto.
+     * @param cargador   Función que obtiene el producto del servicio remoto.
+     * @return ProductoPojo cacheado o recién cargado.
+     */
+    public ProductoPojo obtener(Long idProducto, Function<Long, ProductoPojo> cargador) {
+        return cache.get(idProducto, cargador);
+    }
+
+    /**
+     * Obtiene varios productos; los que no estén en caché se cargan juntos en una sola llamada
+     * del cargador en lote. Los IDs que el cargador no devuelva quedan fuera del resultado.
+     *
+     * @param idsProductos    IDs de los productos.
+     * @param cargadorEnLote Función que recibe los IDs faltantes y devuelve los productos encontrados.
+     * @return Mapa idProducto -> ProductoPojo con los productos disponibles.
+     */
+    public Map<Long, ProductoPojo> obtenerVarios(Collection<Long> idsProductos,
+                                                 Function<Set<? extends Long>, Map<Long, ProductoPojo>> cargadorEnLote) {
+        return cache.getAll(idsProductos, cargadorEnLote);
+    }
+
+    /**
+     * Indica si todos los productos indicados están en caché (sin expirar), sin contar la consulta como lectura.
+     */
+    public boolean contieneTodos(Collection<Long> idsProductos) {
+        return cache.asMap().keySet().containsAll(idsProductos);
+    }
+
+    /**
+     * Elimina un producto de la caché para que la siguiente lectura vaya a msvc-productos.
+     *
+     * @param idProducto ID del producto a invalidar.
+     */
+    public void invalidar(Long idProducto) {
+        cache.invalidate(idProducto);
+        invalidaciones.incrementAndGet();
+        log.info("Producto {} invalidado en la caché local", idProducto);
+    }
+
+    /**
+     * Vacía completamente la caché de productos.
+     */
+    public void invalidarTodo() {
+        long tamanio = cache.estimatedSize();
+        cache.invalidateAll();
+        invalidaciones.addAndGet(tamanio);
+        log.info("Caché local de productos vaciada ({} entradas)", tamanio);
+    }
+
+    /**
+     * Devuelve los contadores actuales de la caché.
+     */
+    public CacheStatsDTO estadisticas() {
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                invalidaciones.get(),
+                stats.hitRate()
+        );
+    }
+}
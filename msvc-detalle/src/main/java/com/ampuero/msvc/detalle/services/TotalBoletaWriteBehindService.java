@@ -0,0 +1,269 @@
+package com.ampuero.msvc.detalle.services;
+
+/**
+ * TotalBoletaWriteBehindService.java
+ *
+ * Descripción:
+ * Acumula los montos (deltas) que los detalles deben sumar o restar al total de sus boletas y los
+ * envía a msvc-boletas de forma diferida, agrupados por boleta. Así, cargar una boleta de 500 líneas
+ * genera unas pocas llamadas PUT en lugar de 500.
+ *
+ * Funciones principales:
+ * - Registra cada delta en la tabla delta_total_pendiente dentro de la transacción del detalle,
+ *   por lo que un delta confirmado no se pierde aunque el proceso se caiga. Esto vale mientras la
+ *   base de datos conserve la tabla al reiniciar: el perfil dev usa ddl-auto=update; con
+ *   create o create-drop los deltas pendientes se descartan al arrancar.
+ * - Vacía la cola cada cierto intervalo o al alcanzar un umbral de deltas pendientes,
+ *   sumando los montos por boleta y enviando un único PUT por boleta, con clave de idempotencia.
+ * - Limita la cantidad de deltas pendientes: al llegar a la capacidad máxima se pide un vaciado
+ *   y quien registra recibe de inmediato una DetalleException, sin esperar dentro de su transacción.
+ * - Realiza un vaciado final al detener la aplicación.
+ *
+ * Si un PUT falla, los deltas de esa boleta se conservan y se reintentan en el siguiente vaciado.
+ * Cada PUT lleva como clave de idempotencia un UUID aleatorio, con el que quedan marcados sus deltas
+ * antes de enviarlo: el reintento repite los mismos deltas con la misma clave, y msvc-boletas no
+ * vuelve a sumar un monto que ya aplicó aunque la respuesta se haya perdido (timeout, caída antes de
+ * eliminar los deltas). Al ser aleatoria, la clave no se repite entre reinicios ni entre instancias
+ * (los IDs de secuencia sí). msvc-boletas recuerda las claves aplicadas durante
+ * boleta.totales-aplicados.retencion-horas; un envío que se reintenta por más tiempo que eso podría
+ * sumarse dos veces. Si la boleta ya no existe (404), sus deltas se descartan.
+ */
+
+import com.ampuero.msvc.detalle.clients.BoletaClient;
+import com.ampuero.msvc.detalle.dtos.MontoUpdateRequestDTO;
+import com.ampuero.msvc.detalle.exceptions.DetalleException;
+import com.ampuero.msvc.detalle.models.entities.DeltaTotalPendiente;
+import com.ampuero.msvc.detalle.repositories.DeltaTotalPendienteRepository;
+import feign.FeignException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class TotalBoletaWriteBehindService {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(TotalBoletaWriteBehindService.class);
+
+    private final DeltaTotalPendienteRepository deltaRepository;
+    private final BoletaClient boletaClient;
+    private final int umbralFlush;
+    private final int loteFlush;
+    private final long capacidadMaxima;
+
+    // Deltas confirmados que todavía no se aplican en msvc-boletas
+    private final AtomicLong pendientes = new AtomicLong();
+    private final AtomicBoolean flushSolicitado = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "write-behind-totales");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public TotalBoletaWriteBehindService(DeltaTotalPendienteRepository deltaRepository,
+                                         BoletaClient boletaClient,
+                                         @Value("${detalle.totales.umbral-flush:100}") int umbralFlush,
+                                         @Value("${detalle.totales.lote-flush:1000}") int loteFlush,
+                                         @Value("${detalle.totales.capacidad-maxima:10000}") long capacidadMaxima) {
+        this.deltaRepository = deltaRepository;
+        this.boletaClient = boletaClient;
+        this.umbralFlush = umbralFlush;
+        this.loteFlush = loteFlush;
+        this.capacidadMaxima = capacidadMaxima;
+    }
+
+    // Recupera los deltas que quedaron pendientes de una ejecución anterior
+    @PostConstruct
+    void inicializar() {
+        long existentes = deltaRepository.count();
+        pendientes.set(existentes);
+        if (existentes > 0) {
+            log.info("Se encontraron {} deltas de total pendientes de una ejecución anterior", existentes);
+        }
+    }
+
+    /**
+     * Registra un monto a sumar (o restar) al total de una boleta. Debe llamarse dentro de la
+     * transacción que modifica el detalle, para que ambos se confirmen o se descarten juntos.
+     *
+     * @param idBoleta ID de la boleta.
+     * @param monto    Monto a sumar (positivo) o restar (negativo).
+     * @throws DetalleException si la cola está llena.
+     */
+    public void registrarDelta(Long idBoleta, double monto) {
+        verificarCapacidad();
+        deltaRepository.save(new DeltaTotalPendiente(null, idBoleta, monto, LocalDateTime.now(), null));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    contarPendiente();
+                }
+            });
+        } else {
+            contarPendiente();
+        }
+    }
+
+    /**
+     * Número de deltas confirmados pendientes de aplicar.
+     */
+    public long getPendientes() {
+        return pendientes.get();
+    }
+
+    // Vaciado periódico
+    @Scheduled(fixedDelayString = "${detalle.totales.flush-intervalo-ms:500}")
+    public void flushProgramado() {
+        if (pendientes.get() > 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Aplica en msvc-boletas todos los deltas pendientes, un PUT por boleta con la suma de sus deltas.
+     * Si ya hay un vaciado en curso, no hace nada.
+     *
+     * @return número de boletas actualizadas.
+     */
+    public int flush() {
+        if (!flushLock.tryLock()) {
+            return 0;
+        }
+        int boletasActualizadas = 0;
+        try {
+            while (true) {
+                List<DeltaTotalPendiente> lote = deltaRepository.findAllByOrderByIdDeltaAsc(PageRequest.of(0, loteFlush));
+                if (lote.isEmpty()) {
+                    break;
+                }
+                int aplicadas = aplicarLote(lote);
+                boletasActualizadas += aplicadas;
+                // Lote incompleto (no quedan más) o sin avance (todas las boletas fallaron): se reintenta luego
+                if (lote.size() < loteFlush || aplicadas == 0) {
+                    break;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        return boletasActualizadas;
+    }
+
+    // Vaciado final al detener la aplicación
+    @PreDestroy
+    public void detener() {
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int boletasActualizadas = flush();
+        log.info("Vaciado final de totales al detener: {} boletas actualizadas, {} deltas pendientes",
+                boletasActualizadas, pendientes.get());
+    }
+
+    // ---------- MÉTODOS PRIVADOS DE APOYO ----------
+
+    // Agrupa el lote por boleta, envía un PUT por boleta y elimina los deltas aplicados. Los envíos
+    // que quedaron sin confirmar en un vaciado anterior se repiten tal cual, con su misma clave
+    private int aplicarLote(List<DeltaTotalPendiente> lote) {
+        Set<String> clavesSinConfirmar = new LinkedHashSet<>();
+        Map<Long, List<DeltaTotalPendiente>> porBoleta = new LinkedHashMap<>();
+        for (DeltaTotalPendiente delta : lote) {
+            if (delta.getClaveIdempotencia() != null) {
+                clavesSinConfirmar.add(delta.getClaveIdempotencia());
+            } else {
+                porBoleta.computeIfAbsent(delta.getIdBoleta(), id -> new ArrayList<>()).add(delta);
+            }
+        }
+
+        int aplicadas = 0;
+        for (String clave : clavesSinConfirmar) {
+            // El envío completo, aunque parte de sus deltas haya quedado fuera de este lote
+            List<DeltaTotalPendiente> envio = deltaRepository.findByClaveIdempotencia(clave);
+            if (!envio.isEmpty() && aplicarDeltasBoleta(envio.get(0).getIdBoleta(), clave, envio)) {
+                aplicadas++;
+            }
+        }
+        for (Map.Entry<Long, List<DeltaTotalPendiente>> entrada : porBoleta.entrySet()) {
+            List<Long> idsDeltas = entrada.getValue().stream().map(DeltaTotalPendiente::getIdDelta).toList();
+            String clave = UUID.randomUUID().toString();
+            deltaRepository.asignarClaveIdempotencia(clave, idsDeltas);
+            if (aplicarDeltasBoleta(entrada.getKey(), clave, entrada.getValue())) {
+                aplicadas++;
+            }
+        }
+        return aplicadas;
+    }
+
+    private boolean aplicarDeltasBoleta(Long idBoleta, String clave, List<DeltaTotalPendiente> deltas) {
+        double montoTotal = 0.0;
+        List<Long> idsDeltas = new ArrayList<>(deltas.size());
+        for (DeltaTotalPendiente delta : deltas) {
+            montoTotal += delta.getMonto();
+            idsDeltas.add(delta.getIdDelta());
+        }
+
+        try {
+            if (montoTotal != 0.0) {
+                boletaClient.actualizarTotalBoleta(idBoleta, new MontoUpdateRequestDTO(montoTotal, clave));
+            }
+        } catch (FeignException e) {
+            if (e.status() != 404) {
+                log.warn("No se pudo aplicar el total de la boleta {} ({} deltas, clave {}); se reintentará: {}",
+                        idBoleta, deltas.size(), clave, e.getMessage());
+                return false;
+            }
+            log.warn("Boleta {} no encontrada; se descartan {} deltas pendientes", idBoleta, deltas.size());
+        }
+
+        deltaRepository.deleteAllByIdInBatch(idsDeltas);
+        pendientes.updateAndGet(actual -> Math.max(0, actual - idsDeltas.size()));
+        log.debug("Total de boleta {} actualizado con {} ({} deltas agrupados)", idBoleta, montoTotal, deltas.size());
+        return true;
+    }
+
+    private void contarPendiente() {
+        if (pendientes.incrementAndGet() >= umbralFlush) {
+            solicitarFlush();
+        }
+    }
+
+    // Programa un vaciado en segundo plano, evitando encolar más de uno a la vez
+    private void solicitarFlush() {
+        if (flushSolicitado.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushSolicitado.set(false);
+                flush();
+            });
+        }
+    }
+
+    // Contrapresión: si la cola está llena se pide un vaciado y se rechaza el delta sin esperar, porque
+    // quien registra está dentro de la transacción del detalle y retiene su conexión a la base de datos
+    private void verificarCapacidad() {
+        if (pendientes.get() < capacidadMaxima) {
+            return;
+        }
+        solicitarFlush();
+        throw new DetalleException("Cola de actualizaciones de totales llena (" + capacidadMaxima
+                + " pendientes); intente nuevamente más tarde");
+    }
+}
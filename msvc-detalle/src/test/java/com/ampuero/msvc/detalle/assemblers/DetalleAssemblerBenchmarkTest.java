@@ -0,0 +1,85 @@
+package com.ampuero.msvc.detalle.assemblers;
+
+import com.ampuero.msvc.detalle.dtos.ClienteEnBoletaDTO;
+import com.ampuero.msvc.detalle.dtos.DetalleResponseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mide toModel por segundo de DetalleResponseDTOModelAssembler sobre colecciones de 1.000 detalles,
+ * cada colección dentro de su propia petición simulada (como un listado real).
+ *
+ * - "antes": linkTo(methodOn(...)) por enlace (proxy CGLIB + lectura de anotaciones por fila).
+ * - "después": plantillas de PlantillaEnlace resueltas una sola vez.
+ *
+ * No corre con el build normal; se ejecuta con:
+ * mvn test -Dtest=DetalleAssemblerBenchmarkTest -Dbenchmark=true [-Dbenchmark.colecciones=200]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class DetalleAssemblerBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DetalleAssemblerBenchmarkTest.class);
+
+    private static final int DETALLES_POR_COLECCION = 1_000;
+
+    @AfterEach
+    public void limpiar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Throughput de toModel: linkTo(methodOn(...)) vs plantillas precompiladas")
+    public void compararThroughputToModel() {
+        int colecciones = Integer.getInteger("benchmark.colecciones", 200);
+        List<DetalleResponseDTO> detalles = new ArrayList<>(DETALLES_POR_COLECCION);
+        for (long i = 1; i <= DETALLES_POR_COLECCION; i++) {
+            detalles.add(DetalleResponseDTOModelAssemblerTest.detalle(i, i / 20 + 1, i % 50 + 1,
+                    new ClienteEnBoletaDTO(i % 30 + 1, "Cliente", "cliente@correo.cl")));
+        }
+        DetalleResponseDTOModelAssembler assembler = new DetalleResponseDTOModelAssembler();
+
+        // Calentamiento del JIT
+        medir("calentamiento", DetalleResponseDTOModelAssemblerTest::toModelConLinkTo, detalles, colecciones / 4);
+        medir("calentamiento", assembler::toModel, detalles, colecciones / 4);
+
+        double antes = medir("antes (linkTo + methodOn)", DetalleResponseDTOModelAssemblerTest::toModelConLinkTo, detalles, colecciones);
+        double despues = medir("despues (PlantillaEnlace)", assembler::toModel, detalles, colecciones);
+
+        logger.info("Mejora de throughput: x{}", String.format("%.1f", despues / antes));
+        assertThat(despues).isPositive();
+    }
+
+    private double medir(String escenario, Function<DetalleResponseDTO, EntityModel<DetalleResponseDTO>> toModel,
+                         List<DetalleResponseDTO> detalles, int colecciones) {
+        long enlaces = 0;
+        long inicio = System.nanoTime();
+        for (int c = 0; c < colecciones; c++) {
+            MockHttpServletRequest peticion = new MockHttpServletRequest("GET", "/api/v2/detalles");
+            peticion.setServerPort(8083);
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(peticion));
+            for (DetalleResponseDTO detalle : detalles) {
+                enlaces += toModel.apply(detalle).getLinks().stream().count();
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        double modelosPorSegundo = (double) colecciones * detalles.size() / segundos;
+        logger.info("{}: {} colecciones de {} detalles en {} ms -> {} toModel/s ({} enlaces)", escenario, colecciones,
+                detalles.size(), String.format("%.0f", segundos * 1000), String.format("%.0f", modelosPorSegundo), enlaces);
+        return modelosPorSegundo;
+    }
+}
@@ -0,0 +1,120 @@
+package com.ampuero.msvc.detalle.assemblers;
+
+import com.ampuero.msvc.detalle.controllers.DetalleControllerV2;
+import com.ampuero.msvc.detalle.dtos.BoletaEnDetalleDTO;
+import com.ampuero.msvc.detalle.dtos.ClienteEnBoletaDTO;
+import com.ampuero.msvc.detalle.dtos.DetalleResponseDTO;
+import com.ampuero.msvc.detalle.models.ProductoPojo;
+import com.ampuero.msvc.detalle.models.entities.Detalle;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+// El JSON HAL con enlaces de PlantillaEnlace debe ser idéntico al que se obtiene con linkTo(methodOn(...))
+public class DetalleResponseDTOModelAssemblerTest {
+
+    private static final ObjectMapper HAL = new ObjectMapper().findAndRegisterModules().registerModule(new Jackson2HalModule());
+
+    static {
+        HAL.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new AnnotationLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+    }
+
+    private final DetalleResponseDTOModelAssembler assembler = new DetalleResponseDTOModelAssembler();
+
+    @AfterEach
+    public void limpiar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("toModel entrega los mismos enlaces que linkTo(methodOn(...)) en distintas peticiones")
+    public void enlacesIdenticosALinkTo() {
+        DetalleResponseDTO conCliente = detalle(15L, 3L, 7L, new ClienteEnBoletaDTO(9L, "Cliente", "cliente@correo.cl"));
+        DetalleResponseDTO sinCliente = detalle(16L, 4L, 8L, null);
+
+        for (MockHttpServletRequest peticion : List.of(peticion("http", "localhost", 8083, ""),
+                peticion("https", "perfulandia.cl", 443, "/tienda"))) {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(peticion));
+
+            for (DetalleResponseDTO detalle : List.of(conCliente, sinCliente)) {
+                assertThat(hal(assembler.toModel(detalle))).isEqualTo(hal(toModelConLinkTo(detalle)));
+            }
+        }
+        assertThat(assembler.toModel(conCliente).getRequiredLink("detalles-boleta").getHref())
+                .isEqualTo("https://perfulandia.cl/tienda/api/v2/detalles/boleta/3");
+    }
+
+    @Test
+    @DisplayName("Los assemblers de la entidad Detalle también coinciden con linkTo, incluido el enlace expandido a la colección")
+    public void assemblersDeEntidadIdenticosALinkTo() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(peticion("http", "localhost", 8083, "")));
+        Detalle detalle = new Detalle(21L, 5L, 11L, 2, 1990.0, 3980.0);
+
+        assertThat(hal(new DetalleModelAssembler().toModel(detalle))).isEqualTo(hal(EntityModel.of(detalle,
+                linkTo(methodOn(DetalleControllerV2.class).obtenerPorId(21L)).withSelfRel(),
+                Link.of("http://localhost:8082/api/v2/productos/11").withRel("producto"),
+                Link.of("http://localhost:8081/api/v2/boletas/5").withRel("boleta"),
+                linkTo(methodOn(DetalleControllerV2.class).obtenerPorBoleta(5L)).withRel("detalles-boleta"),
+                linkTo(methodOn(DetalleControllerV2.class).obtenerTodos(null, null)).withRel("detalles").expand())));
+        assertThat(hal(new DetalleSimpleAssembler().toModel(detalle))).isEqualTo(hal(EntityModel.of(detalle,
+                linkTo(methodOn(DetalleControllerV2.class).obtenerPorId(21L)).withSelfRel(),
+                linkTo(methodOn(DetalleControllerV2.class).obtenerTodos(null, null)).withRel("detalles").expand())));
+    }
+
+    // JSON HAL tal como lo escribe la API
+    static String hal(Object modelo) {
+        try {
+            return HAL.writeValueAsString(modelo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Implementación anterior de DetalleResponseDTOModelAssembler, como referencia
+    static EntityModel<DetalleResponseDTO> toModelConLinkTo(DetalleResponseDTO entity) {
+        EntityModel<DetalleResponseDTO> model = EntityModel.of(
+                entity,
+                linkTo(methodOn(DetalleControllerV2.class).obtenerPorId(entity.getIdDetalle())).withSelfRel(),
+                Link.of("http://localhost:8082/api/v2/productos/" + entity.getProducto().getIdProducto()).withRel("producto"),
+                Link.of("http://localhost:8081/api/v2/boletas/" + entity.getBoleta().getIdBoleta()).withRel("boleta")
+        );
+        if (entity.getBoleta().getCliente() != null) {
+            model.add(Link.of("http://localhost:8080/api/v2/clientes/" + entity.getBoleta().getCliente().getIdUsuario()).withRel("cliente"));
+        }
+        return model.add(linkTo(methodOn(DetalleControllerV2.class).obtenerPorBoleta(entity.getBoleta().getIdBoleta())).withRel("detalles-boleta"));
+    }
+
+    static DetalleResponseDTO detalle(Long idDetalle, Long idBoleta, Long idProducto, ClienteEnBoletaDTO cliente) {
+        BoletaEnDetalleDTO boleta = new BoletaEnDetalleDTO(idBoleta, LocalDate.of(2025, 6, 25), 3980.0, "Boleta", cliente);
+        ProductoPojo producto = new ProductoPojo(idProducto, "Perfume", "Eau de parfum 100ml", 1990.0);
+        return new DetalleResponseDTO(idDetalle, boleta, producto, 2, 1990.0, 3980.0, null);
+    }
+
+    private static MockHttpServletRequest peticion(String esquema, String host, int puerto, String contexto) {
+        MockHttpServletRequest peticion = new MockHttpServletRequest("GET", contexto + "/api/v2/detalles");
+        peticion.setScheme(esquema);
+        peticion.setServerName(host);
+        peticion.setServerPort(puerto);
+        peticion.setContextPath(contexto);
+        return peticion;
+    }
+}
@@ -0,0 +1,170 @@
+package com.ampuero.msvc.detalle.clients;
+
+import com.ampuero.msvc.detalle.exceptions.DependenciaNoDisponibleException;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ClienteFeignReintentosTest {
+
+    private final AtomicInteger llamadasRemotas = new AtomicInteger();
+
+    @Test
+    @DisplayName("Un GET idempotente se reintenta tras un 503 y devuelve la respuesta siguiente")
+    public void reintentaGetIdempotenteTras503() throws IOException {
+        RegistroReintentos registro = new RegistroReintentos(politica(2, 20, false));
+        Client cliente = new ClienteFeignReintentos(responder(503, 200), registro);
+
+        Response response = cliente.execute(request(ProductoClient.class, "getProductoById"), new Request.Options());
+
+        assertThat(response.status()).isEqualTo(200);
+        assertThat(llamadasRemotas).hasValue(2);
+        assertThat(registro.dependencia("msvc-productos").reintentos()).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Los errores de E/S (conexión rechazada, timeouts) también se reintentan")
+    public void reintentaErroresDeEntradaSalida() throws IOException {
+        Client cliente = new ClienteFeignReintentos((request, options) -> {
+            if (llamadasRemotas.incrementAndGet() == 1) {
+                throw new ConnectException("Connection refused");
+            }
+            return respuesta(request, 200);
+        }, new RegistroReintentos(politica(2, 20, false)));
+
+        assertThat(cliente.execute(request(BoletaClient.class, "getBoletaById"), new Request.Options()).status())
+                .isEqualTo(200);
+        assertThat(llamadasRemotas).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("El PUT del total y los GET sin @Idempotente se envían una sola vez")
+    public void noReintentaMetodosNoIdempotentes() throws IOException {
+        Client cliente = new ClienteFeignReintentos(responder(503, 200), new RegistroReintentos(politica(2, 20, false)));
+
+        assertThat(cliente.execute(request(BoletaClient.class, "actualizarTotalBoleta"), new Request.Options()).status())
+                .isEqualTo(503);
+        assertThat(cliente.execute(request(ProductoClient.class, "getProductosByIds"), new Request.Options()).status())
+                .isEqualTo(200);
+        assertThat(llamadasRemotas).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Sin presupuesto se devuelve el último resultado sin seguir reintentando")
+    public void presupuestoAgotadoCortaLosReintentos() throws IOException {
+        RegistroReintentos registro = new RegistroReintentos(politica(3, 1, false));
+        Client cliente = new ClienteFeignReintentos(responder(503, 503, 503, 503), registro);
+
+        assertThat(cliente.execute(request(ProductoClient.class, "getProductoById"), new Request.Options()).status())
+                .isEqualTo(503);
+        assertThat(llamadasRemotas).hasValue(2);
+        assertThat(registro.dependencia("msvc-productos").presupuesto().getDenegados()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Con el circuito abierto no se reintenta")
+    public void noReintentaConCircuitoAbierto() {
+        Client cliente = new ClienteFeignReintentos((request, options) -> {
+            llamadasRemotas.incrementAndGet();
+            throw new DependenciaNoDisponibleException("Circuito abierto para msvc-productos", request);
+        }, new RegistroReintentos(politica(2, 20, false)));
+
+        assertThatThrownBy(() -> cliente.execute(request(ProductoClient.class, "getProductoById"), new Request.Options()))
+                .isInstanceOf(DependenciaNoDisponibleException.class);
+        assertThat(llamadasRemotas).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Si la petición supera el p95 observado se envía un hedge y gana la primera respuesta")
+    public void hedgeCuandoLaPeticionSuperaElP95() throws Exception {
+        CountDownLatch liberarLenta = new CountDownLatch(1);
+        RegistroReintentos registro = new RegistroReintentos(politica(0, 20, true));
+        Client cliente = new ClienteFeignReintentos((request, options) -> {
+            // La llamada número 6 queda colgada; el resto responde al instante
+            if (llamadasRemotas.incrementAndGet() == 6) {
+                try {
+                    liberarLenta.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return respuesta(request, 200);
+        }, registro);
+        for (int i = 0; i < 5; i++) {
+            cliente.execute(request(ProductoClient.class, "getProductoById"), new Request.Options());
+        }
+
+        long inicio = System.nanoTime();
+        Response response = cliente.execute(request(ProductoClient.class, "getProductoById"), new Request.Options());
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        liberarLenta.countDown();
+
+        assertThat(response.status()).isEqualTo(200);
+        assertThat(duracionMs).isLessThan(2000);
+        assertThat(llamadasRemotas).hasValue(7);
+        assertThat(registro.dependencia("msvc-productos").hedges()).hasValue(1);
+    }
+
+    private static PoliticaReintentos politica(int maxReintentos, double capacidad, boolean hedging) {
+        return PoliticaReintentos.builder()
+                .maxReintentos(maxReintentos)
+                .backoffBase(Duration.ofMillis(1))
+                .backoffMaximo(Duration.ofMillis(5))
+                .ratioPresupuesto(0)
+                .minimoPorSegundo(0)
+                .capacidadPresupuesto(capacidad)
+                .hedging(hedging)
+                .hedgingMinimo(Duration.ofMillis(20))
+                .muestrasMinimas(5)
+                .build();
+    }
+
+    // Responde los estados indicados en orden; el último se repite
+    private Client responder(int... estados) {
+        return (request, options) -> {
+            int llamada = llamadasRemotas.getAndIncrement();
+            return respuesta(request, estados[Math.min(llamada, estados.length - 1)]);
+        };
+    }
+
+    private static Response respuesta(Request request, int status) {
+        return Response.builder()
+                .status(status)
+                .reason("stub")
+                .request(request)
+                .headers(Map.of())
+                .build();
+    }
+
+    // Request con los metadatos reales del método Feign, como los arma SpringMvcContract en ejecución
+    private static Request request(Class<?> cliente, String metodo) {
+        MethodMetadata metadata = new SpringMvcContract().parseAndValidateMetadata(cliente).stream()
+                .filter(m -> m.method().getName().equals(metodo))
+                .findFirst()
+                .orElseThrow();
+        String nombre = cliente == BoletaClient.class ? "msvc-boletas" : "msvc-productos";
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(cliente, nombre, "http://localhost"));
+        template.methodMetadata(metadata);
+        return Request.create(metadata.template().method().equals("PUT") ? Request.HttpMethod.PUT : Request.HttpMethod.GET,
+                "http://localhost/api/v1/recurso/1", Map.of(), null, StandardCharsets.UTF_8, template);
+    }
+}
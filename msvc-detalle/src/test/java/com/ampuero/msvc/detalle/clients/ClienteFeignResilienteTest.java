@@ -0,0 +1,154 @@
+package com.ampuero.msvc.detalle.clients;
+
+import com.ampuero.msvc.detalle.exceptions.DependenciaNoDisponibleException;
+import feign.Client;
+import feign.FeignException;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ClienteFeignResilienteTest {
+
+    private CircuitBreakerRegistry circuitBreakers;
+    private BulkheadRegistry bulkheads;
+    private final AtomicInteger llamadasRemotas = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(50)
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordResult(r -> r instanceof Response response && response.status() >= 500)
+                .build());
+        bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Con respuestas 5xx el circuito se abre y las llamadas siguientes se rechazan sin contactar el servicio")
+    public void circuitoSeAbreConErrores5xx() throws IOException {
+        Client cliente = new ClienteFeignResiliente(responder(503), circuitBreakers, bulkheads);
+        for (int i = 0; i < 4; i++) {
+            cliente.execute(request("msvc-productos"), new Request.Options());
+        }
+
+        assertThat(circuitBreakers.circuitBreaker("msvc-productos").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> cliente.execute(request("msvc-productos"), new Request.Options()))
+                .isInstanceOf(DependenciaNoDisponibleException.class)
+                .isInstanceOf(FeignException.class)
+                .satisfies(e -> assertThat(((FeignException) e).status()).isEqualTo(503));
+        assertThat(llamadasRemotas).hasValue(4);
+        // Cada dependencia tiene su propio circuito
+        assertThat(circuitBreakers.circuitBreaker("msvc-boletas").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Un 404 es una respuesta válida y no abre el circuito")
+    public void respuestas404NoAbrenCircuito() throws IOException {
+        Client cliente = new ClienteFeignResiliente(responder(404), circuitBreakers, bulkheads);
+        for (int i = 0; i < 10; i++) {
+            assertThat(cliente.execute(request("msvc-productos"), new Request.Options()).status()).isEqualTo(404);
+        }
+
+        assertThat(circuitBreakers.circuitBreaker("msvc-productos").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Los timeouts cuentan como fallo y se propagan tal cual")
+    public void timeoutsCuentanComoFallo() {
+        Client cliente = new ClienteFeignResiliente((request, options) -> {
+            llamadasRemotas.incrementAndGet();
+            throw new SocketTimeoutException("Read timed out");
+        }, circuitBreakers, bulkheads);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> cliente.execute(request("msvc-boletas"), new Request.Options()))
+                    .isInstanceOf(SocketTimeoutException.class);
+        }
+
+        assertThat(circuitBreakers.circuitBreaker("msvc-boletas").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("Con el bulkhead lleno se rechaza al instante sin contar como fallo de la dependencia")
+    public void bulkheadLlenoRechazaAlInstante() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Client cliente = new ClienteFeignResiliente((request, options) -> {
+            enCurso.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return respuesta(request, 200);
+        }, circuitBreakers, bulkheads);
+
+        CompletableFuture<Response> lenta = CompletableFuture.supplyAsync(() -> {
+            try {
+                return cliente.execute(request("msvc-productos"), new Request.Options());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThat(enCurso.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> cliente.execute(request("msvc-productos"), new Request.Options()))
+                .isInstanceOf(DependenciaNoDisponibleException.class)
+                .hasMessageContaining("simultaneas");
+
+        liberar.countDown();
+        assertThat(lenta.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+        assertThat(circuitBreakers.circuitBreaker("msvc-productos").getMetrics().getNumberOfFailedCalls()).isZero();
+        assertThat(bulkheads.bulkhead("msvc-productos").getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+    }
+
+    private Client responder(int status) {
+        return (request, options) -> {
+            llamadasRemotas.incrementAndGet();
+            return respuesta(request, status);
+        };
+    }
+
+    private static Response respuesta(Request request, int status) {
+        return Response.builder()
+                .status(status)
+                .reason("stub")
+                .request(request)
+                .headers(Map.of())
+                .build();
+    }
+
+    private static Request request(String dependencia) {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(ProductoClient.class, dependencia, "http://localhost"));
+        return Request.create(Request.HttpMethod.GET, "http://localhost/api/v1/productos/1",
+                Map.of(), null, StandardCharsets.UTF_8, template);
+    }
+}
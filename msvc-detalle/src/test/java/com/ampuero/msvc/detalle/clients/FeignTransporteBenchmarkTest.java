@@ -0,0 +1,164 @@
+package com.ampuero.msvc.detalle.clients;
+
+import com.ampuero.msvc.detalle.models.ProductoPojo;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mide peticiones/segundo de ProductoClient contra un msvc-productos simulado (HttpServer local),
+ * comparando el transporte por defecto de Feign con los transportes con pool.
+ *
+ * - "antes": HttpURLConnection (Client.Default), sin pool configurable.
+ * - "después": Apache HttpClient 5 con pool por ruta, como queda configurado en FeignClientConfig.
+ * - referencia: HttpClient del JDK (transporte usado al activar HTTP/2).
+ *
+ * No corre con el build normal; se ejecuta con:
+ * mvn test -Dtest=FeignTransporteBenchmarkTest -Dbenchmark=true [-Dbenchmark.peticiones=20000] [-Dbenchmark.hilos=32]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class FeignTransporteBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeignTransporteBenchmarkTest.class);
+
+    private static final byte[] PRODUCTO_JSON = ("{\"idProducto\":1,\"nombreProducto\":\"Perfume\","
+            + "\"descripcionProducto\":\"Eau de parfum 100ml\",\"precioProducto\":19990.0}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    static {
+        // Sin esto el HttpServer del JDK envía cabeceras y cuerpo en segmentos separados y el ACK retardado
+        // de TCP (~40 ms) domina cualquier medición
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private HttpServer stub;
+    private String url;
+    // Cada conexión TCP tiene un puerto de origen distinto: contarlos da las conexiones abiertas por escenario
+    private final Set<InetSocketAddress> conexiones = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    public void levantarStub() throws Exception {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        stub.createContext("/api/v1/productos/", exchange -> {
+            conexiones.add(exchange.getRemoteAddress());
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, PRODUCTO_JSON.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(PRODUCTO_JSON);
+            }
+        });
+        stub.setExecutor(Executors.newFixedThreadPool(64));
+        stub.start();
+        url = "http://127.0.0.1:" + stub.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void detenerStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    @DisplayName("Throughput de Feign: HttpURLConnection vs Apache HttpClient 5 con pool")
+    public void compararThroughputTransportes() throws Exception {
+        int peticiones = Integer.getInteger("benchmark.peticiones", 20000);
+        int hilos = Integer.getInteger("benchmark.hilos", 32);
+
+        Client porDefecto = new Client.Default(null, null);
+        Client hc5 = new ApacheHttp5Client(HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(200)
+                        .setMaxConnPerRoute(50)
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build());
+        Client jdk = new Http2Client(HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(1))
+                .build());
+
+        // Calentamiento de JIT y de los pools
+        medir("calentamiento", porDefecto, peticiones / 10, hilos);
+        medir("calentamiento", hc5, peticiones / 10, hilos);
+        medir("calentamiento", jdk, peticiones / 10, hilos);
+
+        double antes = medir("antes (HttpURLConnection)", porDefecto, peticiones, hilos);
+        double despues = medir("despues (Apache HC5 con pool)", hc5, peticiones, hilos);
+        medir("referencia (HttpClient JDK)", jdk, peticiones, hilos);
+
+        logger.info("Mejora de throughput: x{}", String.format("%.1f", despues / antes));
+        assertThat(despues).isPositive();
+    }
+
+    private double medir(String escenario, Client transporte, int peticiones, int hilos) throws Exception {
+        HttpMessageConverters conversores = new HttpMessageConverters(false, List.of(new MappingJackson2HttpMessageConverter()));
+        ProductoClient productoClient = Feign.builder()
+                .client(transporte)
+                .contract(new SpringMvcContract())
+                .decoder(new ResponseEntityDecoder(new SpringDecoder(() -> conversores)))
+                .target(ProductoClient.class, url);
+
+        conexiones.clear();
+        AtomicInteger restantes = new AtomicInteger(peticiones);
+        AtomicInteger errores = new AtomicInteger();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        long inicio = System.nanoTime();
+        try {
+            List<Future<?>> tareas = new ArrayList<>(hilos);
+            for (int i = 0; i < hilos; i++) {
+                tareas.add(ejecutor.submit(() -> {
+                    while (restantes.getAndDecrement() > 0) {
+                        ProductoPojo producto = productoClient.getProductoById(1L).getBody();
+                        if (producto == null || producto.getIdProducto() != 1L) {
+                            errores.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        double peticionesPorSegundo = peticiones / segundos;
+        logger.info("{}: {} peticiones con {} hilos en {} ms -> {} req/s, {} conexiones TCP abiertas", escenario,
+                peticiones, hilos, String.format("%.0f", segundos * 1000), String.format("%.0f", peticionesPorSegundo),
+                conexiones.size());
+        assertThat(errores).hasValue(0);
+        return peticionesPorSegundo;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ampuero.msvc.detalle.clients;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ObservacionFeignCapabilityTest {
+
+    private final List<Request> enviadas = new CopyOnWriteArrayList<>();
+
+    @Test
+    @DisplayName("Cada intento lleva su propio traceparent, hijo de la traza en curso, sin modificar la Request original")
+    public void propagaTraceparentPorIntento() throws IOException {
+        io.opentelemetry.api.trace.Tracer otel = SdkTracerProvider.builder().build().get("prueba");
+        OtelTracer tracer = new OtelTracer(otel, new OtelCurrentTraceContext(), evento -> {
+        });
+        OtelPropagator propagador = new OtelPropagator(ContextPropagators.create(W3CTraceContextPropagator.getInstance()), otel);
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler.FirstMatchingCompositeObservationHandler(
+                new PropagatingSenderTracingObservationHandler<>(tracer, propagador),
+                new DefaultTracingObservationHandler(tracer)));
+        Client transporte = (request, options) -> {
+            enviadas.add(request);
+            return Response.builder().status(200).reason("stub").request(request).headers(Map.of()).build();
+        };
+        Client cliente = new ObservacionFeignCapability(registry).enrich(transporte);
+        Request request = request();
+
+        Observation peticion = Observation.start("peticion", registry);
+        String traceId;
+        try (Observation.Scope ignored = peticion.openScope()) {
+            traceId = tracer.currentSpan().context().traceId();
+            // Dos intentos de la misma Request, como un reintento o un hedge de ClienteFeignReintentos
+            cliente.execute(request, new Request.Options());
+            cliente.execute(request, new Request.Options());
+        } finally {
+            peticion.stop();
+        }
+
+        assertThat(enviadas).hasSize(2);
+        String primero = enviadas.get(0).headers().get("traceparent").iterator().next();
+        String segundo = enviadas.get(1).headers().get("traceparent").iterator().next();
+        assertThat(primero).startsWith("00-" + traceId + "-");
+        assertThat(segundo).startsWith("00-" + traceId + "-").isNotEqualTo(primero);
+        assertThat(request.headers()).doesNotContainKey("traceparent");
+    }
+
+    // Request con los metadatos reales del método Feign y cabeceras inmutables
+    private static Request request() {
+        MethodMetadata metadata = new SpringMvcContract().parseAndValidateMetadata(BoletaClient.class).stream()
+                .filter(m -> m.method().getName().equals("getBoletaById"))
+                .findFirst()
+                .orElseThrow();
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(BoletaClient.class, "msvc-boletas", "http://localhost"));
+        template.methodMetadata(metadata);
+        return Request.create(Request.HttpMethod.GET, "http://localhost/api/v1/boletas/1", Map.of(), null,
+                StandardCharsets.UTF_8, template);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ampuero.msvc.detalle.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// msvc-boletas no está levantado: la llamada Feign falla por conexión rechazada, pero igual queda medida.
+// Dependencias en secuencia y sin reintentos ni hedging: una sola llamada a getBoletaById, terminada antes del scrape
+@SpringBootTest(properties = {
+        "detalle.dependencias.concurrentes=false",
+        "detalle.reintentos.max-reintentos=0",
+        "detalle.reintentos.hedging.habilitado=false"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class MetricasConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("El scrape de Prometheus trae timers con histograma de controladores, Feign por método y repositorios, más resilience4j, Hikari y JVM")
+    public void prometheusExponeTimersPorSalto() throws Exception {
+        mockMvc.perform(get("/api/v1/detalles/boleta/{idBoleta}", 987654));
+        mockMvc.perform(post("/api/v1/detalles")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"idBoletaPojo\":987654,\"idProductoPojo\":1,\"cantidadDetalle\":1}"));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .containsPattern("http_server_requests_seconds_bucket\\{[^\\n]*uri=\"/api/v1/detalles/boleta/\\{idBoleta\\}\"")
+                .containsPattern("http_client_requests_seconds_bucket\\{[^\\n]*metodo=\"getBoletaById\"")
+                // La observación se cerró aunque la petición terminó en IOException
+                .containsPattern("http_client_requests_active_seconds_gcount\\{[^\\n]*metodo=\"getBoletaById\"[^\\n]*} 0")
+                .containsPattern("spring_data_repository_invocations_seconds_bucket\\{[^\\n]*repository=\"DetalleRepository\"")
+                // Circuito y bulkhead de la dependencia llamada
+                .containsPattern("resilience4j_circuitbreaker_state\\{[^\\n]*name=\"msvc-boletas\"")
+                .containsPattern("resilience4j_bulkhead_available_concurrent_calls\\{[^\\n]*name=\"msvc-boletas\"")
+                .contains("hikaricp_connections_active{")
+                .contains("jvm_memory_used_bytes{")
+                .contains("jvm_gc_")
+                .contains("application=\"msvc-detalle\"");
+    }
+}
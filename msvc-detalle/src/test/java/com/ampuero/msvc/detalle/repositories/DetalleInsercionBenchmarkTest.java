@@ -0,0 +1,168 @@
+package com.ampuero.msvc.detalle.repositories;
+
+import com.ampuero.msvc.detalle.models.entities.Detalle;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mide filas/segundo al insertar detalles sobre una base H2 en archivo.
+ *
+ * - "antes": el mapeo anterior (id IDENTITY, DetalleIdentidad) con un save por fila, cada uno en
+ *   su propia transacción, como hacían los inicializadores.
+ * - "IDENTITY en una transacción": el mismo mapeo con todas las filas en una transacción; IDENTITY
+ *   obliga a un INSERT por fila, así que aísla lo que aportan las transacciones de lo que aportan los lotes.
+ * - "después": Detalle con secuencia pooled y saveAll en lotes JDBC, en una sola transacción.
+ *
+ * No corre con el build normal; se ejecuta con:
+ * mvn test -Dtest=DetalleInsercionBenchmarkTest -Dbenchmark=true [-Dbenchmark.filas=5000]
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/benchmark/msvc_detalle_bench",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=warn"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class DetalleInsercionBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DetalleInsercionBenchmarkTest.class);
+
+    @Autowired
+    private DetalleRepository detalleRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Mismas columnas que Detalle, con la generación de ids que tenía antes del cambio a secuencias
+    @Entity(name = "DetalleIdentidad")
+    @Table(name = "detalle_identidad")
+    @Data
+    @NoArgsConstructor
+    public static class DetalleIdentidad {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @Column(name = "id_detalle")
+        private Long idDetalle;
+
+        @Column(nullable = false)
+        private Long idBoletaPojo;
+
+        @Column(nullable = false)
+        private Long idProductoPojo;
+
+        @Column(nullable = false)
+        private Integer cantidadDetalle;
+
+        @Column(nullable = false)
+        private Double precioUnitarioDetalle;
+
+        private Double subtotalDetalle;
+
+        DetalleIdentidad(Detalle detalle) {
+            this.idBoletaPojo = detalle.getIdBoletaPojo();
+            this.idProductoPojo = detalle.getIdProductoPojo();
+            this.cantidadDetalle = detalle.getCantidadDetalle();
+            this.precioUnitarioDetalle = detalle.getPrecioUnitarioDetalle();
+            this.subtotalDetalle = detalle.getSubtotalDetalle();
+        }
+    }
+
+    private enum Escenario {
+        IDENTITY_POR_FILA("antes (IDENTITY, save por fila)"),
+        IDENTITY_UNA_TRANSACCION("IDENTITY en una transacción"),
+        SECUENCIA_EN_LOTES("despues (secuencia pooled, saveAll en lotes)");
+
+        private final String nombre;
+
+        Escenario(String nombre) {
+            this.nombre = nombre;
+        }
+    }
+
+    @AfterEach
+    public void limpiar() {
+        vaciarTablas();
+    }
+
+    @Test
+    @DisplayName("Throughput de inserción: mapeo IDENTITY con save por fila vs secuencia pooled con saveAll en lotes")
+    public void compararThroughputInsercion() {
+        int filas = Integer.getInteger("benchmark.filas", 5000);
+
+        // Calentamiento de JIT, pool de conexiones y secuencia
+        for (Escenario escenario : Escenario.values()) {
+            medir(escenario, filas / 10);
+        }
+        vaciarTablas();
+
+        double antes = medir(Escenario.IDENTITY_POR_FILA, filas);
+        double unaTransaccion = medir(Escenario.IDENTITY_UNA_TRANSACCION, filas);
+        double despues = medir(Escenario.SECUENCIA_EN_LOTES, filas);
+
+        logger.info("Mejora de inserción: x{} (solo una transacción: x{})",
+                String.format("%.1f", despues / antes), String.format("%.1f", unaTransaccion / antes));
+        assertThat(detalleRepository.count()).isEqualTo(filas);
+        assertThat(contarIdentidad()).isEqualTo(2L * filas);
+    }
+
+    private double medir(Escenario escenario, int filas) {
+        List<Detalle> detalles = DetalleRepositoryTest.crearDetalles(filas);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        long inicio = System.nanoTime();
+        switch (escenario) {
+            case IDENTITY_POR_FILA -> detalles.forEach(detalle ->
+                    transaccion.executeWithoutResult(estado -> entityManager.persist(new DetalleIdentidad(detalle))));
+            case IDENTITY_UNA_TRANSACCION -> transaccion.executeWithoutResult(estado ->
+                    detalles.forEach(detalle -> entityManager.persist(new DetalleIdentidad(detalle))));
+            case SECUENCIA_EN_LOTES -> detalleRepository.saveAll(detalles);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        double filasPorSegundo = filas / segundos;
+        logger.info("{}: {} filas en {} ms -> {} filas/s", escenario.nombre, filas,
+                String.format("%.0f", segundos * 1000), String.format("%.0f", filasPorSegundo));
+        return filasPorSegundo;
+    }
+
+    private long contarIdentidad() {
+        return entityManager.createQuery("SELECT COUNT(d) FROM DetalleIdentidad d", Long.class)
+                .getSingleResult();
+    }
+
+    private void vaciarTablas() {
+        detalleRepository.deleteAllInBatch();
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado ->
+                entityManager.createQuery("DELETE FROM DetalleIdentidad").executeUpdate());
+    }
+}
@@ -0,0 +1,157 @@
+package com.ampuero.msvc.detalle.repositories;
+
+import com.ampuero.msvc.detalle.dtos.TotalBoletaDTO;
+import com.ampuero.msvc.detalle.models.entities.Detalle;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sin transacción de prueba: saveAll abre y confirma su propia transacción,
+// igual que en los inicializadores de datos.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DetalleRepositoryTest {
+
+    @Autowired
+    private DetalleRepository detalleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    public void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @AfterEach
+    public void limpiar() {
+        detalleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("saveAll agrupa los INSERT en lotes JDBC en vez de una sentencia por fila")
+    public void saveAllInsertaEnLotes() {
+        int filas = 200;
+
+        List<Detalle> guardados = detalleRepository.saveAll(crearDetalles(filas));
+
+        assertThat(guardados).allSatisfy(d -> assertThat(d.getIdDetalle()).isNotNull());
+        assertThat(estadisticas.getEntityInsertCount()).isEqualTo(filas);
+        // 200 filas con lotes de 50: 4 lotes de INSERT más las llamadas a la secuencia pooled
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThan(filas / 10);
+    }
+
+    @Test
+    @DisplayName("La secuencia pooled asigna ids únicos y crecientes entre varios saveAll")
+    public void secuenciaPooledAsignaIdsUnicos() {
+        List<Detalle> primeros = detalleRepository.saveAll(crearDetalles(70));
+        List<Detalle> segundos = detalleRepository.saveAll(crearDetalles(70));
+
+        List<Long> ids = new ArrayList<>();
+        primeros.forEach(d -> ids.add(d.getIdDetalle()));
+        segundos.forEach(d -> ids.add(d.getIdDetalle()));
+
+        assertThat(ids).doesNotHaveDuplicates().isSorted();
+        assertThat(detalleRepository.count()).isEqualTo(140);
+    }
+
+    @Test
+    @DisplayName("La paginación keyset devuelve las filas posteriores al cursor en orden y sin pasar el límite")
+    public void paginacionKeysetDesdeCursor() {
+        List<Detalle> guardados = detalleRepository.saveAll(crearDetalles(30));
+        Long cursor = guardados.get(9).getIdDetalle();
+
+        List<Detalle> pagina = detalleRepository.findByIdDetalleGreaterThanOrderByIdDetalleAsc(cursor, Limit.of(10));
+
+        assertThat(pagina).extracting(Detalle::getIdDetalle)
+                .containsExactlyElementsOf(guardados.subList(10, 20).stream().map(Detalle::getIdDetalle).toList());
+    }
+
+    @Test
+    @DisplayName("findByIdBoletaPojo usa el índice por boleta y no recorre la tabla completa")
+    public void busquedaPorBoletaUsaIndice() {
+        detalleRepository.saveAll(crearDetalles(100));
+
+        String plan = explicar("SELECT * FROM detalle WHERE id_boleta_pojo = 3");
+
+        assertThat(plan).containsIgnoringCase("IDX_DETALLE_BOLETA_SUBTOTAL")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    @DisplayName("La suma de subtotales por boleta se resuelve con el índice compuesto")
+    public void sumaSubtotalesPorBoletaUsaIndiceCompuesto() {
+        detalleRepository.saveAll(crearDetalles(100));
+
+        String plan = explicar("SELECT SUM(subtotal_detalle) FROM detalle WHERE id_boleta_pojo = 3");
+
+        assertThat(plan).containsIgnoringCase("IDX_DETALLE_BOLETA_SUBTOTAL")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    @DisplayName("streamTotalesPorBoleta entrega una fila por boleta con su suma y cantidad, en orden de boleta")
+    public void streamTotalesPorBoletaAgrupaYOrdena() {
+        detalleRepository.saveAll(crearDetalles(100));
+
+        List<TotalBoletaDTO> totales = new TransactionTemplate(transactionManager).execute(estado -> {
+            try (Stream<TotalBoletaDTO> stream = detalleRepository.streamTotalesPorBoleta()) {
+                return stream.toList();
+            }
+        });
+
+        assertThat(totales).extracting(TotalBoletaDTO::getIdBoleta).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(totales).allSatisfy(total -> {
+            assertThat(total.getTotal()).isEqualTo(20 * 3980.0);
+            assertThat(total.getLineas()).isEqualTo(20L);
+            assertThat(total.isPendiente()).isFalse();
+        });
+    }
+
+    private String explicar(String sql) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            return String.valueOf(em.createNativeQuery("EXPLAIN " + sql).getSingleResult());
+        } finally {
+            em.close();
+        }
+    }
+
+    static List<Detalle> crearDetalles(int cantidad) {
+        List<Detalle> detalles = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Detalle detalle = new Detalle();
+            detalle.setIdBoletaPojo((long) (i / 20) + 1);
+            detalle.setIdProductoPojo((long) (i % 10) + 1);
+            detalle.setCantidadDetalle(2);
+            detalle.setPrecioUnitarioDetalle(1990.0);
+            detalle.setSubtotalDetalle(3980.0);
+            detalles.add(detalle);
+        }
+        return detalles;
+    }
+}
@@ -0,0 +1,163 @@
+package com.ampuero.msvc.detalle.services;
+
+import com.ampuero.msvc.detalle.dtos.TotalBoletaDTO;
+import com.ampuero.msvc.detalle.models.entities.Detalle;
+import com.ampuero.msvc.detalle.repositories.DeltaTotalPendienteRepository;
+import com.ampuero.msvc.detalle.repositories.DetalleRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DetalleExportServiceTest {
+
+    @Mock
+    private DetalleRepository detalleRepository;
+
+    @Mock
+    private DeltaTotalPendienteRepository deltaRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DetalleExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new DetalleExportService(detalleRepository, deltaRepository, entityManager, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Escribe un detalle por línea, en orden, y desvincula cada entidad")
+    void exportaUnDetallePorLinea() throws IOException {
+        // Given
+        AtomicBoolean cerrado = new AtomicBoolean(false);
+        when(detalleRepository.streamAllByOrderByIdDetalleAsc())
+                .thenReturn(crearDetalles(3).onClose(() -> cerrado.set(true)));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // When
+        long filas = exportService.exportarNdjson(salida);
+
+        // Then
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(filas).isEqualTo(3);
+        assertThat(lineas).hasSize(3);
+        JsonNode primera = objectMapper.readTree(lineas[0]);
+        assertThat(primera.get("idDetalle").asLong()).isEqualTo(1L);
+        assertThat(primera.get("subtotalDetalle").asDouble()).isEqualTo(3980.0);
+        assertThat(objectMapper.readTree(lineas[2]).get("idDetalle").asLong()).isEqualTo(3L);
+        assertThat(salida.toString(StandardCharsets.UTF_8)).endsWith("\n");
+        verify(entityManager, times(3)).detach(any(Detalle.class));
+        assertThat(cerrado).isTrue();
+    }
+
+    @Test
+    @DisplayName("Sin detalles no escribe nada")
+    void exportacionVacia() throws IOException {
+        // Given
+        when(detalleRepository.streamAllByOrderByIdDetalleAsc()).thenReturn(Stream.empty());
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // When
+        long filas = exportService.exportarNdjson(salida);
+
+        // Then
+        assertThat(filas).isZero();
+        assertThat(salida.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Si la escritura falla se cierra el Stream de la base de datos")
+    void cierraStreamSiFallaLaEscritura() {
+        // Given: el cliente corta la conexión
+        AtomicBoolean cerrado = new AtomicBoolean(false);
+        when(detalleRepository.streamAllByOrderByIdDetalleAsc())
+                .thenReturn(crearDetalles(DetalleExportService.FILAS_POR_FLUSH * 2).onClose(() -> cerrado.set(true)));
+        OutputStream salidaRota = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Conexión cerrada por el cliente");
+            }
+        };
+
+        // When & Then
+        assertThatThrownBy(() -> exportService.exportarNdjson(salidaRota))
+                .isInstanceOf(IOException.class);
+        assertThat(cerrado).isTrue();
+    }
+
+    @Test
+    @DisplayName("Exporta un total por boleta y marca como pendientes las boletas con deltas sin enviar")
+    void exportaTotalesMarcandoPendientes() throws IOException {
+        // Given: la boleta 2 tiene deltas pendientes y la 4 solo deltas (se eliminaron sus detalles)
+        AtomicBoolean cerrado = new AtomicBoolean(false);
+        when(deltaRepository.findIdsBoletaConPendientes()).thenReturn(List.of(2L, 4L));
+        when(detalleRepository.streamTotalesPorBoleta()).thenReturn(Stream.of(
+                new TotalBoletaDTO(1L, 3980.0, 1L),
+                new TotalBoletaDTO(2L, 7960.0, 2L),
+                new TotalBoletaDTO(5L, 1990.0, 1L)).onClose(() -> cerrado.set(true)));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // When
+        long filas = exportService.exportarTotalesNdjson(null, salida);
+
+        // Then
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(filas).isEqualTo(4);
+        assertThat(lineas).extracting(linea -> objectMapper.readTree(linea).get("idBoleta").asLong())
+                .containsExactly(1L, 2L, 4L, 5L);
+        assertThat(lineas).extracting(linea -> objectMapper.readTree(linea).get("pendiente").asBoolean())
+                .containsExactly(false, true, true, false);
+        JsonNode soloPendiente = objectMapper.readTree(lineas[2]);
+        assertThat(soloPendiente.get("total").asDouble()).isZero();
+        assertThat(soloPendiente.get("lineas").asLong()).isZero();
+        assertThat(cerrado).isTrue();
+    }
+
+    @Test
+    @DisplayName("Con IDs indicados solo suma esas boletas y solo marca sus pendientes")
+    void exportaTotalesDeBoletasIndicadas() throws IOException {
+        // Given
+        when(deltaRepository.findIdsBoletaConPendientes()).thenReturn(List.of(2L, 9L));
+        when(detalleRepository.streamTotalesPorBoleta(List.of(1L, 2L)))
+                .thenReturn(Stream.of(new TotalBoletaDTO(1L, 3980.0, 1L), new TotalBoletaDTO(2L, 7960.0, 2L)));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // When
+        long filas = exportService.exportarTotalesNdjson(List.of(1L, 2L), salida);
+
+        // Then: la boleta 9 tiene pendientes pero no se pidió
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(filas).isEqualTo(2);
+        assertThat(objectMapper.readTree(lineas[1]).get("pendiente").asBoolean()).isTrue();
+        verify(detalleRepository, never()).streamTotalesPorBoleta();
+    }
+
+    private Stream<Detalle> crearDetalles(int cantidad) {
+        return IntStream.rangeClosed(1, cantidad)
+                .mapToObj(i -> new Detalle((long) i, 1L, 2L, 2, 1990.0, 3980.0));
+    }
+}
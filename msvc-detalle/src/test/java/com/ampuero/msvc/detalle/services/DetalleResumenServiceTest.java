@@ -0,0 +1,150 @@
+package com.ampuero.msvc.detalle.services;
+
+import com.ampuero.msvc.detalle.dtos.ResumenBoletaDTO;
+import com.ampuero.msvc.detalle.models.entities.Detalle;
+import com.ampuero.msvc.detalle.repositories.DetalleBoletaAggRepository;
+import com.ampuero.msvc.detalle.repositories.DetalleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Sin transacción de prueba: cada operación confirma su propia transacción, como en DetalleServiceImpl
+@DataJpaTest
+@Import(DetalleResumenService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DetalleResumenServiceTest {
+
+    @Autowired
+    private DetalleResumenService detalleResumenService;
+
+    @Autowired
+    private DetalleBoletaAggRepository aggRepository;
+
+    @Autowired
+    private DetalleRepository detalleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void limpiar() {
+        aggRepository.deleteAllInBatch();
+        detalleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("registrar crea el resumen con el primer detalle, acumula los cambios y lo elimina al quedar sin detalles")
+    public void registrarAcumulaYEliminaAlVaciar() {
+        registrar(7L, 1, 2, 200.0);
+        registrar(7L, 1, 3, 150.0);
+        registrar(7L, 0, 1, 50.0);
+
+        ResumenBoletaDTO resumen = detalleResumenService.obtenerResumen(7L);
+        assertThat(resumen.getLineas()).isEqualTo(2L);
+        assertThat(resumen.getCantidadTotal()).isEqualTo(6L);
+        assertThat(resumen.getSubtotalTotal()).isEqualTo(400.0);
+
+        registrar(7L, -1, -3, -200.0);
+        registrar(7L, -1, -3, -200.0);
+
+        assertThat(aggRepository.existsById(7L)).isFalse();
+        assertThat(detalleResumenService.obtenerResumen(7L)).isEqualTo(new ResumenBoletaDTO(7L, 0L, 0L, 0.0));
+    }
+
+    @Test
+    @DisplayName("registrar no pierde ni rechaza detalles concurrentes, tampoco el primero de cada boleta")
+    public void registrarConcurrenteCreaElResumenUnaVez() throws Exception {
+        int hilos = 16;
+        int boletas = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> resultados = new ArrayList<>();
+
+        // Todos los hilos registran el primer detalle de cada boleta a la vez
+        for (int h = 0; h < hilos; h++) {
+            resultados.add(executor.submit(() -> {
+                inicio.await();
+                for (long idBoleta = 1; idBoleta <= boletas; idBoleta++) {
+                    registrar(idBoleta, 1, 2, 12.5);
+                }
+                return null;
+            }));
+        }
+        inicio.countDown();
+
+        for (Future<?> resultado : resultados) {
+            resultado.get();
+        }
+        executor.shutdown();
+
+        assertThat(aggRepository.count()).isEqualTo(boletas);
+        for (long idBoleta = 1; idBoleta <= boletas; idBoleta++) {
+            assertThat(detalleResumenService.obtenerResumen(idBoleta))
+                    .isEqualTo(new ResumenBoletaDTO(idBoleta, (long) hilos, 2L * hilos, 12.5 * hilos));
+        }
+    }
+
+    @Test
+    @DisplayName("registrar exige la transacción del detalle que lo origina")
+    public void registrarSinTransaccionFalla() {
+        assertThatThrownBy(() -> detalleResumenService.registrar(7L, 1, 1, 10.0))
+                .isInstanceOf(IllegalTransactionStateException.class);
+        assertThat(aggRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("reconstruir reemplaza la tabla con la suma por boleta calculada desde los detalles")
+    public void reconstruirRecalculaDesdeLosDetalles() {
+        detalleRepository.saveAll(crearDetalles(1_050));
+        // Resumen desfasado de una boleta que ya no tiene detalles
+        registrar(999L, 4, 4, 4.0);
+
+        long boletas = detalleResumenService.reconstruir();
+
+        assertThat(boletas).isEqualTo(525L);
+        assertThat(aggRepository.count()).isEqualTo(525L);
+        assertThat(aggRepository.existsById(999L)).isFalse();
+        ResumenBoletaDTO resumen = detalleResumenService.obtenerResumen(1L);
+        assertThat(resumen.getLineas()).isEqualTo(2L);
+        assertThat(resumen.getCantidadTotal()).isEqualTo(4L);
+        assertThat(resumen.getSubtotalTotal()).isEqualTo(2 * 3980.0);
+    }
+
+    private void registrar(Long idBoleta, long lineas, long cantidad, double subtotal) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                estado -> detalleResumenService.registrar(idBoleta, lineas, cantidad, subtotal));
+    }
+
+    // Dos detalles por boleta, para superar el tamaño de bloque de la reconstrucción
+    private static List<Detalle> crearDetalles(int cantidad) {
+        List<Detalle> detalles = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Detalle detalle = new Detalle();
+            detalle.setIdBoletaPojo((long) (i / 2) + 1);
+            detalle.setIdProductoPojo((long) (i % 10) + 1);
+            detalle.setCantidadDetalle(2);
+            detalle.setPrecioUnitarioDetalle(1990.0);
+            detalle.setSubtotalDetalle(3980.0);
+            detalles.add(detalle);
+        }
+        return detalles;
+    }
+}
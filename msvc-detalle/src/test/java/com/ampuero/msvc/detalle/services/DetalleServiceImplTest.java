@@ -2,9 +2,13 @@ package com.ampuero.msvc.detalle.services;
 
 import com.ampuero.msvc.detalle.clients.BoletaClient;
 import com.ampuero.msvc.detalle.clients.ProductoClient;
+import com.ampuero.msvc.detalle.dtos.DetalleBatchDTO;
 import com.ampuero.msvc.detalle.dtos.DetalleDTO;
 import com.ampuero.msvc.detalle.dtos.DetalleResponseDTO;
+import com.ampuero.msvc.detalle.dtos.LineaDetalleDTO;
 import com.ampuero.msvc.detalle.dtos.MontoUpdateRequestDTO;
+import com.ampuero.msvc.detalle.dtos.PaginaDetallesDTO;
+import com.ampuero.msvc.detalle.exceptions.DependenciaNoDisponibleException;
 import com.ampuero.msvc.detalle.exceptions.DetalleException;
 import com.ampuero.msvc.detalle.exceptions.ResourceNotFoundException;
 import com.ampuero.msvc.detalle.models.BoletaPojo;
@@ -20,12 +24,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -35,6 +45,9 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class DetalleServiceImplTest {
 
+    // Primera página con el tamaño por defecto: una fila extra para saber si hay página siguiente
+    private static final Limit PRIMERA_PAGINA = Limit.of(DetalleServiceImpl.LIMITE_POR_DEFECTO + 1);
+
     // Generador de datos falsos
     private final Faker faker = new Faker(Locale.of("es", "CL"));
 
@@ -47,6 +60,18 @@ public class DetalleServiceImplTest {
     @Mock
     private ProductoClient productoClient;
 
+    @Mock
+    private TotalBoletaWriteBehindService totalBoletaWriteBehind;
+
+    @Mock
+    private DetalleResumenService detalleResumenService;
+
+    @Spy
+    private ProductoCacheService productoCache = new ProductoCacheService(1000, 300);
+
+    @Spy
+    private BoletaCacheService boletaCache = new BoletaCacheService(1000, 10);
+
     @InjectMocks
     private DetalleServiceImpl detalleService;
 
@@ -131,6 +156,7 @@ public class DetalleServiceImplTest {
         verify(boletaClient, times(1)).getBoletaById(1L);
         verify(productoClient, times(1)).getProductoById(1L);
         verify(detalleRepository, times(1)).save(any(Detalle.class));
+        verify(detalleResumenService).registrar(1L, 1, 2, 200.0);
         verify(boletaClient, times(1)).actualizarTotalBoleta(eq(1L), any(MontoUpdateRequestDTO.class));
     }
 
@@ -202,37 +228,166 @@ public class DetalleServiceImplTest {
                 .hasMessageContaining("Servicio no disponible");
     }
 
-    // ================ TESTS PARA OBTENER TODOS ================
+    @Test
+    @DisplayName("Con el circuito de productos abierto falla al instante con DetalleException")
+    void debeFallarConDetalleExceptionConCircuitoAbierto() {
+        // Given
+        when(boletaClient.getBoletaById(1L)).thenReturn(ResponseEntity.ok(boletaPrueba));
+        when(productoClient.getProductoById(1L)).thenThrow(new DependenciaNoDisponibleException(
+                "Circuito abierto para msvc-productos", feign.Request.create(feign.Request.HttpMethod.GET,
+                        "http://localhost:8084/api/v1/productos/1", Map.of(), null, StandardCharsets.UTF_8, null)));
+
+        // When & Then
+        assertThatThrownBy(() -> detalleService.crearDetalle(detalleDTOPrueba))
+                .isInstanceOf(DetalleException.class)
+                .hasMessageContaining("Circuito abierto");
+        verify(detalleRepository, never()).save(any(Detalle.class));
+    }
+
+    // ================ TESTS PARA CREAR DETALLES EN LOTE ================
 
     @Test
-    @DisplayName("Debe obtener todos los detalles exitosamente")
-    void debeObtenerTodosLosDetalles() {
+    @DisplayName("Debe crear un lote con una sola consulta de boleta, productos y total")
+    void debeCrearDetallesEnLote() throws Exception {
         // Given
-        when(detalleRepository.findAll()).thenReturn(detalleList);
+        DetalleBatchDTO lote = new DetalleBatchDTO(1L, List.of(
+                new LineaDetalleDTO(1L, 2),
+                new LineaDetalleDTO(2L, 1),
+                new LineaDetalleDTO(1L, 3)
+        ));
+        when(boletaClient.getBoletaById(1L)).thenReturn(ResponseEntity.ok(boletaPrueba));
+        when(productoClient.getProductosByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearProductos(1L, 2L)));
+        when(detalleRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
-        List<DetalleResponseDTO> resultado = detalleService.obtenerTodos();
+        List<DetalleResponseDTO> resultado = detalleService.crearDetallesEnLote(lote);
+
+        // Then
+        assertThat(resultado).hasSize(3);
+        assertThat(resultado).extracting(DetalleResponseDTO::getSubtotalDetalle).containsExactly(200.0, 100.0, 300.0);
+        verify(boletaClient, times(1)).getBoletaById(1L);
+        verify(productoClient, times(1)).getProductosByIds(argThat(ids -> ids.size() == 2));
+        verify(productoClient, never()).getProductoById(anyLong());
+        verify(detalleRepository, times(1)).saveAll(anyList());
+        verify(detalleRepository, never()).save(any(Detalle.class));
+        verify(boletaClient, times(1)).actualizarTotalBoleta(eq(1L), argThat(m -> m.getMonto() == 600.0));
+    }
+
+    @Test
+    @DisplayName("No debe guardar ninguna línea del lote si falta un producto")
+    void noDebeGuardarLoteSiFaltaProducto() {
+        // Given
+        DetalleBatchDTO lote = new DetalleBatchDTO(1L, List.of(
+                new LineaDetalleDTO(1L, 2),
+                new LineaDetalleDTO(99L, 1)
+        ));
+        when(boletaClient.getBoletaById(1L)).thenReturn(ResponseEntity.ok(boletaPrueba));
+        when(productoClient.getProductosByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearProductos(1L)));
+
+        // When & Then
+        assertThatThrownBy(() -> detalleService.crearDetallesEnLote(lote))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Producto no encontrado con ID: [99]");
+        verify(detalleRepository, never()).saveAll(anyList());
+        verify(boletaClient, never()).actualizarTotalBoleta(anyLong(), any(MontoUpdateRequestDTO.class));
+    }
+
+    @Test
+    @DisplayName("Debe lanzar ResourceNotFoundException en lote cuando la boleta no existe")
+    void debeLanzarExcepcionEnLoteCuandoBoletaNoExiste() {
+        // Given
+        DetalleBatchDTO lote = new DetalleBatchDTO(999L, List.of(new LineaDetalleDTO(1L, 2)));
+        when(boletaClient.getBoletaById(999L)).thenReturn(ResponseEntity.notFound().build());
+
+        // When & Then
+        assertThatThrownBy(() -> detalleService.crearDetallesEnLote(lote))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(detalleRepository, never()).saveAll(anyList());
+    }
+
+    // ================ TESTS PARA PAGINACIÓN KEYSET ================
+
+    @Test
+    @DisplayName("Debe obtener la primera página de detalles enriquecidos")
+    void debeObtenerPrimeraPaginaEnriquecida() {
+        // Given
+        when(detalleRepository.findByIdDetalleGreaterThanOrderByIdDetalleAsc(0L, PRIMERA_PAGINA)).thenReturn(detalleList);
+        when(boletaClient.getBoletasByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearBoletas(1L, 2L, 3L)));
+        when(productoClient.getProductosByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearProductos(1L, 2L, 3L, 4L, 5L)));
+
+        // When
+        List<DetalleResponseDTO> resultado = detalleService.obtenerPagina(null, null).getContenido();
 
         // Then
         assertThat(resultado).isNotNull();
         assertThat(resultado).hasSize(10);
-        verify(detalleRepository, times(1)).findAll();
+        assertThat(resultado).allMatch(dto -> dto.getCamposNoDisponibles() == null);
+        verify(detalleRepository, times(1)).findByIdDetalleGreaterThanOrderByIdDetalleAsc(0L, PRIMERA_PAGINA);
     }
 
     @Test
-    @DisplayName("Debe retornar lista vacía cuando no hay detalles")
-    void debeRetornarListaVaciaCuandoNoHayDetalles() {
+    @DisplayName("Debe retornar una página vacía cuando no hay detalles")
+    void debeRetornarPaginaVaciaCuandoNoHayDetalles() {
         // Given
-        when(detalleRepository.findAll()).thenReturn(new ArrayList<>());
+        when(detalleRepository.findByIdDetalleGreaterThanOrderByIdDetalleAsc(0L, PRIMERA_PAGINA)).thenReturn(new ArrayList<>());
 
         // When
-        List<DetalleResponseDTO> resultado = detalleService.obtenerTodos();
+        List<DetalleResponseDTO> resultado = detalleService.obtenerPagina(null, null).getContenido();
 
         // Then
         assertThat(resultado).isNotNull();
         assertThat(resultado).isEmpty();
     }
 
+    @Test
+    @DisplayName("Debe devolver la primera página y el cursor siguiente cuando hay más filas")
+    void debeObtenerPrimeraPaginaConCursor() {
+        // Given: se piden limit + 1 filas para detectar la página siguiente
+        when(detalleRepository.findByIdDetalleGreaterThanOrderByIdDetalleAsc(0L, Limit.of(4)))
+                .thenReturn(detalleList.subList(0, 4));
+
+        // When
+        PaginaDetallesDTO pagina = detalleService.obtenerPagina(null, 3);
+
+        // Then
+        assertThat(pagina.getContenido()).extracting(DetalleResponseDTO::getIdDetalle).containsExactly(1L, 2L, 3L);
+        assertThat(pagina.getSiguienteCursor()).isEqualTo(3L);
+        assertThat(pagina.getLimite()).isEqualTo(3);
+        verify(detalleRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("La última página no tiene cursor siguiente")
+    void ultimaPaginaSinCursor() {
+        // Given
+        when(detalleRepository.findByIdDetalleGreaterThanOrderByIdDetalleAsc(8L, Limit.of(4)))
+                .thenReturn(detalleList.subList(8, 10));
+
+        // When
+        PaginaDetallesDTO pagina = detalleService.obtenerPagina(8L, 3);
+
+        // Then
+        assertThat(pagina.getContenido()).extracting(DetalleResponseDTO::getIdDetalle).containsExactly(9L, 10L);
+        assertThat(pagina.getSiguienteCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("El tamaño de página se acota al máximo permitido y usa el valor por defecto si no se indica")
+    void limiteSeNormaliza() {
+        // Given
+        when(detalleRepository.findByIdDetalleGreaterThanOrderByIdDetalleAsc(anyLong(), any(Limit.class)))
+                .thenReturn(new ArrayList<>());
+
+        // When
+        PaginaDetallesDTO porDefecto = detalleService.obtenerPagina(null, null);
+        PaginaDetallesDTO excedido = detalleService.obtenerPagina(null, 5000);
+
+        // Then
+        assertThat(porDefecto.getLimite()).isEqualTo(DetalleServiceImpl.LIMITE_POR_DEFECTO);
+        assertThat(excedido.getLimite()).isEqualTo(DetalleServiceImpl.LIMITE_MAXIMO);
+        verify(detalleRepository).findByIdDetalleGreaterThanOrderByIdDetalleAsc(0L, Limit.of(DetalleServiceImpl.LIMITE_MAXIMO + 1));
+    }
+
     // ================ TESTS PARA OBTENER POR BOLETA ================
 
     @Test
@@ -243,6 +398,8 @@ public class DetalleServiceImplTest {
                 .filter(d -> d.getIdBoletaPojo().equals(1L))
                 .toList();
         when(detalleRepository.findByIdBoletaPojo(1L)).thenReturn(detallesBoleta);
+        when(boletaClient.getBoletaById(1L)).thenReturn(ResponseEntity.ok(boletaPrueba));
+        when(productoClient.getProductosByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearProductos(1L, 2L, 3L, 4L, 5L)));
 
         // When
         List<DetalleResponseDTO> resultado = detalleService.obtenerPorBoleta(1L);
@@ -251,6 +408,27 @@ public class DetalleServiceImplTest {
         assertThat(resultado).isNotNull();
         assertThat(resultado).isNotEmpty();
         assertThat(resultado).allMatch(dto -> dto.getBoleta().getIdBoleta().equals(1L));
+        assertThat(resultado).allMatch(dto -> dto.getBoleta().getDescripcionBoleta().equals("Boleta de prueba"));
+    }
+
+    @Test
+    @DisplayName("Debe obtener las líneas de una boleta con su producto sin consultar msvc-boletas")
+    void debeObtenerLineasPorBoletaSinConsultarBoleta() {
+        // Given
+        List<Detalle> detallesBoleta = detalleList.stream()
+                .filter(d -> d.getIdBoletaPojo().equals(1L))
+                .toList();
+        when(detalleRepository.findByIdBoletaPojo(1L)).thenReturn(detallesBoleta);
+        when(productoClient.getProductosByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearProductos(1L, 2L, 3L, 4L, 5L)));
+
+        // When
+        List<DetalleResponseDTO> resultado = detalleService.obtenerLineasPorBoleta(1L);
+
+        // Then
+        assertThat(resultado).hasSize(detallesBoleta.size());
+        assertThat(resultado).allMatch(dto -> dto.getBoleta() == null && dto.getCamposNoDisponibles() == null);
+        assertThat(resultado).allMatch(dto -> dto.getProducto().getNombreProducto() != null);
+        verifyNoInteractions(boletaClient);
     }
 
     @Test
@@ -267,6 +445,148 @@ public class DetalleServiceImplTest {
         assertThat(resultado).isEmpty();
     }
 
+    @Test
+    @DisplayName("Debe obtener la boleta una sola vez y solo los productos distintos, compartiendo la boleta entre filas")
+    void debeObtenerBoletaUnaVezPorBoleta() {
+        // Given
+        ReflectionTestUtils.setField(detalleService, "dependenciasConcurrentes", true);
+        List<Detalle> detallesBoleta = detalleList.stream()
+                .filter(d -> d.getIdBoletaPojo().equals(1L))
+                .toList();
+        when(detalleRepository.findByIdBoletaPojo(1L)).thenReturn(detallesBoleta);
+        when(boletaClient.getBoletaById(1L)).thenReturn(ResponseEntity.ok(boletaPrueba));
+        when(productoClient.getProductosByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearProductos(1L, 2L, 4L, 5L)));
+
+        // When
+        List<DetalleResponseDTO> resultado = detalleService.obtenerPorBoleta(1L);
+
+        // Then
+        assertThat(resultado).hasSize(4).allMatch(dto -> dto.getCamposNoDisponibles() == null);
+        assertThat(resultado).allSatisfy(dto -> {
+            assertThat(dto.getBoleta()).isSameAs(resultado.get(0).getBoleta());
+            assertThat(dto.getBoleta().getCliente()).isSameAs(resultado.get(0).getBoleta().getCliente());
+        });
+        verify(boletaClient, times(1)).getBoletaById(1L);
+        verify(boletaClient, never()).getBoletasByIds(anyCollection());
+        verify(productoClient, times(1)).getProductosByIds(argThat(ids -> ids.size() == 4));
+        verify(productoClient, never()).getProductoById(anyLong());
+    }
+
+    // ================ TESTS PARA ENRIQUECIMIENTO EN LOTE ================
+
+    @Test
+    @DisplayName("Debe resolver boletas y productos distintos con una sola llamada por servicio al listar una página")
+    void debeResolverBoletasYProductosEnLoteAlListarPagina() {
+        // Given
+        when(detalleRepository.findByIdDetalleGreaterThanOrderByIdDetalleAsc(0L, PRIMERA_PAGINA)).thenReturn(detalleList);
+        when(boletaClient.getBoletasByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearBoletas(1L, 2L, 3L)));
+        when(productoClient.getProductosByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearProductos(1L, 2L, 3L, 4L, 5L)));
+
+        // When
+        List<DetalleResponseDTO> resultado = detalleService.obtenerPagina(null, null).getContenido();
+
+        // Then
+        assertThat(resultado).hasSize(10);
+        assertThat(resultado).allMatch(dto -> dto.getProducto().getNombreProducto() != null);
+        assertThat(resultado).allMatch(dto -> dto.getBoleta().getCliente() != null);
+        verify(boletaClient, times(1)).getBoletasByIds(argThat(ids -> ids.size() == 3));
+        verify(productoClient, times(1)).getProductosByIds(argThat(ids -> ids.size() == 5));
+        verify(boletaClient, never()).getBoletaById(anyLong());
+        verify(productoClient, never()).getProductoById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Una segunda consulta se resuelve desde las cachés locales sin llamadas remotas")
+    void debeResolverSegundaConsultaDesdeCaches() {
+        // Given
+        when(detalleRepository.findByIdDetalleGreaterThanOrderByIdDetalleAsc(0L, PRIMERA_PAGINA)).thenReturn(detalleList);
+        when(boletaClient.getBoletasByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearBoletas(1L, 2L, 3L)));
+        when(productoClient.getProductosByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearProductos(1L, 2L, 3L, 4L, 5L)));
+
+        // When
+        detalleService.obtenerPagina(null, null).getContenido();
+        List<DetalleResponseDTO> resultado = detalleService.obtenerPagina(null, null).getContenido();
+
+        // Then
+        assertThat(resultado).hasSize(10).allMatch(dto -> dto.getCamposNoDisponibles() == null);
+        verify(boletaClient, times(1)).getBoletasByIds(anyCollection());
+        verify(productoClient, times(1)).getProductosByIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Debe degradar el producto que no viene en la respuesta en lote sin omitir el detalle")
+    void debeDegradarProductoAusenteEnLote() {
+        // Given
+        List<Detalle> detallesBoleta = detalleList.stream()
+                .filter(d -> d.getIdBoletaPojo().equals(1L))
+                .toList();
+        when(detalleRepository.findByIdBoletaPojo(1L)).thenReturn(detallesBoleta);
+        when(boletaClient.getBoletaById(1L)).thenReturn(ResponseEntity.ok(boletaPrueba));
+        when(productoClient.getProductosByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearProductos(1L)));
+
+        // When
+        List<DetalleResponseDTO> resultado = detalleService.obtenerPorBoleta(1L);
+
+        // Then
+        assertThat(resultado).hasSameSizeAs(detallesBoleta);
+        assertThat(resultado).allSatisfy(dto -> {
+            if (dto.getProducto().getIdProducto().equals(1L)) {
+                assertThat(dto.getProducto().getNombreProducto()).isNotNull();
+                assertThat(dto.getCamposNoDisponibles()).isNull();
+            } else {
+                assertThat(dto.getProducto().getNombreProducto()).isNull();
+                assertThat(dto.getCamposNoDisponibles()).containsExactly("producto");
+            }
+        });
+        verify(productoClient, times(1)).getProductosByIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Si falla el lote de productos los detalles se entregan con la boleta real y el producto degradado")
+    void debeDegradarProductosCuandoFallaLote() {
+        // Given
+        when(detalleRepository.findByIdDetalleGreaterThanOrderByIdDetalleAsc(0L, PRIMERA_PAGINA)).thenReturn(detalleList);
+        when(boletaClient.getBoletasByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearBoletas(1L, 2L, 3L)));
+        when(productoClient.getProductosByIds(anyCollection())).thenThrow(mock(FeignException.class));
+
+        // When
+        List<DetalleResponseDTO> resultado = detalleService.obtenerPagina(null, null).getContenido();
+
+        // Then
+        assertThat(resultado).hasSize(10);
+        assertThat(resultado).allMatch(dto -> dto.getBoleta().getDescripcionBoleta() != null);
+        assertThat(resultado).allMatch(dto -> dto.getProducto().getNombreProducto() == null);
+        assertThat(resultado).allMatch(dto -> dto.getCamposNoDisponibles().equals(List.of("producto")));
+        // El precio cobrado sigue disponible en el propio detalle
+        assertThat(resultado).allMatch(dto -> dto.getPrecioUnitarioDetalle() != null);
+    }
+
+    @Test
+    @DisplayName("En modo concurrente una boleta lenta degrada solo la boleta al vencer el plazo")
+    void debeDegradarBoletaLentaEnModoConcurrente() {
+        // Given
+        ReflectionTestUtils.setField(detalleService, "dependenciasConcurrentes", true);
+        ReflectionTestUtils.setField(detalleService, "timeoutDependenciasMs", 100L);
+        when(detalleRepository.findByIdDetalleGreaterThanOrderByIdDetalleAsc(0L, PRIMERA_PAGINA)).thenReturn(detalleList);
+        when(boletaClient.getBoletasByIds(anyCollection())).thenAnswer(inv -> {
+            Thread.sleep(2000);
+            return ResponseEntity.ok(crearBoletas(1L, 2L, 3L));
+        });
+        when(productoClient.getProductosByIds(anyCollection())).thenReturn(ResponseEntity.ok(crearProductos(1L, 2L, 3L, 4L, 5L)));
+
+        // When
+        long inicio = System.nanoTime();
+        List<DetalleResponseDTO> resultado = detalleService.obtenerPagina(null, null).getContenido();
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        // Then
+        assertThat(duracionMs).isLessThan(1000);
+        assertThat(resultado).hasSize(10);
+        assertThat(resultado).allMatch(dto -> dto.getBoleta().getIdBoleta() != null && dto.getBoleta().getTotalBoleta() == null);
+        assertThat(resultado).allMatch(dto -> dto.getProducto().getNombreProducto() != null);
+        assertThat(resultado).allMatch(dto -> dto.getCamposNoDisponibles().equals(List.of("boleta")));
+    }
+
     // ================ TESTS PARA OBTENER POR ID ================
 
     @Test
@@ -436,6 +756,7 @@ public class DetalleServiceImplTest {
         // Then
         verify(detalleRepository, times(1)).findById(1L);
         verify(boletaClient, times(1)).actualizarTotalBoleta(eq(1L), any(MontoUpdateRequestDTO.class));
+        verify(detalleResumenService).registrar(1L, -1, -detallePrueba.getCantidadDetalle(), -detallePrueba.getSubtotalDetalle());
         verify(detalleRepository, times(1)).delete(detallePrueba);
     }
 
@@ -454,6 +775,148 @@ public class DetalleServiceImplTest {
         verify(detalleRepository, never()).delete(any(Detalle.class));
     }
 
+    // ================ TESTS PARA CACHE DE PRODUCTOS ================
+
+    @Test
+    @DisplayName("Debe reutilizar el producto cacheado en creaciones sucesivas")
+    void debeReutilizarProductoCacheado() throws Exception {
+        // Given
+        when(boletaClient.getBoletaById(1L)).thenReturn(ResponseEntity.ok(boletaPrueba));
+        when(productoClient.getProductoById(1L)).thenReturn(ResponseEntity.ok(productoPrueba));
+        when(detalleRepository.save(any(Detalle.class))).thenReturn(detallePrueba);
+
+        // When
+        detalleService.crearDetalle(detalleDTOPrueba);
+        detalleService.crearDetalle(detalleDTOPrueba);
+
+        // Then
+        verify(productoClient, times(1)).getProductoById(1L);
+        verify(boletaClient, times(2)).getBoletaById(1L);
+        assertThat(productoCache.estadisticas().getAciertos()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe volver a consultar el producto después de invalidarlo")
+    void debeConsultarProductoDespuesDeInvalidar() throws Exception {
+        // Given
+        when(boletaClient.getBoletaById(1L)).thenReturn(ResponseEntity.ok(boletaPrueba));
+        when(productoClient.getProductoById(1L)).thenReturn(ResponseEntity.ok(productoPrueba));
+        when(detalleRepository.save(any(Detalle.class))).thenReturn(detallePrueba);
+
+        // When
+        detalleService.crearDetalle(detalleDTOPrueba);
+        productoCache.invalidar(1L);
+        detalleService.crearDetalle(detalleDTOPrueba);
+
+        // Then
+        verify(productoClient, times(2)).getProductoById(1L);
+    }
+
+    // ================ TESTS PARA TOTALES DIFERIDOS ================
+
+    @Test
+    @DisplayName("Debe registrar el delta del total en lugar de llamar a boletas cuando los totales son diferidos")
+    void debeRegistrarDeltaCuandoTotalesDiferidos() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(detalleService, "totalesDiferidos", true);
+        when(boletaClient.getBoletaById(1L)).thenReturn(ResponseEntity.ok(boletaPrueba));
+        when(productoClient.getProductoById(1L)).thenReturn(ResponseEntity.ok(productoPrueba));
+        when(detalleRepository.save(any(Detalle.class))).thenReturn(detallePrueba);
+
+        // When
+        detalleService.crearDetalle(detalleDTOPrueba);
+
+        // Then
+        verify(totalBoletaWriteBehind, times(1)).registrarDelta(1L, 200.0);
+        verify(boletaClient, never()).actualizarTotalBoleta(anyLong(), any(MontoUpdateRequestDTO.class));
+    }
+
+    @Test
+    @DisplayName("Debe registrar delta negativo al eliminar con totales diferidos")
+    void debeRegistrarDeltaNegativoAlEliminarConTotalesDiferidos() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(detalleService, "totalesDiferidos", true);
+        when(detalleRepository.findById(1L)).thenReturn(Optional.of(detallePrueba));
+
+        // When
+        detalleService.eliminarDetalle(1L);
+
+        // Then
+        verify(totalBoletaWriteBehind, times(1)).registrarDelta(1L, -200.0);
+        verify(detalleRepository, times(1)).delete(detallePrueba);
+        verifyNoInteractions(boletaClient);
+    }
+
+    // ================ TESTS PARA MODO CONCURRENTE ================
+
+    @Test
+    @DisplayName("Debe crear detalle pidiendo boleta y producto en paralelo")
+    void debeCrearDetalleEnModoConcurrente() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(detalleService, "dependenciasConcurrentes", true);
+        // Cada llamada responde solo cuando la otra ya empezó: si se hicieran en secuencia, ninguna respondería
+        CountDownLatch ambasEnCurso = new CountDownLatch(2);
+        when(boletaClient.getBoletaById(1L)).thenAnswer(invocation -> {
+            esperarLlamadaParalela(ambasEnCurso);
+            return ResponseEntity.ok(boletaPrueba);
+        });
+        when(productoClient.getProductoById(1L)).thenAnswer(invocation -> {
+            esperarLlamadaParalela(ambasEnCurso);
+            return ResponseEntity.ok(productoPrueba);
+        });
+        when(detalleRepository.save(any(Detalle.class))).thenReturn(detallePrueba);
+
+        // When
+        DetalleResponseDTO resultado = detalleService.crearDetalle(detalleDTOPrueba);
+
+        // Then
+        assertThat(resultado.getSubtotalDetalle()).isEqualTo(200.0);
+        verify(boletaClient, times(1)).getBoletaById(1L);
+        verify(productoClient, times(1)).getProductoById(1L);
+    }
+
+    @Test
+    @DisplayName("Debe mantener el mapeo 404 a ResourceNotFoundException en modo concurrente")
+    void debeMantenerMapeo404EnModoConcurrente() {
+        // Given
+        ReflectionTestUtils.setField(detalleService, "dependenciasConcurrentes", true);
+        FeignException feignException = FeignException.errorStatus("getProductoById",
+                feign.Response.builder()
+                        .status(404)
+                        .reason("Not Found")
+                        .request(feign.Request.create(feign.Request.HttpMethod.GET, "test", new java.util.HashMap<>(), null, null, null))
+                        .headers(new java.util.HashMap<>())
+                        .body(new byte[0])
+                        .build());
+        when(productoClient.getProductoById(1L)).thenThrow(feignException);
+        when(boletaClient.getBoletaById(1L)).thenReturn(ResponseEntity.ok(boletaPrueba));
+
+        // When & Then
+        assertThatThrownBy(() -> detalleService.crearDetalle(detalleDTOPrueba))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Producto no encontrado con ID: 1");
+        verify(detalleRepository, never()).save(any(Detalle.class));
+    }
+
+    @Test
+    @DisplayName("Debe lanzar DetalleException cuando una dependencia supera el plazo en modo concurrente")
+    void debeLanzarDetalleExceptionCuandoSeSuperaPlazo() {
+        // Given
+        ReflectionTestUtils.setField(detalleService, "dependenciasConcurrentes", true);
+        ReflectionTestUtils.setField(detalleService, "timeoutDependenciasMs", 100L);
+        when(boletaClient.getBoletaById(1L)).thenReturn(ResponseEntity.ok(boletaPrueba));
+        when(productoClient.getProductoById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return ResponseEntity.ok(productoPrueba);
+        });
+
+        // When & Then
+        assertThatThrownBy(() -> detalleService.crearDetalle(detalleDTOPrueba))
+                .isInstanceOf(DetalleException.class)
+                .hasMessageContaining("Tiempo de espera agotado al comunicar con servicio de productos");
+        verify(detalleRepository, never()).save(any(Detalle.class));
+    }
+
     // ================ TESTS DE CASOS LÍMITE Y EXCEPCIONES ================
 
     @Test
@@ -634,4 +1097,30 @@ public class DetalleServiceImplTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Respuesta nula o producto sin ID");
     }
-}
\ No newline at end of file
+
+    // Crea boletas de prueba (con cliente) con los IDs indicados
+    private List<BoletaPojo> crearBoletas(Long... ids) {
+        List<BoletaPojo> boletas = new ArrayList<>();
+        for (Long id : ids) {
+            boletas.add(new BoletaPojo(id, LocalDate.now(), 1000.0, "Boleta " + id, clientePrueba));
+        }
+        return boletas;
+    }
+
+    // Crea productos de prueba con los IDs indicados
+    private List<ProductoPojo> crearProductos(Long... ids) {
+        List<ProductoPojo> productos = new ArrayList<>();
+        for (Long id : ids) {
+            productos.add(new ProductoPojo(id, faker.commerce().productName(), faker.lorem().sentence(), 100.0));
+        }
+        return productos;
+    }
+
+    // Marca la llamada como en curso y espera a la otra; falla si no llega a tiempo
+    private static void esperarLlamadaParalela(CountDownLatch ambasEnCurso) throws InterruptedException {
+        ambasEnCurso.countDown();
+        if (!ambasEnCurso.await(1, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("La boleta y el producto no se pidieron en paralelo");
+        }
+    }
+}
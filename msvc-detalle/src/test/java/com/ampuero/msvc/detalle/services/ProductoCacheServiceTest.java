@@ -0,0 +1,165 @@
+package com.ampuero.msvc.detalle.services;
+
+import com.ampuero.msvc.detalle.dtos.CacheStatsDTO;
+import com.ampuero.msvc.detalle.exceptions.ResourceNotFoundException;
+import com.ampuero.msvc.detalle.models.ProductoPojo;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas unitarias para ProductoCacheService.
+ *
+ * Cubren la carga de vuelo único, la expiración por TTL, el desalojo por tamaño,
+ * la invalidación explícita y los contadores expuestos.
+ */
+public class ProductoCacheServiceTest {
+
+    private final AtomicLong relojNanos = new AtomicLong();
+    private final Ticker ticker = relojNanos::get;
+
+    private ProductoCacheService productoCache;
+
+    @BeforeEach
+    void setUp() {
+        productoCache = new ProductoCacheService(100, Duration.ofSeconds(60), ticker);
+    }
+
+    @Test
+    @DisplayName("Debe cargar una sola vez un producto pedido concurrentemente")
+    void debeCargarUnaSolaVezConLecturasConcurrentes() throws Exception {
+        // Given
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<ProductoPojo>> resultados = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            resultados.add(executor.submit(() -> {
+                inicio.await();
+                return productoCache.obtener(1L, id -> {
+                    cargas.incrementAndGet();
+                    dormir(100);
+                    return crearProducto(id);
+                });
+            }));
+        }
+        inicio.countDown();
+        for (Future<ProductoPojo> resultado : resultados) {
+            assertThat(resultado.get(5, TimeUnit.SECONDS).getIdProducto()).isEqualTo(1L);
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(cargas.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe volver a cargar el producto cuando expira el TTL")
+    void debeRecargarCuandoExpiraTtl() {
+        // Given
+        AtomicInteger cargas = new AtomicInteger();
+        productoCache.obtener(1L, id -> { cargas.incrementAndGet(); return crearProducto(id); });
+
+        // When
+        relojNanos.addAndGet(Duration.ofSeconds(61).toNanos());
+        productoCache.obtener(1L, id -> { cargas.incrementAndGet(); return crearProducto(id); });
+
+        // Then
+        assertThat(cargas.get()).isEqualTo(2);
+        assertThat(productoCache.estadisticas().getDesalojos()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe desalojar entradas cuando se supera el tamaño máximo")
+    void debeDesalojarPorTamanio() {
+        // Given
+        ProductoCacheService cachePequenia = new ProductoCacheService(10, Duration.ofSeconds(60), ticker);
+
+        // When
+        for (long id = 1; id <= 50; id++) {
+            cachePequenia.obtener(id, this::crearProducto);
+        }
+        CacheStatsDTO stats = cachePequenia.estadisticas();
+
+        // Then
+        assertThat(stats.getTamanio()).isLessThanOrEqualTo(10);
+        assertThat(stats.getDesalojos()).isGreaterThanOrEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("No debe cachear el producto cuando el cargador lanza excepción")
+    void noDebeCachearErrores() {
+        // When & Then
+        assertThatThrownBy(() -> productoCache.obtener(1L, id -> {
+            throw new ResourceNotFoundException("Producto no encontrado con ID: " + id);
+        })).isInstanceOf(ResourceNotFoundException.class);
+
+        ProductoPojo producto = productoCache.obtener(1L, this::crearProducto);
+        assertThat(producto.getIdProducto()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Debe cargar en lote solo los productos que no están en caché")
+    void debeCargarEnLoteSoloFaltantes() {
+        // Given
+        productoCache.obtener(1L, this::crearProducto);
+        List<Set<? extends Long>> lotesPedidos = new ArrayList<>();
+
+        // When
+        Map<Long, ProductoPojo> productos = productoCache.obtenerVarios(List.of(1L, 2L, 3L), ids -> {
+            lotesPedidos.add(Set.copyOf(ids));
+            Map<Long, ProductoPojo> encontrados = new HashMap<>();
+            encontrados.put(2L, crearProducto(2L)); // El 3 no existe en el servicio remoto
+            return encontrados;
+        });
+
+        // Then
+        assertThat(productos).containsOnlyKeys(1L, 2L);
+        assertThat(lotesPedidos).containsExactly(Set.of(2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Debe contar aciertos, fallos e invalidaciones")
+    void debeContarAciertosFallosEInvalidaciones() {
+        // When
+        productoCache.obtener(1L, this::crearProducto);
+        productoCache.obtener(1L, this::crearProducto);
+        productoCache.obtener(1L, this::crearProducto);
+        productoCache.invalidar(1L);
+        productoCache.obtener(1L, this::crearProducto);
+        CacheStatsDTO stats = productoCache.estadisticas();
+
+        // Then
+        assertThat(stats.getAciertos()).isEqualTo(2);
+        assertThat(stats.getFallos()).isEqualTo(2);
+        assertThat(stats.getInvalidaciones()).isEqualTo(1);
+        assertThat(stats.getTamanio()).isEqualTo(1);
+        assertThat(stats.getTasaAciertos()).isEqualTo(0.5);
+    }
+
+    // ================ MÉTODOS AUXILIARES ================
+
+    private ProductoPojo crearProducto(Long id) {
+        return new ProductoPojo(id, "Producto " + id, "Descripción " + id, 100.0 * id);
+    }
+
+    private void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
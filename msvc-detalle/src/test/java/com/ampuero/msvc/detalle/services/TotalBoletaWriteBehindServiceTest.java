@@ -0,0 +1,211 @@
+package com.ampuero.msvc.detalle.services;
+
+import com.ampuero.msvc.detalle.clients.BoletaClient;
+import com.ampuero.msvc.detalle.dtos.MontoUpdateRequestDTO;
+import com.ampuero.msvc.detalle.exceptions.DetalleException;
+import com.ampuero.msvc.detalle.models.entities.DeltaTotalPendiente;
+import com.ampuero.msvc.detalle.repositories.DeltaTotalPendienteRepository;
+import feign.FeignException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para TotalBoletaWriteBehindService.
+ *
+ * Cubren el agrupamiento de deltas por boleta, el reintento cuando msvc-boletas falla (con la
+ * misma clave de idempotencia), el descarte de deltas de boletas inexistentes y la contrapresión
+ * cuando la cola está llena.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TotalBoletaWriteBehindServiceTest {
+
+    @Mock
+    private DeltaTotalPendienteRepository deltaRepository;
+
+    @Mock
+    private BoletaClient boletaClient;
+
+    private TotalBoletaWriteBehindService writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        writeBehind = new TotalBoletaWriteBehindService(deltaRepository, boletaClient, 1000, 1000, 3);
+    }
+
+    @Test
+    @DisplayName("Debe enviar un solo PUT por boleta con la suma de sus deltas")
+    void debeAgruparDeltasPorBoleta() {
+        // Given
+        when(deltaRepository.findAllByOrderByIdDeltaAsc(any(Pageable.class))).thenReturn(List.of(
+                crearDelta(1L, 1L, 100.0),
+                crearDelta(2L, 2L, 50.0),
+                crearDelta(3L, 1L, 25.5),
+                crearDelta(4L, 1L, -10.0)
+        ));
+
+        // When
+        int boletasActualizadas = writeBehind.flush();
+
+        // Then
+        assertThat(boletasActualizadas).isEqualTo(2);
+        ArgumentCaptor<MontoUpdateRequestDTO> montoCaptor = ArgumentCaptor.forClass(MontoUpdateRequestDTO.class);
+        verify(boletaClient).actualizarTotalBoleta(eq(1L), montoCaptor.capture());
+        assertThat(montoCaptor.getValue().getMonto()).isEqualTo(115.5);
+        String claveBoleta1 = montoCaptor.getValue().getClaveIdempotencia();
+        verify(boletaClient).actualizarTotalBoleta(eq(2L), montoCaptor.capture());
+        assertThat(montoCaptor.getValue().getMonto()).isEqualTo(50.0);
+        String claveBoleta2 = montoCaptor.getValue().getClaveIdempotencia();
+        assertThat(claveBoleta1).isNotEqualTo(claveBoleta2);
+        verify(deltaRepository).asignarClaveIdempotencia(claveBoleta1, List.of(1L, 3L, 4L));
+        verify(deltaRepository).asignarClaveIdempotencia(claveBoleta2, List.of(2L));
+        verify(deltaRepository).deleteAllByIdInBatch(List.of(1L, 3L, 4L));
+        verify(deltaRepository).deleteAllByIdInBatch(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("Debe conservar los deltas de una boleta cuando falla el PUT")
+    void debeConservarDeltasCuandoFallaBoletas() {
+        // Given
+        FeignException error = mock(FeignException.class);
+        when(error.status()).thenReturn(503);
+        when(deltaRepository.findAllByOrderByIdDeltaAsc(any(Pageable.class))).thenReturn(List.of(
+                crearDelta(1L, 1L, 100.0),
+                crearDelta(2L, 2L, 50.0)
+        ));
+        doThrow(error).when(boletaClient).actualizarTotalBoleta(eq(1L), any(MontoUpdateRequestDTO.class));
+
+        // When
+        int boletasActualizadas = writeBehind.flush();
+
+        // Then
+        assertThat(boletasActualizadas).isEqualTo(1);
+        verify(deltaRepository, never()).deleteAllByIdInBatch(List.of(1L));
+        verify(deltaRepository).deleteAllByIdInBatch(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("Debe repetir el mismo envío con la misma clave cuando el PUT falla después de aplicarse")
+    void debeRepetirEnvioConMismaClaveCuandoSePierdeLaRespuesta() {
+        // Given: msvc-boletas aplica cada clave una sola vez, y la respuesta del primer PUT se pierde
+        Map<String, Double> aplicadosPorClave = new LinkedHashMap<>();
+        AtomicInteger llamadas = new AtomicInteger();
+        FeignException timeout = mock(FeignException.class);
+        when(timeout.status()).thenReturn(-1);
+        doAnswer(invocacion -> {
+            MontoUpdateRequestDTO monto = invocacion.getArgument(1);
+            aplicadosPorClave.putIfAbsent(monto.getClaveIdempotencia(), monto.getMonto());
+            if (llamadas.incrementAndGet() == 1) {
+                throw timeout;
+            }
+            return null;
+        }).when(boletaClient).actualizarTotalBoleta(eq(1L), any(MontoUpdateRequestDTO.class));
+        DeltaTotalPendiente primero = crearDelta(1L, 1L, 100.0);
+        DeltaTotalPendiente segundo = crearDelta(2L, 1L, 50.0);
+        doAnswer(invocacion -> {
+            primero.setClaveIdempotencia(invocacion.getArgument(0));
+            segundo.setClaveIdempotencia(invocacion.getArgument(0));
+            return 2;
+        }).when(deltaRepository).asignarClaveIdempotencia(anyString(), eq(List.of(1L, 2L)));
+        when(deltaRepository.findByClaveIdempotencia(anyString())).thenAnswer(invocacion ->
+                invocacion.getArgument(0).equals(primero.getClaveIdempotencia()) ? List.of(primero, segundo) : List.of());
+        // Entre un vaciado y otro llega un delta nuevo de la misma boleta
+        when(deltaRepository.findAllByOrderByIdDeltaAsc(any(Pageable.class)))
+                .thenReturn(List.of(primero, segundo))
+                .thenReturn(List.of(primero, segundo, crearDelta(5L, 1L, 10.0)));
+
+        // When
+        int primerVaciado = writeBehind.flush();
+        int segundoVaciado = writeBehind.flush();
+
+        // Then: el reenvío lleva los mismos deltas y la misma clave, y el delta nuevo va en otro envío
+        assertThat(primerVaciado).isZero();
+        assertThat(segundoVaciado).isEqualTo(2);
+        String clave = primero.getClaveIdempotencia();
+        verify(boletaClient, times(2)).actualizarTotalBoleta(eq(1L), argThat(m -> clave.equals(m.getClaveIdempotencia()) && m.getMonto() == 150.0));
+        assertThat(aplicadosPorClave).hasSize(2).containsEntry(clave, 150.0).containsValue(10.0);
+        verify(deltaRepository, times(1)).asignarClaveIdempotencia(clave, List.of(1L, 2L));
+        verify(deltaRepository).asignarClaveIdempotencia(argThat(otra -> !clave.equals(otra)), eq(List.of(5L)));
+        verify(deltaRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(deltaRepository).deleteAllByIdInBatch(List.of(5L));
+    }
+
+    @Test
+    @DisplayName("Debe usar claves distintas aunque los IDs de los deltas se repitan tras un reinicio")
+    void debeUsarClavesDistintasTrasReinicio() {
+        // Given: la secuencia de deltas vuelve a empezar, otra ejecución registra los mismos IDs
+        when(deltaRepository.findAllByOrderByIdDeltaAsc(any(Pageable.class))).thenReturn(List.of(crearDelta(1L, 1L, 100.0)));
+        TotalBoletaWriteBehindService reiniciado = new TotalBoletaWriteBehindService(deltaRepository, boletaClient, 1000, 1000, 3);
+
+        // When
+        writeBehind.flush();
+        reiniciado.flush();
+
+        // Then: msvc-boletas recibe dos claves distintas y aplica ambos montos
+        ArgumentCaptor<MontoUpdateRequestDTO> montoCaptor = ArgumentCaptor.forClass(MontoUpdateRequestDTO.class);
+        verify(boletaClient, times(2)).actualizarTotalBoleta(eq(1L), montoCaptor.capture());
+        assertThat(montoCaptor.getAllValues()).extracting(MontoUpdateRequestDTO::getClaveIdempotencia)
+                .doesNotHaveDuplicates()
+                .allSatisfy(clave -> assertThat(UUID.fromString(clave)).isNotNull());
+    }
+
+    @Test
+    @DisplayName("Debe descartar los deltas de una boleta inexistente")
+    void debeDescartarDeltasDeBoletaInexistente() {
+        // Given
+        FeignException error = mock(FeignException.class);
+        when(error.status()).thenReturn(404);
+        when(deltaRepository.findAllByOrderByIdDeltaAsc(any(Pageable.class))).thenReturn(List.of(crearDelta(1L, 99L, 10.0)));
+        doThrow(error).when(boletaClient).actualizarTotalBoleta(eq(99L), any(MontoUpdateRequestDTO.class));
+
+        // When
+        writeBehind.flush();
+
+        // Then
+        verify(deltaRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Debe persistir el delta y contarlo como pendiente al registrarlo")
+    void debePersistirDeltaAlRegistrar() {
+        // When
+        writeBehind.registrarDelta(1L, 200.0);
+
+        // Then
+        verify(deltaRepository).save(argThat(d -> d.getIdBoleta().equals(1L) && d.getMonto() == 200.0));
+        assertThat(writeBehind.getPendientes()).isEqualTo(1);
+        verifyNoInteractions(boletaClient);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar nuevos deltas sin esperar cuando la cola está llena")
+    void debeAplicarContrapresionCuandoColaLlena() {
+        // Given: la cola llega a su capacidad (3)
+        writeBehind.registrarDelta(1L, 1.0);
+        writeBehind.registrarDelta(1L, 1.0);
+        writeBehind.registrarDelta(1L, 1.0);
+
+        // When & Then
+        assertThatThrownBy(() -> writeBehind.registrarDelta(1L, 1.0))
+                .isInstanceOf(DetalleException.class)
+                .hasMessageContaining("Cola de actualizaciones de totales llena");
+        verify(deltaRepository, times(3)).save(any(DeltaTotalPendiente.class));
+    }
+
+    private DeltaTotalPendiente crearDelta(Long idDelta, Long idBoleta, Double monto) {
+        return new DeltaTotalPendiente(idDelta, idBoleta, monto, LocalDateTime.now(), null);
+    }
+}
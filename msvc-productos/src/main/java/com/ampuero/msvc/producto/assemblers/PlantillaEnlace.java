@@ -0,0 +1,154 @@
+package com.ampuero.msvc.producto.assemblers;
+
+/**
+ * PlantillaEnlace.java
+ *
+ * Descripción:
+ * Enlace HATEOAS a un método de ProductoControllerV2 (u otro controlador) que se resuelve una
+ * sola vez al crear la plantilla, en lugar de pasar por linkTo(methodOn(...)) en cada enlace de
+ * cada producto (proxy CGLIB + recorrido de anotaciones por reflexión).
+ *
+ * Funcionalidades:
+ * - Resolución del método del controlador y de sus @PathVariable al construirse.
+ * - Href armado una vez por petición con linkTo sobre ese método y valores de relleno, guardado
+ *   en tramos fijos: la base y la ruta son exactamente las que entregaría linkTo.
+ * - Por producto solo se intercalan los IDs entre los tramos.
+ *
+ * Autor: Alex Ignacio Ampuero Ahumada
+ * Fecha de creación: [18-10-26]
+ * Última modificación: [18-10-26]
+ */
+
+import org.springframework.core.MethodParameter;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+public final class PlantillaEnlace {
+
+    // Valor de relleno para las variables de la ruta: no puede aparecer en un href real
+    private static final long CENTINELA = Long.MIN_VALUE;
+
+    private final Class<?> controlador;
+    private final Method metodo;
+    // Índices de los parámetros @PathVariable del método, en orden de declaración
+    private final int[] variables;
+    private final String atributoTramos;
+
+    private PlantillaEnlace(Class<?> controlador, Method metodo, int[] variables) {
+        this.controlador = controlador;
+        this.metodo = metodo;
+        this.variables = variables;
+        this.atributoTramos = PlantillaEnlace.class.getName() + "." + metodo;
+    }
+
+    /**
+     * Resuelve el método de controlador al que apunta el enlace.
+     *
+     * @param controlador Clase del controlador.
+     * @param metodo      Nombre del método.
+     * @param parametros  Tipos de sus parámetros.
+     * @return Plantilla lista para expandir.
+     */
+    public static PlantillaEnlace de(Class<?> controlador, String metodo, Class<?>... parametros) {
+        Method handler = ReflectionUtils.findMethod(controlador, metodo, parametros);
+        if (handler == null) {
+            throw new IllegalStateException("No existe el método " + metodo + " en " + controlador.getName());
+        }
+        List<Integer> variables = new ArrayList<>();
+        for (int i = 0; i < handler.getParameterCount(); i++) {
+            MethodParameter parametro = new MethodParameter(handler, i);
+            if (parametro.hasParameterAnnotation(PathVariable.class)) {
+                if (parametro.getParameterType() != Long.class) {
+                    throw new IllegalStateException("Solo se admiten IDs Long en la ruta de " + controlador.getName() + "." + metodo);
+                }
+                variables.add(i);
+            }
+        }
+        return new PlantillaEnlace(controlador, handler, variables.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Crea el enlace reemplazando las variables de la ruta por los IDs indicados,
+     * en el orden en que el método declara sus @PathVariable.
+     */
+    public Link expandir(LinkRelation relacion, Long... ids) {
+        return Link.of(href(ids), relacion);
+    }
+
+    public Link expandir(String relacion, Long... ids) {
+        return Link.of(href(ids), relacion);
+    }
+
+    private String href(Long[] ids) {
+        if (ids.length != variables.length) {
+            throw new IllegalArgumentException("Se esperaban " + variables.length + " IDs para " + metodo.getName());
+        }
+        String[] tramos = tramos();
+        StringBuilder href = new StringBuilder(tramos[0]);
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == null) {
+                // Sin ID no hay ruta que precalcular: se deja el enlace tal como lo arma linkTo
+                return linkTo(controlador, metodo, argumentos(ids)).withSelfRel().getHref();
+            }
+            href.append(ids[i].longValue()).append(tramos[i + 1]);
+        }
+        return href.toString();
+    }
+
+    // El href depende de la petición (host, puerto, contexto, cabeceras X-Forwarded-*): se arma una vez por
+    // petición con linkTo sobre el método ya resuelto y se corta en los valores de relleno
+    private String[] tramos() {
+        RequestAttributes peticion = RequestContextHolder.getRequestAttributes();
+        if (peticion == null) {
+            return resolverTramos();
+        }
+        String[] tramos = (String[]) peticion.getAttribute(atributoTramos, RequestAttributes.SCOPE_REQUEST);
+        if (tramos == null) {
+            tramos = resolverTramos();
+            peticion.setAttribute(atributoTramos, tramos, RequestAttributes.SCOPE_REQUEST);
+        }
+        return tramos;
+    }
+
+    private String[] resolverTramos() {
+        Long[] centinelas = new Long[variables.length];
+        for (int i = 0; i < centinelas.length; i++) {
+            centinelas[i] = CENTINELA + i;
+        }
+        // expand() quita los parámetros de consulta opcionales, que en estos enlaces siempre van vacíos
+        String href = linkTo(controlador, metodo, argumentos(centinelas)).withSelfRel().expand().getHref();
+
+        String[] tramos = new String[variables.length + 1];
+        int desde = 0;
+        for (int i = 0; i < centinelas.length; i++) {
+            String centinela = String.valueOf(centinelas[i]);
+            int posicion = href.indexOf(centinela, desde);
+            if (posicion < 0) {
+                throw new IllegalStateException("La ruta de " + metodo.getName() + " no usa sus variables en orden: " + href);
+            }
+            tramos[i] = href.substring(desde, posicion);
+            desde = posicion + centinela.length();
+        }
+        tramos[variables.length] = href.substring(desde);
+        return tramos;
+    }
+
+    // Argumentos del método: los IDs en sus @PathVariable y null en el resto (cuerpo, filtros opcionales)
+    private Object[] argumentos(Long[] ids) {
+        Object[] argumentos = new Object[metodo.getParameterCount()];
+        for (int i = 0; i < variables.length; i++) {
+            argumentos[variables[i]] = ids[i];
+        }
+        return argumentos;
+    }
+}
@@ -30,28 +30,34 @@ package com.ampuero.msvc.producto.assemblers;
 
 import com.ampuero.msvc.producto.controllers.ProductoControllerV2;
 import com.ampuero.msvc.producto.dtos.ProductoResponseDTO;
+import com.ampuero.msvc.producto.models.Producto;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @Component
 public class ProductoResponseDTOModelAssembler implements RepresentationModelAssembler<ProductoResponseDTO, EntityModel<ProductoResponseDTO>> {
 
+    // Rutas de ProductoControllerV2 resueltas una sola vez (ver PlantillaEnlace)
+    private static final PlantillaEnlace PRODUCTO = PlantillaEnlace.de(ProductoControllerV2.class, "traerPorId", Long.class);
+    private static final PlantillaEnlace PRODUCTOS = PlantillaEnlace.de(ProductoControllerV2.class, "traerTodos");
+    private static final PlantillaEnlace ACTUALIZAR = PlantillaEnlace.de(ProductoControllerV2.class, "actualizarProducto", Long.class, Producto.class);
+    private static final PlantillaEnlace ELIMINAR = PlantillaEnlace.de(ProductoControllerV2.class, "eliminarProducto", Long.class);
+
     @Override
     public EntityModel<ProductoResponseDTO> toModel(ProductoResponseDTO entity) {
         EntityModel<ProductoResponseDTO> model = EntityModel.of(
                 entity,
                 // 1. Self - GET al producto específico
-                linkTo(methodOn(ProductoControllerV2.class).traerPorId(entity.getIdProducto())).withSelfRel(),
+                PRODUCTO.expandir(IanaLinkRelations.SELF, entity.getIdProducto()),
                 
                 // 2. Productos - GET a la colección de productos
-                linkTo(methodOn(ProductoControllerV2.class).traerTodos()).withRel("productos"),
+                PRODUCTOS.expandir("productos"),
                 
                 // 3. Update - PUT para actualizar el producto
-                linkTo(methodOn(ProductoControllerV2.class).actualizarProducto(entity.getIdProducto(), null)).withRel("update"),
+                ACTUALIZAR.expandir("update", entity.getIdProducto()),
                 
                 // 4. Detalles - GET a detalles que incluyen este producto (microservicio detalle)
                 Link.of("http://localhost:8083/api/v2/detalles/producto/" + entity.getIdProducto()).withRel("detalles-producto"),
@@ -63,7 +69,7 @@ public class ProductoResponseDTOModelAssembler implements RepresentationModelAss
         // Enlaces condicionales basados en el estado del producto
         if (entity.getActivo() != null && entity.getActivo()) {
             // 6. Delete - Solo disponible si el producto está activo
-            model.add(linkTo(methodOn(ProductoControllerV2.class).eliminarProducto(entity.getIdProducto())).withRel("delete"));
+            model.add(ELIMINAR.expandir("delete", entity.getIdProducto()));
             
             // 7. Comprar - Enlace conceptual a un proceso de compra
             model.add(Link.of("http://localhost:8084/api/v1/compras/producto/" + entity.getIdProducto()).withRel("comprar"));
@@ -1,8 +1,18 @@
 package com.ampuero.msvc.producto.clients;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 
 @FeignClient(name = "msvc-detalles", url = "http://localhost:8083")
 public interface DetalleClient {
 
-}
\ No newline at end of file
+    /**
+     * Invalida un producto en la caché local de msvc-detalle, para que la siguiente
+     * lectura obtenga los datos actualizados (por ejemplo, un nuevo precio).
+     *
+     * @param idProducto ID del producto modificado.
+     */
+    @DeleteMapping("/api/v1/detalles/cache/productos/{idProducto}")
+    void invalidarProductoEnCache(@PathVariable("idProducto") Long idProducto);
+}
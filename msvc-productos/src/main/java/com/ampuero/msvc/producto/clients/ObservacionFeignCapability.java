@@ -0,0 +1,90 @@
+package com.ampuero.msvc.producto.clients;
+
+import feign.Capability;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+import feign.micrometer.DefaultFeignObservationConvention;
+import feign.micrometer.FeignContext;
+import feign.micrometer.FeignObservationDocumentation;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Capability de Feign que mide cada petición HTTP como observación de Micrometer
+ * (timer http.client.requests) con los tags de feign-micrometer más "metodo" (p. ej. getBoletaById).
+ *
+ * Reemplaza a MicrometerObservationCapability, que solo cierra la observación ante FeignException:
+ * con una IOException (conexión rechazada, timeout de lectura) la dejaba abierta y el salto fallido
+ * nunca llegaba al timer. Va primero entre las Capability, junto al transporte, para medir cada
+ * intento por separado. Con las trazas activas, cada intento es además un span de cliente cuyo
+ * contexto (W3C traceparent) viaja en la petición. Debe ser una clase pública: Feign invoca
+ * enrich(Client) por reflexión.
+ */
+public class ObservacionFeignCapability implements Capability, Ordered {
+
+    public static final String TAG_METODO = "metodo";
+
+    private static final ConvencionMetodoFeign CONVENCION = new ConvencionMetodoFeign();
+
+    private final ObservationRegistry observationRegistry;
+
+    public ObservacionFeignCapability(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            // La propagación de la traza escribe traceparent y el baggage en las cabeceras de la petición:
+            // se escriben en una copia, así cada intento lleva las de su propio span
+            Request intento = copiarConCabecerasPropias(request);
+            FeignContext contexto = new FeignContext(intento);
+            Observation observacion = FeignObservationDocumentation.DEFAULT
+                    .observation(CONVENCION, DefaultFeignObservationConvention.INSTANCE, () -> contexto, observationRegistry)
+                    .start();
+            try (Observation.Scope ignored = observacion.openScope()) {
+                Response respuesta = client.execute(intento, options);
+                contexto.setResponse(respuesta);
+                return respuesta;
+            } catch (IOException | RuntimeException | Error e) {
+                observacion.error(e);
+                throw e;
+            } finally {
+                observacion.stop();
+            }
+        };
+    }
+
+    private static Request copiarConCabecerasPropias(Request request) {
+        Map<String, Collection<String>> cabeceras = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        request.headers().forEach((nombre, valores) -> cabeceras.put(nombre, new ArrayList<>(valores)));
+        return Request.create(request.httpMethod(), request.url(), cabeceras, request.body(), request.charset(),
+                request.requestTemplate());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    static class ConvencionMetodoFeign extends DefaultFeignObservationConvention {
+
+        @Override
+        public KeyValues getLowCardinalityKeyValues(FeignContext context) {
+            MethodMetadata metadata = context.getCarrier().requestTemplate().methodMetadata();
+            String metodo = metadata != null ? metadata.method().getName() : "desconocido";
+            return super.getLowCardinalityKeyValues(context).and(KeyValue.of(TAG_METODO, metodo));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ampuero.msvc.producto.config;
+
+import io.micrometer.tracing.BaggageInScope;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * Pone los ids de la ruta (p. ej. /api/v1/productos/{id}) como baggage de la traza mientras se
+ * atiende la petición.
+ *
+ * El span de servidor recibe el atributo al abrir el baggage; los spans que se inician dentro
+ * (JDBC, Feign) lo reciben de BaggageTaggingSpanProcessor, y los servicios llamados lo reciben
+ * junto con traceparent. Los scopes se cierran en afterCompletion, en orden inverso.
+ */
+public class AtributosTrazaInterceptor implements HandlerInterceptor {
+
+    private static final String SCOPES = AtributosTrazaInterceptor.class.getName() + ".scopes";
+
+    private final Tracer tracer;
+    // Variable de la ruta -> nombre del atributo (y del campo de baggage)
+    private final Map<String, String> atributosPorVariable;
+
+    public AtributosTrazaInterceptor(Tracer tracer, Map<String, String> atributosPorVariable) {
+        this.tracer = tracer;
+        this.atributosPorVariable = atributosPorVariable;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables != null) {
+            variables.forEach((variable, valor) -> {
+                String atributo = atributosPorVariable.get(variable);
+                if (atributo != null) {
+                    agregar(request, atributo, valor);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Agrega un id a la traza de la petición en curso (también para ids que llegan en el cuerpo).
+     */
+    public void agregar(HttpServletRequest request, String atributo, Object valor) {
+        if (valor == null) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Deque<BaggageInScope> scopes = (Deque<BaggageInScope>) request.getAttribute(SCOPES);
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            request.setAttribute(SCOPES, scopes);
+        }
+        scopes.push(tracer.createBaggageInScope(atributo, String.valueOf(valor)));
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        @SuppressWarnings("unchecked")
+        Deque<BaggageInScope> scopes = (Deque<BaggageInScope>) request.getAttribute(SCOPES);
+        if (scopes == null) {
+            return;
+        }
+        while (!scopes.isEmpty()) {
+            scopes.pop().close();
+        }
+        request.removeAttribute(SCOPES);
+    }
+}
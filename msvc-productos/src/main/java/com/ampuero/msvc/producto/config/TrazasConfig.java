@@ -0,0 +1,48 @@
+package com.ampuero.msvc.producto.config;
+
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.BaggageTaggingSpanProcessor;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trazas distribuidas (Micrometer Tracing sobre OpenTelemetry, exportadas por OTLP a
+ * management.otlp.tracing.endpoint).
+ *
+ * Spring Boot crea los spans de servidor de los controladores, ObservacionFeignCapability los de
+ * cliente Feign (y escribe traceparent y el baggage en la petición) y datasource-micrometer los de JDBC.
+ * Los ids de la ruta van como baggage (AtributosTrazaInterceptor) y los campos de
+ * management.tracing.baggage.tag-fields se copian como atributo a cada span que se inicia con ellos.
+ */
+@Configuration
+public class TrazasConfig implements WebMvcConfigurer {
+
+    // En las rutas de msvc-productos {id} es el id del producto
+    private static final Map<String, String> ATRIBUTOS_RUTA = Map.of(
+            "id", "idProducto",
+            "idProducto", "idProducto");
+
+    private final Tracer tracer;
+
+    public TrazasConfig(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    // static: el SpanProcessor se necesita para crear el Tracer que recibe esta configuración
+    @Bean
+    public static SpanProcessor atributosDesdeBaggage(@Value("${management.tracing.baggage.tag-fields:}") List<String> campos) {
+        return new BaggageTaggingSpanProcessor(campos);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AtributosTrazaInterceptor(tracer, ATRIBUTOS_RUTA));
+    }
+}
@@ -56,6 +56,26 @@ public class ProductoController {
                 .body(productoService.traerTodo());
     }
 
+    // GET: Traer varios productos por sus IDs en una sola llamada
+    @GetMapping(params = "ids")
+    @Operation(
+            summary = "endpoint que devuelve varios productos por sus ids",
+            description = "endpoint que devuelve en una sola consulta los productos cuyos ids se indiquen " +
+                    "en el parametro ids; los ids inexistentes se omiten de la respuesta"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "obtencion por ids correcta")
+    })
+    @Parameters(value = {
+            @Parameter(name = "ids", description = "lista de ids de productos separados por coma", required = true)
+    })
+    public ResponseEntity<List<Producto>> traerPorIds(@RequestParam List<Long> ids) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(productoService.traerPorIds(ids));
+    }
+
     // GET: Traer producto por ID
     @GetMapping("/{id}")
     @Operation(
@@ -11,6 +11,8 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 @Profile("dev")
@@ -28,6 +30,7 @@ public class LoadDatabase implements CommandLineRunner {
         Faker faker = new Faker(Locale.of("es","CL"));
 
         if(productoRepository.count()==0){
+            List<Producto> productos = new ArrayList<>(1000);
             for(int i=0;i<1000;i++){
                 Producto producto = new Producto();
 
@@ -36,10 +39,11 @@ public class LoadDatabase implements CommandLineRunner {
                 producto.setPrecioProducto(faker.number().randomDouble(2, 10, 1000)); // Precio entre 10.00 y 1000.00
 
                 logger.info("El nombre que agregas es {}", producto.getNombreProducto());
-                producto = productoRepository.save(producto);
-                logger.info("EL producto creado es: {}", producto);
+                productos.add(producto);
 
             }
+            productoRepository.saveAll(productos);
+            logger.info("Se crearon {} productos en lotes", productos.size());
         }
 
     }
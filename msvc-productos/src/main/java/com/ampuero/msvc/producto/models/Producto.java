@@ -16,7 +16,8 @@ import lombok.*;
 @Schema(description = "Entidad que representa un producto")
 public class Producto {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_seq")
+    @SequenceGenerator(name = "productos_seq", sequenceName = "productos_seq", allocationSize = 50)
     @Column(name = "id_producto")
     @Schema(description = "primary key de producto", examples = "1")
     private Long idProducto;
@@ -2,12 +2,14 @@ package com.ampuero.msvc.producto.services;
 
 import com.ampuero.msvc.producto.models.Producto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductoService {
 
     List<Producto> traerTodo();
     Producto traerPorId(Long id);
+    List<Producto> traerPorIds(Collection<Long> ids);
     Producto crearProducto(Producto producto);
     Producto actualizarProducto(Long id, Producto producto);
     void eliminarProducto(Long id);
@@ -1,10 +1,15 @@
 package com.ampuero.msvc.producto.services;
 
+import com.ampuero.msvc.producto.clients.DetalleClient;
 import com.ampuero.msvc.producto.exceptions.ProductoException;
 import com.ampuero.msvc.producto.models.Producto;
 import com.ampuero.msvc.producto.repositories.ProductoRepository;
+import feign.FeignException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -26,6 +31,8 @@ import java.util.List;
 @Service
 public class ProductoServiceImpl implements ProductoService {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductoServiceImpl.class);
+
     /**
      * Repository para acceso a datos de productos.
      * Inyectado automáticamente por Spring IoC container.
@@ -34,6 +41,13 @@ public class ProductoServiceImpl implements ProductoService {
     @Autowired
     private ProductoRepository productoRepository;
 
+    /**
+     * Cliente hacia msvc-detalle, usado para invalidar su caché local de productos
+     * cuando un producto cambia.
+     */
+    @Autowired
+    private DetalleClient detalleClient;
+
     @Override
     public Producto crearProducto(Producto producto) {
         return productoRepository.save(producto);
@@ -60,19 +74,58 @@ public class ProductoServiceImpl implements ProductoService {
         );
     };
 
+    /**
+     * Obtiene en una sola consulta todos los productos cuyos IDs se indiquen.
+     *
+     * Los IDs inexistentes simplemente no aparecen en el resultado; es
+     * responsabilidad del consumidor detectar los faltantes.
+     */
+    @Override
+    public List<Producto> traerPorIds(Collection<Long> ids){
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return this.productoRepository.findAllById(ids);
+    };
+
+    /**
+     * {@inheritDoc}
+     *
+     * Se avisa a msvc-detalle para que invalide el producto en su caché local, que
+     * también guarda el nombre y la descripción.
+     */
     @Override
     public Producto actualizarProducto(Long id, Producto producto){
     return productoRepository.findById(id).map(m->{
         m.setNombreProducto(producto.getNombreProducto());
         m.setDescripcionProducto(producto.getDescripcionProducto());
         m.setPrecioProducto(producto.getPrecioProducto());
-        return productoRepository.save(m);
+        Producto actualizado = productoRepository.save(m);
+        invalidarCacheDetalle(id);
+        return actualizado;
         }).orElseThrow(()-> new ProductoException("El medico on el id"+id+"no existe "));
     };
+
+    // Invalida el producto en la caché de msvc-detalle. Es un aviso de mejor esfuerzo:
+    // si msvc-detalle no responde, la entrada expirará igualmente por TTL.
+    private void invalidarCacheDetalle(Long id) {
+        try {
+            detalleClient.invalidarProductoEnCache(id);
+        } catch (FeignException e) {
+            log.warn("No se pudo invalidar el producto {} en la caché de msvc-detalle: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Se invalida también en msvc-detalle para que no siga sirviendo el producto eliminado.
+     */
     @Override
     public void eliminarProducto(Long id) {
         if (productoRepository.existsById(id)) {
             productoRepository.deleteById(id);
+            invalidarCacheDetalle(id);
         }
     }
 
@@ -0,0 +1,104 @@
+package com.ampuero.msvc.producto.assemblers;
+
+import com.ampuero.msvc.producto.controllers.ProductoControllerV2;
+import com.ampuero.msvc.producto.dtos.ProductoResponseDTO;
+import com.ampuero.msvc.producto.models.Producto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+// El JSON HAL con enlaces de PlantillaEnlace debe ser idéntico al que se obtiene con linkTo(methodOn(...))
+public class ProductoModelAssemblerTest {
+
+    private static final ObjectMapper HAL = new ObjectMapper().findAndRegisterModules().registerModule(new Jackson2HalModule());
+
+    static {
+        HAL.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new AnnotationLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+    }
+
+    @AfterEach
+    public void limpiar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("toModel de producto entrega los mismos enlaces que linkTo(methodOn(...))")
+    public void enlacesIdenticosALinkTo() throws JsonProcessingException {
+        Producto producto = new Producto(12L, "Perfume", "Eau de parfum 100ml", 19990.0);
+
+        for (MockHttpServletRequest peticion : peticiones()) {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(peticion));
+
+            assertThat(HAL.writeValueAsString(new ProductoModelAssembler().toModel(producto)))
+                    .isEqualTo(HAL.writeValueAsString(EntityModel.of(producto,
+                            linkTo(methodOn(ProductoControllerV2.class).traerPorId(12L)).withSelfRel(),
+                            linkTo(methodOn(ProductoControllerV2.class).traerTodos()).withRel("productos"),
+                            linkTo(methodOn(ProductoControllerV2.class).actualizarProducto(12L, null)).withRel("update"),
+                            linkTo(methodOn(ProductoControllerV2.class).eliminarProducto(12L)).withRel("delete"),
+                            Link.of("http://localhost:8083/api/v2/detalles/producto/12").withRel("detalles-producto"),
+                            Link.of("http://localhost:8082/api/v1/productos/12").withRel("v1-api"))));
+        }
+    }
+
+    @Test
+    @DisplayName("toModel de ProductoResponseDTO mantiene los enlaces condicionales y coincide con linkTo(methodOn(...))")
+    public void enlacesCondicionalesIdenticosALinkTo() throws JsonProcessingException {
+        ProductoResponseDTO activo = new ProductoResponseDTO(12L, "Perfume", "Eau de parfum 100ml", 19990.0, null, null, true, 0);
+        ProductoResponseDTO inactivo = new ProductoResponseDTO(13L, "Colonia", "Colonia 50ml", 9990.0, null, null, false, null);
+
+        for (MockHttpServletRequest peticion : peticiones()) {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(peticion));
+            ProductoResponseDTOModelAssembler assembler = new ProductoResponseDTOModelAssembler();
+
+            assertThat(HAL.writeValueAsString(assembler.toModel(activo)))
+                    .isEqualTo(HAL.writeValueAsString(EntityModel.of(activo,
+                            linkTo(methodOn(ProductoControllerV2.class).traerPorId(12L)).withSelfRel(),
+                            linkTo(methodOn(ProductoControllerV2.class).traerTodos()).withRel("productos"),
+                            linkTo(methodOn(ProductoControllerV2.class).actualizarProducto(12L, null)).withRel("update"),
+                            Link.of("http://localhost:8083/api/v2/detalles/producto/12").withRel("detalles-producto"),
+                            Link.of("http://localhost:8082/api/v1/productos/12").withRel("v1-api"),
+                            linkTo(methodOn(ProductoControllerV2.class).eliminarProducto(12L)).withRel("delete"),
+                            Link.of("http://localhost:8084/api/v1/compras/producto/12").withRel("comprar"),
+                            Link.of("http://localhost:8085/api/v1/inventario/producto/12").withRel("inventario"),
+                            Link.of("http://localhost:8085/api/v1/restock/producto/12").withRel("restock"),
+                            Link.of("http://localhost:8086/api/v1/estadisticas/producto/12").withRel("estadisticas"))));
+            assertThat(HAL.writeValueAsString(assembler.toModel(inactivo)))
+                    .isEqualTo(HAL.writeValueAsString(EntityModel.of(inactivo,
+                            linkTo(methodOn(ProductoControllerV2.class).traerPorId(13L)).withSelfRel(),
+                            linkTo(methodOn(ProductoControllerV2.class).traerTodos()).withRel("productos"),
+                            linkTo(methodOn(ProductoControllerV2.class).actualizarProducto(13L, null)).withRel("update"),
+                            Link.of("http://localhost:8083/api/v2/detalles/producto/13").withRel("detalles-producto"),
+                            Link.of("http://localhost:8082/api/v1/productos/13").withRel("v1-api"),
+                            Link.of("http://localhost:8086/api/v1/estadisticas/producto/13").withRel("estadisticas"))));
+        }
+    }
+
+    private static List<MockHttpServletRequest> peticiones() {
+        MockHttpServletRequest local = new MockHttpServletRequest("GET", "/api/v2/productos");
+        local.setServerPort(8084);
+        MockHttpServletRequest publica = new MockHttpServletRequest("GET", "/tienda/api/v2/productos");
+        publica.setScheme("https");
+        publica.setServerName("perfulandia.cl");
+        publica.setServerPort(443);
+        publica.setContextPath("/tienda");
+        return List.of(local, publica);
+    }
+}
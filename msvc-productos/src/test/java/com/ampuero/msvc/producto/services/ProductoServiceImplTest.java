@@ -1,8 +1,10 @@
 package com.ampuero.msvc.producto.services;
 
+import com.ampuero.msvc.producto.clients.DetalleClient;
 import com.ampuero.msvc.producto.exceptions.ProductoException;
 import com.ampuero.msvc.producto.models.Producto;
 import com.ampuero.msvc.producto.repositories.ProductoRepository;
+import feign.FeignException;
 import net.datafaker.Faker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -27,6 +29,7 @@ import static org.mockito.Mockito.*;
  * - Crear producto (exitoso)
  * - Obtener todos los productos (exitoso y vacío)
  * - Obtener producto por ID (exitoso y no encontrado)
+ * - Obtener productos por lote de IDs (exitoso y vacío)
  * - Actualizar producto (exitoso y no encontrado)
  * - Eliminar producto (exitoso y no encontrado)
  */
@@ -39,6 +42,9 @@ public class ProductoServiceImplTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private DetalleClient detalleClient;
+
     @InjectMocks
     private ProductoServiceImpl productoService;
 
@@ -250,6 +256,35 @@ public class ProductoServiceImplTest {
         assertThat(resultado.get(2).getPrecioProducto()).isEqualTo(10000.0);
     }
 
+    // ================ TESTS PARA OBTENER POR IDS ================
+
+    @Test
+    @DisplayName("Debe obtener varios productos por sus IDs en una sola consulta")
+    void debeObtenerProductosPorIds() {
+        // Given
+        List<Long> ids = List.of(1L, 2L, 3L);
+        List<Producto> esperados = productoList.subList(0, 3);
+        when(productoRepository.findAllById(ids)).thenReturn(esperados);
+
+        // When
+        List<Producto> resultado = productoService.traerPorIds(ids);
+
+        // Then
+        assertThat(resultado).containsExactlyElementsOf(esperados);
+        verify(productoRepository, times(1)).findAllById(ids);
+    }
+
+    @Test
+    @DisplayName("Debe retornar lista vacía sin consultar cuando no se indican IDs")
+    void debeRetornarListaVaciaCuandoNoSeIndicanIds() {
+        // When
+        List<Producto> resultado = productoService.traerPorIds(List.of());
+
+        // Then
+        assertThat(resultado).isEmpty();
+        verify(productoRepository, never()).findAllById(any());
+    }
+
     // ================ TESTS PARA OBTENER POR ID ================
 
     @Test
@@ -324,6 +359,58 @@ public class ProductoServiceImplTest {
         verify(productoRepository, times(1)).save(any(Producto.class));
     }
 
+    @Test
+    @DisplayName("Debe invalidar la caché de detalle cuando cambia el precio")
+    void debeInvalidarCacheDetalleCuandoCambiaPrecio() {
+        // Given
+        productoPrueba.setPrecioProducto(100.0);
+        Producto datosActualizacion = crearProducto(1L, productoPrueba.getNombreProducto(), 150.0);
+
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(productoPrueba));
+        when(productoRepository.save(any(Producto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        productoService.actualizarProducto(1L, datosActualizacion);
+
+        // Then
+        verify(detalleClient, times(1)).invalidarProductoEnCache(1L);
+    }
+
+    @Test
+    @DisplayName("Debe invalidar la caché de detalle aunque solo cambie el nombre")
+    void debeInvalidarCacheDetalleSinCambioDePrecio() {
+        // Given
+        productoPrueba.setPrecioProducto(100.0);
+        Producto datosActualizacion = crearProducto(1L, "Otro Nombre", 100.0);
+
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(productoPrueba));
+        when(productoRepository.save(any(Producto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        productoService.actualizarProducto(1L, datosActualizacion);
+
+        // Then
+        verify(detalleClient, times(1)).invalidarProductoEnCache(1L);
+    }
+
+    @Test
+    @DisplayName("Debe actualizar el producto aunque falle la invalidación en detalle")
+    void debeActualizarAunqueFalleInvalidacion() {
+        // Given
+        productoPrueba.setPrecioProducto(100.0);
+        Producto datosActualizacion = crearProducto(1L, productoPrueba.getNombreProducto(), 150.0);
+
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(productoPrueba));
+        when(productoRepository.save(any(Producto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(mock(FeignException.class)).when(detalleClient).invalidarProductoEnCache(1L);
+
+        // When
+        Producto resultado = productoService.actualizarProducto(1L, datosActualizacion);
+
+        // Then
+        assertThat(resultado.getPrecioProducto()).isEqualTo(150.0);
+    }
+
     @Test
     @DisplayName("Debe lanzar ProductoException cuando producto no existe para actualizar")
     void debeLanzarExcepcionCuandoProductoNoExisteParaActualizar() {
@@ -424,6 +511,7 @@ public class ProductoServiceImplTest {
         // Then
         verify(productoRepository, times(1)).existsById(1L);
         verify(productoRepository, times(1)).deleteById(1L);
+        verify(detalleClient, times(1)).invalidarProductoEnCache(1L);
     }
 
     @Test
@@ -438,6 +526,7 @@ public class ProductoServiceImplTest {
         // Then
         verify(productoRepository, times(1)).existsById(999L);
         verify(productoRepository, never()).deleteById(999L);
+        verify(detalleClient, never()).invalidarProductoEnCache(anyLong());
     }
 
     @Test
@@ -0,0 +1,152 @@
+package com.ampuero.perfulandia.benchmarks;
+
+/**
+ * AssemblerBenchmark.java
+ *
+ * Descripción:
+ * Mide toModel de cada RepresentationModelAssembler de los cuatro microservicios: el costo por
+ * fila de envolver la entidad o DTO y armar sus enlaces HATEOAS.
+ *
+ * Funciones principales:
+ * - Un benchmark por assembler de detalle, boleta, producto y cliente.
+ * - Todas las mediciones ocurren dentro de una misma petición simulada, como las filas de un
+ *   listado: las plantillas de enlace quedan resueltas tras la primera invocación.
+ */
+
+import com.ampuero.msvc.boleta.assemblers.BoletaCompletaModelAssembler;
+import com.ampuero.msvc.boleta.assemblers.BoletaModelAssembler;
+import com.ampuero.msvc.boleta.assemblers.BoletaResponseDTOModelAssembler;
+import com.ampuero.msvc.boleta.dtos.BoletaCompletaDTO;
+import com.ampuero.msvc.boleta.dtos.BoletaResponseDTO;
+import com.ampuero.msvc.boleta.dtos.ClienteResponseDTO;
+import com.ampuero.msvc.boleta.models.DetallePojo;
+import com.ampuero.msvc.boleta.models.entities.Boleta;
+import com.ampuero.msvc.clientes.assemblers.ClienteModelAssembler;
+import com.ampuero.msvc.clientes.models.Cliente;
+import com.ampuero.msvc.detalle.assemblers.DetalleModelAssembler;
+import com.ampuero.msvc.detalle.assemblers.DetalleResponseDTOModelAssembler;
+import com.ampuero.msvc.detalle.assemblers.DetalleSimpleAssembler;
+import com.ampuero.msvc.detalle.dtos.DetalleResponseDTO;
+import com.ampuero.msvc.detalle.models.entities.Detalle;
+import com.ampuero.msvc.producto.assemblers.ProductoModelAssembler;
+import com.ampuero.msvc.producto.assemblers.ProductoResponseDTOModelAssembler;
+import com.ampuero.msvc.producto.dtos.ProductoResponseDTO;
+import com.ampuero.msvc.producto.models.Producto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AssemblerBenchmark {
+
+    private final DetalleResponseDTOModelAssembler detalleResponseAssembler = new DetalleResponseDTOModelAssembler();
+    private final DetalleModelAssembler detalleAssembler = new DetalleModelAssembler();
+    private final DetalleSimpleAssembler detalleSimpleAssembler = new DetalleSimpleAssembler();
+    private final BoletaResponseDTOModelAssembler boletaResponseAssembler = new BoletaResponseDTOModelAssembler();
+    private final BoletaCompletaModelAssembler boletaCompletaAssembler = new BoletaCompletaModelAssembler();
+    private final BoletaModelAssembler boletaAssembler = new BoletaModelAssembler();
+    private final ProductoModelAssembler productoAssembler = new ProductoModelAssembler();
+    private final ProductoResponseDTOModelAssembler productoResponseAssembler = new ProductoResponseDTOModelAssembler();
+    private final ClienteModelAssembler clienteAssembler = new ClienteModelAssembler();
+
+    private DetalleResponseDTO detalleResponse;
+    private Detalle detalle;
+    private BoletaResponseDTO boletaResponse;
+    private BoletaCompletaDTO boletaCompleta;
+    private Boleta boleta;
+    private Producto producto;
+    private ProductoResponseDTO productoResponse;
+    private Cliente cliente;
+
+    // Scope.Thread: JMH ejecuta @Setup en el mismo hilo que mide, que es donde debe quedar la petición
+    @Setup
+    public void preparar() {
+        DatosBenchmark.instalarPeticion();
+
+        detalleResponse = DatosBenchmark.detalleResponse(7);
+        detalle = DatosBenchmark.detalle(7);
+
+        ClienteResponseDTO clienteBoleta = new ClienteResponseDTO();
+        clienteBoleta.setIdUsuario(5L);
+        clienteBoleta.setNombreCliente("Cliente");
+        clienteBoleta.setCorreoCliente("cliente@correo.cl");
+        LocalDate fecha = LocalDate.of(2025, 6, 25);
+        boletaResponse = new BoletaResponseDTO(4L, fecha, 39800.0, "Boleta 4", clienteBoleta);
+        List<DetallePojo> detallesBoleta = List.of(detallePojo(1L), detallePojo(2L), detallePojo(3L));
+        boletaCompleta = new BoletaCompletaDTO(4L, fecha, 39800.0, "Boleta 4", clienteBoleta, detallesBoleta, false, List.of());
+        boleta = new Boleta(4L, fecha, 39800.0, "Boleta 4", 5L);
+
+        producto = new Producto(12L, "Perfume", "Eau de parfum 100ml", 19990.0);
+        productoResponse = new ProductoResponseDTO(12L, "Perfume", "Eau de parfum 100ml", 19990.0, null, null, true, 8);
+
+        cliente = new Cliente(5L, "Cliente", "Apellido", "cliente@correo.cl", "secreto", "Av. Siempre Viva 742", true);
+    }
+
+    @TearDown
+    public void limpiar() {
+        DatosBenchmark.quitarPeticion();
+    }
+
+    @Benchmark
+    public EntityModel<DetalleResponseDTO> detalleResponseDTOModelAssembler() {
+        return detalleResponseAssembler.toModel(detalleResponse);
+    }
+
+    @Benchmark
+    public EntityModel<Detalle> detalleModelAssembler() {
+        return detalleAssembler.toModel(detalle);
+    }
+
+    @Benchmark
+    public EntityModel<Detalle> detalleSimpleAssembler() {
+        return detalleSimpleAssembler.toModel(detalle);
+    }
+
+    @Benchmark
+    public EntityModel<BoletaResponseDTO> boletaResponseDTOModelAssembler() {
+        return boletaResponseAssembler.toModel(boletaResponse);
+    }
+
+    @Benchmark
+    public EntityModel<BoletaCompletaDTO> boletaCompletaModelAssembler() {
+        return boletaCompletaAssembler.toModel(boletaCompleta);
+    }
+
+    @Benchmark
+    public EntityModel<Boleta> boletaModelAssembler() {
+        return boletaAssembler.toModel(boleta);
+    }
+
+    @Benchmark
+    public EntityModel<Producto> productoModelAssembler() {
+        return productoAssembler.toModel(producto);
+    }
+
+    @Benchmark
+    public EntityModel<ProductoResponseDTO> productoResponseDTOModelAssembler() {
+        return productoResponseAssembler.toModel(productoResponse);
+    }
+
+    @Benchmark
+    public EntityModel<Cliente> clienteModelAssembler() {
+        return clienteAssembler.toModel(cliente);
+    }
+
+    private static DetallePojo detallePojo(Long idDetalle) {
+        DetallePojo detalle = new DetallePojo();
+        detalle.setIdDetalle(idDetalle);
+        detalle.setProducto(new com.ampuero.msvc.boleta.models.ProductoPojo(idDetalle, "Perfume", "Eau de parfum 100ml", 1990.0));
+        detalle.setCantidadDetalle(2);
+        detalle.setPrecioUnitarioDetalle(1990.0);
+        detalle.setSubtotalDetalle(3980.0);
+        return detalle;
+    }
+}
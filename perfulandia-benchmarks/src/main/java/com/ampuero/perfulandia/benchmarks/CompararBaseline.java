@@ -0,0 +1,123 @@
+package com.ampuero.perfulandia.benchmarks;
+
+/**
+ * CompararBaseline.java
+ *
+ * Descripción:
+ * Compara dos resultados JSON de JMH (línea base y ejecución actual) y termina con código 1 si
+ * algún benchmark empeoró más allá del umbral, para que CI pueda fallar ante una regresión.
+ *
+ * Funciones principales:
+ * - Empareja los benchmarks por nombre y parámetros (@Param).
+ * - Compara el puntaje principal según el modo: en thrpt empeora si baja, en el resto si sube.
+ * - Compara la asignación por operación (gc.alloc.rate.norm) cuando ambas ejecuciones la tienen.
+ * - Los benchmarks sin contraparte en la otra ejecución se informan pero no fallan.
+ *
+ * Uso: CompararBaseline baseline.json jmh-result.json [umbral %, por defecto 10]
+ */
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public final class CompararBaseline {
+
+    static final double UMBRAL_POR_DEFECTO = 0.10;
+    static final String ASIGNACION = "gc.alloc.rate.norm";
+    // Diferencias menores en bytes por operación son ruido (alineación de objetos, TLAB)
+    static final double ASIGNACION_MINIMA_BYTES = 16;
+
+    private CompararBaseline() {
+    }
+
+    record Comparacion(String benchmark, String metrica, String unidad, double base, double actual,
+                       double variacion, boolean regresion) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: CompararBaseline <baseline.json> <resultado.json> [umbral %]");
+            System.exit(2);
+        }
+        double umbral = args.length > 2 ? Double.parseDouble(args[2]) / 100 : UMBRAL_POR_DEFECTO;
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode base = mapper.readTree(new File(args[0]));
+        JsonNode actual = mapper.readTree(new File(args[1]));
+
+        List<Comparacion> comparaciones = comparar(base, actual, umbral);
+        int regresiones = 0;
+        for (Comparacion c : comparaciones) {
+            regresiones += c.regresion() ? 1 : 0;
+            System.out.printf("%-9s %-100s %-20s %14.3f -> %14.3f %-12s %+7.1f%%%n", c.regresion() ? "REGRESION" : "ok",
+                    c.benchmark(), c.metrica(), c.base(), c.actual(), c.unidad(), c.variacion() * 100);
+        }
+        sinContraparte(base, actual).forEach(clave -> System.out.println("solo en la línea base: " + clave));
+        sinContraparte(actual, base).forEach(clave -> System.out.println("nuevo (sin línea base): " + clave));
+
+        System.out.printf("%d comparaciones, %d regresiones (umbral %.0f%%)%n", comparaciones.size(), regresiones, umbral * 100);
+        if (regresiones > 0) {
+            System.exit(1);
+        }
+    }
+
+    static List<Comparacion> comparar(JsonNode base, JsonNode actual, double umbral) {
+        Map<String, JsonNode> resultadosBase = indexar(base);
+        List<Comparacion> comparaciones = new ArrayList<>();
+        for (JsonNode resultado : actual) {
+            String clave = clave(resultado);
+            JsonNode anterior = resultadosBase.get(clave);
+            if (anterior == null) {
+                continue;
+            }
+            boolean mayorEsMejor = "thrpt".equals(resultado.path("mode").asText());
+            comparaciones.add(comparar(clave, "score", anterior.path("primaryMetric"), resultado.path("primaryMetric"),
+                    mayorEsMejor, umbral, 0));
+
+            JsonNode asignacionBase = anterior.path("secondaryMetrics").path(ASIGNACION);
+            JsonNode asignacionActual = resultado.path("secondaryMetrics").path(ASIGNACION);
+            if (!asignacionBase.isMissingNode() && !asignacionActual.isMissingNode()) {
+                comparaciones.add(comparar(clave, ASIGNACION, asignacionBase, asignacionActual,
+                        false, umbral, ASIGNACION_MINIMA_BYTES));
+            }
+        }
+        return comparaciones;
+    }
+
+    private static Comparacion comparar(String clave, String metrica, JsonNode base, JsonNode actual,
+                                        boolean mayorEsMejor, double umbral, double diferenciaMinima) {
+        double puntajeBase = base.path("score").asDouble();
+        double puntajeActual = actual.path("score").asDouble();
+        double variacion = puntajeBase == 0 ? (puntajeActual == 0 ? 0 : Double.POSITIVE_INFINITY)
+                : (puntajeActual - puntajeBase) / puntajeBase;
+        boolean empeora = mayorEsMejor ? variacion < -umbral : variacion > umbral;
+        boolean regresion = empeora && Math.abs(puntajeActual - puntajeBase) >= diferenciaMinima;
+        return new Comparacion(clave, metrica, actual.path("scoreUnit").asText(), puntajeBase, puntajeActual, variacion, regresion);
+    }
+
+    private static List<String> sinContraparte(JsonNode resultados, JsonNode otros) {
+        Map<String, JsonNode> indiceOtros = indexar(otros);
+        return indexar(resultados).keySet().stream().filter(clave -> !indiceOtros.containsKey(clave)).toList();
+    }
+
+    private static Map<String, JsonNode> indexar(JsonNode resultados) {
+        Map<String, JsonNode> indice = new LinkedHashMap<>();
+        for (JsonNode resultado : resultados) {
+            indice.put(clave(resultado), resultado);
+        }
+        return indice;
+    }
+
+    // Nombre completo del benchmark más sus @Param ordenados, p. ej. "...collectionModelHal{detalles=1000}"
+    private static String clave(JsonNode resultado) {
+        Map<String, String> parametros = new TreeMap<>();
+        resultado.path("params").fields().forEachRemaining(p -> parametros.put(p.getKey(), p.getValue().asText()));
+        return resultado.path("benchmark").asText() + (parametros.isEmpty() ? "" : parametros.toString());
+    }
+}
@@ -0,0 +1,102 @@
+package com.ampuero.perfulandia.benchmarks;
+
+/**
+ * DatosBenchmark.java
+ *
+ * Descripción:
+ * Datos de entrada compartidos por los benchmarks: entidades y DTOs con valores realistas,
+ * la petición HTTP simulada que necesitan los enlaces HATEOAS y los ObjectMapper configurados
+ * como los de los microservicios.
+ *
+ * Funciones principales:
+ * - Construye detalles, boletas, productos y clientes de ejemplo a partir de un índice.
+ * - Instala una petición simulada en el hilo actual (los assemblers arman sus href desde ella).
+ * - Entrega el ObjectMapper JSON (fechas ISO, como Spring Boot) y el ObjectMapper HAL.
+ */
+
+import com.ampuero.msvc.detalle.dtos.BoletaEnDetalleDTO;
+import com.ampuero.msvc.detalle.dtos.ClienteEnBoletaDTO;
+import com.ampuero.msvc.detalle.dtos.DetalleResponseDTO;
+import com.ampuero.msvc.detalle.models.BoletaPojo;
+import com.ampuero.msvc.detalle.models.ClientePojo;
+import com.ampuero.msvc.detalle.models.ProductoPojo;
+import com.ampuero.msvc.detalle.models.entities.Detalle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.LinkRelationProvider;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.hateoas.server.core.DelegatingLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+final class DatosBenchmark {
+
+    private static final LocalDate FECHA = LocalDate.of(2025, 6, 25);
+
+    private DatosBenchmark() {
+    }
+
+    static Detalle detalle(long i) {
+        return new Detalle(i, i / 20 + 1, i % 50 + 1, 2, 1990.0, 3980.0);
+    }
+
+    static BoletaPojo boletaPojo(long idBoleta) {
+        return new BoletaPojo(idBoleta, FECHA, 39800.0, "Boleta " + idBoleta,
+                new ClientePojo(idBoleta % 30 + 1, "Cliente", "cliente@correo.cl"));
+    }
+
+    static ProductoPojo productoPojo(long idProducto) {
+        return new ProductoPojo(idProducto, "Perfume", "Eau de parfum 100ml", 1990.0);
+    }
+
+    static DetalleResponseDTO detalleResponse(long i) {
+        long idBoleta = i / 20 + 1;
+        BoletaEnDetalleDTO boleta = new BoletaEnDetalleDTO(idBoleta, FECHA, 39800.0, "Boleta " + idBoleta,
+                new ClienteEnBoletaDTO(idBoleta % 30 + 1, "Cliente", "cliente@correo.cl"));
+        return new DetalleResponseDTO(i, boleta, productoPojo(i % 50 + 1), 2, 1990.0, 3980.0, null);
+    }
+
+    static List<DetalleResponseDTO> detallesResponse(int cantidad) {
+        List<DetalleResponseDTO> detalles = new ArrayList<>(cantidad);
+        for (long i = 1; i <= cantidad; i++) {
+            detalles.add(detalleResponse(i));
+        }
+        return detalles;
+    }
+
+    // Los assemblers resuelven la base de sus enlaces desde la petición del hilo actual
+    static void instalarPeticion() {
+        MockHttpServletRequest peticion = new MockHttpServletRequest("GET", "/api/v2/detalles");
+        peticion.setServerPort(8083);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(peticion));
+    }
+
+    static void quitarPeticion() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    // Igual que el ObjectMapper de Spring Boot: módulos del classpath y fechas ISO-8601
+    static ObjectMapper mapperJson() {
+        return new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    // Mismos proveedores de relación que registra Spring HATEOAS: @Relation y, sin ella, "<tipo>List" en _embedded
+    static ObjectMapper mapperHal() {
+        ObjectMapper mapper = mapperJson().registerModule(new Jackson2HalModule());
+        LinkRelationProvider relaciones = new DelegatingLinkRelationProvider(
+                new AnnotationLinkRelationProvider(), new DefaultLinkRelationProvider());
+        mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                relaciones, CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        return mapper;
+    }
+}
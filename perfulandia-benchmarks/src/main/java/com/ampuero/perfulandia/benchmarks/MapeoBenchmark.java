@@ -0,0 +1,101 @@
+package com.ampuero.perfulandia.benchmarks;
+
+/**
+ * MapeoBenchmark.java
+ *
+ * Descripción:
+ * Mide el armado de los DTOs de respuesta que los servicios construyen por cada fila:
+ * DetalleServiceImpl.construirResponse y BoletaServiceImpl.buildResponseDTO.
+ *
+ * Funciones principales:
+ * - construirResponse con la BoletaPojo recibida por Feign (mapea también boleta y cliente).
+ * - construirResponse con una BoletaEnDetalleDTO ya armada y compartida entre filas (listados por boleta).
+ * - buildResponseDTO de una boleta con su cliente.
+ *
+ * Ambos métodos son privados: se invocan con MethodHandles constantes, que el JIT inlinea igual
+ * que una llamada directa, sobre instancias del servicio sin dependencias (el mapeo no las usa).
+ */
+
+import com.ampuero.msvc.boleta.dtos.BoletaResponseDTO;
+import com.ampuero.msvc.boleta.dtos.ClienteResponseDTO;
+import com.ampuero.msvc.boleta.models.entities.Boleta;
+import com.ampuero.msvc.boleta.services.BoletaServiceImpl;
+import com.ampuero.msvc.detalle.dtos.BoletaEnDetalleDTO;
+import com.ampuero.msvc.detalle.dtos.DetalleResponseDTO;
+import com.ampuero.msvc.detalle.models.BoletaPojo;
+import com.ampuero.msvc.detalle.models.ProductoPojo;
+import com.ampuero.msvc.detalle.models.entities.Detalle;
+import com.ampuero.msvc.detalle.services.DetalleServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapeoBenchmark {
+
+    private static final MethodHandle CONSTRUIR_RESPONSE = metodoPrivado(DetalleServiceImpl.class, "construirResponse",
+            MethodType.methodType(DetalleResponseDTO.class, Detalle.class, BoletaPojo.class, ProductoPojo.class));
+    private static final MethodHandle CONSTRUIR_RESPONSE_BOLETA_COMPARTIDA = metodoPrivado(DetalleServiceImpl.class, "construirResponse",
+            MethodType.methodType(DetalleResponseDTO.class, Detalle.class, BoletaEnDetalleDTO.class, ProductoPojo.class));
+    private static final MethodHandle BUILD_RESPONSE_DTO = metodoPrivado(BoletaServiceImpl.class, "buildResponseDTO",
+            MethodType.methodType(BoletaResponseDTO.class, Boleta.class, ClienteResponseDTO.class));
+
+    private DetalleServiceImpl detalleService;
+    private BoletaServiceImpl boletaService;
+
+    private Detalle detalle;
+    private BoletaPojo boletaPojo;
+    private BoletaEnDetalleDTO boletaEnDetalle;
+    private ProductoPojo producto;
+    private Boleta boleta;
+    private ClienteResponseDTO cliente;
+
+    @Setup
+    public void preparar() {
+        detalleService = new DetalleServiceImpl(null, null, null, null, null, null, null);
+        boletaService = new BoletaServiceImpl(null, null, null);
+
+        detalle = DatosBenchmark.detalle(7);
+        boletaPojo = DatosBenchmark.boletaPojo(detalle.getIdBoletaPojo());
+        boletaEnDetalle = DatosBenchmark.detalleResponse(7).getBoleta();
+        producto = DatosBenchmark.productoPojo(detalle.getIdProductoPojo());
+
+        boleta = new Boleta(4L, LocalDate.of(2025, 6, 25), 39800.0, "Boleta 4", 5L);
+        cliente = new ClienteResponseDTO();
+        cliente.setIdUsuario(5L);
+        cliente.setNombreCliente("Cliente");
+        cliente.setCorreoCliente("cliente@correo.cl");
+    }
+
+    @Benchmark
+    public DetalleResponseDTO construirResponse() throws Throwable {
+        return (DetalleResponseDTO) CONSTRUIR_RESPONSE.invokeExact(detalleService, detalle, boletaPojo, producto);
+    }
+
+    @Benchmark
+    public DetalleResponseDTO construirResponseBoletaCompartida() throws Throwable {
+        return (DetalleResponseDTO) CONSTRUIR_RESPONSE_BOLETA_COMPARTIDA.invokeExact(detalleService, detalle, boletaEnDetalle, producto);
+    }
+
+    @Benchmark
+    public BoletaResponseDTO buildResponseDTO() throws Throwable {
+        return (BoletaResponseDTO) BUILD_RESPONSE_DTO.invokeExact(boletaService, boleta, cliente);
+    }
+
+    private static MethodHandle metodoPrivado(Class<?> clase, String nombre, MethodType tipo) {
+        try {
+            return MethodHandles.privateLookupIn(clase, MethodHandles.lookup()).findVirtual(clase, nombre, tipo);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se encontró " + clase.getSimpleName() + "." + nombre + tipo, e);
+        }
+    }
+}
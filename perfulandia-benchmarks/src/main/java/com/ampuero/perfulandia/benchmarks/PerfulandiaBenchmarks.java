@@ -0,0 +1,62 @@
+package com.ampuero.perfulandia.benchmarks;
+
+/**
+ * PerfulandiaBenchmarks.java
+ *
+ * Descripción:
+ * Punto de entrada de target/benchmarks.jar. Acepta las mismas opciones que la línea de comandos
+ * de JMH y agrega los valores por defecto del proyecto.
+ *
+ * Funciones principales:
+ * - Activa siempre el perfilador GC (gc.alloc.rate y gc.alloc.rate.norm en bytes por operación).
+ * - Escribe los resultados en JSON (jmh-result.json, o el archivo indicado con -rff) para
+ *   compararlos contra una línea base con CompararBaseline.
+ *
+ * Uso:
+ * mvn -B -pl perfulandia-benchmarks -am package -DskipTests
+ * java -jar perfulandia-benchmarks/target/benchmarks.jar [filtro] [opciones JMH]
+ * java -cp perfulandia-benchmarks/target/benchmarks.jar com.ampuero.perfulandia.benchmarks.CompararBaseline \
+ *      baseline.json jmh-result.json [umbral %]
+ */
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+public final class PerfulandiaBenchmarks {
+
+    private PerfulandiaBenchmarks() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions lineaComandos = new CommandLineOptions(args);
+        if (lineaComandos.shouldHelp()) {
+            lineaComandos.showHelp();
+            return;
+        }
+
+        ChainedOptionsBuilder opciones = new OptionsBuilder().parent(lineaComandos);
+        boolean conGc = lineaComandos.getProfilers().stream()
+                .anyMatch(p -> p.getKlass().equals("gc") || p.getKlass().equals(GCProfiler.class.getName()));
+        if (!conGc) {
+            opciones.addProfiler(GCProfiler.class);
+        }
+        if (!lineaComandos.getResultFormat().hasValue()) {
+            opciones.resultFormat(ResultFormatType.JSON);
+        }
+
+        Runner runner = new Runner(opciones.build());
+        if (lineaComandos.shouldList()) {
+            runner.list();
+        } else {
+            runner.run();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ampuero.perfulandia.benchmarks;
+
+/**
+ * SerializacionBenchmark.java
+ *
+ * Descripción:
+ * Mide la serialización Jackson de las respuestas de msvc-detalle con 10, 1.000 y 100.000 detalles:
+ * la lista de DetalleResponseDTO de la API v1 y el CollectionModel HAL de la API v2.
+ *
+ * Funciones principales:
+ * - Arma los datos y el CollectionModel una sola vez por tamaño (fuera de la medición).
+ * - Escribe hacia un OutputStream que descarta los bytes, como el cuerpo de una respuesta:
+ *   se mide la generación del JSON sin la copia final a un byte[].
+ */
+
+import com.ampuero.msvc.detalle.assemblers.DetalleCollectionAssembler;
+import com.ampuero.msvc.detalle.assemblers.DetalleResponseDTOModelAssembler;
+import com.ampuero.msvc.detalle.dtos.DetalleResponseDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// Heap fijo: con 100.000 detalles el CollectionModel retenido supera el heap por defecto de equipos pequeños
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class SerializacionBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int detalles;
+
+    // Sin cerrar el destino al terminar, igual que los conversores HTTP de Spring
+    private final ObjectWriter json = DatosBenchmark.mapperJson().writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final ObjectWriter hal = DatosBenchmark.mapperHal().writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final OutputStream descarte = OutputStream.nullOutputStream();
+
+    private List<DetalleResponseDTO> lista;
+    private CollectionModel<EntityModel<DetalleResponseDTO>> coleccion;
+
+    @Setup
+    public void preparar() {
+        lista = DatosBenchmark.detallesResponse(detalles);
+        DatosBenchmark.instalarPeticion();
+        try {
+            coleccion = new DetalleCollectionAssembler(new DetalleResponseDTOModelAssembler()).toCollectionModel(lista);
+        } finally {
+            DatosBenchmark.quitarPeticion();
+        }
+    }
+
+    @Benchmark
+    public void listaDetalleResponseDTO() throws IOException {
+        json.writeValue(descarte, lista);
+    }
+
+    @Benchmark
+    public void collectionModelHal() throws IOException {
+        hal.writeValue(descarte, coleccion);
+    }
+}
@@ -0,0 +1,52 @@
+package com.ampuero.perfulandia.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class CompararBaselineTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    @DisplayName("Detecta regresiones de tiempo y de asignación por encima del umbral, respetando el modo y los @Param")
+    public void detectaRegresiones() throws Exception {
+        JsonNode base = MAPPER.readTree("[" +
+                resultado("a.Mapeo.construirResponse", "avgt", null, 100.0, 200.0) + "," +
+                resultado("a.Serializacion.hal", "avgt", "1000", 50.0, 1000.0) + "," +
+                resultado("a.Serializacion.hal", "avgt", "10", 5.0, 100.0) + "," +
+                resultado("a.Assembler.toModel", "thrpt", null, 1000.0, 300.0) + "]");
+        JsonNode actual = MAPPER.readTree("[" +
+                // +5 % de tiempo: dentro del umbral
+                resultado("a.Mapeo.construirResponse", "avgt", null, 105.0, 200.0) + "," +
+                // +20 % de tiempo con 1000 detalles: regresión solo en ese tamaño
+                resultado("a.Serializacion.hal", "avgt", "1000", 60.0, 1000.0) + "," +
+                // +50 % de asignación pero solo 8 bytes: ruido
+                resultado("a.Serializacion.hal", "avgt", "10", 5.0, 108.0) + "," +
+                // En thrpt subir es mejorar, y la asignación creció
+                resultado("a.Assembler.toModel", "thrpt", null, 2000.0, 400.0) + "," +
+                resultado("a.Nuevo.benchmark", "avgt", null, 1.0, 1.0) + "]");
+
+        List<CompararBaseline.Comparacion> comparaciones = CompararBaseline.comparar(base, actual, 0.10);
+
+        assertThat(comparaciones).hasSize(8);
+        assertThat(comparaciones).filteredOn(CompararBaseline.Comparacion::regresion)
+                .extracting(CompararBaseline.Comparacion::benchmark, CompararBaseline.Comparacion::metrica)
+                .containsExactlyInAnyOrder(
+                        tuple("a.Serializacion.hal{detalles=1000}", "score"),
+                        tuple("a.Assembler.toModel", CompararBaseline.ASIGNACION));
+    }
+
+    private static String resultado(String benchmark, String modo, String detalles, double puntaje, double bytesPorOperacion) {
+        String params = detalles == null ? "" : "\"params\":{\"detalles\":\"" + detalles + "\"},";
+        return "{\"benchmark\":\"" + benchmark + "\",\"mode\":\"" + modo + "\"," + params +
+                "\"primaryMetric\":{\"score\":" + puntaje + ",\"scoreUnit\":\"ns/op\"}," +
+                "\"secondaryMetrics\":{\"" + CompararBaseline.ASIGNACION + "\":{\"score\":" + bytesPorOperacion + ",\"scoreUnit\":\"B/op\"}}}";
+    }
+}
@@ -0,0 +1,109 @@
+package com.ampuero.perfulandia.carga;
+
+/**
+ * ClienteHttpCarga.java
+ *
+ * Descripción:
+ * Cliente HTTP de la prueba (java.net.http, HTTP/1.1) que registra la latencia de cada llamada
+ * en RegistroLatencias con el nombre del endpoint (ruta con {variables}, no la URL concreta).
+ *
+ * Funciones principales:
+ * - GET, POST con cuerpo JSON y POST de formulario; devuelve el cuerpo ya leído como JsonNode.
+ * - Una respuesta que no es 2xx o un error de red cuenta como error del endpoint y se lanza
+ *   como ErrorCarga para abortar el escenario.
+ */
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+public class ClienteHttpCarga {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final RegistroLatencias latencias;
+
+    public ClienteHttpCarga(RegistroLatencias latencias) {
+        this.latencias = latencias;
+    }
+
+    public JsonNode get(String endpoint, String url) {
+        return enviar(endpoint, HttpRequest.newBuilder(URI.create(url)).GET());
+    }
+
+    public JsonNode post(String endpoint, String url, Object cuerpo) {
+        try {
+            return enviar(endpoint, HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(cuerpo))));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cuerpo no serializable para " + endpoint, e);
+        }
+    }
+
+    /**
+     * POST con los datos como parámetros de formulario (application/x-www-form-urlencoded).
+     */
+    public JsonNode postFormulario(String endpoint, String url, Map<String, ?> parametros) {
+        String formulario = parametros.entrySet().stream()
+                .map(parametro -> URLEncoder.encode(parametro.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(String.valueOf(parametro.getValue()), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return enviar(endpoint, HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formulario)));
+    }
+
+    private JsonNode enviar(String endpoint, HttpRequest.Builder peticion) {
+        HttpRequest request = peticion.timeout(TIMEOUT).header("Accept", "application/json, application/hal+json").build();
+        long inicio = System.nanoTime();
+        HttpResponse<byte[]> respuesta;
+        try {
+            respuesta = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            latencias.registrar(endpoint, System.nanoTime() - inicio, false);
+            throw new ErrorCarga(endpoint + " falló: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ErrorCarga(endpoint + " interrumpido", e);
+        }
+        boolean exitosa = respuesta.statusCode() / 100 == 2;
+        latencias.registrar(endpoint, System.nanoTime() - inicio, exitosa);
+        if (!exitosa) {
+            throw new ErrorCarga(endpoint + " respondió " + respuesta.statusCode() + ": " + new String(respuesta.body()));
+        }
+        try {
+            return respuesta.body().length == 0 ? mapper.missingNode() : mapper.readTree(respuesta.body());
+        } catch (IOException e) {
+            throw new ErrorCarga(endpoint + " devolvió un cuerpo que no es JSON", e);
+        }
+    }
+
+    public static class ErrorCarga extends RuntimeException {
+        public ErrorCarga(String mensaje) {
+            super(mensaje);
+        }
+
+        public ErrorCarga(String mensaje, Throwable causa) {
+            super(mensaje, causa);
+        }
+    }
+}
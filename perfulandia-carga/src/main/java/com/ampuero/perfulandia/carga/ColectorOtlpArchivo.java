@@ -0,0 +1,221 @@
+package com.ampuero.perfulandia.carga;
+
+/**
+ * ColectorOtlpArchivo.java
+ *
+ * Descripción:
+ * Reemplazo local del colector de OpenTelemetry: recibe las trazas que exportan los servicios por
+ * OTLP/HTTP (POST /v1/traces, protobuf) y escribe cada span como una línea JSON en un archivo.
+ *
+ * Funciones principales:
+ * - Una línea por span con traceId, spanId, parentSpanId, servicio (service.name del recurso),
+ *   nombre, tipo, inicio, duración y atributos (idBoleta, idProducto, idDetalle, etc.).
+ * - leer(archivo) devuelve los spans escritos, para las pruebas.
+ * - Como programa escucha en el puerto del perfil "trazas" de los servicios (4318) hasta que se detiene.
+ *
+ * Uso:
+ * mvn -B -pl perfulandia-carga exec:java -Dexec.mainClass=com.ampuero.perfulandia.carga.ColectorOtlpArchivo \
+ *     [-Dcolector.puerto=4318 -Dcolector.archivo=target/trazas.jsonl]
+ */
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceResponse;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.ScopeSpans;
+import io.opentelemetry.proto.trace.v1.Span;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+public class ColectorOtlpArchivo implements AutoCloseable {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ColectorOtlpArchivo.class);
+
+    public static final String RUTA_TRAZAS = "/v1/traces";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HexFormat HEX = HexFormat.of();
+
+    public record SpanRecibido(
+            String traceId,
+            String spanId,
+            String parentSpanId,
+            String servicio,
+            String nombre,
+            String tipo,
+            long inicioEpochNanos,
+            long duracionMicros,
+            Map<String, String> atributos) {
+    }
+
+    private final HttpServer servidor;
+    private final Path archivo;
+    private final BufferedWriter salida;
+    private final AtomicLong spansRecibidos = new AtomicLong();
+
+    private ColectorOtlpArchivo(HttpServer servidor, Path archivo, BufferedWriter salida) {
+        this.servidor = servidor;
+        this.archivo = archivo;
+        this.salida = salida;
+    }
+
+    /**
+     * @param puerto Puerto en localhost; 0 para uno libre (ver endpoint()).
+     * @param archivo Archivo de salida; se reemplaza si existe.
+     */
+    public static ColectorOtlpArchivo iniciar(int puerto, Path archivo) throws IOException {
+        if (archivo.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(archivo.toAbsolutePath().getParent());
+        }
+        BufferedWriter salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("localhost", puerto), 0);
+        ColectorOtlpArchivo colector = new ColectorOtlpArchivo(servidor, archivo, salida);
+        servidor.createContext(RUTA_TRAZAS, colector::recibir);
+        servidor.start();
+        return colector;
+    }
+
+    /**
+     * URL para management.otlp.tracing.endpoint.
+     */
+    public String endpoint() {
+        return "http://localhost:" + servidor.getAddress().getPort() + RUTA_TRAZAS;
+    }
+
+    public Path archivo() {
+        return archivo;
+    }
+
+    public long spansRecibidos() {
+        return spansRecibidos.get();
+    }
+
+    public static List<SpanRecibido> leer(Path archivo) throws IOException {
+        List<SpanRecibido> spans = new ArrayList<>();
+        for (String linea : Files.readAllLines(archivo, StandardCharsets.UTF_8)) {
+            if (!linea.isBlank()) {
+                spans.add(MAPPER.readValue(linea, SpanRecibido.class));
+            }
+        }
+        return spans;
+    }
+
+    private void recibir(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            if (!"POST".equals(intercambio.getRequestMethod())) {
+                intercambio.sendResponseHeaders(405, -1);
+                return;
+            }
+            // El exportador de OpenTelemetry envía protobuf; el cuerpo viene en gzip con management.otlp.tracing.compression=gzip
+            ExportTraceServiceRequest exportacion;
+            try (InputStream cuerpo = "gzip".equalsIgnoreCase(intercambio.getRequestHeaders().getFirst("Content-Encoding"))
+                    ? new GZIPInputStream(intercambio.getRequestBody())
+                    : intercambio.getRequestBody()) {
+                exportacion = ExportTraceServiceRequest.parseFrom(cuerpo);
+            } catch (InvalidProtocolBufferException e) {
+                log.warn("Exportación OTLP no válida: {}", e.getMessage());
+                intercambio.sendResponseHeaders(400, -1);
+                return;
+            }
+            escribir(exportacion);
+
+            byte[] respuesta = ExportTraceServiceResponse.getDefaultInstance().toByteArray();
+            intercambio.getResponseHeaders().set("Content-Type", "application/x-protobuf");
+            if (respuesta.length == 0) {
+                intercambio.sendResponseHeaders(200, -1);
+                return;
+            }
+            intercambio.sendResponseHeaders(200, respuesta.length);
+            intercambio.getResponseBody().write(respuesta);
+        }
+    }
+
+    private synchronized void escribir(ExportTraceServiceRequest exportacion) throws IOException {
+        for (ResourceSpans recurso : exportacion.getResourceSpansList()) {
+            String servicio = atributos(recurso.getResource().getAttributesList()).getOrDefault("service.name", "desconocido");
+            for (ScopeSpans alcance : recurso.getScopeSpansList()) {
+                for (Span span : alcance.getSpansList()) {
+                    SpanRecibido recibido = new SpanRecibido(
+                            hex(span.getTraceId()),
+                            hex(span.getSpanId()),
+                            span.getParentSpanId().isEmpty() ? null : hex(span.getParentSpanId()),
+                            servicio,
+                            span.getName(),
+                            span.getKind().name().replace("SPAN_KIND_", ""),
+                            span.getStartTimeUnixNano(),
+                            (span.getEndTimeUnixNano() - span.getStartTimeUnixNano()) / 1000,
+                            atributos(span.getAttributesList()));
+                    salida.write(MAPPER.writeValueAsString(recibido));
+                    salida.newLine();
+                    spansRecibidos.incrementAndGet();
+                }
+            }
+        }
+        salida.flush();
+    }
+
+    private static Map<String, String> atributos(List<KeyValue> atributos) {
+        Map<String, String> mapa = new LinkedHashMap<>();
+        for (KeyValue atributo : atributos) {
+            mapa.put(atributo.getKey(), texto(atributo.getValue()));
+        }
+        return mapa;
+    }
+
+    private static String texto(AnyValue valor) {
+        return switch (valor.getValueCase()) {
+            case STRING_VALUE -> valor.getStringValue();
+            case BOOL_VALUE -> String.valueOf(valor.getBoolValue());
+            case INT_VALUE -> String.valueOf(valor.getIntValue());
+            case DOUBLE_VALUE -> String.valueOf(valor.getDoubleValue());
+            default -> valor.toString().strip();
+        };
+    }
+
+    private static String hex(ByteString bytes) {
+        return HEX.formatHex(bytes.toByteArray());
+    }
+
+    @Override
+    public void close() throws IOException {
+        servidor.stop(0);
+        synchronized (this) {
+            salida.close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ColectorOtlpArchivo colector = iniciar(Integer.getInteger("colector.puerto", 4318),
+                Path.of(System.getProperty("colector.archivo", "target/trazas.jsonl")));
+        log.info("Colector OTLP en {}, spans en {}", colector.endpoint(), colector.archivo().toAbsolutePath());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                colector.close();
+            } catch (IOException e) {
+                log.warn("No se pudo cerrar {}: {}", colector.archivo(), e.getMessage());
+            }
+        }));
+        Thread.currentThread().join();
+    }
+}
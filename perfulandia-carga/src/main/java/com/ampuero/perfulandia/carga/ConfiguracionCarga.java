@@ -0,0 +1,50 @@
+package com.ampuero.perfulandia.carga;
+
+/**
+ * ConfiguracionCarga.java
+ *
+ * Descripción:
+ * Parámetros de una ejecución de la prueba de carga, leídos de propiedades del sistema
+ * (-Dcarga.tasa=50, etc.) con valores por defecto pensados para un equipo de desarrollo.
+ *
+ * Propiedades:
+ * - carga.tasa: escenarios de compra iniciados por segundo (modelo abierto).
+ * - carga.duracion-segundos / carga.calentamiento-segundos: medición y calentamiento previo
+ *   (el calentamiento no entra en los resultados).
+ * - carga.detalles: detalles agregados a cada boleta.
+ * - carga.clientes / carga.productos: datos creados antes de empezar.
+ * - carga.max-en-curso: escenarios simultáneos permitidos; los que excedan se descartan y se informan.
+ * - carga.p99-maximo-ms: p99 máximo del escenario completo; 0 para no exigirlo.
+ * - carga.resultado: archivo JSON con el resultado (junto a él se escribe el .hgrm de latencias).
+ * - carga.trazas: si se indica, archivo donde ColectorOtlpArchivo escribe los spans de la ejecución;
+ *   sin ella los servicios no exportan trazas.
+ */
+
+import java.nio.file.Path;
+
+public record ConfiguracionCarga(
+        double tasa,
+        int duracionSegundos,
+        int calentamientoSegundos,
+        int detallesPorBoleta,
+        int clientes,
+        int productos,
+        int maxEnCurso,
+        double p99MaximoMs,
+        Path resultado,
+        Path trazas) {
+
+    public static ConfiguracionCarga desdePropiedades() {
+        return new ConfiguracionCarga(
+                Double.parseDouble(System.getProperty("carga.tasa", "20")),
+                Integer.getInteger("carga.duracion-segundos", 30),
+                Integer.getInteger("carga.calentamiento-segundos", 10),
+                Integer.getInteger("carga.detalles", 5),
+                Integer.getInteger("carga.clientes", 50),
+                Integer.getInteger("carga.productos", 100),
+                Integer.getInteger("carga.max-en-curso", 500),
+                Double.parseDouble(System.getProperty("carga.p99-maximo-ms", "0")),
+                Path.of(System.getProperty("carga.resultado", "target/carga-resultado.json")),
+                System.getProperty("carga.trazas") != null ? Path.of(System.getProperty("carga.trazas")) : null);
+    }
+}
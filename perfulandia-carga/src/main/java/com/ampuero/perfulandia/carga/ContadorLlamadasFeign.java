@@ -0,0 +1,46 @@
+package com.ampuero.perfulandia.carga;
+
+/**
+ * ContadorLlamadasFeign.java
+ *
+ * Descripción:
+ * Cuenta las llamadas Feign que cada servicio hace a los demás, por método del cliente
+ * (p. ej. "msvc-detalle BoletaClient#getBoletaById(Long)").
+ *
+ * Funciones principales:
+ * - Entrega un RequestInterceptor por servicio; Spring Cloud OpenFeign lo aplica a todos los
+ *   @FeignClient del contexto. Se ejecuta una vez por invocación del método (los reintentos y
+ *   copias de cobertura de ClienteFeignReintentos ocurren más abajo, en el transporte).
+ * - Permite reiniciar los contadores al terminar el calentamiento.
+ */
+
+import feign.RequestInterceptor;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ContadorLlamadasFeign {
+
+    private final Map<String, LongAdder> llamadas = new ConcurrentHashMap<>();
+
+    public RequestInterceptor interceptor(String servicio) {
+        return plantilla -> {
+            String metodo = plantilla.methodMetadata() != null
+                    ? plantilla.methodMetadata().configKey()
+                    : plantilla.method() + " " + plantilla.url();
+            llamadas.computeIfAbsent(servicio + " " + metodo, clave -> new LongAdder()).increment();
+        };
+    }
+
+    public Map<String, Long> llamadas() {
+        Map<String, Long> copia = new TreeMap<>();
+        llamadas.forEach((clave, contador) -> copia.put(clave, contador.sum()));
+        return copia;
+    }
+
+    public void reiniciar() {
+        llamadas.values().forEach(LongAdder::reset);
+    }
+}
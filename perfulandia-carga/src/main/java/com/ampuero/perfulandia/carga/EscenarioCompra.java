@@ -0,0 +1,63 @@
+package com.ampuero.perfulandia.carga;
+
+/**
+ * EscenarioCompra.java
+ *
+ * Descripción:
+ * Una compra completa contra los servicios levantados: crear la boleta de un cliente, agregarle
+ * N detalles de productos al azar (uno por petición, como un carrito) y leer el comprobante
+ * con GET /api/v2/boletas/{id}/completa.
+ *
+ * Funciones principales:
+ * - Cada llamada queda registrada por endpoint en RegistroLatencias (a través de ClienteHttpCarga).
+ * - El comprobante debe traer los N detalles y no venir marcado como parcial; si no, el
+ *   escenario falla aunque todas las respuestas hayan sido 2xx.
+ */
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class EscenarioCompra {
+
+    public static final String CREAR_BOLETA = "POST /api/v1/boletas";
+    public static final String AGREGAR_DETALLE = "POST /api/v1/detalles";
+    public static final String LEER_COMPROBANTE = "GET /api/v2/boletas/{id}/completa";
+
+    private final ClienteHttpCarga http;
+    private final List<Long> clientes;
+    private final List<Long> productos;
+    private final int detallesPorBoleta;
+
+    public EscenarioCompra(ClienteHttpCarga http, List<Long> clientes, List<Long> productos, int detallesPorBoleta) {
+        this.http = http;
+        this.clientes = clientes;
+        this.productos = productos;
+        this.detallesPorBoleta = detallesPorBoleta;
+    }
+
+    public void ejecutar() {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        Long idCliente = clientes.get(azar.nextInt(clientes.size()));
+
+        JsonNode boleta = http.post(CREAR_BOLETA, ServiciosEnMemoria.URL_BOLETAS + "/api/v1/boletas",
+                Map.of("descripcion_boleta", "Compra de carga", "id_cliente", idCliente));
+        long idBoleta = boleta.path("id_boleta").asLong();
+
+        for (int i = 0; i < detallesPorBoleta; i++) {
+            http.post(AGREGAR_DETALLE, ServiciosEnMemoria.URL_DETALLES + "/api/v1/detalles", Map.of(
+                    "idBoletaPojo", idBoleta,
+                    "idProductoPojo", productos.get(azar.nextInt(productos.size())),
+                    "cantidadDetalle", azar.nextInt(1, 4)));
+        }
+
+        JsonNode comprobante = http.get(LEER_COMPROBANTE, ServiciosEnMemoria.URL_BOLETAS + "/api/v2/boletas/" + idBoleta + "/completa");
+        if (comprobante.path("parcial").asBoolean() || comprobante.path("detalles").size() != detallesPorBoleta) {
+            throw new ClienteHttpCarga.ErrorCarga("Comprobante incompleto de la boleta " + idBoleta + ": "
+                    + comprobante.path("detalles").size() + " de " + detallesPorBoleta + " detalles, parcial="
+                    + comprobante.path("parcial").asBoolean());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ampuero.perfulandia.carga;
+
+/**
+ * GeneradorCarga.java
+ *
+ * Descripción:
+ * Inicia escenarios a una tasa fija (modelo abierto): el escenario i tiene su inicio previsto en
+ * i / tasa segundos y se lanza en un hilo virtual propio, sin esperar a que terminen los anteriores.
+ *
+ * Funciones principales:
+ * - La latencia de cada escenario se mide desde su inicio previsto, no desde que realmente
+ *   arrancó: si el generador o el sistema se atrasan, la espera cuenta (corrección de la
+ *   omisión coordinada).
+ * - Limita los escenarios simultáneos a maxEnCurso; los que no caben se descartan y se cuentan,
+ *   para que un sistema saturado no agote la memoria del generador.
+ */
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class GeneradorCarga {
+
+    public static final String ESCENARIO = "escenario compra";
+
+    private final RegistroLatencias latencias;
+    private final Runnable escenario;
+    private final int maxEnCurso;
+
+    private final LongAdder completados = new LongAdder();
+    private final LongAdder fallidos = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private volatile Throwable primerFallo;
+
+    public GeneradorCarga(RegistroLatencias latencias, Runnable escenario, int maxEnCurso) {
+        this.latencias = latencias;
+        this.escenario = escenario;
+        this.maxEnCurso = maxEnCurso;
+    }
+
+    /**
+     * Inicia escenarios a la tasa indicada durante el tiempo indicado y espera a que terminen
+     * los que quedaron en curso.
+     *
+     * @param tasa     Escenarios por segundo.
+     * @param duracion Tiempo durante el que se inician escenarios.
+     * @return Segundos transcurridos hasta terminar el último escenario.
+     */
+    public double ejecutar(double tasa, Duration duracion) throws InterruptedException {
+        long intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / tasa);
+        long total = (long) (tasa * duracion.toNanos() / TimeUnit.SECONDS.toNanos(1));
+        Semaphore enCurso = new Semaphore(maxEnCurso);
+
+        long inicio = System.nanoTime();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long inicioPrevisto = inicio + i * intervalo;
+                long espera = inicioPrevisto - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                if (!enCurso.tryAcquire()) {
+                    descartados.increment();
+                    continue;
+                }
+                hilos.execute(() -> {
+                    try {
+                        ejecutarEscenario(inicioPrevisto);
+                    } finally {
+                        enCurso.release();
+                    }
+                });
+            }
+        } // close() espera a los escenarios en curso
+        return (System.nanoTime() - inicio) / 1_000_000_000.0;
+    }
+
+    private void ejecutarEscenario(long inicioPrevisto) {
+        boolean exitoso = false;
+        try {
+            escenario.run();
+            exitoso = true;
+        } catch (RuntimeException e) {
+            if (primerFallo == null) {
+                primerFallo = e;
+            }
+        } finally {
+            latencias.registrar(ESCENARIO, System.nanoTime() - inicioPrevisto, exitoso);
+            (exitoso ? completados : fallidos).increment();
+        }
+    }
+
+    public long completados() {
+        return completados.sum();
+    }
+
+    public long fallidos() {
+        return fallidos.sum();
+    }
+
+    public long descartados() {
+        return descartados.sum();
+    }
+
+    // Primer error observado, para mostrar la causa cuando hay escenarios fallidos
+    public Throwable primerFallo() {
+        return primerFallo;
+    }
+
+    public void reiniciar() {
+        completados.reset();
+        fallidos.reset();
+        descartados.reset();
+        primerFallo = null;
+    }
+}
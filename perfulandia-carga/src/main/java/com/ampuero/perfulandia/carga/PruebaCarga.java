@@ -0,0 +1,110 @@
+package com.ampuero.perfulandia.carga;
+
+/**
+ * PruebaCarga.java
+ *
+ * Descripción:
+ * Prueba de carga de extremo a extremo: levanta los cuatro microservicios en esta JVM, crea
+ * clientes y productos, y ejecuta compras (EscenarioCompra) a la tasa configurada.
+ *
+ * Funciones principales:
+ * - Calentamiento a la misma tasa, descartado de los resultados (histogramas, contadores Feign).
+ * - Medición, resultado en JSON + .hgrm (ConfiguracionCarga.resultado) y resumen en el log.
+ * - Con ConfiguracionCarga.trazas, los spans de los cuatro servicios quedan en ese archivo
+ *   (ColectorOtlpArchivo), incluidos los del calentamiento.
+ * - Como programa termina con código 1 si no se cumplen los umbrales de ResultadoCarga.
+ *
+ * Uso:
+ * mvn -B -pl perfulandia-carga -am test -Dtest=PruebaCargaTest -Dsurefire.failIfNoSpecifiedTests=false \
+ *     -Dbenchmark=true -Dcarga.tasa=20 -Dcarga.duracion-segundos=60
+ */
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public final class PruebaCarga {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(PruebaCarga.class);
+
+    private static final String CREAR_CLIENTE = "POST /api/v1/clientes";
+    private static final String CREAR_PRODUCTO = "POST /api/v1/productos";
+
+    private PruebaCarga() {
+    }
+
+    public static ResultadoCarga ejecutar(ConfiguracionCarga configuracion) throws InterruptedException, IOException {
+        ContadorLlamadasFeign contadorFeign = new ContadorLlamadasFeign();
+        RegistroLatencias latencias = new RegistroLatencias();
+
+        // El colector se cierra después de los servicios, que al detenerse exportan los últimos spans
+        try (ColectorOtlpArchivo colector = configuracion.trazas() != null ? ColectorOtlpArchivo.iniciar(0, configuracion.trazas()) : null;
+             ServiciosEnMemoria servicios = ServiciosEnMemoria.iniciar(contadorFeign, colector != null ? colector.endpoint() : null)) {
+            ClienteHttpCarga http = new ClienteHttpCarga(latencias);
+            List<Long> clientes = crearClientes(http, configuracion.clientes());
+            List<Long> productos = crearProductos(http, configuracion.productos());
+            EscenarioCompra escenario = new EscenarioCompra(http, clientes, productos, configuracion.detallesPorBoleta());
+            GeneradorCarga generador = new GeneradorCarga(latencias, escenario::ejecutar, configuracion.maxEnCurso());
+
+            if (configuracion.calentamientoSegundos() > 0) {
+                log.info("Calentamiento: {} escenarios/s durante {} s", configuracion.tasa(), configuracion.calentamientoSegundos());
+                generador.ejecutar(configuracion.tasa(), Duration.ofSeconds(configuracion.calentamientoSegundos()));
+            }
+            latencias.reiniciar();
+            contadorFeign.reiniciar();
+            generador.reiniciar();
+
+            log.info("Medición: {} escenarios/s durante {} s con {} detalles por boleta", configuracion.tasa(),
+                    configuracion.duracionSegundos(), configuracion.detallesPorBoleta());
+            double segundos = generador.ejecutar(configuracion.tasa(), Duration.ofSeconds(configuracion.duracionSegundos()));
+            if (generador.primerFallo() != null) {
+                log.warn("Primer escenario fallido: {}", generador.primerFallo().getMessage());
+            }
+
+            // Antes de detener los servicios: al cerrar, msvc-detalle vacía sus totales pendientes con más llamadas Feign
+            Map<String, Histogram> histogramas = latencias.histogramas();
+            ResultadoCarga resultado = ResultadoCarga.de(configuracion, segundos, generador, histogramas, latencias,
+                    contadorFeign.llamadas());
+            resultado.escribir(configuracion.resultado(), histogramas);
+            log.info("Resultado en {}:{}{}", configuracion.resultado().toAbsolutePath(), System.lineSeparator(), resultado.resumen());
+            return resultado;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ResultadoCarga resultado = ejecutar(ConfiguracionCarga.desdePropiedades());
+        List<String> incumplidos = resultado.verificarUmbrales();
+        incumplidos.forEach(incumplido -> log.error("Umbral no cumplido: {}", incumplido));
+        System.exit(incumplidos.isEmpty() ? 0 : 1);
+    }
+
+    static List<Long> crearClientes(ClienteHttpCarga http, int cantidad) {
+        List<Long> ids = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            ids.add(http.post(CREAR_CLIENTE, ServiciosEnMemoria.URL_CLIENTES + "/api/v1/clientes", Map.of(
+                    "nombreCliente", "Cliente " + i,
+                    "apellidoCliente", "Carga",
+                    "correoCliente", "cliente" + i + "@carga.cl",
+                    "contraseniaCliente", "clave-carga-" + i,
+                    "direccionEnvioCliente", "Calle " + i)).path("idUsuario").asLong());
+        }
+        return ids;
+    }
+
+    // ProductoController.crearProducto importa el @RequestBody de swagger, no el de Spring: el
+    // producto se enlaza desde parámetros de formulario y un cuerpo JSON llega con todo en null
+    static List<Long> crearProductos(ClienteHttpCarga http, int cantidad) {
+        List<Long> ids = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            ids.add(http.postFormulario(CREAR_PRODUCTO, ServiciosEnMemoria.URL_PRODUCTOS + "/api/v1/productos", Map.of(
+                    "nombreProducto", "Perfume " + i,
+                    "descripcionProducto", "Eau de parfum 100ml",
+                    "precioProducto", 1990.0 + i * 10)).path("idProducto").asLong());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,55 @@
+package com.ampuero.perfulandia.carga;
+
+/**
+ * RegistroLatencias.java
+ *
+ * Descripción:
+ * Latencias por endpoint en histogramas HdrHistogram (microsegundos, 3 dígitos significativos,
+ * hasta 60 s), más la cantidad de errores de cada uno.
+ *
+ * Funciones principales:
+ * - Registro concurrente desde los hilos virtuales de la carga.
+ * - Reinicio al terminar el calentamiento.
+ * - Copia de cada histograma para el reporte.
+ */
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RegistroLatencias {
+
+    private static final long MAXIMO_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Map<String, Histogram> histogramas = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errores = new ConcurrentHashMap<>();
+
+    public void registrar(String endpoint, long nanos, boolean exitosa) {
+        histogramas.computeIfAbsent(endpoint, clave -> new ConcurrentHistogram(MAXIMO_MICROS, 3))
+                .recordValue(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 1), MAXIMO_MICROS));
+        if (!exitosa) {
+            errores.computeIfAbsent(endpoint, clave -> new LongAdder()).increment();
+        }
+    }
+
+    public Map<String, Histogram> histogramas() {
+        Map<String, Histogram> copia = new TreeMap<>();
+        histogramas.forEach((endpoint, histograma) -> copia.put(endpoint, histograma.copy()));
+        return copia;
+    }
+
+    public long errores(String endpoint) {
+        LongAdder contador = errores.get(endpoint);
+        return contador == null ? 0 : contador.sum();
+    }
+
+    public void reiniciar() {
+        histogramas.values().forEach(Histogram::reset);
+        errores.values().forEach(LongAdder::reset);
+    }
+}
@@ -0,0 +1,133 @@
+package com.ampuero.perfulandia.carga;
+
+/**
+ * ResultadoCarga.java
+ *
+ * Descripción:
+ * Resultado de una ejecución de la prueba de carga y umbrales que la convierten en una barrera
+ * de regresión.
+ *
+ * Funciones principales:
+ * - Percentiles por endpoint (y del escenario completo), errores, escenarios por segundo y
+ *   llamadas Feign entre servicios.
+ * - Resumen en texto, JSON para comparar entre ejecuciones y distribución completa de
+ *   percentiles de HdrHistogram (.hgrm) por endpoint.
+ * - verificarUmbrales: sin escenarios fallidos ni descartados, al menos el 90 % de la tasa
+ *   pedida y, si se configuró, p99 del escenario bajo el máximo.
+ */
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public record ResultadoCarga(
+        double tasaPedida,
+        double segundos,
+        long completados,
+        long fallidos,
+        long descartados,
+        double p99MaximoMs,
+        Map<String, LatenciaEndpoint> endpoints,
+        Map<String, Long> llamadasFeign) {
+
+    // Parte de la tasa pedida que debe lograrse; el resto cubre la cola de escenarios al terminar
+    static final double TOLERANCIA_TASA = 0.9;
+
+    public record LatenciaEndpoint(long llamadas, long errores, double p50Ms, double p90Ms, double p99Ms,
+                                   double p999Ms, double maxMs) {
+
+        static LatenciaEndpoint de(Histogram histograma, long errores) {
+            return new LatenciaEndpoint(histograma.getTotalCount(), errores,
+                    ms(histograma.getValueAtPercentile(50)), ms(histograma.getValueAtPercentile(90)),
+                    ms(histograma.getValueAtPercentile(99)), ms(histograma.getValueAtPercentile(99.9)),
+                    ms(histograma.getMaxValue()));
+        }
+
+        private static double ms(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    static ResultadoCarga de(ConfiguracionCarga configuracion, double segundos, GeneradorCarga generador,
+                             Map<String, Histogram> histogramas, RegistroLatencias latencias,
+                             Map<String, Long> llamadasFeign) {
+        Map<String, LatenciaEndpoint> endpoints = new LinkedHashMap<>();
+        histogramas.forEach((endpoint, histograma) -> {
+            // Los endpoints usados solo al preparar los datos quedan vacíos tras reiniciar el registro
+            if (histograma.getTotalCount() > 0 || latencias.errores(endpoint) > 0) {
+                endpoints.put(endpoint, LatenciaEndpoint.de(histograma, latencias.errores(endpoint)));
+            }
+        });
+        return new ResultadoCarga(configuracion.tasa(), segundos, generador.completados(), generador.fallidos(),
+                generador.descartados(), configuracion.p99MaximoMs(), endpoints, llamadasFeign);
+    }
+
+    @JsonProperty
+    public double escenariosPorSegundo() {
+        return segundos == 0 ? 0 : completados / segundos;
+    }
+
+    /**
+     * @return Umbrales no cumplidos; vacía si la ejecución pasa la barrera.
+     */
+    public List<String> verificarUmbrales() {
+        List<String> incumplidos = new ArrayList<>();
+        if (fallidos > 0) {
+            incumplidos.add(fallidos + " escenarios fallidos");
+        }
+        if (descartados > 0) {
+            incumplidos.add(descartados + " escenarios descartados por exceso de escenarios en curso");
+        }
+        if (escenariosPorSegundo() < tasaPedida * TOLERANCIA_TASA) {
+            incumplidos.add(String.format("%.1f escenarios/s, menos del %.0f%% de %.1f pedidos",
+                    escenariosPorSegundo(), TOLERANCIA_TASA * 100, tasaPedida));
+        }
+        LatenciaEndpoint escenario = endpoints.get(GeneradorCarga.ESCENARIO);
+        if (p99MaximoMs > 0 && escenario != null && escenario.p99Ms() > p99MaximoMs) {
+            incumplidos.add(String.format("p99 del escenario %.1f ms, sobre el máximo de %.1f ms", escenario.p99Ms(), p99MaximoMs));
+        }
+        return incumplidos;
+    }
+
+    public String resumen() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format("Escenarios: %d completados, %d fallidos, %d descartados en %.1f s -> %.1f/s (pedidos %.1f/s)%n",
+                completados, fallidos, descartados, segundos, escenariosPorSegundo(), tasaPedida));
+        texto.append(String.format("%-36s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "llamadas", "errores", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        endpoints.forEach((endpoint, l) -> texto.append(String.format("%-36s %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint, l.llamadas(), l.errores(), l.p50Ms(), l.p90Ms(), l.p99Ms(), l.p999Ms(), l.maxMs())));
+        texto.append("Llamadas Feign:").append(System.lineSeparator());
+        llamadasFeign.forEach((metodo, llamadas) -> texto.append(String.format("  %-70s %9d%n", metodo, llamadas)));
+        return texto.toString();
+    }
+
+    /**
+     * Escribe el resultado en JSON y, junto a él, la distribución de percentiles de cada endpoint.
+     */
+    public void escribir(Path archivo, Map<String, Histogram> histogramas) throws IOException {
+        if (archivo.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(archivo.toAbsolutePath().getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(archivo.toFile(), this);
+
+        Path hgrm = archivo.resolveSibling(archivo.getFileName().toString().replaceFirst("\\.json$", "") + ".hgrm");
+        try (PrintStream salida = new PrintStream(Files.newOutputStream(hgrm))) {
+            histogramas.forEach((endpoint, histograma) -> {
+                salida.println("# " + endpoint + " (ms)");
+                histograma.outputPercentileDistribution(salida, 1000.0);
+                salida.println();
+            });
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.ampuero.perfulandia.carga;
+
+/**
+ * ServiciosEnMemoria.java
+ *
+ * Descripción:
+ * Levanta msvc-cliente (8085), msvc-productos (8084), msvc-boleta (8081) y msvc-detalle (8083)
+ * en la JVM actual, cada uno en su propio contexto de Spring, con H2 en memoria. Los clientes
+ * Feign de los servicios apuntan a esos puertos fijos, por lo que deben estar libres.
+ *
+ * Funciones principales:
+ * - Cada servicio arranca con el application.properties de su propio jar (en el classpath hay
+ *   cuatro y solo uno sería visible) más los ajustes de la prueba: base de datos en memoria,
+ *   perfil "carga" (sin cargas de datos de ejemplo), sin conciliación programada y logs en WARN.
+ * - Registra en cada contexto el interceptor de ContadorLlamadasFeign.
+ * - Las trazas se muestrean como en application.properties (su costo entra en la medición) y se
+ *   exportan solo si se indica un colector, p. ej. ColectorOtlpArchivo; en ese caso se muestrea todo.
+ * - Al cerrar detiene los servicios en orden inverso: msvc-detalle primero, para que vacíe sus
+ *   totales diferidos mientras msvc-boleta sigue disponible.
+ */
+
+import com.ampuero.msvc.boleta.MsvcBoletaApplication;
+import com.ampuero.msvc.clientes.MsvcClientesApplication;
+import com.ampuero.msvc.detalle.MsvcDetalleApplication;
+import com.ampuero.msvc.producto.MsvcProductoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+public class ServiciosEnMemoria implements AutoCloseable {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ServiciosEnMemoria.class);
+
+    public static final String URL_CLIENTES = "http://localhost:8085";
+    public static final String URL_PRODUCTOS = "http://localhost:8084";
+    public static final String URL_BOLETAS = "http://localhost:8081";
+    public static final String URL_DETALLES = "http://localhost:8083";
+
+    private final List<ConfigurableApplicationContext> contextos = new ArrayList<>();
+
+    private ServiciosEnMemoria() {
+    }
+
+    public static ServiciosEnMemoria iniciar(ContadorLlamadasFeign contadorFeign) {
+        return iniciar(contadorFeign, null);
+    }
+
+    /**
+     * @param endpointTrazas management.otlp.tracing.endpoint de los cuatro servicios; null para no exportar las trazas.
+     */
+    public static ServiciosEnMemoria iniciar(ContadorLlamadasFeign contadorFeign, String endpointTrazas) {
+        ServiciosEnMemoria servicios = new ServiciosEnMemoria();
+        try {
+            servicios.iniciar(MsvcClientesApplication.class, "msvc_clientes_carga", contadorFeign, endpointTrazas);
+            servicios.iniciar(MsvcProductoApplication.class, "msvc_productos_carga", contadorFeign, endpointTrazas);
+            servicios.iniciar(MsvcBoletaApplication.class, "msvc_boleta_carga", contadorFeign, endpointTrazas);
+            servicios.iniciar(MsvcDetalleApplication.class, "msvc_detalle_carga", contadorFeign, endpointTrazas);
+        } catch (RuntimeException e) {
+            servicios.close();
+            throw e;
+        }
+        return servicios;
+    }
+
+    private void iniciar(Class<?> aplicacion, String baseDatos, ContadorLlamadasFeign contadorFeign, String endpointTrazas) {
+        long inicio = System.nanoTime();
+        Map<String, String> propiedades = propiedadesDelJar(aplicacion);
+        propiedades.putAll(ajustesCarga(baseDatos, endpointTrazas));
+        String servicio = propiedades.get("spring.application.name");
+
+        // Como argumentos de línea de comandos: tienen prioridad sobre cualquier application.properties del classpath
+        String[] argumentos = propiedades.entrySet().stream()
+                .map(propiedad -> "--" + propiedad.getKey() + "=" + propiedad.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(aplicacion)
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("contadorLlamadasFeign",
+                        contadorFeign.interceptor(servicio)))
+                .run(argumentos);
+        contextos.add(contexto);
+        log.info("{} iniciado en el puerto {} en {} ms", servicio, propiedades.get("server.port"),
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private static Map<String, String> ajustesCarga(String baseDatos, String endpointTrazas) {
+        Map<String, String> ajustes = new LinkedHashMap<>();
+        // Nombre sin archivo: ningún application.properties del classpath se carga por su cuenta
+        ajustes.put("spring.config.name", "perfulandia-carga");
+        ajustes.put("spring.profiles.active", "carga");
+        ajustes.put("spring.main.banner-mode", "off");
+        ajustes.put("spring.datasource.url", "jdbc:h2:mem:" + baseDatos + ";DB_CLOSE_DELAY=-1");
+        ajustes.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        ajustes.put("spring.datasource.username", "sa");
+        ajustes.put("spring.datasource.password", "");
+        ajustes.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        ajustes.put("spring.jpa.show-sql", "false");
+        ajustes.put("boleta.conciliacion.habilitada", "false");
+        if (endpointTrazas != null) {
+            ajustes.put("management.otlp.tracing.endpoint", endpointTrazas);
+            ajustes.put("management.tracing.sampling.probability", "1.0");
+        }
+        ajustes.put("logging.level.root", "WARN");
+        ajustes.put("logging.level.com.ampuero.perfulandia.carga", "INFO");
+        return ajustes;
+    }
+
+    // application.properties del jar (o directorio de clases) donde está la clase principal del servicio
+    private static Map<String, String> propiedadesDelJar(Class<?> aplicacion) {
+        try {
+            URL ubicacion = aplicacion.getProtectionDomain().getCodeSource().getLocation();
+            Resource recurso = ubicacion.getPath().endsWith(".jar")
+                    ? new UrlResource("jar:" + ubicacion + "!/application.properties")
+                    : new UrlResource(new URL(ubicacion, "application.properties"));
+            Properties propiedades = PropertiesLoaderUtils.loadProperties(recurso);
+            Map<String, String> mapa = new LinkedHashMap<>();
+            propiedades.stringPropertyNames().forEach(nombre -> mapa.put(nombre, propiedades.getProperty(nombre)));
+            return mapa;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer application.properties de " + aplicacion.getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (int i = contextos.size() - 1; i >= 0; i--) {
+            contextos.get(i).close();
+        }
+        contextos.clear();
+    }
+}
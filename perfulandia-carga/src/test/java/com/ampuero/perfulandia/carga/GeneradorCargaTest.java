@@ -0,0 +1,68 @@
+package com.ampuero.perfulandia.carga;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GeneradorCargaTest {
+
+    @Test
+    @DisplayName("Inicia tasa x duración escenarios y mide cada uno desde su inicio previsto")
+    public void iniciaEscenariosALaTasaPedida() throws Exception {
+        RegistroLatencias latencias = new RegistroLatencias();
+        GeneradorCarga generador = new GeneradorCarga(latencias, () -> dormir(20), 100);
+
+        generador.ejecutar(100, Duration.ofMillis(500));
+
+        assertThat(generador.completados()).isEqualTo(50);
+        assertThat(generador.fallidos()).isZero();
+        Histogram escenario = latencias.histogramas().get(GeneradorCarga.ESCENARIO);
+        assertThat(escenario.getTotalCount()).isEqualTo(50);
+        assertThat(escenario.getMinValue()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toMicros(20));
+    }
+
+    @Test
+    @DisplayName("Con el sistema saturado descarta los escenarios que exceden el máximo en curso")
+    public void descartaSobreElMaximoEnCurso() throws Exception {
+        RegistroLatencias latencias = new RegistroLatencias();
+        GeneradorCarga generador = new GeneradorCarga(latencias, () -> dormir(300), 5);
+
+        generador.ejecutar(100, Duration.ofMillis(200));
+
+        assertThat(generador.completados()).isEqualTo(5);
+        assertThat(generador.descartados()).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName("Un escenario que lanza excepción cuenta como fallido y como error del escenario")
+    public void cuentaEscenariosFallidos() throws Exception {
+        RegistroLatencias latencias = new RegistroLatencias();
+        AtomicInteger ejecutados = new AtomicInteger();
+        GeneradorCarga generador = new GeneradorCarga(latencias, () -> {
+            if (ejecutados.incrementAndGet() % 2 == 0) {
+                throw new ClienteHttpCarga.ErrorCarga("falla simulada");
+            }
+        }, 10);
+
+        generador.ejecutar(50, Duration.ofMillis(200));
+
+        assertThat(generador.completados()).isEqualTo(5);
+        assertThat(generador.fallidos()).isEqualTo(5);
+        assertThat(latencias.errores(GeneradorCarga.ESCENARIO)).isEqualTo(5);
+        assertThat(generador.primerFallo()).hasMessage("falla simulada");
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
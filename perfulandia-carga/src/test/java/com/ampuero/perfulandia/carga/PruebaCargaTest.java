@@ -0,0 +1,32 @@
+package com.ampuero.perfulandia.carga;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Barrera de regresión de throughput: compras de extremo a extremo contra los cuatro servicios
+ * levantados en esta JVM (puertos 8081, 8083, 8084 y 8085 libres).
+ *
+ * No corre con el build normal; se ejecuta con:
+ * mvn test -pl perfulandia-carga -am -Dtest=PruebaCargaTest -Dsurefire.failIfNoSpecifiedTests=false -Dbenchmark=true
+ *     [-Dcarga.tasa=20 -Dcarga.duracion-segundos=30 -Dcarga.detalles=5 -Dcarga.p99-maximo-ms=500]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PruebaCargaTest {
+
+    @Test
+    @DisplayName("Las compras sostienen la tasa pedida sin errores y registran latencias y llamadas Feign")
+    public void comprasALaTasaPedida() throws Exception {
+        ResultadoCarga resultado = PruebaCarga.ejecutar(ConfiguracionCarga.desdePropiedades());
+
+        assertThat(resultado.endpoints()).containsKeys(GeneradorCarga.ESCENARIO, EscenarioCompra.CREAR_BOLETA,
+                EscenarioCompra.AGREGAR_DETALLE, EscenarioCompra.LEER_COMPROBANTE);
+        assertThat(resultado.llamadasFeign()).containsKeys(
+                "msvc-boleta ClienteClientRest#findClienteById(Long)",
+                "msvc-detalle BoletaClient#getBoletaById(Long)");
+        assertThat(resultado.verificarUmbrales()).isEmpty();
+    }
+}
@@ -0,0 +1,88 @@
+package com.ampuero.perfulandia.carga;
+
+import com.ampuero.perfulandia.carga.ColectorOtlpArchivo.SpanRecibido;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Trazas de extremo a extremo: los cuatro servicios levantados en esta JVM exportan por OTLP a
+ * ColectorOtlpArchivo, que las escribe en un archivo. Como PruebaCargaTest, necesita los puertos
+ * 8081, 8083, 8084 y 8085 libres y solo corre con -Dbenchmark=true:
+ * mvn test -pl perfulandia-carga -am -Dtest=TrazasDistribuidasTest -Dsurefire.failIfNoSpecifiedTests=false -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TrazasDistribuidasTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Crear un detalle deja una sola traza que cruza a msvc-boletas y msvc-productos, con spans JDBC e ids como atributos")
+    public void trazaCruzaLosSaltosFeign() throws Exception {
+        Path archivo = directorio.resolve("trazas.jsonl");
+        long idBoleta;
+        long idProducto;
+        long idDetalle;
+        // Al cerrar los servicios se exportan los spans pendientes; el colector se cierra al final
+        try (ColectorOtlpArchivo colector = ColectorOtlpArchivo.iniciar(0, archivo);
+             ServiciosEnMemoria ignored = ServiciosEnMemoria.iniciar(new ContadorLlamadasFeign(), colector.endpoint())) {
+            ClienteHttpCarga http = new ClienteHttpCarga(new RegistroLatencias());
+            long idCliente = PruebaCarga.crearClientes(http, 1).get(0);
+            idProducto = PruebaCarga.crearProductos(http, 1).get(0);
+            idBoleta = http.post(EscenarioCompra.CREAR_BOLETA, ServiciosEnMemoria.URL_BOLETAS + "/api/v1/boletas",
+                    Map.of("descripcion_boleta", "Compra trazada", "id_cliente", idCliente)).path("id_boleta").asLong();
+            idDetalle = http.post(EscenarioCompra.AGREGAR_DETALLE, ServiciosEnMemoria.URL_DETALLES + "/api/v1/detalles", Map.of(
+                    "idBoletaPojo", idBoleta,
+                    "idProductoPojo", idProducto,
+                    "cantidadDetalle", 2)).path("idDetalle").asLong();
+            http.get("GET /api/v2/detalles/{idDetalle}", ServiciosEnMemoria.URL_DETALLES + "/api/v2/detalles/" + idDetalle);
+        }
+        List<SpanRecibido> spans = ColectorOtlpArchivo.leer(archivo);
+
+        SpanRecibido crearDetalle = unico(spans, span -> span.servicio().equals("msvc-detalle")
+                && span.tipo().equals("SERVER") && span.nombre().equals("http post /api/v1/detalles"));
+        assertThat(crearDetalle.atributos())
+                .containsEntry("idBoleta", String.valueOf(idBoleta))
+                .containsEntry("idProducto", String.valueOf(idProducto));
+        List<SpanRecibido> traza = spans.stream().filter(span -> span.traceId().equals(crearDetalle.traceId())).toList();
+
+        // Cada salto Feign es un span de cliente en msvc-detalle y el span de servidor del otro lado es su hijo
+        SpanRecibido getBoleta = unico(traza, span -> span.tipo().equals("CLIENT")
+                && "getBoletaById".equals(span.atributos().get("metodo")));
+        SpanRecibido servidorBoleta = unico(traza, span -> span.servicio().equals("msvc-boleta")
+                && span.tipo().equals("SERVER") && getBoleta.spanId().equals(span.parentSpanId()));
+        assertThat(servidorBoleta.atributos()).containsEntry("idBoleta", String.valueOf(idBoleta));
+
+        SpanRecibido getProducto = unico(traza, span -> span.tipo().equals("CLIENT")
+                && "getProductoById".equals(span.atributos().get("metodo")));
+        SpanRecibido servidorProducto = unico(traza, span -> span.servicio().equals("msvc-productos")
+                && span.tipo().equals("SERVER") && getProducto.spanId().equals(span.parentSpanId()));
+        assertThat(servidorProducto.atributos()).containsEntry("idProducto", String.valueOf(idProducto));
+
+        // Las consultas JDBC de cada servicio quedan en la misma traza y heredan los ids del baggage
+        assertThat(traza).filteredOn(span -> span.nombre().equals("query"))
+                .extracting(SpanRecibido::servicio)
+                .contains("msvc-detalle", "msvc-boleta", "msvc-productos");
+        assertThat(traza).filteredOn(span -> span.nombre().equals("query") && span.servicio().equals("msvc-detalle"))
+                .allSatisfy(span -> assertThat(span.atributos()).containsEntry("idBoleta", String.valueOf(idBoleta)));
+
+        SpanRecibido leerDetalle = unico(spans, span -> span.servicio().equals("msvc-detalle")
+                && span.tipo().equals("SERVER") && span.nombre().equals("http get /api/v2/detalles/{idDetalle}"));
+        assertThat(leerDetalle.atributos()).containsEntry("idDetalle", String.valueOf(idDetalle));
+    }
+
+    private static SpanRecibido unico(List<SpanRecibido> spans, Predicate<SpanRecibido> condicion) {
+        List<SpanRecibido> encontrados = spans.stream().filter(condicion).toList();
+        assertThat(encontrados).hasSize(1);
+        return encontrados.get(0);
+    }
+}